@@ -0,0 +1,95 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.couchbase.lite.CouchbaseLite;
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.DatabaseConfiguration;
+import com.couchbase.lite.LogLevel;
+import com.couchbase.lite.MutableDocument;
+
+
+/**
+ * Shared setup for the benchmarks.
+ * Each benchmark opens its databases in a private, temporary directory.
+ */
+final class BenchmarkSupport {
+    private BenchmarkSupport() { }
+
+    private static File rootDir;
+
+    static synchronized File getRootDir() throws IOException {
+        if (rootDir == null) {
+            rootDir = Files.createTempDirectory("cbl-jmh").toFile();
+            CouchbaseLite.init(rootDir);
+            Database.log.getConsole().setLevel(LogLevel.WARNING);
+        }
+        return rootDir;
+    }
+
+    static Database openDatabase(String name) throws IOException, CouchbaseLiteException {
+        final DatabaseConfiguration config = new DatabaseConfiguration();
+        config.setDirectory(new File(getRootDir(), name).getCanonicalPath());
+        return new Database(name, config);
+    }
+
+    static void deleteDatabase(Database db) throws CouchbaseLiteException {
+        if (db != null) { db.delete(); }
+    }
+
+    /**
+     * Create document properties: a mix of strings, numbers, booleans and a nested dictionary.
+     *
+     * @param size the number of top level properties
+     * @param seed seed for the values
+     * @return the properties
+     */
+    static Map<String, Object> createProperties(int size, long seed) {
+        final Random rnd = new Random(seed);
+        final Map<String, Object> props = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+                case 0:
+                    props.put("str" + i, "value-" + rnd.nextInt());
+                    break;
+                case 1:
+                    props.put("num" + i, rnd.nextLong());
+                    break;
+                case 2:
+                    props.put("bool" + i, rnd.nextBoolean());
+                    break;
+                default:
+                    final Map<String, Object> nested = new HashMap<>();
+                    nested.put("a", rnd.nextDouble());
+                    nested.put("b", "nested-" + i);
+                    props.put("dict" + i, nested);
+            }
+        }
+        return props;
+    }
+
+    static MutableDocument createDocument(String id, int size, long seed) {
+        return new MutableDocument(id, createProperties(size, seed));
+    }
+}
@@ -0,0 +1,93 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.couchbase.lite.Blob;
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.Document;
+import com.couchbase.lite.MutableDocument;
+
+
+/**
+ * Writing and reading blobs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobBenchmark {
+    /**
+     * The size of the blob, in bytes.
+     */
+    @Param({"1024", "65536", "1048576"})
+    public int blobSize;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private Database db;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CouchbaseLiteException {
+        db = BenchmarkSupport.openDatabase("blob-" + blobSize);
+
+        content = new byte[blobSize];
+        new Random(0).nextBytes(content);
+
+        final MutableDocument doc = new MutableDocument("doc");
+        doc.setBlob("blob", new Blob("application/octet-stream", content));
+        db.save(doc);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws CouchbaseLiteException { BenchmarkSupport.deleteDatabase(db); }
+
+    @Benchmark
+    public void write() throws CouchbaseLiteException {
+        final MutableDocument doc = new MutableDocument("blob-" + nextId.getAndIncrement());
+        doc.setBlob("blob", new Blob("application/octet-stream", content));
+        db.save(doc);
+    }
+
+    @Benchmark
+    public byte[] read() {
+        // Get a new copy of the document, each time, so that the content is not cached.
+        final Document doc = db.getDocument("doc");
+        return doc.getBlob("blob").getContent();
+    }
+}
@@ -0,0 +1,102 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.Document;
+
+
+/**
+ * Document CRUD: save, inBatch and getDocument.
+ * Run with -t (or -PjmhThreads) to measure contention between threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+    private static final int PRELOADED_DOCS = 1000;
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * The number of top level properties in each document.
+     */
+    @Param({"10", "100", "1000"})
+    public int docSize;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private Database db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CouchbaseLiteException {
+        db = BenchmarkSupport.openDatabase("database-" + docSize);
+        db.inBatch(() -> {
+            for (int i = 0; i < PRELOADED_DOCS; i++) {
+                try { db.save(BenchmarkSupport.createDocument("doc-" + i, docSize, i)); }
+                catch (CouchbaseLiteException e) { throw new IllegalStateException("Failed preloading docs", e); }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws CouchbaseLiteException { BenchmarkSupport.deleteDatabase(db); }
+
+    @Benchmark
+    public void save() throws CouchbaseLiteException {
+        final int id = nextId.getAndIncrement();
+        db.save(BenchmarkSupport.createDocument("new-" + id, docSize, id));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void inBatch() throws CouchbaseLiteException {
+        final int first = nextId.getAndAdd(BATCH_SIZE);
+        db.inBatch(() -> {
+            for (int i = first; i < first + BATCH_SIZE; i++) {
+                try { db.save(BenchmarkSupport.createDocument("batch-" + i, docSize, i)); }
+                catch (CouchbaseLiteException e) { throw new IllegalStateException("Failed saving doc", e); }
+            }
+        });
+    }
+
+    @Benchmark
+    public Document getDocument() {
+        return db.getDocument("doc-" + ThreadLocalRandom.current().nextInt(PRELOADED_DOCS));
+    }
+}
@@ -0,0 +1,104 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.Dictionary;
+import com.couchbase.lite.DictionaryKey;
+import com.couchbase.lite.Document;
+
+
+/**
+ * Reading properties from a saved document.
+ * The document is shared: run with -t (or -PjmhThreads) to measure concurrent reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryBenchmark {
+    private static final DictionaryKey STR_KEY = new DictionaryKey("str0");
+
+    /**
+     * The number of top level properties in the document.
+     */
+    @Param({"10", "100", "1000"})
+    public int docSize;
+
+    private Database db;
+    private Document doc;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CouchbaseLiteException {
+        db = BenchmarkSupport.openDatabase("dictionary-" + docSize);
+        db.save(BenchmarkSupport.createDocument("doc", docSize, 0));
+        doc = db.getDocument("doc");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws CouchbaseLiteException { BenchmarkSupport.deleteDatabase(db); }
+
+    @Benchmark
+    public String getString() { return doc.getString("str0"); }
+
+    @Benchmark
+    public String getStringWithKey() { return doc.getString(STR_KEY); }
+
+    @Benchmark
+    public long getLong() { return doc.getLong("num1"); }
+
+    @Benchmark
+    public double getNestedDouble() {
+        final Dictionary dict = doc.getDictionary("dict3");
+        return (dict == null) ? 0 : dict.getDouble("a");
+    }
+
+    @Benchmark
+    public void getKeys(Blackhole bh) { bh.consume(doc.getKeys()); }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void toMap(Blackhole bh) { bh.consume(doc.toMap()); }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Document getDocumentAndRead() {
+        final Document d = db.getDocument("doc");
+        d.getString("str0");
+        return d;
+    }
+}
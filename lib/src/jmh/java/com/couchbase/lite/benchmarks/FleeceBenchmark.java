@@ -0,0 +1,74 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.couchbase.lite.LiteCoreException;
+import com.couchbase.lite.internal.fleece.FLEncoder;
+
+
+/**
+ * Encoding Java objects as Fleece.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleeceBenchmark {
+    /**
+     * The number of top level properties in the encoded dictionary.
+     */
+    @Param({"10", "100", "1000"})
+    public int docSize;
+
+    private Map<String, Object> props;
+    private FLEncoder encoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkSupport.getRootDir();
+        props = BenchmarkSupport.createProperties(docSize, 0);
+        encoder = new FLEncoder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { encoder.free(); }
+
+    @Benchmark
+    public byte[] writeValue() throws LiteCoreException {
+        encoder.reset();
+        encoder.writeValue(props);
+        return encoder.finish();
+    }
+}
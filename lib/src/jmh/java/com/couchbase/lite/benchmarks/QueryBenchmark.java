@@ -0,0 +1,127 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.DataSource;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.Expression;
+import com.couchbase.lite.IndexBuilder;
+import com.couchbase.lite.Meta;
+import com.couchbase.lite.MutableDocument;
+import com.couchbase.lite.Ordering;
+import com.couchbase.lite.Query;
+import com.couchbase.lite.QueryBuilder;
+import com.couchbase.lite.Result;
+import com.couchbase.lite.ResultSet;
+import com.couchbase.lite.SelectResult;
+import com.couchbase.lite.ValueIndexItem;
+
+
+/**
+ * Query execution and enumeration, with and without an index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+    private static final Expression NUMBER = Expression.property("number");
+
+    /**
+     * The number of documents in the database.
+     */
+    @Param({"1000", "10000"})
+    public int docCount;
+
+    /**
+     * Whether the queried property is indexed.
+     */
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Database db;
+    private Query rangeQuery;
+    private Query allQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, CouchbaseLiteException {
+        db = BenchmarkSupport.openDatabase("query-" + docCount + "-" + indexed);
+        db.inBatch(() -> {
+            for (int i = 0; i < docCount; i++) {
+                final MutableDocument doc = BenchmarkSupport.createDocument("doc-" + i, 10, i);
+                doc.setInt("number", i);
+                try { db.save(doc); }
+                catch (CouchbaseLiteException e) { throw new IllegalStateException("Failed preloading docs", e); }
+            }
+        });
+
+        if (indexed) { db.createIndex("number", IndexBuilder.valueIndex(ValueIndexItem.expression(NUMBER))); }
+
+        // about 1% of the documents
+        rangeQuery = QueryBuilder
+            .select(SelectResult.expression(Meta.id), SelectResult.expression(NUMBER))
+            .from(DataSource.database(db))
+            .where(NUMBER.between(
+                Expression.intValue(docCount / 2),
+                Expression.intValue((docCount / 2) + (docCount / 100))))
+            .orderBy(Ordering.expression(NUMBER));
+
+        allQuery = QueryBuilder
+            .select(SelectResult.all())
+            .from(DataSource.database(db));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws CouchbaseLiteException { BenchmarkSupport.deleteDatabase(db); }
+
+    @Benchmark
+    public int executeRange(Blackhole bh) throws CouchbaseLiteException { return enumerate(rangeQuery.execute(), bh); }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int executeAll(Blackhole bh) throws CouchbaseLiteException { return enumerate(allQuery.execute(), bh); }
+
+    private int enumerate(ResultSet results, Blackhole bh) {
+        int n = 0;
+        Result result;
+        while ((result = results.next()) != null) {
+            bh.consume(result.getValue(0));
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,130 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.couchbase.lite.AbstractReplicator;
+import com.couchbase.lite.CouchbaseLiteException;
+import com.couchbase.lite.Database;
+import com.couchbase.lite.ListenerToken;
+import com.couchbase.lite.Replicator;
+import com.couchbase.lite.ReplicatorConfiguration;
+import com.couchbase.lite.URLEndpoint;
+
+
+/**
+ * A one-shot push of a fresh database to a Sync Gateway.
+ * The Community Edition has no database-to-database replication,
+ * so this benchmark needs the URL of a Sync Gateway database, in the system property
+ * "com.couchbase.lite.benchmarks.syncGatewayUrl" (e.g., ws://localhost:4984/db).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplicatorBenchmark {
+    public static final String PROP_SYNC_GATEWAY_URL = "com.couchbase.lite.benchmarks.syncGatewayUrl";
+
+    private static final long TIMEOUT_SECS = 300;
+
+    /**
+     * The number of documents to push.
+     */
+    @Param({"100", "1000"})
+    public int docCount;
+
+    /**
+     * The number of top level properties in each document.
+     */
+    @Param({"10", "100"})
+    public int docSize;
+
+    private URI target;
+    private Database db;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws URISyntaxException {
+        final String url = System.getProperty(PROP_SYNC_GATEWAY_URL);
+        if (url == null) { throw new IllegalStateException("Property not set: " + PROP_SYNC_GATEWAY_URL); }
+        target = new URI(url);
+    }
+
+    // Each push starts from a new database, with new documents.
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, CouchbaseLiteException {
+        final String prefix = UUID.randomUUID().toString();
+        db = BenchmarkSupport.openDatabase("push-" + prefix);
+        db.inBatch(() -> {
+            for (int i = 0; i < docCount; i++) {
+                try { db.save(BenchmarkSupport.createDocument(prefix + "-" + i, docSize, i)); }
+                catch (CouchbaseLiteException e) { throw new IllegalStateException("Failed preloading docs", e); }
+            }
+        });
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws CouchbaseLiteException { BenchmarkSupport.deleteDatabase(db); }
+
+    @Benchmark
+    public void push() throws InterruptedException {
+        final ReplicatorConfiguration config = new ReplicatorConfiguration(db, new URLEndpoint(target));
+        config.setReplicatorType(ReplicatorConfiguration.ReplicatorType.PUSH);
+        config.setContinuous(false);
+
+        final Replicator repl = new Replicator(config);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<CouchbaseLiteException> err = new AtomicReference<>();
+        final ListenerToken token = repl.addChangeListener(change -> {
+            final Replicator.Status status = change.getStatus();
+            if (status.getActivityLevel() != AbstractReplicator.ActivityLevel.STOPPED) { return; }
+            err.set(status.getError());
+            done.countDown();
+        });
+
+        try {
+            repl.start();
+            if (!done.await(TIMEOUT_SECS, TimeUnit.SECONDS)) { throw new IllegalStateException("Push timed out"); }
+        }
+        finally {
+            repl.removeChangeListener(token);
+        }
+
+        if (err.get() != null) { throw new IllegalStateException("Push failed", err.get()); }
+    }
+}
@@ -0,0 +1,72 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+/**
+ * The JMX management interface for the statistics of a single database.
+ *
+ * @see DatabaseMetricsJmx
+ */
+public interface DatabaseMXBean {
+    /**
+     * The name of the database.
+     *
+     * @return the database name.
+     */
+    String getName();
+
+    /**
+     * The path to the database.
+     *
+     * @return the database path.
+     */
+    String getPath();
+
+    /**
+     * The total time, in nanoseconds, that the database lock has been held for writes.
+     *
+     * @return the total lock hold time.
+     */
+    long getLockHoldTimeNanos();
+
+    /**
+     * The total time, in nanoseconds, that writes have waited for the database lock.
+     *
+     * @return the total lock wait time.
+     */
+    long getLockWaitTimeNanos();
+
+    /**
+     * The number of write transactions.
+     *
+     * @return the number of transactions.
+     */
+    long getTransactionCount();
+
+    /**
+     * The number of change notifications waiting to be delivered to observers.
+     *
+     * @return the observer queue depth.
+     */
+    int getPendingNotifications();
+
+    /**
+     * All of the database's statistics.
+     *
+     * @return the statistics.
+     */
+    DatabaseStats getStats();
+}
@@ -0,0 +1,161 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.couchbase.lite.internal.support.Log;
+
+
+/**
+ * Exposes {@link DatabaseMetrics} through JMX.
+ * <p>
+ * Registering adds a summary MXBean, named "com.couchbase.lite:type=DatabaseMetrics",
+ * and, for each instrumented database, an MXBean named "com.couchbase.lite:type=Database,name=...,id=...".
+ * Registering does not turn on recording: use {@link DatabaseMetrics#setEnabled(boolean)}
+ * or set the summary bean's Enabled attribute.
+ */
+public final class DatabaseMetricsJmx implements DatabaseMetricsMXBean, DatabaseMetricsRegistry {
+    /**
+     * The name under which the summary bean is registered.
+     */
+    public static final String OBJECT_NAME = "com.couchbase.lite:type=DatabaseMetrics";
+
+    private static final DatabaseMetricsJmx INSTANCE = new DatabaseMetricsJmx();
+
+    private static final class DatabaseBean implements DatabaseMXBean {
+        @NonNull
+        private final DatabaseMetrics metrics;
+
+        DatabaseBean(@NonNull DatabaseMetrics metrics) { this.metrics = metrics; }
+
+        @Override
+        public String getName() { return metrics.getName(); }
+
+        @Override
+        public String getPath() { return metrics.getPath(); }
+
+        @Override
+        public long getLockHoldTimeNanos() { return metrics.getSnapshot().getLockHoldTimeNanos(); }
+
+        @Override
+        public long getLockWaitTimeNanos() { return metrics.getSnapshot().getLockWaitTimeNanos(); }
+
+        @Override
+        public long getTransactionCount() { return metrics.getSnapshot().getTransactionCount(); }
+
+        @Override
+        public int getPendingNotifications() { return metrics.getSnapshot().getPendingNotifications(); }
+
+        @Override
+        public DatabaseStats getStats() { return metrics.getSnapshot(); }
+    }
+
+    /**
+     * Register the database metrics beans with the platform MBean server
+     * and make JMX the {@link DatabaseMetricsRegistry}.
+     * Registering more than once is harmless.
+     *
+     * @return the name of the summary bean.
+     */
+    @NonNull
+    public static ObjectName register() {
+        final ObjectName name = getObjectName(OBJECT_NAME);
+        try { ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name); }
+        catch (InstanceAlreadyExistsException ignore) { }
+        catch (JMException e) {
+            throw new IllegalStateException("Failed registering database metrics bean", e);
+        }
+        DatabaseMetrics.setRegistry(INSTANCE);
+        return name;
+    }
+
+    /**
+     * Remove all database metrics beans from the platform MBean server.
+     */
+    public static void unregister() {
+        DatabaseMetrics.setRegistry(null);
+        unregisterBean(getObjectName(OBJECT_NAME));
+    }
+
+    private static void unregisterBean(@NonNull ObjectName name) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try { server.unregisterMBean(name); }
+        catch (InstanceNotFoundException ignore) { }
+        catch (JMException e) {
+            Log.w(LogDomain.DATABASE, "Failed unregistering database metrics bean: " + name, e);
+        }
+    }
+
+    @NonNull
+    private static ObjectName getObjectName(@NonNull DatabaseMetrics metrics) {
+        return getObjectName(
+            "com.couchbase.lite:type=Database,name=" + ObjectName.quote(metrics.getName()) + ",id=" + metrics.getId());
+    }
+
+    @NonNull
+    private static ObjectName getObjectName(@NonNull String name) {
+        try { return new ObjectName(name); }
+        catch (JMException e) { throw new IllegalStateException("Bad object name: " + name, e); }
+    }
+
+    private DatabaseMetricsJmx() { }
+
+    //---------------------------------------------
+    // DatabaseMetricsRegistry
+    //---------------------------------------------
+
+    @Override
+    public void register(@NonNull DatabaseMetrics metrics) {
+        final ObjectName name = getObjectName(metrics);
+        try { ManagementFactory.getPlatformMBeanServer().registerMBean(new DatabaseBean(metrics), name); }
+        catch (InstanceAlreadyExistsException ignore) { }
+        catch (JMException e) {
+            Log.w(LogDomain.DATABASE, "Failed registering database metrics bean: " + name, e);
+        }
+    }
+
+    @Override
+    public void unregister(@NonNull DatabaseMetrics metrics) { unregisterBean(getObjectName(metrics)); }
+
+    //---------------------------------------------
+    // DatabaseMetricsMXBean
+    //---------------------------------------------
+
+    @Override
+    public boolean isEnabled() { return DatabaseMetrics.isEnabled(); }
+
+    @Override
+    public void setEnabled(boolean enabled) { DatabaseMetrics.setEnabled(enabled); }
+
+    @Override
+    public int getDatabaseCount() { return DatabaseMetrics.getDatabaseCount(); }
+
+    @Override
+    public List<DatabaseStats> getDatabaseStats() { return DatabaseMetrics.getSnapshot(Integer.MAX_VALUE); }
+
+    @Override
+    public List<DatabaseStats> getTopDatabases(int n) { return DatabaseMetrics.getSnapshot(n); }
+}
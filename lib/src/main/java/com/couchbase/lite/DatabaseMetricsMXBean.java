@@ -0,0 +1,62 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.List;
+
+
+/**
+ * The JMX management interface for {@link DatabaseMetrics}.
+ *
+ * @see DatabaseMetricsJmx
+ */
+public interface DatabaseMetricsMXBean {
+    /**
+     * Whether database statistics are being recorded.
+     *
+     * @return true if database statistics are being recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Turn recording on or off.  Only databases opened while recording is on are instrumented.
+     *
+     * @param enabled true to record database statistics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * The number of instrumented open databases.
+     *
+     * @return the number of databases.
+     */
+    int getDatabaseCount();
+
+    /**
+     * The statistics for every instrumented open database, those that have held their lock longest first.
+     *
+     * @return the statistics for each database.
+     */
+    List<DatabaseStats> getDatabaseStats();
+
+    /**
+     * The statistics for the databases that have held their lock longest.
+     *
+     * @param n the maximum number of databases to return
+     * @return the statistics for the n databases that have held their lock longest.
+     */
+    List<DatabaseStats> getTopDatabases(int n);
+}
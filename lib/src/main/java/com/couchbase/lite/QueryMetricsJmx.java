@@ -0,0 +1,101 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.couchbase.lite.internal.support.Log;
+
+
+/**
+ * Exposes {@link QueryMetrics} as a JMX MXBean, named "com.couchbase.lite:type=QueryMetrics".
+ * <p>
+ * Registering the bean does not turn on recording: use {@link QueryMetrics#setEnabled(boolean)}
+ * or set the bean's Enabled attribute.
+ */
+public final class QueryMetricsJmx implements QueryMetricsMXBean {
+    /**
+     * The name under which the bean is registered.
+     */
+    public static final String OBJECT_NAME = "com.couchbase.lite:type=QueryMetrics";
+
+    /**
+     * Register the query metrics bean with the platform MBean server.
+     * Registering the bean more than once is harmless.
+     *
+     * @return the name of the registered bean.
+     */
+    @NonNull
+    public static ObjectName register() {
+        final ObjectName name = getObjectName();
+        try { ManagementFactory.getPlatformMBeanServer().registerMBean(new QueryMetricsJmx(), name); }
+        catch (InstanceAlreadyExistsException ignore) { }
+        catch (JMException e) {
+            throw new IllegalStateException("Failed registering query metrics bean", e);
+        }
+        return name;
+    }
+
+    /**
+     * Remove the query metrics bean from the platform MBean server.
+     */
+    public static void unregister() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try { server.unregisterMBean(getObjectName()); }
+        catch (InstanceNotFoundException ignore) { }
+        catch (JMException e) {
+            Log.w(LogDomain.QUERY, "Failed unregistering query metrics bean", e);
+        }
+    }
+
+    @NonNull
+    private static ObjectName getObjectName() {
+        try { return new ObjectName(OBJECT_NAME); }
+        catch (JMException e) { throw new IllegalStateException("Bad object name: " + OBJECT_NAME, e); }
+    }
+
+    private QueryMetricsJmx() { }
+
+    @Override
+    public boolean isEnabled() { return QueryMetrics.isEnabled(); }
+
+    @Override
+    public void setEnabled(boolean enabled) { QueryMetrics.setEnabled(enabled); }
+
+    @Override
+    public int getShapeCount() { return QueryMetrics.getShapeCount(); }
+
+    @Override
+    public List<QueryStats> getQueryStats() { return QueryMetrics.getSnapshot(); }
+
+    @Override
+    public List<QueryStats> getTopQueries(int n) {
+        final List<QueryStats> stats = QueryMetrics.getSnapshot();
+        return (n >= stats.size()) ? stats : stats.subList(0, Math.max(0, n));
+    }
+
+    @Override
+    public void reset() { QueryMetrics.reset(); }
+}
@@ -0,0 +1,67 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.List;
+
+
+/**
+ * The JMX management interface for {@link QueryMetrics}.
+ *
+ * @see QueryMetricsJmx
+ */
+public interface QueryMetricsMXBean {
+    /**
+     * Whether query statistics are being recorded.
+     *
+     * @return true if query statistics are being recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Turn recording on or off.
+     *
+     * @param enabled true to record query statistics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * The number of distinct query shapes for which statistics have been recorded.
+     *
+     * @return the number of query shapes.
+     */
+    int getShapeCount();
+
+    /**
+     * The statistics for every query shape, most expensive first.
+     *
+     * @return the statistics for each query shape.
+     */
+    List<QueryStats> getQueryStats();
+
+    /**
+     * The statistics for the most expensive query shapes.
+     *
+     * @param n the maximum number of shapes to return
+     * @return the statistics for the n query shapes that have consumed the most database time.
+     */
+    List<QueryStats> getTopQueries(int n);
+
+    /**
+     * Discard all recorded statistics.
+     */
+    void reset();
+}
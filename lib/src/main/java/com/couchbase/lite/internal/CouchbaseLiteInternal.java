@@ -81,10 +81,20 @@ public final class CouchbaseLiteInternal {
         MValue.registerDelegate(mValueDelegate);
 
         Log.initLogging(loadErrorMessages());
+
+        Log.d(LogDomain.DATABASE, () -> "Native libraries loaded (us): " + NativeLibrary.getLoadTimes());
     }
 
     public static boolean isDebugging() { return false; }
 
+    /**
+     * Get the time spent in each phase of loading the native libraries: useful for diagnosing slow startup.
+     *
+     * @return a map of phase name to elapsed time in microseconds.
+     */
+    @NonNull
+    public static Map<String, Long> getNativeLibraryLoadTimes() { return NativeLibrary.getLoadTimes(); }
+
     /**
      * This method is for internal used only and will be removed in the future release.
      */
@@ -97,6 +107,8 @@ public final class CouchbaseLiteInternal {
         return executionService;
     }
 
+    public static boolean isInitialized() { return INITIALIZED.get(); }
+
     public static void requireInit(String message) {
         if (!INITIALIZED.get()) {
             throw new IllegalStateException(message + ".  Did you forget to call CouchbaseLite.init()?");
@@ -21,10 +21,7 @@ import android.support.annotation.NonNull;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -55,27 +52,11 @@ public class JavaExecutionService extends AbstractExecutionService {
         new LinkedBlockingQueue<>(), // unbounded queue
         THREAD_FACTORY);  // nice recognizable names for our threads.
 
-    //---------------------------------------------
-    // Types
-    //---------------------------------------------
-    private static class CancellableTask implements Cancellable {
-        private final Future future;
-
-        private CancellableTask(@NonNull Future future) {
-            Preconditions.assertNotNull(future, "future");
-            this.future = future;
-        }
-
-        @Override
-        public void cancel() { future.cancel(false); }
-    }
-
-
     //---------------------------------------------
     // Instance variables
     //---------------------------------------------
     private final Executor mainExecutor;
-    private final ScheduledExecutorService scheduler;
+    private final TimerWheel timerWheel;
 
     //---------------------------------------------
     // Constructor
@@ -83,7 +64,7 @@ public class JavaExecutionService extends AbstractExecutionService {
     public JavaExecutionService() {
         super(THREAD_POOL_EXECUTOR);
         mainExecutor = Executors.newSingleThreadExecutor();
-        scheduler = Executors.newSingleThreadScheduledExecutor();
+        timerWheel = new TimerWheel("CBL-timer");
     }
 
     //---------------------------------------------
@@ -98,13 +79,7 @@ public class JavaExecutionService extends AbstractExecutionService {
     public Cancellable postDelayedOnExecutor(long delayMs, @NonNull Executor executor, @NonNull Runnable task) {
         Preconditions.assertNotNull(executor, "executor");
         Preconditions.assertNotNull(task, "task");
-        final Runnable delayedTask = () -> {
-            try { executor.execute(task); }
-            catch (RejectedExecutionException ignore) { }
-        };
-
-        final Future future = scheduler.schedule(delayedTask, delayMs, TimeUnit.MILLISECONDS);
-        return new CancellableTask(future);
+        return timerWheel.schedule(delayMs, executor, task);
     }
 
     @Override
@@ -22,13 +22,20 @@ import android.support.annotation.NonNull;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.Locale;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -36,10 +43,32 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * For extracting and loading native libraries for couchbase-lite-java.
+ * <p>
+ * There are three ways to find the libraries.  In order of precedence:
+ * <ol>
+ * <li>If the system property {@value #PROP_LIBRARY_DIR} names a directory, the libraries
+ * are loaded from that directory: it must contain libraries that match this jar.
+ * <li>If the system property {@value #PROP_USE_LIBRARY_PATH} is "true", the libraries are
+ * loaded, by name, from the {@code java.library.path}.
+ * <li>Otherwise, the libraries are extracted from the jar into a directory, under the temp directory,
+ * whose name is the hash of the libraries.  Subsequent starts use the previously extracted files.
+ * </ol>
+ * The first two options are for environments (short lived tools, containers) that can provision
+ * the libraries ahead of time and would rather not pay for extracting them on each cold start.
  */
 final class NativeLibrary {
     private NativeLibrary() { }
 
+    /**
+     * System property: a directory containing pre-extracted native libraries.
+     */
+    static final String PROP_LIBRARY_DIR = "com.couchbase.lite.nativeLibraryDir";
+
+    /**
+     * System property: if "true", load the native libraries from the java.library.path.
+     */
+    static final String PROP_USE_LIBRARY_PATH = "com.couchbase.lite.useLibraryPath";
+
     private static final String[] LIBRARIES = {"LiteCore", "LiteCoreJNI"};
 
     private static final String LIBS_RES_BASE_DIR = "/libs";
@@ -47,8 +76,13 @@ final class NativeLibrary {
     @SuppressWarnings("PMD.UnusedPrivateField")
     private static final String TARGET_BASE_DIR = "com.couchbase.lite.java/native";
 
+    private static final Set<PosixFilePermission> LIB_PERMISSIONS = PosixFilePermissions.fromString("rwxr-xr-x");
+
     private static final AtomicBoolean LOADED = new AtomicBoolean(false);
 
+    // Startup phase timings, in microseconds.  Written once, during load.
+    private static volatile Map<String, Long> loadTimes = Collections.emptyMap();
+
     /**
      * Extracts and loads native libraries.
      */
@@ -57,15 +91,79 @@ final class NativeLibrary {
 
         if (LOADED.getAndSet(true)) { return; }
 
+        final Map<String, Long> times = new LinkedHashMap<>();
+        final long start = System.nanoTime();
         try {
-            final String[] libPaths = Arrays.stream(LIBRARIES).map(lib -> getResourcePath(lib)).toArray(String[]::new);
-            final String targetDir = getTargetDirectory(libPaths);
-            for (String path : libPaths) { System.load(extract(path, targetDir).getCanonicalPath()); }
+            final String libDir = System.getProperty(PROP_LIBRARY_DIR);
+            if (libDir != null) { loadFromDirectory(libDir, times); }
+            else if (Boolean.getBoolean(PROP_USE_LIBRARY_PATH)) { loadFromLibraryPath(times); }
+            else { extractAndLoad(times); }
         }
-        catch (Exception th) {
+        catch (Exception | UnsatisfiedLinkError e) {
             final String platform = System.getProperty("os.name") + "/" + System.getProperty("os.arch");
-            throw new IllegalStateException("Cannot load native library for " + platform, th);
+            throw new IllegalStateException("Cannot load native library for " + platform, e);
+        }
+        times.put("total", elapsedMicros(start));
+
+        loadTimes = Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * Get the time spent in each phase of loading the native libraries.
+     *
+     * @return a map of phase name to elapsed time in microseconds.  Empty if the libraries have not been loaded.
+     */
+    @NonNull
+    static Map<String, Long> getLoadTimes() { return loadTimes; }
+
+    private static void loadFromDirectory(@NonNull String libDir, @NonNull Map<String, Long> times)
+        throws IOException {
+        final long start = System.nanoTime();
+        for (String lib : LIBRARIES) {
+            final File libFile = new File(libDir, System.mapLibraryName(lib));
+            if (!libFile.canRead()) { throw new IOException("Cannot read native library: " + libFile); }
+            System.load(libFile.getCanonicalPath());
+        }
+        times.put("load", elapsedMicros(start));
+    }
+
+    private static void loadFromLibraryPath(@NonNull Map<String, Long> times) {
+        final long start = System.nanoTime();
+        for (String lib : LIBRARIES) { System.loadLibrary(lib); }
+        times.put("load", elapsedMicros(start));
+    }
+
+    private static void extractAndLoad(@NonNull Map<String, Long> times)
+        throws IOException, NoSuchAlgorithmException {
+        long start = System.nanoTime();
+        final String[] libPaths = Arrays.stream(LIBRARIES).map(lib -> getResourcePath(lib)).toArray(String[]::new);
+        final String targetDir = getTargetDirectory(libPaths);
+        times.put("resolve", elapsedMicros(start));
+
+        long extractTime = 0;
+        long loadTime = 0;
+        for (String path : libPaths) {
+            start = System.nanoTime();
+            final File targetFile = new File(targetDir, new File(path).getName());
+            final boolean extracted = !targetFile.exists();
+            if (extracted) { extract(path, targetFile); }
+            extractTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try { System.load(targetFile.getCanonicalPath()); }
+            catch (UnsatisfiedLinkError e) {
+                // Integrity is checked lazily: a previously extracted library that won't load
+                // may be damaged.  Replace it and try once more.
+                if (extracted) { throw e; }
+                final long extractStart = System.nanoTime();
+                extract(path, targetFile);
+                extractTime += System.nanoTime() - extractStart;
+                System.load(targetFile.getCanonicalPath());
+            }
+            loadTime += System.nanoTime() - start;
         }
+        times.put("extract", extractTime / 1000);
+        times.put("load", loadTime / 1000);
     }
 
     /**
@@ -78,10 +176,10 @@ final class NativeLibrary {
     private static String getTargetDirectory(@NonNull String... libPaths)
         throws NoSuchAlgorithmException, IOException {
         final MessageDigest md = MessageDigest.getInstance("MD5");
+        final byte[] buffer = new byte[128];
         for (String path : libPaths) {
             try (InputStream in = NativeLibrary.class.getResourceAsStream(path + ".MD5")) {
                 if (in == null) { throw new IOException("Cannot find MD5 for library at " + path); }
-                final byte[] buffer = new byte[128];
                 int bytesRead = 0;
                 while ((bytesRead = in.read(buffer)) != -1) {
                     md.update(buffer, 0, bytesRead);
@@ -93,41 +191,46 @@ final class NativeLibrary {
     }
 
     /**
-     * Extracts the given path to the native library in the resource directory into the target directory.
-     * If the native library already exists in the target library, the existing native library will be used.
+     * Extracts the native library at the given resource path into the target file.
+     * The library is copied to a temporary file, which is then moved into place,
+     * so that a concurrent or interrupted extraction never leaves a partial library at the target path.
      */
-    @NonNull
     @SuppressFBWarnings("DE_MIGHT_IGNORE")
-    private static File extract(@NonNull String libResPath, @NonNull String targetDir)
-        throws IOException, InterruptedException {
-        final File targetFile = new File(targetDir, new File(libResPath).getName());
-        if (targetFile.exists()) { return targetFile; }
-
-        final File dir = new File(targetDir);
+    private static void extract(@NonNull String libResPath, @NonNull File targetFile) throws IOException {
+        final File dir = targetFile.getParentFile();
         if (!dir.mkdirs() && !dir.exists()) {
             throw new IOException("Cannot create target directory: " + dir.getCanonicalPath());
         }
 
-        // Extract the library to the target directory:
-        try (
-            InputStream in = NativeLibrary.class.getResourceAsStream(libResPath);
-            OutputStream out = Files.newOutputStream(targetFile.toPath());
-        ) {
-            if (in == null) { throw new IOException("Native library not found at " + libResPath); }
+        final Path target = targetFile.toPath();
+        final Path tmp = Files.createTempFile(dir.toPath(), targetFile.getName(), ".tmp");
+        try {
+            // Extract the library to the temporary file:
+            try (InputStream in = NativeLibrary.class.getResourceAsStream(libResPath)) {
+                if (in == null) { throw new IOException("Native library not found at " + libResPath); }
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
 
-            final byte[] buffer = new byte[1024];
-            int bytesRead = 0;
-            while ((bytesRead = in.read(buffer)) != -1) { out.write(buffer, 0, bytesRead); }
-        }
+            // On systems that support them, set up permissions for the extracted native library.
+            setPermissions(tmp);
 
-        // On non-windows systems set up permissions for the extracted native library.
-        if (!System.getProperty("os.name").toLowerCase(Locale.getDefault()).contains("windows")) {
-            Runtime.getRuntime().exec(new String[] {"chmod", "755", targetFile.getCanonicalPath()}).waitFor();
+            try { Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(tmp);
         }
+    }
 
-        return targetFile;
+    private static void setPermissions(@NonNull Path file) throws IOException {
+        try { Files.setPosixFilePermissions(file, LIB_PERMISSIONS); }
+        catch (UnsupportedOperationException ignore) { }
     }
 
+    private static long elapsedMicros(long startNanos) { return (System.nanoTime() - startNanos) / 1000; }
+
     /**
      * Returns the path in the resource directory where the native libraries are located.
      */
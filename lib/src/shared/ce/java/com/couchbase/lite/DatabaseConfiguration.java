@@ -58,6 +58,22 @@ public final class DatabaseConfiguration extends AbstractDatabaseConfiguration {
         return this;
     }
 
+    /**
+     * Open the database for reading only.  The database must already exist.
+     * Many processes can open the same database read-only, cheaply: a read-only database
+     * does not support change listeners and does not purge expired documents.
+     * Any attempt to write to it fails with the error {@link CBLError.Code#NOT_WRITEABLE}.
+     *
+     * @param readOnlyAccess true to open the database read-only.
+     * @return The self object.
+     */
+    @NonNull
+    @Override
+    public DatabaseConfiguration setReadOnlyAccess(boolean readOnlyAccess) {
+        super.setReadOnlyAccess(readOnlyAccess);
+        return this;
+    }
+
     //---------------------------------------------
     // protected methods
     //---------------------------------------------
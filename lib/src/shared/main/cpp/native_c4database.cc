@@ -367,6 +367,16 @@ JNIEXPORT jlong JNICALL Java_com_couchbase_lite_internal_core_C4Database_getShar
     return (jlong) c4db_getSharedFleeceEncoder((C4Database *) db);
 }
 
+/*
+ * Class:     com_couchbase_lite_internal_core_C4Database
+ * Method:    createFleeceEncoder
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_com_couchbase_lite_internal_core_C4Database_createFleeceEncoder
+        (JNIEnv *env, jclass clazz, jlong db) {
+    return (jlong) c4db_createFleeceEncoder((C4Database *) db);
+}
+
 /*
  * Class:     com_couchbase_lite_internal_core_C4Database
  * Method:    encodeJSON
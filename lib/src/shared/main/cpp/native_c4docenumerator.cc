@@ -105,3 +105,55 @@ Java_com_couchbase_lite_internal_core_C4DocEnumerator_getDocument(JNIEnv *env, j
         throwError(env, error);
     return (jlong) doc;
 }
+
+/*
+ * Class:     com_couchbase_lite_internal_core_C4DocEnumerator
+ * Method:    getDocID
+ * Signature: (J)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL
+Java_com_couchbase_lite_internal_core_C4DocEnumerator_getDocID(JNIEnv *env, jclass clazz, jlong handle) {
+    C4DocumentInfo info;
+    if (!c4enum_getDocumentInfo((C4DocEnumerator *) handle, &info))
+        return NULL;
+    return toJString(env, info.docID);
+}
+
+/*
+ * Class:     com_couchbase_lite_internal_core_C4DocEnumerator
+ * Method:    getRevID
+ * Signature: (J)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL
+Java_com_couchbase_lite_internal_core_C4DocEnumerator_getRevID(JNIEnv *env, jclass clazz, jlong handle) {
+    C4DocumentInfo info;
+    if (!c4enum_getDocumentInfo((C4DocEnumerator *) handle, &info))
+        return NULL;
+    return toJString(env, info.revID);
+}
+
+/*
+ * Class:     com_couchbase_lite_internal_core_C4DocEnumerator
+ * Method:    getSequence
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL
+Java_com_couchbase_lite_internal_core_C4DocEnumerator_getSequence(JNIEnv *env, jclass clazz, jlong handle) {
+    C4DocumentInfo info;
+    if (!c4enum_getDocumentInfo((C4DocEnumerator *) handle, &info))
+        return 0;
+    return (jlong) info.sequence;
+}
+
+/*
+ * Class:     com_couchbase_lite_internal_core_C4DocEnumerator
+ * Method:    getFlags
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL
+Java_com_couchbase_lite_internal_core_C4DocEnumerator_getFlags(JNIEnv *env, jclass clazz, jlong handle) {
+    C4DocumentInfo info;
+    if (!c4enum_getDocumentInfo((C4DocEnumerator *) handle, &info))
+        return 0;
+    return (jint) info.flags;
+}
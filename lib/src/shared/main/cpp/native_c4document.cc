@@ -16,6 +16,7 @@
 // limitations under the License.
 //
 #include <algorithm>
+#include <cstring>
 #include <c4Document.h>
 #include <c4.h>
 #include <c4Document+Fleece.h>
@@ -571,6 +572,87 @@ JNIEXPORT jlong JNICALL Java_com_couchbase_lite_internal_core_C4Document_update2
     return (jlong) newDoc;
 }
 
+/*
+ * Class:     com_couchbase_lite_internal_core_C4Document
+ * Method:    encodeDelta
+ * Signature: (JJJJJ[Ljava/lang/String;)J
+ *
+ * Encodes a new body for the document, as its selected revision's body plus a change set.
+ * The change set is encoded with the database's shared keys, jsk.
+ * The encoder is told to amend the existing body, so unchanged values are written as pointers
+ * back into it, instead of being copied.  The result is the old body with the new data appended:
+ * a standalone Fleece document whose root is the updated dictionary.
+ * Returns 0 if jbase is not the root of the selected revision's body.
+ */
+JNIEXPORT jlong JNICALL
+Java_com_couchbase_lite_internal_core_C4Document_encodeDelta(JNIEnv *env, jclass clazz, jlong jdoc, jlong jbase,
+                                                     jlong jenc, jlong jchanges, jlong jsk,
+                                                     jobjectArray jremoved) {
+    C4Document *doc = (C4Document *) jdoc;
+    if (doc == NULL) {
+        throwError(env, {LiteCoreDomain, kC4ErrorAssertionFailed});
+        return 0;
+    }
+
+    C4Slice body = doc->selectedRev.body;
+    if (body.size <= 0)
+        return 0;
+
+    FLDict base = FLValue_AsDict(FLValue_FromData({body.buf, body.size}, kFLTrusted));
+    if ((base == NULL) || (base != (FLDict) jbase))
+        return 0;
+
+    FLMutableDict dict = FLDict_MutableCopy(base, kFLDefaultCopy);
+    if (dict == NULL)
+        return 0;
+
+    // The doc's scope resolves the change set's shared keys
+    FLDoc changesDoc = FLDoc_FromResultData(*(FLSliceResult *) jchanges, kFLTrusted, (FLSharedKeys) jsk, kFLSliceNull);
+    FLDict changes = FLValue_AsDict(FLDoc_GetRoot(changesDoc));
+    if (changes != NULL) {
+        FLDictIterator itr;
+        FLDictIterator_Begin(changes, &itr);
+        FLValue value;
+        while (NULL != (value = FLDictIterator_GetValue(&itr))) {
+            FLMutableDict_SetValue(dict, FLDictIterator_GetKeyString(&itr), value);
+            FLDictIterator_Next(&itr);
+        }
+    }
+
+    jsize nRemoved = (jremoved == NULL) ? 0 : env->GetArrayLength(jremoved);
+    for (jsize i = 0; i < nRemoved; i++) {
+        jstring jkey = (jstring) env->GetObjectArrayElement(jremoved, i);
+        {
+            jstringSlice key(env, jkey);
+            FLMutableDict_Remove(dict, key);
+        }
+        env->DeleteLocalRef(jkey);
+    }
+
+    FLEncoder enc = (FLEncoder) jenc;
+    FLEncoder_Amend(enc, {body.buf, body.size}, true, false);
+    FLEncoder_WriteValue(enc, (FLValue) dict);
+    FLError error = kFLNoError;
+    FLSliceResult delta = FLEncoder_Finish(enc, &error);
+    FLMutableDict_Release(dict);
+    FLDoc_Release(changesDoc);
+    if (error != kFLNoError) {
+        throwError(env, {FleeceDomain, error});
+        return 0;
+    }
+
+    // The delta points back into the old body: the two, together, are the new body.
+    FLSliceResult res = FLSliceResult_New(body.size + delta.size);
+    ::memcpy((void *) res.buf, body.buf, body.size);
+    ::memcpy((uint8_t *) res.buf + body.size, delta.buf, delta.size);
+    FLSliceResult_Release(delta);
+
+    C4SliceResult *sliceResult = (C4SliceResult *) ::malloc(sizeof(C4SliceResult));
+    sliceResult->buf = res.buf;
+    sliceResult->size = res.size;
+    return (jlong) sliceResult;
+}
+
 /*
  * Class:     com_couchbase_lite_internal_core_C4Document
  * Method:    dictContainsBlobs
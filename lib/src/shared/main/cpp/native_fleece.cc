@@ -21,6 +21,7 @@
 #include "com_couchbase_lite_internal_fleece_FLArrayIterator.h"
 #include "com_couchbase_lite_internal_fleece_FLDict.h"
 #include "com_couchbase_lite_internal_fleece_FLDictIterator.h"
+#include "com_couchbase_lite_internal_fleece_FLDictKey.h"
 #include "com_couchbase_lite_internal_fleece_FLValue.h"
 #include "com_couchbase_lite_internal_fleece_FLEncoder.h"
 #include "com_couchbase_lite_internal_fleece_FLSliceResult.h"
@@ -146,6 +147,55 @@ Java_com_couchbase_lite_internal_fleece_FLDict_get(JNIEnv *env,
     return (jlong) FLDict_Get((FLDict) jdict, (C4Slice) key);
 }
 
+// ----------------------------------------------------------------------------
+// FLDictKey
+// ----------------------------------------------------------------------------
+
+// An FLDictKey refers to, but does not own, its key string.
+struct DictKey {
+    FLSliceResult keyString;
+    FLDictKey key;
+};
+
+/*
+ * Class:     com_couchbase_lite_internal_fleece_FLDictKey
+ * Method:    init
+ * Signature: ([B)J
+ */
+JNIEXPORT jlong JNICALL
+Java_com_couchbase_lite_internal_fleece_FLDictKey_init(JNIEnv *env, jclass clazz, jbyteArray jkeystring) {
+    jbyteArraySlice key(env, jkeystring, false);
+    auto dictKey = new DictKey;
+    dictKey->keyString = FLSlice_Copy((FLSlice) key);
+    dictKey->key = FLDictKey_Init({dictKey->keyString.buf, dictKey->keyString.size});
+    return (jlong) dictKey;
+}
+
+/*
+ * Class:     com_couchbase_lite_internal_fleece_FLDictKey
+ * Method:    getWithKey
+ * Signature: (JJ)J
+ */
+JNIEXPORT jlong JNICALL
+Java_com_couchbase_lite_internal_fleece_FLDictKey_getWithKey(JNIEnv *env,
+                                                             jclass clazz,
+                                                             jlong jdict,
+                                                             jlong jkey) {
+    return (jlong) FLDict_GetWithKey((FLDict) jdict, &((DictKey *) jkey)->key);
+}
+
+/*
+ * Class:     com_couchbase_lite_internal_fleece_FLDictKey
+ * Method:    free
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL
+Java_com_couchbase_lite_internal_fleece_FLDictKey_free(JNIEnv *env, jclass clazz, jlong jkey) {
+    auto dictKey = (DictKey *) jkey;
+    FLSliceResult_Release(dictKey->keyString);
+    delete dictKey;
+}
+
 // ----------------------------------------------------------------------------
 // FLDictIterator
 // ----------------------------------------------------------------------------
@@ -190,6 +190,20 @@ Java_com_couchbase_lite_internal_fleece_FLEncoder_writeKey(JNIEnv *env, jclass c
     return (jboolean) FLEncoder_WriteKey((FLEncoder) jenc, key);
 }
 
+/*
+ * Class:     com_couchbase_lite_internal_fleece_FLEncoder
+ * Method:    convertJSON
+ * Signature: (J[B)Z
+ */
+JNIEXPORT jboolean JNICALL
+Java_com_couchbase_lite_internal_fleece_FLEncoder_convertJSON(JNIEnv *env, jclass clazz, jlong jenc,
+                                                          jbyteArray jjson) {
+    if (jjson == NULL)
+        return false;
+    jbyteArraySlice json(env, jjson, false);
+    return (jboolean) FLEncoder_ConvertJSON((FLEncoder) jenc, (FLSlice) json);
+}
+
 /*
  * Class:     com_couchbase_lite_internal_fleece_FLEncoder
  * Method:    finish
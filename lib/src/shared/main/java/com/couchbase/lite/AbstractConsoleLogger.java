@@ -30,8 +30,8 @@ import com.couchbase.lite.internal.utils.Preconditions;
  * The base console logger class.
  */
 abstract class AbstractConsoleLogger implements Logger {
-    private EnumSet<LogDomain> logDomains;
-    private LogLevel logLevel;
+    private volatile EnumSet<LogDomain> logDomains;
+    private volatile LogLevel logLevel;
 
     // Singleton instance accessible from Database.log.getConsole()
     AbstractConsoleLogger() { reset(); }
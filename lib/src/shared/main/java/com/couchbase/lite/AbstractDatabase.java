@@ -22,7 +22,12 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -30,13 +35,15 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.json.JSONException;
 
 import com.couchbase.lite.internal.CBLInternalException;
 import com.couchbase.lite.internal.CBLStatus;
@@ -48,14 +55,20 @@ import com.couchbase.lite.internal.core.C4Constants;
 import com.couchbase.lite.internal.core.C4Database;
 import com.couchbase.lite.internal.core.C4DatabaseChange;
 import com.couchbase.lite.internal.core.C4DatabaseObserver;
+import com.couchbase.lite.internal.core.C4DocEnumerator;
 import com.couchbase.lite.internal.core.C4Document;
 import com.couchbase.lite.internal.core.C4ReplicationFilter;
 import com.couchbase.lite.internal.core.C4Replicator;
 import com.couchbase.lite.internal.core.C4ReplicatorListener;
 import com.couchbase.lite.internal.core.SharedKeys;
+import com.couchbase.lite.internal.fleece.FLConstants;
+import com.couchbase.lite.internal.fleece.FLDict;
+import com.couchbase.lite.internal.fleece.FLDictIterator;
 import com.couchbase.lite.internal.fleece.FLEncoder;
 import com.couchbase.lite.internal.fleece.FLSliceResult;
+import com.couchbase.lite.internal.fleece.FLValue;
 import com.couchbase.lite.internal.support.Log;
+import com.couchbase.lite.internal.support.StructuredLogEvent;
 import com.couchbase.lite.internal.utils.JsonUtils;
 import com.couchbase.lite.internal.utils.Preconditions;
 import com.couchbase.lite.utils.FileUtils;
@@ -94,6 +107,15 @@ abstract class AbstractDatabase {
 
     private static final int MAX_CHANGES = 100;
 
+    // The property that holds a document's ID, in imported and exported JSON
+    private static final String JSON_ID_PROPERTY = "_id";
+
+    // Number of documents imported in a single transaction
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    // Number of documents exported while holding the database lock
+    private static final int EXPORT_BATCH_SIZE = 100;
+
     private static final int SHUTDOWN_DELAY_SECS = 30;
 
     // A random but absurdly large number.
@@ -108,6 +130,15 @@ abstract class AbstractDatabase {
         | C4Constants.DatabaseFlags.AUTO_COMPACT
         | C4Constants.DatabaseFlags.SHARED_KEYS;
 
+    // A read-only database is never created, never compacted and never observed.
+    private static final int READ_ONLY_DATABASE_FLAGS
+        = C4Constants.DatabaseFlags.READ_ONLY
+        | C4Constants.DatabaseFlags.NON_OBSERVABLE
+        | C4Constants.DatabaseFlags.SHARED_KEYS;
+
+    @Nullable
+    private static volatile DatabaseOpenListener openListener;
+
     // ---------------------------------------------
     // API - public static methods
     // ---------------------------------------------
@@ -154,6 +185,13 @@ abstract class AbstractDatabase {
         return getDatabaseFile(directory, name).exists();
     }
 
+    /**
+     * Set a listener to be notified, each time a database is opened, of the time spent in each phase of the open.
+     *
+     * @param listener the listener, or null to stop reporting open times.
+     */
+    public static void setOpenListener(@Nullable DatabaseOpenListener listener) { openListener = listener; }
+
     protected static void copy(
         @NonNull File path,
         @NonNull String name,
@@ -234,17 +272,29 @@ abstract class AbstractDatabase {
     @GuardedBy("lock")
     private final Set<LiveQuery> activeLiveQueries;
     private final Set<Replicator> activeReplications;
+    @GuardedBy("lock")
+    private final Set<IndexBuild> activeIndexBuilds;
     private final Map<String, DocumentChangeNotifier> docChangeNotifiers;
 
+    // The executors are created when first needed: many databases never use them.
+    // They have their own lock because the C4 observer callbacks schedule work on them.
+    private final Object executorLock = new Object();
     // Executor for purge and posting Database/Document changes.
-    private final ExecutionService.CloseableExecutor postExecutor;
+    @GuardedBy("executorLock")
+    private volatile ExecutionService.CloseableExecutor postExecutor;
     // Executor for LiveQuery.
-    private final ExecutionService.CloseableExecutor queryExecutor;
+    @GuardedBy("executorLock")
+    private volatile ExecutionService.CloseableExecutor queryExecutor;
+    @GuardedBy("executorLock")
+    private boolean executorsStopped;
 
     private final boolean shellMode;
     private final SharedKeys sharedKeys;
 
-    private final DocumentExpirationStrategy purgeStrategy;
+    // Created when some document has an expiration date.
+    @GuardedBy("lock")
+    @Nullable
+    private DocumentExpirationStrategy purgeStrategy;
 
     private ChangeNotifier<DatabaseChange> dbChangeNotifier;
 
@@ -252,6 +302,16 @@ abstract class AbstractDatabase {
 
     private String path;
 
+    // Null unless metrics were enabled when the database was opened.
+    @Nullable
+    private final DatabaseMetrics metrics;
+    @GuardedBy("lock")
+    private int transactionDepth;
+    @GuardedBy("lock")
+    private boolean timingTransaction;
+    @GuardedBy("lock")
+    private long transactionStartNanos;
+
     //---------------------------------------------
     // Constructors
     //---------------------------------------------
@@ -279,27 +339,53 @@ abstract class AbstractDatabase {
 
         this.shellMode = false;
 
-        this.postExecutor = CouchbaseLiteInternal.getExecutionService().getSerialExecutor();
-        this.queryExecutor = CouchbaseLiteInternal.getExecutionService().getSerialExecutor();
-
         // synchronized on 'lock'
         this.activeReplications = new HashSet<>();
         this.activeLiveQueries = Collections.synchronizedSet(new HashSet<>());
+        this.activeIndexBuilds = new HashSet<>();
         this.docChangeNotifiers = new HashMap<>();
 
+        final long startTime = System.nanoTime();
+
         // !!! Remove this code.
         // Setting the temp directory from the Database Configuration is a bad idea and should be deprecated.
         // Directories should be set in the CouchbaseLite.init method
         CouchbaseLiteInternal.setupDirectories(config.getRootDirectory());
+        final long setupTime = System.nanoTime();
+
+        final byte[] encryptionKey = getEncryptionKey();
+        final long keyTime = System.nanoTime();
 
         // Can't open the DB until the file system is set up.
-        this.c4db = openC4Db();
+        this.c4db = openC4Db(encryptionKey);
+        final long openTime = System.nanoTime();
 
         // Initialize a shared keys:
         this.sharedKeys = new SharedKeys(c4db);
+        final long sharedKeysTime = System.nanoTime();
+
+        this.metrics = DatabaseMetrics.open(name, c4db.getPath());
 
-        this.purgeStrategy = new DocumentExpirationStrategy(this, STANDARD_PURGE_INTERVAL_MS, postExecutor);
-        this.purgeStrategy.schedulePurge(OPENING_PURGE_DELAY_MS);
+        // There is nothing to purge from a read-only database
+        if (!this.config.isReadOnlyAccess()) {
+            synchronized (lock) { schedulePurgeLocked(OPENING_PURGE_DELAY_MS); }
+        }
+        final long purgeTime = System.nanoTime();
+
+        final DatabaseOpenListener listener = openListener;
+        if (listener != null) {
+            reportOpen(
+                listener,
+                new DatabaseOpenStats(
+                    name,
+                    c4db.getPath(),
+                    this.config.isReadOnlyAccess(),
+                    setupTime - startTime,
+                    keyTime - setupTime,
+                    openTime - keyTime,
+                    sharedKeysTime - openTime,
+                    purgeTime - sharedKeysTime));
+        }
 
         // warn if logging has not been turned on
         Log.warn();
@@ -322,16 +408,13 @@ abstract class AbstractDatabase {
         this.config = new DatabaseConfiguration();
         this.shellMode = true;
 
-        this.postExecutor = null;
-        this.queryExecutor = null;
-
         this.activeReplications = null;
         this.activeLiveQueries = null;
+        this.activeIndexBuilds = null;
         this.docChangeNotifiers = null;
 
         this.sharedKeys = null;
-
-        this.purgeStrategy = null;
+        this.metrics = null;
     }
 
     //---------------------------------------------
@@ -395,6 +478,238 @@ abstract class AbstractDatabase {
         }
     }
 
+    /**
+     * Gets the document with the given ID as an object of the mapper's type.
+     * The object is decoded directly from the stored document.
+     *
+     * @param id     the document ID
+     * @param mapper the mapper for the object's type
+     * @param <T>    the type of the object
+     * @return the object, or null if the document does not exist or has been deleted.
+     * @throws CouchbaseLiteException on error
+     */
+    @Nullable
+    public <T> T getDocument(@NonNull String id, @NonNull DocumentMapper<T> mapper) throws CouchbaseLiteException {
+        Preconditions.assertNotNull(id, "id");
+        Preconditions.assertNotNull(mapper, "mapper");
+
+        synchronized (lock) {
+            mustBeOpen();
+
+            final C4Document c4doc = getC4DocumentOrNull(id);
+            if ((c4doc == null) || c4doc.deleted()) { return null; }
+
+            return mapper.decode(c4doc.getSelectedBody2());
+        }
+    }
+
+    /**
+     * Saves an object as the document with the given ID.  The object is encoded directly
+     * into the stored format.  The last writer wins: the new revision replaces the current
+     * revision of the document, if there is one.
+     *
+     * @param id     the document ID
+     * @param object the object to save
+     * @param mapper the mapper for the object's type
+     * @param <T>    the type of the object
+     * @throws CouchbaseLiteException on error
+     */
+    public <T> void save(@NonNull String id, @NonNull T object, @NonNull DocumentMapper<T> mapper)
+        throws CouchbaseLiteException {
+        Preconditions.assertNotNull(id, "id");
+        Preconditions.assertNotNull(object, "object");
+        Preconditions.assertNotNull(mapper, "mapper");
+
+        synchronized (lock) {
+            mustBeOpen();
+
+            boolean commit = false;
+            FLSliceResult body = null;
+            beginTransaction();
+            try {
+                final C4Document curDoc = getC4DocumentOrNull(id);
+
+                final FLEncoder encoder = getC4Database().getSharedFleeceEncoder();
+                try {
+                    mapper.encodeTo(encoder, object);
+                    body = encoder.finish2();
+                }
+                finally {
+                    encoder.reset();
+                }
+
+                final int revFlags = (C4Document.dictContainsBlobs(body, sharedKeys.getFLSharedKeys()))
+                    ? C4Constants.RevisionFlags.HAS_ATTACHMENTS
+                    : 0;
+
+                if (curDoc != null) { curDoc.update(body, revFlags); }
+                else { getC4Database().create(id, body, revFlags); }
+
+                commit = true;
+            }
+            catch (LiteCoreException e) {
+                throw CBLStatus.convertException(e);
+            }
+            finally {
+                if (body != null) { body.free(); }
+                endTransaction(commit);
+            }
+        }
+    }
+
+    /**
+     * Imports documents from newline-delimited JSON: one JSON object per line.
+     * If an object has a string property named "_id", its value is used as the document ID and the property
+     * is not stored.  Otherwise the document is given a new random ID.  An imported document replaces
+     * any existing document with the same ID.
+     * <p>
+     * The JSON is converted to the stored format natively: no Java objects are created for document content.
+     * Documents are saved in batches, each in its own transaction.  If an error occurs, documents saved
+     * in earlier batches remain in the database.
+     *
+     * @param reader the source of the JSON.
+     * @return the number of documents imported.
+     * @throws CouchbaseLiteException on a database error or if a line is not a JSON object
+     * @throws IOException            on failure reading the JSON
+     */
+    public int importJSON(@NonNull Reader reader) throws CouchbaseLiteException, IOException {
+        Preconditions.assertNotNull(reader, "reader");
+
+        final BufferedReader in = (reader instanceof BufferedReader)
+            ? (BufferedReader) reader
+            : new BufferedReader(reader);
+
+        int n = 0;
+        final List<String> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) { continue; }
+
+            batch.add(line);
+            if (batch.size() < IMPORT_BATCH_SIZE) { continue; }
+
+            n += importJSONBatch(batch);
+            batch.clear();
+        }
+
+        if (!batch.isEmpty()) { n += importJSONBatch(batch); }
+
+        return n;
+    }
+
+    /**
+     * Exports all documents as newline-delimited JSON: one JSON object per line.
+     * Each document's ID is written as the property "_id", so that the output can be read by
+     * {@link #importJSON(Reader)}.  Deleted documents are not exported.
+     * <p>
+     * The stored documents are converted to JSON natively.  They are read in batches: the database is locked
+     * while a batch is read, but not while it is written.  Changes made while an export is in progress may
+     * or may not appear in it.
+     *
+     * @param writer the destination for the JSON.
+     * @return the number of documents exported.
+     * @throws CouchbaseLiteException on a database error
+     * @throws IOException            on failure writing the JSON
+     */
+    public int exportJSON(@NonNull Writer writer) throws CouchbaseLiteException, IOException {
+        Preconditions.assertNotNull(writer, "writer");
+
+        final C4DocEnumerator docs;
+        synchronized (lock) {
+            mustBeOpen();
+            try { docs = getC4Database().enumerateAllDocs(C4Constants.EnumeratorFlags.DEFAULT); }
+            catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        }
+
+        int n = 0;
+        try {
+            final List<String> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            boolean more;
+            do {
+                // read under the lock; write without it.
+                more = exportJSONBatch(docs, batch);
+                for (String line : batch) { writer.write(line); }
+                n += batch.size();
+                batch.clear();
+            }
+            while (more);
+        }
+        finally {
+            synchronized (lock) { docs.free(); }
+        }
+
+        writer.flush();
+
+        return n;
+    }
+
+    /**
+     * Gets a cursor over the documents that have changed since the given sequence number, in sequence order.
+     * Each changed document appears once, with its current revision ID and sequence number.
+     * Deleted documents are included.
+     * <p>
+     * Documents are only loaded if includeBodies is true.  A client that needs only the IDs of
+     * changed documents should not ask for their bodies.
+     * <p>
+     * To process all changes, incrementally, start with sequence 0 and then, repeatedly,
+     * pass the checkpoint of the previous cursor ({@link ChangesCursor#getCheckpoint()}).
+     *
+     * @param sinceSequence return only changes made after this sequence
+     * @param limit         the maximum number of changes to return, or 0 for no limit
+     * @param includeBodies if true, load the document for each change
+     * @return a cursor over the changes: close it when done with it.
+     * @throws CouchbaseLiteException on a database error
+     */
+    @NonNull
+    public ChangesCursor getChanges(long sinceSequence, int limit, boolean includeBodies)
+        throws CouchbaseLiteException {
+        Preconditions.assertThat(sinceSequence, "sinceSequence must be >= 0", x -> x >= 0);
+        Preconditions.assertThat(limit, "limit must be >= 0", x -> x >= 0);
+
+        int flags = C4Constants.EnumeratorFlags.INCLUDE_DELETED | C4Constants.EnumeratorFlags.INCLUDE_NON_CONFLICTED;
+        if (includeBodies) { flags |= C4Constants.EnumeratorFlags.INCLUDE_BODIES; }
+
+        synchronized (lock) {
+            try {
+                return new ChangesCursor(
+                    (Database) this,
+                    getC4Database().enumerateChanges(sinceSequence, flags),
+                    sinceSequence,
+                    limit,
+                    includeBodies);
+            }
+            catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        }
+    }
+
+    /**
+     * Gets a cursor over the documents in the database, in document ID order.
+     * This is considerably faster than a query that returns every document,
+     * especially if the scan reads only document metadata.
+     * <p>
+     * A scan restricted to a prefix or range of IDs reads past the documents that precede the range.
+     * Consumers on several threads can share a scan by calling {@link DocumentScan#nextBatch()}.
+     *
+     * @param options the scan options: later changes to the options do not affect the scan.
+     * @return a cursor over the documents: close it when done with it.
+     * @throws CouchbaseLiteException on a database error
+     */
+    @NonNull
+    public DocumentScan scanDocuments(@NonNull ScanOptions options) throws CouchbaseLiteException {
+        Preconditions.assertNotNull(options, "options");
+
+        final ScanOptions opts = new ScanOptions(options);
+        synchronized (lock) {
+            try {
+                return new DocumentScan(
+                    (Database) this,
+                    getC4Database().enumerateAllDocs(opts.getEnumeratorFlags()),
+                    opts);
+            }
+            catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        }
+    }
+
     /**
      * Saves a document to the database. When write operations are executed
      * concurrently, the last writer will overwrite all other written values.
@@ -534,16 +849,18 @@ abstract class AbstractDatabase {
      */
     public void setDocumentExpiration(@NonNull String id, Date expiration) throws CouchbaseLiteException {
         Preconditions.assertNotNull(id, "id");
+        mustBeWritable();
 
-        if (purgeStrategy == null) {
+        if (shellMode) {
             Log.w(LogDomain.DATABASE, "Attempt to set document expiration without a purge strategy");
             return;
         }
 
         synchronized (lock) {
+            awaitIndexBuildsLocked();
             try {
                 getC4Database().setExpiration(id, (expiration == null) ? 0 : expiration.getTime());
-                purgeStrategy.schedulePurge(0);
+                schedulePurgeLocked(0);
             }
             catch (LiteCoreException e) {
                 throw CBLStatus.convertException(e);
@@ -590,18 +907,24 @@ abstract class AbstractDatabase {
     public void inBatch(@NonNull Runnable runnable) throws CouchbaseLiteException {
         Preconditions.assertNotNull(runnable, "runnable");
 
+        final long waitStart = System.nanoTime();
         synchronized (lock) {
+            recordLockWait(waitStart);
             mustBeOpen();
+            mustBeWritable();
+            awaitIndexBuildsLocked();
             try {
                 final C4Database db = getC4Database();
                 boolean commit = false;
                 db.beginTransaction();
+                transactionBegun();
                 try {
                     runnable.run();
                     commit = true;
                 }
                 finally {
-                    db.endTransaction(commit);
+                    try { db.endTransaction(commit); }
+                    finally { transactionEnded(commit); }
                 }
             }
             catch (RuntimeException e) {
@@ -623,6 +946,8 @@ abstract class AbstractDatabase {
     public void compact() throws CouchbaseLiteException {
         synchronized (lock) {
             mustBeOpen();
+            mustBeWritable();
+            awaitIndexBuildsLocked();
             try { getC4Database().compact(); }
             catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
         }
@@ -724,6 +1049,7 @@ abstract class AbstractDatabase {
             if (c4db == null) { return; }
 
             Log.i(DOMAIN, "Closing %s at path %s", this, c4db.getPath());
+            emitDatabaseEvent("database.close", c4db.getPath());
 
             verifyQuiescent();
 
@@ -743,6 +1069,7 @@ abstract class AbstractDatabase {
             mustBeOpen();
 
             Log.i(DOMAIN, "Deleting %s at path %s", this, c4db.getPath());
+            emitDatabaseEvent("database.delete", c4db.getPath());
 
             verifyQuiescent();
 
@@ -770,9 +1097,11 @@ abstract class AbstractDatabase {
 
         synchronized (lock) {
             mustBeOpen();
+            mustBeWritable();
+            awaitIndexBuildsLocked();
             try {
                 final AbstractIndex abstractIndex = (AbstractIndex) index;
-                final String json = JsonUtils.toJson(abstractIndex.items()).toString();
+                final String json = JsonUtils.toJsonString(abstractIndex.indexSpec());
                 getC4Database().createIndex(
                     name,
                     json,
@@ -783,15 +1112,87 @@ abstract class AbstractDatabase {
             catch (LiteCoreException e) {
                 throw CBLStatus.convertException(e);
             }
-            catch (JSONException e) {
+            catch (IllegalArgumentException e) {
                 throw new CouchbaseLiteException(e);
             }
         }
     }
 
+    /**
+     * Creates an index in the background.  The index is built on a separate connection to
+     * the database file, in a single transaction, and becomes visible to queries, atomically,
+     * when the build completes.
+     * <p>
+     * Reads and queries continue while the index is built.  Writes to this database (saves,
+     * deletes, purges, batches, and so on) wait until the build completes; they do not block
+     * reads or queries while they wait.
+     * <p>
+     * The database cannot be closed or deleted while an index is being built.
+     *
+     * @param name  the index name
+     * @param index the index description
+     * @return the index build
+     * @throws CouchbaseLiteException if the index description is invalid
+     */
+    @NonNull
+    public IndexBuild createIndexAsync(@NonNull String name, @NonNull Index index) throws CouchbaseLiteException {
+        return createIndexAsync(name, index, null, null);
+    }
+
+    /**
+     * Creates an index in the background, reporting progress to the passed listener.
+     * The listener is notified when the build starts and when it completes or fails.
+     *
+     * @param name     the index name
+     * @param index    the index description
+     * @param executor the executor on which to run the listener, or null for the default executor
+     * @param listener the listener to be notified of changes in the state of the build, or null
+     * @return the index build
+     * @throws CouchbaseLiteException if the index description is invalid
+     * @see #createIndexAsync(String, Index)
+     */
+    @NonNull
+    public IndexBuild createIndexAsync(
+        @NonNull String name,
+        @NonNull Index index,
+        @Nullable Executor executor,
+        @Nullable IndexBuildChangeListener listener)
+        throws CouchbaseLiteException {
+        Preconditions.assertNotNull(name, "name");
+        Preconditions.assertNotNull(index, "index");
+
+        final AbstractIndex abstractIndex = (AbstractIndex) index;
+        final String json;
+        try { json = JsonUtils.toJsonString(abstractIndex.indexSpec()); }
+        catch (IllegalArgumentException e) { throw new CouchbaseLiteException(e); }
+
+        final IndexBuild build;
+        final String dbPath;
+        synchronized (lock) {
+            mustBeOpen();
+            mustBeWritable();
+            dbPath = getDatabaseFile(new File(config.getDirectory()), this.name).getPath();
+            build = new IndexBuild(name, getC4Database().getDocumentCount(), executor, listener);
+            activeIndexBuilds.add(build);
+        }
+
+        try {
+            CouchbaseLiteInternal.getExecutionService().getConcurrentExecutor()
+                .execute(() -> buildIndex(build, dbPath, json, abstractIndex));
+        }
+        catch (RuntimeException e) {
+            synchronized (lock) { indexBuildEndedLocked(build); }
+            throw e;
+        }
+
+        return build;
+    }
+
     public void deleteIndex(@NonNull String name) throws CouchbaseLiteException {
         synchronized (lock) {
             mustBeOpen();
+            mustBeWritable();
+            awaitIndexBuildsLocked();
             try { c4db.deleteIndex(name); }
             catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
         }
@@ -818,6 +1219,18 @@ abstract class AbstractDatabase {
         if (c4db == null) { throw new IllegalStateException(Log.lookupStandardMessage("DBClosed")); }
     }
 
+    protected void mustBeWritable() throws CouchbaseLiteException {
+        if (config.isReadOnlyAccess()) {
+            throw new CouchbaseLiteException("DBReadOnly", CBLError.Domain.CBLITE, CBLError.Code.NOT_WRITEABLE);
+        }
+    }
+
+    protected void mustBeObservable() {
+        if (config.isReadOnlyAccess()) {
+            throw new IllegalStateException(Log.lookupStandardMessage("DBReadOnlyObservers"));
+        }
+    }
+
     @SuppressWarnings("NoFinalizer")
     @Override
     protected void finalize() throws Throwable {
@@ -832,6 +1245,10 @@ abstract class AbstractDatabase {
     @NonNull
     Object getLock() { return lock; }
 
+    // Returns null if metrics are off.
+    @Nullable
+    DatabaseMetrics getMetrics() { return DatabaseMetrics.isEnabled() ? metrics : null; }
+
     boolean equalsWithPath(Database other) {
         if (other == null) { return false; }
 
@@ -876,11 +1293,23 @@ abstract class AbstractDatabase {
         return c4db;
     }
 
+    // null for a database that is not backed by a LiteCore database
+    @Nullable
+    SharedKeys getSharedKeys() { return sharedKeys; }
+
     //////// DOCUMENTS:
 
-    void addActiveLiveQuery(@NonNull LiveQuery query) { activeLiveQueries.add(query); }
+    void addActiveLiveQuery(@NonNull LiveQuery query) {
+        activeLiveQueries.add(query);
+        final DatabaseMetrics m = getMetrics();
+        if (m != null) { m.setActiveLiveQueries(activeLiveQueries.size()); }
+    }
 
-    void removeActiveLiveQuery(@NonNull LiveQuery query) { activeLiveQueries.remove(query); }
+    void removeActiveLiveQuery(@NonNull LiveQuery query) {
+        activeLiveQueries.remove(query);
+        final DatabaseMetrics m = getMetrics();
+        if (m != null) { m.setActiveLiveQueries(activeLiveQueries.size()); }
+    }
 
     //////// REPLICATORS:
 
@@ -919,6 +1348,7 @@ abstract class AbstractDatabase {
                 socketFactoryContext,
                 framing);
             activeReplications.add(replicator); // keeps me from being deallocated
+            updateActiveReplicatorsLocked();
         }
         return c4Repl;
     }
@@ -946,12 +1376,16 @@ abstract class AbstractDatabase {
                 pullFilter,
                 replicator);
             activeReplications.add(replicator); // keeps me from being deallocated
+            updateActiveReplicatorsLocked();
         }
         return c4Repl;
     }
 
     void removeActiveReplicator(Replicator replicator) {
-        synchronized (lock) { activeReplications.remove(replicator); }
+        synchronized (lock) {
+            activeReplications.remove(replicator);
+            updateActiveReplicatorsLocked();
+        }
     }
 
     //////// RESOLVING REPLICATED CONFLICTS:
@@ -1012,11 +1446,33 @@ abstract class AbstractDatabase {
     //////// Execution:
 
     void scheduleOnPostNotificationExecutor(@NonNull Runnable task, long delayMs) {
-        CouchbaseLiteInternal.getExecutionService().postDelayedOnExecutor(delayMs, postExecutor, task);
+        final Executor executor = getPostExecutor();
+        final DatabaseMetrics m = getMetrics();
+
+        // A notification is pending from the time it is handed to the executor until it has run.
+        // A delayed task may never be handed over (e.g., the timer is abandoned) and the executor
+        // may reject it: neither of those is counted.
+        final Executor countingExecutor = (m == null)
+            ? executor
+            : post -> {
+                m.notificationQueued();
+                try {
+                    executor.execute(() -> {
+                        try { post.run(); }
+                        finally { m.notificationDelivered(); }
+                    });
+                }
+                catch (RejectedExecutionException e) {
+                    m.notificationDropped();
+                    throw e;
+                }
+            };
+
+        CouchbaseLiteInternal.getExecutionService().postDelayedOnExecutor(delayMs, countingExecutor, task);
     }
 
     void scheduleOnQueryExecutor(@NonNull Runnable task, long delayMs) {
-        CouchbaseLiteInternal.getExecutionService().postDelayedOnExecutor(delayMs, queryExecutor, task);
+        CouchbaseLiteInternal.getExecutionService().postDelayedOnExecutor(delayMs, getQueryExecutor(), task);
     }
 
     abstract int getEncryptionAlgorithm();
@@ -1029,28 +1485,84 @@ abstract class AbstractDatabase {
 
     //////// DATABASES:
     private void beginTransaction() throws CouchbaseLiteException {
+        mustBeWritable();
+        awaitIndexBuildsLocked();
         try { getC4Database().beginTransaction(); }
         catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        transactionBegun();
+    }
+
+    // A write must not start while an index is being built: it would wait, inside LiteCore, for the build's
+    // transaction while holding the lock, blocking every other use of this database.  Waiting here releases
+    // the lock, so that reads and queries continue.  Only an outermost write waits: releasing the lock
+    // inside a transaction would expose the transaction to other threads.
+    @GuardedBy("lock")
+    private void awaitIndexBuildsLocked() throws CouchbaseLiteException {
+        if ((activeIndexBuilds == null) || (transactionDepth > 0) || activeIndexBuilds.isEmpty()) { return; }
+
+        do {
+            try { lock.wait(); }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CouchbaseLiteException(CBLError.Domain.CBLITE, CBLError.Code.BUSY, e);
+            }
+        }
+        while (!activeIndexBuilds.isEmpty());
+
+        // the database may have been closed while the lock was released
+        mustBeOpen();
+    }
+
+    @GuardedBy("lock")
+    private void indexBuildEndedLocked(@NonNull IndexBuild build) {
+        activeIndexBuilds.remove(build);
+        if (activeIndexBuilds.isEmpty()) { lock.notifyAll(); }
+    }
+
+    private void emitDatabaseEvent(@NonNull String eventName, @NonNull String path) {
+        final StructuredLogEvent event = Log.event(LogLevel.INFO, DOMAIN, eventName);
+        if (event != null) { event.put("database", name).put("path", path).emit(); }
     }
 
     private void endTransaction(boolean commit) throws CouchbaseLiteException {
         try { getC4Database().endTransaction(commit); }
         catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        finally { transactionEnded(commit); }
     }
 
-    private C4Database openC4Db() throws CouchbaseLiteException {
+    // Transactions nest: only the outermost one is timed.
+    @GuardedBy("lock")
+    private void transactionBegun() {
+        if (transactionDepth++ > 0) { return; }
+        timingTransaction = getMetrics() != null;
+        if (timingTransaction) { transactionStartNanos = System.nanoTime(); }
+    }
+
+    @GuardedBy("lock")
+    private void transactionEnded(boolean commit) {
+        if ((--transactionDepth > 0) || !timingTransaction) { return; }
+        timingTransaction = false;
+        final DatabaseMetrics m = getMetrics();
+        if (m != null) { m.recordTransaction(System.nanoTime() - transactionStartNanos, commit); }
+    }
+
+    private void recordLockWait(long waitStartNanos) {
+        final DatabaseMetrics m = getMetrics();
+        if (m != null) { m.recordLockWait(System.nanoTime() - waitStartNanos); }
+    }
+
+    @GuardedBy("lock")
+    private void updateActiveReplicatorsLocked() {
+        final DatabaseMetrics m = getMetrics();
+        if (m != null) { m.setActiveReplicators(activeReplications.size()); }
+    }
+
+    private C4Database openC4Db(@Nullable byte[] encryptionKey) throws CouchbaseLiteException {
         final File dbFile = getDatabaseFile(new File(config.getDirectory()), this.name);
         Log.i(DOMAIN, "Opening %s at path %s", this, dbFile.getPath());
+        emitDatabaseEvent("database.open", dbFile.getPath());
 
-        try {
-            return new C4Database(
-                dbFile.getPath(),
-                getDatabaseFlags(),
-                null,
-                C4Constants.DocumentVersioning.REVISION_TREES,
-                getEncryptionAlgorithm(),
-                getEncryptionKey());
-        }
+        try { return newC4Database(dbFile.getPath(), encryptionKey); }
         catch (LiteCoreException e) {
             if (e.code == CBLError.Code.NOT_A_DATABSE_FILE) {
                 throw new CouchbaseLiteException(
@@ -1068,7 +1580,96 @@ abstract class AbstractDatabase {
         }
     }
 
-    private int getDatabaseFlags() { return DEFAULT_DATABASE_FLAGS; }
+    @NonNull
+    private C4Database newC4Database(@NonNull String dbPath, @Nullable byte[] encryptionKey)
+        throws LiteCoreException {
+        return new C4Database(
+            dbPath,
+            getDatabaseFlags(),
+            null,
+            C4Constants.DocumentVersioning.REVISION_TREES,
+            getEncryptionAlgorithm(),
+            encryptionKey);
+    }
+
+    @NonNull
+    private ExecutionService.CloseableExecutor getPostExecutor() {
+        final ExecutionService.CloseableExecutor exec = postExecutor;
+        if (exec != null) { return exec; }
+        synchronized (executorLock) {
+            if (postExecutor == null) { postExecutor = newExecutorLocked(); }
+            return postExecutor;
+        }
+    }
+
+    @NonNull
+    private ExecutionService.CloseableExecutor getQueryExecutor() {
+        final ExecutionService.CloseableExecutor exec = queryExecutor;
+        if (exec != null) { return exec; }
+        synchronized (executorLock) {
+            if (queryExecutor == null) { queryExecutor = newExecutorLocked(); }
+            return queryExecutor;
+        }
+    }
+
+    // An executor requested after the database has been closed is stopped: it will refuse tasks.
+    @GuardedBy("executorLock")
+    @NonNull
+    private ExecutionService.CloseableExecutor newExecutorLocked() {
+        final ExecutionService.CloseableExecutor exec = CouchbaseLiteInternal.getExecutionService().getSerialExecutor();
+        if (executorsStopped) { exec.stop(0, TimeUnit.SECONDS); }
+        return exec;
+    }
+
+    // Checking for expiring documents is cheap: don't start the purge machinery unless there are some.
+    @GuardedBy("lock")
+    private void schedulePurgeLocked(long minDelayMs) {
+        if (purgeStrategy == null) {
+            if (getC4Database().nextDocExpiration() <= 0) { return; }
+            purgeStrategy = new DocumentExpirationStrategy(this, STANDARD_PURGE_INTERVAL_MS, getPostExecutor());
+        }
+        purgeStrategy.schedulePurge(minDelayMs);
+    }
+
+    private static void reportOpen(@NonNull DatabaseOpenListener listener, @NonNull DatabaseOpenStats stats) {
+        try { listener.opened(stats); }
+        catch (RuntimeException e) { Log.w(DOMAIN, "Database open listener failed", e); }
+    }
+
+    private int getDatabaseFlags() {
+        return (config.isReadOnlyAccess()) ? READ_ONLY_DATABASE_FLAGS : DEFAULT_DATABASE_FLAGS;
+    }
+
+    // Build an index on a separate connection, so that the build does not hold the database lock.
+    // Creating the index is a single LiteCore transaction: the index becomes visible when it commits.
+    private void buildIndex(
+        @NonNull IndexBuild build,
+        @NonNull String dbPath,
+        @NonNull String json,
+        @NonNull AbstractIndex index) {
+        build.start();
+
+        CouchbaseLiteException err = null;
+        C4Database db = null;
+        try {
+            db = newC4Database(dbPath, getEncryptionKey());
+            db.createIndex(build.getName(), json, index.type().getValue(), index.language(), index.ignoreAccents());
+        }
+        catch (LiteCoreException e) {
+            err = CBLStatus.convertException(e);
+        }
+        finally {
+            if (db != null) {
+                try { db.close(); }
+                catch (LiteCoreException e) { Log.w(DOMAIN, "Failed closing index build connection", e); }
+                db.free();
+            }
+            synchronized (lock) { indexBuildEndedLocked(build); }
+        }
+
+        if (err != null) { Log.w(DOMAIN, "Failed building index %s", err, build.getName()); }
+        build.finish(err);
+    }
 
     // --- C4Database
     private void closeC4DB() throws CouchbaseLiteException {
@@ -1085,6 +1686,7 @@ abstract class AbstractDatabase {
     private ListenerToken addDatabaseChangeListenerLocked(
         @Nullable Executor executor,
         @NonNull DatabaseChangeListener listener) {
+        mustBeObservable();
         if (dbChangeNotifier == null) {
             dbChangeNotifier = new ChangeNotifier<>();
             registerC4DBObserver();
@@ -1110,6 +1712,7 @@ abstract class AbstractDatabase {
         @NonNull String docID,
         @Nullable Executor executor,
         @NonNull DocumentChangeListener listener) {
+        mustBeObservable();
         DocumentChangeNotifier docNotifier = docChangeNotifiers.get(docID);
         if (docNotifier == null) {
             docNotifier = new DocumentChangeNotifier((Database) this, docID);
@@ -1187,6 +1790,182 @@ abstract class AbstractDatabase {
         }
     }
 
+    //////// JSON IMPORT/EXPORT:
+    private int importJSONBatch(@NonNull List<String> lines) throws CouchbaseLiteException {
+        synchronized (lock) {
+            mustBeOpen();
+
+            boolean commit = false;
+            beginTransaction();
+            try {
+                for (String line : lines) { importJSONDocument(line); }
+                commit = true;
+            }
+            finally {
+                endTransaction(commit);
+            }
+        }
+
+        return lines.size();
+    }
+
+    @GuardedBy("lock")
+    private void importJSONDocument(@NonNull String json) throws CouchbaseLiteException {
+        final C4Database c4db = getC4Database();
+
+        // Parse without shared keys, so that the "_id" property can be found, by name.
+        final FLEncoder parser = new FLEncoder();
+        FLSliceResult parsed = null;
+        FLSliceResult body = null;
+        try {
+            if (!parser.convertJSON(json.getBytes(StandardCharsets.UTF_8))) {
+                throw new CouchbaseLiteException(
+                    "Cannot parse imported JSON",
+                    CBLError.Domain.CBLITE,
+                    CBLError.Code.INVALID_PARAMETER);
+            }
+            parsed = parser.finish2();
+
+            final FLValue root = FLValue.fromData(parsed);
+            if ((root == null) || (root.getType() != FLConstants.ValueType.DICT)) {
+                throw new CouchbaseLiteException(
+                    "Imported JSON is not an object",
+                    CBLError.Domain.CBLITE,
+                    CBLError.Code.INVALID_PARAMETER);
+            }
+
+            final FLDict dict = root.asFLDict();
+            final FLValue idValue = dict.get(JSON_ID_PROPERTY);
+            String docId = ((idValue == null) || (idValue.getType() != FLConstants.ValueType.STRING))
+                ? null
+                : idValue.asString();
+            if (docId == null) { docId = UUID.randomUUID().toString().toLowerCase(Locale.ENGLISH); }
+
+            // Store the body using the database's shared keys.  The ID is not part of the document.
+            body = encodeWithout(c4db, dict, JSON_ID_PROPERTY);
+
+            final int revFlags = (C4Document.dictContainsBlobs(body, sharedKeys.getFLSharedKeys()))
+                ? C4Constants.RevisionFlags.HAS_ATTACHMENTS
+                : 0;
+
+            final C4Document curDoc = getC4DocumentOrNull(docId);
+            if (curDoc != null) { curDoc.update(body, revFlags); }
+            else { c4db.create(docId, body, revFlags); }
+        }
+        catch (LiteCoreException e) {
+            throw CBLStatus.convertException(e);
+        }
+        finally {
+            if (body != null) { body.free(); }
+            if (parsed != null) { parsed.free(); }
+            parser.free();
+        }
+    }
+
+    // Read the next batch of documents to be exported.
+    // Return false if there are no more documents.
+    private boolean exportJSONBatch(@NonNull C4DocEnumerator docs, @NonNull List<String> batch)
+        throws CouchbaseLiteException {
+        synchronized (lock) {
+            mustBeOpen();
+
+            try {
+                while (batch.size() < EXPORT_BATCH_SIZE) {
+                    if (!docs.next()) { return false; }
+
+                    if ((docs.getFlags() & C4Constants.DocumentFlags.DELETED) != 0) { continue; }
+
+                    final C4Document doc = docs.getDocument();
+                    try { batch.add(toExportJSON(doc.getDocID(), doc.bodyAsJSON(false))); }
+                    finally { doc.free(); }
+                }
+            }
+            catch (LiteCoreException e) {
+                throw CBLStatus.convertException(e);
+            }
+        }
+
+        return true;
+    }
+
+    @NonNull
+    private String toExportJSON(@NonNull String docId, @Nullable String body) {
+        final StringBuilder buf = new StringBuilder("{\"").append(JSON_ID_PROPERTY).append("\":");
+        appendJSONString(buf, docId);
+        // the body is an object: splice in its properties
+        final int start = (body == null) ? -1 : body.indexOf('{') + 1;
+        if ((start > 0) && (body.trim().length() > 2)) { buf.append(',').append(body, start, body.length()); }
+        else { buf.append('}'); }
+        return buf.append('\n').toString();
+    }
+
+    @GuardedBy("lock")
+    @NonNull
+    private FLSliceResult encodeWithout(@NonNull C4Database c4db, @NonNull FLDict dict, @NonNull String omit)
+        throws LiteCoreException {
+        final FLEncoder encoder = c4db.getSharedFleeceEncoder();
+        final FLDictIterator itr = new FLDictIterator();
+        try {
+            encoder.beginDict(dict.count());
+            itr.begin(dict);
+            String key;
+            while ((key = itr.getKeyString()) != null) {
+                if (!omit.equals(key)) {
+                    encoder.writeKey(key);
+                    encoder.writeValue(itr.getValue());
+                }
+                itr.next();
+            }
+            encoder.endDict();
+            return encoder.finish2();
+        }
+        finally {
+            itr.free();
+            encoder.reset();
+        }
+    }
+
+    private void appendJSONString(@NonNull StringBuilder buf, @NonNull String str) {
+        buf.append('"');
+        final int n = str.length();
+        for (int i = 0; i < n; i++) {
+            final char c = str.charAt(i);
+            switch (c) {
+                case '"':
+                    buf.append("\\\"");
+                    break;
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                case '\r':
+                    buf.append("\\r");
+                    break;
+                case '\t':
+                    buf.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) { buf.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c)); }
+                    else { buf.append(c); }
+            }
+        }
+        buf.append('"');
+    }
+
+    @GuardedBy("lock")
+    @Nullable
+    private C4Document getC4DocumentOrNull(@NonNull String id) throws CouchbaseLiteException {
+        try { return getC4Database().get(id, true); }
+        catch (LiteCoreException e) {
+            if ((e.domain == C4Constants.ErrorDomain.LITE_CORE) && (e.code == C4Constants.LiteCoreError.NOT_FOUND)) {
+                return null;
+            }
+            throw CBLStatus.convertException(e);
+        }
+    }
+
     private void prepareDocument(Document document) throws CouchbaseLiteException {
         mustBeOpen();
 
@@ -1340,6 +2119,11 @@ abstract class AbstractDatabase {
             rawDoc.save(0);
 
             Log.i(DOMAIN, "Conflict resolved as doc '%s' rev %s", rawDoc.getDocID(), rawDoc.getRevID());
+
+            final StructuredLogEvent event = Log.event(LogLevel.INFO, DOMAIN, "database.conflictResolved");
+            if (event != null) {
+                event.put("database", name).put("docId", rawDoc.getDocID()).put("revId", rawDoc.getRevID()).emit();
+            }
         }
         catch (LiteCoreException e) {
             throw CBLStatus.convertException(e);
@@ -1409,34 +2193,42 @@ abstract class AbstractDatabase {
                 CBLError.Code.NOT_FOUND);
         }
 
-        synchronized (lock) {
-            prepareDocument(document);
+        final long startTime = System.nanoTime();
+        try {
+            synchronized (lock) {
+                recordLockWait(startTime);
+                prepareDocument(document);
 
-            boolean commit = false;
-            beginTransaction();
-            try {
+                boolean commit = false;
+                beginTransaction();
                 try {
-                    saveInTransaction(document, (baseDoc == null) ? null : baseDoc.getC4doc(), deleting);
-                    commit = true;
-                    return;
-                }
-                catch (CouchbaseLiteException e) {
-                    if (!CouchbaseLiteException.isConflict(e)) { throw e; }
-                }
+                    try {
+                        saveInTransaction(document, (baseDoc == null) ? null : baseDoc.getC4doc(), deleting);
+                        commit = true;
+                        return;
+                    }
+                    catch (CouchbaseLiteException e) {
+                        if (!CouchbaseLiteException.isConflict(e)) { throw e; }
+                    }
 
-                // Conflict
+                    // Conflict
 
-                // return false if FAIL_ON_CONFLICT
-                if (concurrencyControl.equals(ConcurrencyControl.FAIL_ON_CONFLICT)) {
-                    throw new CouchbaseLiteException("Conflict", CBLError.Domain.CBLITE, CBLError.Code.CONFLICT);
-                }
+                    // return false if FAIL_ON_CONFLICT
+                    if (concurrencyControl.equals(ConcurrencyControl.FAIL_ON_CONFLICT)) {
+                        throw new CouchbaseLiteException("Conflict", CBLError.Domain.CBLITE, CBLError.Code.CONFLICT);
+                    }
 
-                commit = saveConflicted(document, deleting);
-            }
-            finally {
-                endTransaction(commit);
+                    commit = saveConflicted(document, deleting);
+                }
+                finally {
+                    endTransaction(commit);
+                }
             }
         }
+        finally {
+            final DatabaseMetrics m = getMetrics();
+            if (m != null) { m.recordSave(System.nanoTime() - startTime); }
+        }
     }
 
     private boolean saveConflicted(@NonNull Document document, boolean deleting)
@@ -1532,6 +2324,13 @@ abstract class AbstractDatabase {
                 CBLError.Domain.CBLITE,
                 CBLError.Code.BUSY);
         }
+
+        if (!activeIndexBuilds.isEmpty()) {
+            throw new CouchbaseLiteException(
+                "DeleteDBFailedIndexBuilds",
+                CBLError.Domain.CBLITE,
+                CBLError.Code.BUSY);
+        }
     }
 
     private boolean hasActiveReplicators() {
@@ -1546,13 +2345,22 @@ abstract class AbstractDatabase {
         // release instances
         freeC4Observers(true);
 
+        if (metrics != null) { DatabaseMetrics.close(metrics); }
+
         if ((!shellMode) && (c4db != null)) {
             path = c4db.getPath();
             c4db = null;
         }
 
         // shutdown executor service
-        shutdownExecutors(postExecutor, queryExecutor, SHUTDOWN_DELAY_SECS);
+        final ExecutionService.CloseableExecutor pExec;
+        final ExecutionService.CloseableExecutor qExec;
+        synchronized (executorLock) {
+            executorsStopped = true;
+            pExec = postExecutor;
+            qExec = queryExecutor;
+        }
+        shutdownExecutors(pExec, qExec, SHUTDOWN_DELAY_SECS);
     }
 
     // called from the finalizer
@@ -1570,6 +2378,8 @@ abstract class AbstractDatabase {
         // since called only from the finalizer
         freeC4Observers(false);
 
+        if (metrics != null) { DatabaseMetrics.close(metrics); }
+
         // shutdown executor service with no delay
         shutdownExecutors(pExec, qExec, 0);
     }
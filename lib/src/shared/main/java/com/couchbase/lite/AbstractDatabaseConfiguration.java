@@ -35,6 +35,7 @@ abstract class AbstractDatabaseConfiguration {
 
     private String rootDirectory;
     private String dbDirectory;
+    private boolean readOnlyAccess;
 
     //---------------------------------------------
     // Constructors
@@ -44,6 +45,7 @@ abstract class AbstractDatabaseConfiguration {
         CouchbaseLiteInternal.requireInit("Cannot create database configuration");
         this.readOnly = readOnly;
         setRootDirectory((config == null) ? null : config.rootDirectory);
+        this.readOnlyAccess = (config != null) && config.readOnlyAccess;
     }
 
     //---------------------------------------------
@@ -61,6 +63,13 @@ abstract class AbstractDatabaseConfiguration {
     @NonNull
     public String getDirectory() { return dbDirectory; }
 
+    /**
+     * Whether the database will be opened for reading only.
+     *
+     * @return true if the database will be opened read-only.
+     */
+    public boolean isReadOnlyAccess() { return readOnlyAccess; }
+
     //---------------------------------------------
     // Protected level access
     //---------------------------------------------
@@ -78,6 +87,14 @@ abstract class AbstractDatabaseConfiguration {
         return this;
     }
 
+    protected AbstractDatabaseConfiguration setReadOnlyAccess(boolean readOnlyAccess) {
+        if (readOnly) { throw new IllegalStateException("DatabaseConfiguration is readonly mode."); }
+
+        this.readOnlyAccess = readOnlyAccess;
+
+        return this;
+    }
+
     //---------------------------------------------
     // Package level access
     //---------------------------------------------
@@ -0,0 +1,148 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.GuardedBy;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.couchbase.lite.internal.core.C4Constants;
+import com.couchbase.lite.internal.core.C4DocEnumerator;
+
+
+/**
+ * Base class for cursors that read documents from a native document enumerator.
+ * <p>
+ * Documents are read from the database as the cursor advances, under the database lock.
+ * A document's metadata is read from the enumerator: the document itself is loaded only if requested.
+ * <p>
+ * A cursor holds native resources: close it when done with it.  It closes itself when it is exhausted.
+ */
+public abstract class AbstractDocumentCursor implements Iterable<DocumentMetadata>, AutoCloseable {
+    @NonNull
+    final Database db;
+
+    @GuardedBy("db.getLock()")
+    @Nullable
+    private C4DocEnumerator c4enum;
+
+    AbstractDocumentCursor(@NonNull Database db, @NonNull C4DocEnumerator c4enum) {
+        this.db = db;
+        this.c4enum = c4enum;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * Move the cursor forward to the next document.
+     *
+     * @return the next document, or null if there are no more documents or the cursor has been closed.
+     * @throws CouchbaseLiteException on a database error
+     */
+    @Nullable
+    public DocumentMetadata next() throws CouchbaseLiteException {
+        synchronized (db.getLock()) { return nextLocked(); }
+    }
+
+    /**
+     * Close the cursor, freeing its native resources.
+     */
+    @Override
+    public void close() {
+        synchronized (db.getLock()) { closeLocked(); }
+    }
+
+    //---------------------------------------------
+    // Iterable implementation
+    //---------------------------------------------
+
+    /**
+     * Return an iterator over the remaining documents.
+     * A database error ends the iteration: use {@link #next()} to observe errors.
+     *
+     * @return an iterator over the documents
+     */
+    @NonNull
+    @Override
+    public Iterator<DocumentMetadata> iterator() {
+        return new Iterator<DocumentMetadata>() {
+            @Nullable
+            private DocumentMetadata nextDoc;
+
+            @Override
+            public boolean hasNext() {
+                if (nextDoc == null) {
+                    try { nextDoc = AbstractDocumentCursor.this.next(); }
+                    catch (CouchbaseLiteException e) { return false; }
+                }
+                return nextDoc != null;
+            }
+
+            @Override
+            public DocumentMetadata next() {
+                if (!hasNext()) { throw new NoSuchElementException(); }
+                final DocumentMetadata doc = nextDoc;
+                nextDoc = null;
+                return doc;
+            }
+        };
+    }
+
+    //---------------------------------------------
+    // Package visibility
+    //---------------------------------------------
+
+    @GuardedBy("db.getLock()")
+    @Nullable
+    abstract DocumentMetadata nextLocked() throws CouchbaseLiteException;
+
+    // Returns the enumerator, or null if the cursor is closed.
+    // Closes the cursor if the database has been closed.
+    @GuardedBy("db.getLock()")
+    @Nullable
+    final C4DocEnumerator getEnumeratorLocked() {
+        if ((c4enum != null) && !db.isOpen()) { closeLocked(); }
+        return c4enum;
+    }
+
+    // The metadata for the enumerator's current document.
+    // The native document is loaded only if it is handed to a Document, which owns it.
+    @GuardedBy("db.getLock()")
+    @NonNull
+    final DocumentMetadata getMetadataLocked(@NonNull C4DocEnumerator docs, boolean includeBody)
+        throws LiteCoreException {
+        final String id = docs.getDocID();
+        final boolean deleted = (docs.getFlags() & C4Constants.DocumentFlags.DELETED) != 0;
+        return new DocumentMetadata(
+            id,
+            docs.getRevID(),
+            docs.getSequence(),
+            deleted,
+            ((!includeBody) || deleted) ? null : new Document(db, id, docs.getDocument(), false));
+    }
+
+    @GuardedBy("db.getLock()")
+    final void closeLocked() {
+        final C4DocEnumerator e = c4enum;
+        c4enum = null;
+        if (e != null) { e.free(); }
+    }
+}
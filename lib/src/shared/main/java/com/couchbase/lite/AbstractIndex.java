@@ -34,4 +34,8 @@ abstract class AbstractIndex implements Index {
 
     @NonNull
     abstract List<Object> items();
+
+    // The index specification passed to LiteCore: usually just the list of indexed expressions.
+    @NonNull
+    Object indexSpec() { return items(); }
 }
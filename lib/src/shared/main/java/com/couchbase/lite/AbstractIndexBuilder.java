@@ -41,6 +41,21 @@ abstract class AbstractIndexBuilder {
         return new ValueIndex(items);
     }
 
+    /**
+     * Create an array index, which indexes each element of an array. The index items are expressions
+     * evaluated against each element.  With no index items, the elements themselves are indexed.
+     * The index is used by queries that unnest the array: see {@link Join#unnest(Expression, String)}.
+     *
+     * @param array the array to be indexed: typically a property expression.
+     * @param items The index items
+     * @return The array index
+     */
+    public static ArrayIndex arrayIndex(@NonNull Expression array, @NonNull ValueIndexItem... items) {
+        Preconditions.assertNotNull(array, "array");
+        Preconditions.assertNotNull(items, "items");
+        return new ArrayIndex(array, items);
+    }
+
     /**
      * Create a full-text search index with the given index item and options. Typically the index item is
      * the property that is used to perform the match operation against with.
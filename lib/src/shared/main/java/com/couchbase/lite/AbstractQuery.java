@@ -19,6 +19,7 @@ package com.couchbase.lite;
 
 import android.support.annotation.GuardedBy;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -27,7 +28,6 @@ import java.util.Map;
 import java.util.concurrent.Executor;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.json.JSONException;
 
 import com.couchbase.lite.internal.CBLStatus;
 import com.couchbase.lite.internal.core.C4Query;
@@ -53,6 +53,20 @@ abstract class AbstractQuery implements Query {
     @GuardedBy("lock")
     private C4Query c4query;
 
+    // The plan for c4query: parsed only if needed.
+    @GuardedBy("lock")
+    private QueryPlan plan;
+
+    // True once a full scan by c4query has been logged: the warning is logged only once.
+    @GuardedBy("lock")
+    private boolean fullScanWarned;
+
+    @NonNull
+    private volatile FullScanPolicy fullScanPolicy = FullScanPolicy.IGNORE;
+
+    // The JSON for the compiled query: the key for its QueryMetrics.
+    private volatile String shape;
+
     @GuardedBy("lock")
     private LiveQuery liveQuery;
 
@@ -131,13 +145,18 @@ abstract class AbstractQuery implements Query {
             if (parameters == null) { parameters = new Parameters(); }
             params = parameters.encode();
             final C4QueryEnumerator c4enum;
+            final QueryMetrics.Recorder metrics;
             synchronized (getDatabase().getLock()) {
                 synchronized (lock) {
                     if (c4query == null) { c4query = prepQueryLocked(); }
+                    checkFullScanLocked();
+                    metrics = QueryMetrics.getRecorder(shape);
+                    final long start = (metrics == null) ? 0 : System.nanoTime();
                     c4enum = c4query.run(options, params);
+                    if (metrics != null) { metrics.recordExecute(System.nanoTime() - start); }
                 }
             }
-            return new ResultSet(this, c4enum, columnNames);
+            return new ResultSet(this, c4enum, columnNames, metrics);
         }
         catch (LiteCoreException e) {
             throw CBLStatus.convertException(e);
@@ -172,6 +191,33 @@ abstract class AbstractQuery implements Query {
         }
     }
 
+    /**
+     * Returns the plan for the compiled query, parsed from the output of {@link #explain()}.
+     *
+     * @return the query plan.
+     * @throws CouchbaseLiteException if an error occurs
+     */
+    @NonNull
+    @Override
+    public QueryPlan explainPlan() throws CouchbaseLiteException {
+        synchronized (getDatabase().getLock()) {
+            synchronized (lock) {
+                if (c4query == null) { c4query = prepQueryLocked(); }
+                return getPlanLocked();
+            }
+        }
+    }
+
+    /**
+     * Sets what the query should do, when executed, if its plan reads every document in the database.
+     *
+     * @param policy the full scan policy.
+     */
+    @Override
+    public void setFullScanPolicy(@NonNull FullScanPolicy policy) {
+        fullScanPolicy = Preconditions.assertNotNull(policy, "policy");
+    }
+
     /**
      * Adds a query change listener. Changes will be posted on the main queue.
      *
@@ -198,6 +244,11 @@ abstract class AbstractQuery implements Query {
     @Override
     public ListenerToken addChangeListener(Executor executor, @NonNull QueryChangeListener listener) {
         Preconditions.assertNotNull(listener, "listener");
+
+        // check before changing any state: a read-only database cannot be observed
+        final Database db = getDatabase();
+        if (db != null) { db.mustBeObservable(); }
+
         return getLiveQuery().addChangeListener(executor, listener);
     }
 
@@ -265,8 +316,12 @@ abstract class AbstractQuery implements Query {
         this.orderBy = query.orderBy;
         this.limit = query.limit;
         this.parameters = query.parameters;
+        this.fullScanPolicy = query.fullScanPolicy;
     }
 
+    @Nullable
+    String getShape() { return shape; }
+
     //---------------------------------------------
     // Private methods
     //---------------------------------------------
@@ -281,8 +336,47 @@ abstract class AbstractQuery implements Query {
 
         if (columnNames == null) { columnNames = getColumnNames(); }
 
-        try { return database.getC4Database().createQuery(json); }
+        final QueryMetrics.Recorder metrics = QueryMetrics.getRecorder(json);
+        final long start = (metrics == null) ? 0 : System.nanoTime();
+        final C4Query query;
+        try { query = database.getC4Database().createQuery(json); }
         catch (LiteCoreException e) { throw CBLStatus.convertException(e); }
+        if (metrics != null) { metrics.recordCompile(System.nanoTime() - start); }
+
+        shape = json;
+        return query;
+    }
+
+    @GuardedBy("lock")
+    @NonNull
+    private QueryPlan getPlanLocked() {
+        if (plan == null) { plan = QueryPlan.parse(c4query.explain()); }
+        return plan;
+    }
+
+    @GuardedBy("lock")
+    private void checkFullScanLocked() throws CouchbaseLiteException {
+        final FullScanPolicy policy = fullScanPolicy;
+        if (policy == FullScanPolicy.IGNORE) { return; }
+
+        final QueryPlan queryPlan = getPlanLocked();
+        if (!queryPlan.isFullScan()) { return; }
+
+        switch (policy) {
+            case WARN:
+                if (!fullScanWarned) {
+                    fullScanWarned = true;
+                    Log.w(DOMAIN, "Query does not use an index: %s", queryPlan.getSql());
+                }
+                return;
+            case FAIL:
+                throw new CouchbaseLiteException(
+                    "Query does not use an index: " + queryPlan.getSql(),
+                    CBLError.Domain.CBLITE,
+                    CBLError.Code.INVALID_QUERY);
+            default:
+                return;
+        }
     }
 
     private Map<String, Integer> getColumnNames() throws CouchbaseLiteException {
@@ -309,13 +403,62 @@ abstract class AbstractQuery implements Query {
     }
 
     private String encodeAsJson() {
-        try { return JsonUtils.toJson(asJson()).toString(); }
-        catch (JSONException e) {
+        try { return JsonUtils.buildJsonString(this::writeJson); }
+        catch (IllegalArgumentException e) {
             Log.w(DOMAIN, "Error when encoding the query as a json string", e);
         }
         return null;
     }
 
+    // Write the same JSON as asJson(), but directly from the expression tree.
+    // Expressions that cannot change memoize their JSON, so re-encoding a query is cheap.
+    @SuppressWarnings({"unchecked", "PMD.NPathComplexity"})
+    private void writeJson(@NonNull StringBuilder out) {
+        final int start = out.length();
+        out.append('{');
+
+        // DISTINCT:
+        if (select != null && select.isDistinct()) { appendKey(out, start, "DISTINCT").append(true); }
+
+        // result-columns / SELECT-RESULTS
+        if (select != null && select.hasSelectResults()) { select.appendJSON(appendKey(out, start, "WHAT")); }
+
+        // JOIN:
+        final List<Object> f = new ArrayList<>();
+        final Map<String, Object> as = from.asJSON();
+        if (!as.isEmpty()) { f.add(as); }
+
+        if (joins != null) { f.addAll((List<Object>) joins.asJSON()); }
+
+        if (!f.isEmpty()) { JsonUtils.writeJson(appendKey(out, start, "FROM"), f); }
+
+        if (where != null) { where.appendJSON(appendKey(out, start, "WHERE")); }
+
+        if (groupBy != null) { groupBy.appendJSON(appendKey(out, start, "GROUP_BY")); }
+
+        if (having != null) {
+            final Expression havingExpr = having.getExpression();
+            if (havingExpr != null) { havingExpr.appendJSON(appendKey(out, start, "HAVING")); }
+        }
+
+        if (orderBy != null) { orderBy.appendJSON(appendKey(out, start, "ORDER_BY")); }
+
+        if (limit != null) {
+            limit.getLimit().appendJSON(appendKey(out, start, "LIMIT"));
+            final Expression offset = limit.getOffset();
+            if (offset != null) { offset.appendJSON(appendKey(out, start, "OFFSET")); }
+        }
+
+        out.append('}');
+    }
+
+    @NonNull
+    private static StringBuilder appendKey(@NonNull StringBuilder out, int start, @NonNull String key) {
+        if (out.length() > start + 1) { out.append(','); }
+        out.append('"').append(key).append("\":");
+        return out;
+    }
+
     @SuppressWarnings({"unchecked", "PMD.NPathComplexity"})
     private Map<String, Object> asJson() {
         final Map<String, Object> json = new HashMap<>();
@@ -57,6 +57,7 @@ import com.couchbase.lite.internal.fleece.FLDict;
 import com.couchbase.lite.internal.fleece.FLEncoder;
 import com.couchbase.lite.internal.fleece.FLValue;
 import com.couchbase.lite.internal.support.Log;
+import com.couchbase.lite.internal.support.StructuredLogEvent;
 import com.couchbase.lite.internal.utils.Preconditions;
 import com.couchbase.lite.internal.utils.StringUtils;
 import com.couchbase.lite.utils.Fn;
@@ -801,6 +802,9 @@ public abstract class AbstractReplicator extends NetworkReachabilityListener {
     void queueConflictResolution(@NonNull String docId, int flags) {
         Log.i(DOMAIN, "%s: pulled conflicting version of '%s'", this, docId);
 
+        final StructuredLogEvent event = Log.event(LogLevel.INFO, DOMAIN, "replicator.conflict");
+        if (event != null) { event.put("replicator", toString()).put("docId", docId).emit(); }
+
         final ExecutionService.CloseableExecutor executor
             = CouchbaseLiteInternal.getExecutionService().getConcurrentExecutor();
         final Database db = config.getDatabase();
@@ -842,7 +846,20 @@ public abstract class AbstractReplicator extends NetworkReachabilityListener {
         final List<DocumentReplicationListenerToken> tokens;
         synchronized (lock) { tokens = new ArrayList<>(docEndedListenerTokens); }
         for (DocumentReplicationListenerToken token : tokens) { token.notify(update); }
-        Log.i(DOMAIN, "notifyDocumentEnded: %s" + update);
+        Log.i(DOMAIN, "notifyDocumentEnded: %s", update);
+
+        for (ReplicatedDocument doc : docs) {
+            final StructuredLogEvent event = Log.event(LogLevel.INFO, DOMAIN, "replicator.document");
+            if (event == null) { break; }
+
+            final CouchbaseLiteException err = doc.getError();
+            event.put("replicator", toString())
+                .put("docId", doc.getID())
+                .put("pushing", pushing)
+                .put("errorDomain", (err == null) ? null : err.getDomain())
+                .put("errorCode", (err == null) ? 0 : err.getCode())
+                .emit();
+        }
     }
 
     //---------------------------------------------
@@ -1042,6 +1059,18 @@ public abstract class AbstractReplicator extends NetworkReachabilityListener {
             c4Status.getProgressUnitsCompleted(),
             c4Status.getProgressUnitsTotal(),
             error);
+
+        final StructuredLogEvent event = Log.event(LogLevel.INFO, DOMAIN, "replicator.status");
+        if (event != null) {
+            event.put("replicator", toString())
+                .put("activityLevel", REPLICATOR_ACTIVITY_LEVEL_NAMES.get(c4Status.getActivityLevel()))
+                .put("completed", c4Status.getProgressUnitsCompleted())
+                .put("total", c4Status.getProgressUnitsTotal())
+                .put("documentCount", c4Status.getProgressDocumentCount())
+                .put("errorDomain", c4Status.getErrorDomain())
+                .put("errorCode", c4Status.getErrorCode())
+                .emit();
+        }
     }
 
     // !!! CBL-689
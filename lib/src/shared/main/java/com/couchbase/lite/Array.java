@@ -20,6 +20,7 @@ package com.couchbase.lite;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
@@ -70,18 +71,23 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @NonNull
     protected final MArray internalArray;
 
+    // An immutable array is a snapshot: it is safe to read without the lock.
+    private final boolean readOnly;
+
     //---------------------------------------------
     // Constructors
     //---------------------------------------------
     Array() {
         internalArray = new MArray();
         lock = getSharedLock();
+        readOnly = !internalArray.isMutable();
     }
 
     Array(@NonNull MValue mv, @Nullable MCollection parent) {
         internalArray = new MArray();
         internalArray.initInSlot(mv, parent);
         lock = getSharedLock();
+        readOnly = !internalArray.isMutable();
     }
 
     // to crete mutable copy
@@ -89,6 +95,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
         internalArray = new MArray();
         internalArray.initAsCopyOf(mArray, isMutable);
         lock = getSharedLock();
+        readOnly = !internalArray.isMutable();
     }
 
     //---------------------------------------------
@@ -102,6 +109,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public final int count() {
+        if (readOnly) { return (int) internalArray.count(); }
         synchronized (lock) { return (int) internalArray.count(); }
     }
 
@@ -116,7 +124,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public Object getValue(int index) {
-        synchronized (lock) { return getMValue(internalArray, index).asNative(internalArray); }
+        return getNative(index);
     }
 
     /**
@@ -128,10 +136,8 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public String getString(int index) {
-        synchronized (lock) {
-            final Object obj = getMValue(internalArray, index).asNative(internalArray);
-            return obj instanceof String ? (String) obj : null;
-        }
+        final Object obj = getNative(index);
+        return obj instanceof String ? (String) obj : null;
     }
 
     /**
@@ -143,7 +149,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public Number getNumber(int index) {
-        synchronized (lock) { return CBLConverter.asNumber(getMValue(internalArray, index).asNative(internalArray)); }
+        return CBLConverter.asNumber(getNative(index));
     }
 
     /**
@@ -156,7 +162,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public int getInt(int index) {
-        synchronized (lock) { return CBLConverter.asInteger(getMValue(internalArray, index), internalArray); }
+        return CBLConverter.asInteger(getMValue(index), internalArray);
     }
 
     /**
@@ -169,7 +175,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public long getLong(int index) {
-        synchronized (lock) { return CBLConverter.asLong(getMValue(internalArray, index), internalArray); }
+        return CBLConverter.asLong(getMValue(index), internalArray);
     }
 
     /**
@@ -182,7 +188,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public float getFloat(int index) {
-        synchronized (lock) { return CBLConverter.asFloat(getMValue(internalArray, index), internalArray); }
+        return CBLConverter.asFloat(getMValue(index), internalArray);
     }
 
     /**
@@ -195,7 +201,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public double getDouble(int index) {
-        synchronized (lock) { return CBLConverter.asDouble(getMValue(internalArray, index), internalArray); }
+        return CBLConverter.asDouble(getMValue(index), internalArray);
     }
 
     /**
@@ -206,7 +212,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
      */
     @Override
     public boolean getBoolean(int index) {
-        synchronized (lock) { return CBLConverter.asBoolean(getMValue(internalArray, index).asNative(internalArray)); }
+        return CBLConverter.asBoolean(getNative(index));
     }
 
     /**
@@ -219,7 +225,7 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public Blob getBlob(int index) {
-        synchronized (lock) { return (Blob) getMValue(internalArray, index).asNative(internalArray); }
+        return (Blob) getNative(index);
     }
 
     /**
@@ -237,6 +243,26 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Override
     public Date getDate(int index) { return DateUtils.fromJson(getString(index)); }
 
+    /**
+     * Gets value at the given index as an Instant.
+     * This is the same as {@link #getDate(int)} but returns an immutable Instant.
+     *
+     * @param index the index. This value must not exceed the bounds of the array.
+     * @return the Instant value or null.
+     */
+    @Nullable
+    public Instant getInstant(int index) { return DateUtils.toInstant(getString(index)); }
+
+    /**
+     * Gets value at the given index as a date, in milliseconds since the epoch.
+     * The value is parsed as for {@link #getDate(int)} but no Date object is created.
+     * Returns 0 if the value doesn't exist, is not a string, or is not parsable as a date.
+     *
+     * @param index the index. This value must not exceed the bounds of the array.
+     * @return the date, in milliseconds since 1970-01-01T00:00:00Z, or 0.
+     */
+    public long getEpochMillis(int index) { return DateUtils.toEpochMillis(getString(index)); }
+
     /**
      * Gets a Array at the given index. Return null if the value is not an array.
      *
@@ -246,10 +272,8 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public Array getArray(int index) {
-        synchronized (lock) {
-            final Object obj = getMValue(internalArray, index).asNative(internalArray);
-            return (obj instanceof Array) ? (Array) obj : null;
-        }
+        final Object obj = getNative(index);
+        return (obj instanceof Array) ? (Array) obj : null;
     }
 
     /**
@@ -261,10 +285,8 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @Nullable
     @Override
     public Dictionary getDictionary(int index) {
-        synchronized (lock) {
-            final Object obj = getMValue(internalArray, index).asNative(internalArray);
-            return (obj instanceof Dictionary) ? (Dictionary) obj : null;
-        }
+        final Object obj = getNative(index);
+        return (obj instanceof Dictionary) ? (Dictionary) obj : null;
     }
 
     /**
@@ -276,14 +298,8 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     @NonNull
     @Override
     public List<Object> toList() {
-        synchronized (lock) {
-            final int count = (int) internalArray.count();
-            final List<Object> result = new ArrayList<>(count);
-            for (int index = 0; index < count; index++) {
-                result.add(Fleece.toObject(getMValue(internalArray, index).asNative(internalArray)));
-            }
-            return result;
-        }
+        if (readOnly) { return copyToList(); }
+        synchronized (lock) { return copyToList(); }
     }
 
     //---------------------------------------------
@@ -354,15 +370,38 @@ public class Array implements ArrayInterface, FLEncodable, Iterable<Object> {
     //-------------------------------------------------------------------------
     private Object getSharedLock() {
         final MContext context = internalArray.getContext();
-        return ((context == null) || (context == MContext.NULL))
-            ? new Object()
-            : ((DocContext) context).getDatabase().getLock();
+        final Database db = ((context == null) || (context == MContext.NULL))
+            ? null
+            : ((DocContext) context).getDatabase();
+        return (db == null) ? new Object() : db.getLock();
     }
 
     @NonNull
-    private MValue getMValue(@NonNull MArray array, int index) {
-        final MValue value = array.get(index);
+    private MValue getMValue(int index) {
+        if (readOnly) { return getMValueUnlocked(index); }
+        synchronized (lock) { return getMValueUnlocked(index); }
+    }
+
+    @Nullable
+    private Object getNative(int index) {
+        if (readOnly) { return getMValueUnlocked(index).asNative(internalArray); }
+        synchronized (lock) { return getMValueUnlocked(index).asNative(internalArray); }
+    }
+
+    @NonNull
+    private MValue getMValueUnlocked(int index) {
+        final MValue value = internalArray.get(index);
         if (value.isEmpty()) { throwRangeException(index); }
         return value;
     }
+
+    @NonNull
+    private List<Object> copyToList() {
+        final int count = (int) internalArray.count();
+        final List<Object> result = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            result.add(Fleece.toObject(getMValueUnlocked(index).asNative(internalArray)));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,67 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Array index: an index of the elements of an array property.
+ * <p>
+ * Each element of the array, in each document, gets its own index entry.  If the index has no items,
+ * the elements themselves are indexed.  Otherwise, the items are expressions evaluated against
+ * each element: e.g., for an array of dictionaries, {@code ValueIndexItem.property("sku")}
+ * indexes the "sku" property of each dictionary in the array.
+ * <p>
+ * Array indexes are used by queries that unnest the indexed array ({@link Join#unnest(Expression, String)}).
+ * They are not used by {@link ArrayExpression#any(VariableExpression)} predicates or by
+ * {@link ArrayFunction#contains(Expression, Expression)}: those always evaluate the array in each document.
+ */
+public final class ArrayIndex extends AbstractIndex {
+    @NonNull
+    private final Expression array;
+    @NonNull
+    private final List<ValueIndexItem> indexItems;
+
+    ArrayIndex(@NonNull Expression array, ValueIndexItem... indexItems) {
+        this.array = array;
+        this.indexItems = Arrays.asList(indexItems);
+    }
+
+    @NonNull
+    @Override
+    IndexType type() { return IndexType.Array; }
+
+    @Override
+    String language() { return null; }
+
+    @Override
+    boolean ignoreAccents() { return false; }
+
+    // The first expression is the array: the rest are evaluated against each of its elements.
+    @NonNull
+    @Override
+    List<Object> items() {
+        final List<Object> items = new ArrayList<>();
+        items.add(array.asJSON());
+        for (ValueIndexItem item : indexItems) { items.add(item.viExpression.asJSON()); }
+        return items;
+    }
+}
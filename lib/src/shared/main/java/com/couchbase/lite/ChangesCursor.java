@@ -0,0 +1,115 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.GuardedBy;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.couchbase.lite.internal.CBLStatus;
+import com.couchbase.lite.internal.core.C4DocEnumerator;
+
+
+/**
+ * A cursor over a database's changes feed: the documents that have changed since a given sequence,
+ * in sequence order.  Each document appears once, at the sequence of its most recent change.
+ * <p>
+ * Changes are read from the database as the cursor advances: the cursor never holds more than one
+ * of them in memory.  The cursor's checkpoint is the sequence number of the last change it returned.
+ * A client that persists the checkpoint can resume from it, later, with
+ * {@link AbstractDatabase#getChanges(long, int, boolean)}.
+ * <p>
+ * A cursor holds native resources: close it when done with it.  It closes itself when it is exhausted.
+ */
+public final class ChangesCursor extends AbstractDocumentCursor {
+    private final int limit;
+    private final boolean includeBodies;
+
+    @GuardedBy("db.getLock()")
+    private int count;
+    private volatile long checkpoint;
+
+    ChangesCursor(@NonNull Database db, @NonNull C4DocEnumerator c4enum, long since, int limit, boolean includeBodies) {
+        super(db, c4enum);
+        this.checkpoint = since;
+        this.limit = limit;
+        this.includeBodies = includeBodies;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * Read all of the remaining changes.
+     *
+     * @return the remaining changes.
+     * @throws CouchbaseLiteException on a database error
+     */
+    @NonNull
+    public List<DocumentMetadata> allChanges() throws CouchbaseLiteException {
+        final List<DocumentMetadata> changes = new ArrayList<>();
+        DocumentMetadata change;
+        while ((change = next()) != null) { changes.add(change); }
+        return changes;
+    }
+
+    /**
+     * The sequence number of the last change returned by this cursor: pass it to
+     * {@link AbstractDatabase#getChanges(long, int, boolean)} to get the changes that follow.
+     * If the cursor has not returned any changes, this is the sequence from which it started.
+     *
+     * @return the sequence number from which to resume.
+     */
+    public long getCheckpoint() { return checkpoint; }
+
+    //---------------------------------------------
+    // Package visibility
+    //---------------------------------------------
+
+    // Returns null if there are no more changes or the limit has been reached.
+    @GuardedBy("db.getLock()")
+    @Nullable
+    @Override
+    DocumentMetadata nextLocked() throws CouchbaseLiteException {
+        final C4DocEnumerator c4enum = getEnumeratorLocked();
+        if (c4enum == null) { return null; }
+
+        if ((limit > 0) && (count >= limit)) {
+            closeLocked();
+            return null;
+        }
+
+        try {
+            if (!c4enum.next()) {
+                closeLocked();
+                return null;
+            }
+
+            final DocumentMetadata change = getMetadataLocked(c4enum, includeBodies);
+            count++;
+            checkpoint = change.getSequence();
+            return change;
+        }
+        catch (LiteCoreException e) {
+            closeLocked();
+            throw CBLStatus.convertException(e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.couchbase.lite.internal.support.Log;
+
+
+/**
+ * Runtime statistics for a single open database.
+ * <p>
+ * The statistics include the time spent waiting for, and holding, the database lock in order to write,
+ * transaction counts and durations, save latency, the number of change notifications waiting
+ * to be delivered, the number of active live queries and replicators, and the number of expired
+ * documents purged.
+ * <p>
+ * Recording is off by default and costs nothing when off.  Only databases opened while recording is
+ * on are instrumented.  When on, each write costs a few calls to System.nanoTime() and a few atomic adds.
+ * Each instrumented database is announced to the {@link DatabaseMetricsRegistry}, if there is one,
+ * and appears in {@link #getSnapshot(int)} until it is closed.
+ */
+public final class DatabaseMetrics {
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private static final ConcurrentMap<Long, DatabaseMetrics> OPEN_DATABASES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    @Nullable
+    private static volatile DatabaseMetricsRegistry registry;
+
+    //---------------------------------------------
+    // API - public static methods
+    //---------------------------------------------
+
+    /**
+     * Turn recording on or off.  Turning recording on does not instrument databases that are already open.
+     * Turning it off stops recording immediately, for all databases.
+     *
+     * @param enable true to record database statistics.
+     */
+    public static void setEnabled(boolean enable) { enabled = enable; }
+
+    /**
+     * Whether database statistics are being recorded.
+     *
+     * @return true if database statistics are being recorded.
+     */
+    public static boolean isEnabled() { return enabled; }
+
+    /**
+     * Set the registry to which instrumented databases are announced.
+     * Databases that are already open are registered with the new registry.
+     *
+     * @param newRegistry the registry, or null for none.
+     */
+    public static void setRegistry(@Nullable DatabaseMetricsRegistry newRegistry) {
+        final DatabaseMetricsRegistry oldRegistry = registry;
+        registry = newRegistry;
+        for (DatabaseMetrics metrics: OPEN_DATABASES.values()) {
+            if (oldRegistry != null) { unregister(oldRegistry, metrics); }
+            if (newRegistry != null) { register(newRegistry, metrics); }
+        }
+    }
+
+    /**
+     * Get a snapshot of the statistics for every instrumented open database,
+     * sorted so that the databases that have held their lock longest come first.
+     *
+     * @param n the maximum number of databases to return
+     * @return the statistics for at most n databases.
+     */
+    @NonNull
+    public static List<DatabaseStats> getSnapshot(int n) {
+        final List<DatabaseStats> stats = new ArrayList<>(OPEN_DATABASES.size());
+        for (DatabaseMetrics metrics: OPEN_DATABASES.values()) { stats.add(metrics.getSnapshot()); }
+        Collections.sort(stats, (s1, s2) -> Long.compare(s2.getLockHoldTimeNanos(), s1.getLockHoldTimeNanos()));
+        return (n >= stats.size()) ? stats : stats.subList(0, Math.max(0, n));
+    }
+
+    /**
+     * The number of instrumented open databases.
+     *
+     * @return the number of databases.
+     */
+    public static int getDatabaseCount() { return OPEN_DATABASES.size(); }
+
+    //---------------------------------------------
+    // Package level access
+    //---------------------------------------------
+
+    // Returns null if recording is off.
+    @Nullable
+    static DatabaseMetrics open(@NonNull String name, @NonNull String path) {
+        if (!enabled) { return null; }
+
+        final DatabaseMetrics metrics = new DatabaseMetrics(NEXT_ID.incrementAndGet(), name, path);
+        OPEN_DATABASES.put(metrics.id, metrics);
+
+        final DatabaseMetricsRegistry reg = registry;
+        if (reg != null) { register(reg, metrics); }
+
+        return metrics;
+    }
+
+    static void close(@NonNull DatabaseMetrics metrics) {
+        if (OPEN_DATABASES.remove(metrics.id) == null) { return; }
+
+        final DatabaseMetricsRegistry reg = registry;
+        if (reg != null) { unregister(reg, metrics); }
+    }
+
+    // A registry is client code: don't let it break database open and close.
+    private static void register(@NonNull DatabaseMetricsRegistry reg, @NonNull DatabaseMetrics metrics) {
+        try { reg.register(metrics); }
+        catch (RuntimeException e) { Log.w(LogDomain.DATABASE, "Metrics registry failed on register", e); }
+    }
+
+    private static void unregister(@NonNull DatabaseMetricsRegistry reg, @NonNull DatabaseMetrics metrics) {
+        try { reg.unregister(metrics); }
+        catch (RuntimeException e) { Log.w(LogDomain.DATABASE, "Metrics registry failed on unregister", e); }
+    }
+
+    private static void updateMax(@NonNull AtomicLong max, long nanos) {
+        long prev;
+        do { prev = max.get(); }
+        while ((nanos > prev) && !max.compareAndSet(prev, nanos));
+    }
+
+
+    private final long id;
+    @NonNull
+    private final String name;
+    @NonNull
+    private final String path;
+    private final long openedAt = System.currentTimeMillis();
+
+    private final LongAdder lockWaitCount = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final AtomicLong maxLockWaitNanos = new AtomicLong();
+    private final LongAdder transactionCount = new LongAdder();
+    private final LongAdder abortedTransactionCount = new LongAdder();
+    private final LongAdder transactionNanos = new LongAdder();
+    private final AtomicLong maxTransactionNanos = new AtomicLong();
+    private final LongAdder saveCount = new LongAdder();
+    private final LongAdder saveNanos = new LongAdder();
+    private final AtomicLong maxSaveNanos = new AtomicLong();
+    private final AtomicInteger pendingNotifications = new AtomicInteger();
+    private final AtomicInteger maxPendingNotifications = new AtomicInteger();
+    private final AtomicInteger activeLiveQueries = new AtomicInteger();
+    private final AtomicInteger activeReplicators = new AtomicInteger();
+    private final LongAdder purgeCount = new LongAdder();
+    private final LongAdder purgedDocuments = new LongAdder();
+
+    private DatabaseMetrics(long id, @NonNull String name, @NonNull String path) {
+        this.id = id;
+        this.name = name;
+        this.path = path;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * An identifier for the open database, unique in this process.
+     * Two databases with the same name, in different directories, have different ids.
+     *
+     * @return the id.
+     */
+    public long getId() { return id; }
+
+    /**
+     * The name of the database.
+     *
+     * @return the database name.
+     */
+    @NonNull
+    public String getName() { return name; }
+
+    /**
+     * The path to the database.
+     *
+     * @return the database path.
+     */
+    @NonNull
+    public String getPath() { return path; }
+
+    /**
+     * Get a snapshot of the database's statistics.
+     *
+     * @return the statistics.
+     */
+    @NonNull
+    public DatabaseStats getSnapshot() {
+        return new DatabaseStats(
+            id,
+            name,
+            path,
+            openedAt,
+            lockWaitCount.sum(),
+            lockWaitNanos.sum(),
+            maxLockWaitNanos.get(),
+            transactionCount.sum(),
+            abortedTransactionCount.sum(),
+            transactionNanos.sum(),
+            maxTransactionNanos.get(),
+            saveCount.sum(),
+            saveNanos.sum(),
+            maxSaveNanos.get(),
+            pendingNotifications.get(),
+            maxPendingNotifications.get(),
+            activeLiveQueries.get(),
+            activeReplicators.get(),
+            purgeCount.sum(),
+            purgedDocuments.sum());
+    }
+
+    @NonNull
+    @Override
+    public String toString() { return "DatabaseMetrics{" + id + ": " + name + "}"; }
+
+    //---------------------------------------------
+    // Package level access
+    //---------------------------------------------
+
+    void recordLockWait(long nanos) {
+        lockWaitCount.increment();
+        lockWaitNanos.add(nanos);
+        updateMax(maxLockWaitNanos, nanos);
+    }
+
+    // Write transactions hold the database lock for their entire duration.
+    void recordTransaction(long nanos, boolean committed) {
+        transactionCount.increment();
+        if (!committed) { abortedTransactionCount.increment(); }
+        transactionNanos.add(nanos);
+        updateMax(maxTransactionNanos, nanos);
+    }
+
+    void recordSave(long nanos) {
+        saveCount.increment();
+        saveNanos.add(nanos);
+        updateMax(maxSaveNanos, nanos);
+    }
+
+    void notificationQueued() {
+        final int n = pendingNotifications.incrementAndGet();
+        int max;
+        do { max = maxPendingNotifications.get(); }
+        while ((n > max) && !maxPendingNotifications.compareAndSet(max, n));
+    }
+
+    void notificationDelivered() { pendingNotifications.decrementAndGet(); }
+
+    // a queued notification was rejected by its executor
+    void notificationDropped() { pendingNotifications.decrementAndGet(); }
+
+    void setActiveLiveQueries(int n) { activeLiveQueries.set(n); }
+
+    void setActiveReplicators(int n) { activeReplicators.set(n); }
+
+    void recordPurge(int purged) {
+        purgeCount.increment();
+        purgedDocuments.add(purged);
+    }
+}
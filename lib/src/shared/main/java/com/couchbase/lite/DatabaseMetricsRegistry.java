@@ -0,0 +1,45 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * A destination for database metrics: e.g., a JMX server or an application's own metrics system.
+ * <p>
+ * A registry is told about each database as it is opened and closed, while metrics are enabled.
+ * It may read the database's statistics, using {@link DatabaseMetrics#getSnapshot()}, whenever it likes.
+ * Both methods are called synchronously, during database open and close: they must be fast and must not
+ * call back into the database.
+ *
+ * @see DatabaseMetrics#setRegistry(DatabaseMetricsRegistry)
+ */
+public interface DatabaseMetricsRegistry {
+    /**
+     * A database has been opened.
+     *
+     * @param metrics the metrics for the newly opened database.
+     */
+    void register(@NonNull DatabaseMetrics metrics);
+
+    /**
+     * A database has been closed, or deleted.
+     *
+     * @param metrics the metrics for the closed database.
+     */
+    void unregister(@NonNull DatabaseMetrics metrics);
+}
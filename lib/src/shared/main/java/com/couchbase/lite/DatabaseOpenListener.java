@@ -0,0 +1,33 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * The listener interface for receiving the timings of each database open.
+ *
+ * @see AbstractDatabase#setOpenListener(DatabaseOpenListener)
+ */
+public interface DatabaseOpenListener {
+    /**
+     * Called, on the opening thread, each time a database is opened.  Implementations should be fast.
+     *
+     * @param stats the timings of the phases of the open
+     */
+    void opened(@NonNull DatabaseOpenStats stats);
+}
@@ -0,0 +1,140 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+
+/**
+ * The time spent in each phase of opening a database.  All times are in nanoseconds.
+ */
+public final class DatabaseOpenStats {
+    @NonNull
+    private final String name;
+    @NonNull
+    private final String path;
+    private final boolean readOnly;
+    private final long setupNanos;
+    private final long keyDerivationNanos;
+    private final long fileOpenNanos;
+    private final long sharedKeysNanos;
+    private final long expirationCheckNanos;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    DatabaseOpenStats(
+        @NonNull String name,
+        @NonNull String path,
+        boolean readOnly,
+        long setupNanos,
+        long keyDerivationNanos,
+        long fileOpenNanos,
+        long sharedKeysNanos,
+        long expirationCheckNanos) {
+        this.name = name;
+        this.path = path;
+        this.readOnly = readOnly;
+        this.setupNanos = setupNanos;
+        this.keyDerivationNanos = keyDerivationNanos;
+        this.fileOpenNanos = fileOpenNanos;
+        this.sharedKeysNanos = sharedKeysNanos;
+        this.expirationCheckNanos = expirationCheckNanos;
+    }
+
+    /**
+     * The name of the database.
+     *
+     * @return the database name.
+     */
+    @NonNull
+    public String getName() { return name; }
+
+    /**
+     * The path to the database file.
+     *
+     * @return the database path.
+     */
+    @NonNull
+    public String getPath() { return path; }
+
+    /**
+     * Whether the database was opened read-only.
+     *
+     * @return true if the database was opened read-only.
+     */
+    public boolean isReadOnly() { return readOnly; }
+
+    /**
+     * The time spent setting up the database and temporary directories.
+     *
+     * @return the directory setup time.
+     */
+    public long getSetupNanos() { return setupNanos; }
+
+    /**
+     * The time spent obtaining the encryption key.  This is 0 for an unencrypted database.
+     *
+     * @return the key derivation time.
+     */
+    public long getKeyDerivationNanos() { return keyDerivationNanos; }
+
+    /**
+     * The time spent opening the database file.  This includes decryption, and any upgrade
+     * of the database schema: LiteCore upgrades the file as part of opening it.
+     *
+     * @return the file open time.
+     */
+    public long getFileOpenNanos() { return fileOpenNanos; }
+
+    /**
+     * The time spent loading the database's shared keys.
+     *
+     * @return the shared keys time.
+     */
+    public long getSharedKeysNanos() { return sharedKeysNanos; }
+
+    /**
+     * The time spent checking for documents with expiration dates.
+     *
+     * @return the expiration check time.
+     */
+    public long getExpirationCheckNanos() { return expirationCheckNanos; }
+
+    /**
+     * The total time spent opening the database.
+     *
+     * @return the total open time.
+     */
+    public long getTotalNanos() {
+        return setupNanos + keyDerivationNanos + fileOpenNanos + sharedKeysNanos + expirationCheckNanos;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ENGLISH,
+            "DatabaseOpenStats{%s: total=%dus (setup %dus, key %dus, file %dus, shared keys %dus, expiration %dus)}",
+            name,
+            getTotalNanos() / 1000,
+            setupNanos / 1000,
+            keyDerivationNanos / 1000,
+            fileOpenNanos / 1000,
+            sharedKeysNanos / 1000,
+            expirationCheckNanos / 1000);
+    }
+}
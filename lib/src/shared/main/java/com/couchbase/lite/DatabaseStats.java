@@ -0,0 +1,267 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+
+/**
+ * A snapshot of the statistics recorded by {@link DatabaseMetrics} for a single database.
+ * All times are in nanoseconds.
+ */
+public final class DatabaseStats {
+    private final long id;
+    @NonNull
+    private final String name;
+    @NonNull
+    private final String path;
+    private final long openedAt;
+    private final long lockWaitCount;
+    private final long lockWaitTimeNanos;
+    private final long maxLockWaitTimeNanos;
+    private final long transactionCount;
+    private final long abortedTransactionCount;
+    private final long transactionTimeNanos;
+    private final long maxTransactionTimeNanos;
+    private final long saveCount;
+    private final long saveTimeNanos;
+    private final long maxSaveTimeNanos;
+    private final int pendingNotifications;
+    private final int maxPendingNotifications;
+    private final int activeLiveQueries;
+    private final int activeReplicators;
+    private final long purgeCount;
+    private final long purgedDocuments;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    DatabaseStats(
+        long id,
+        @NonNull String name,
+        @NonNull String path,
+        long openedAt,
+        long lockWaitCount,
+        long lockWaitTimeNanos,
+        long maxLockWaitTimeNanos,
+        long transactionCount,
+        long abortedTransactionCount,
+        long transactionTimeNanos,
+        long maxTransactionTimeNanos,
+        long saveCount,
+        long saveTimeNanos,
+        long maxSaveTimeNanos,
+        int pendingNotifications,
+        int maxPendingNotifications,
+        int activeLiveQueries,
+        int activeReplicators,
+        long purgeCount,
+        long purgedDocuments) {
+        this.id = id;
+        this.name = name;
+        this.path = path;
+        this.openedAt = openedAt;
+        this.lockWaitCount = lockWaitCount;
+        this.lockWaitTimeNanos = lockWaitTimeNanos;
+        this.maxLockWaitTimeNanos = maxLockWaitTimeNanos;
+        this.transactionCount = transactionCount;
+        this.abortedTransactionCount = abortedTransactionCount;
+        this.transactionTimeNanos = transactionTimeNanos;
+        this.maxTransactionTimeNanos = maxTransactionTimeNanos;
+        this.saveCount = saveCount;
+        this.saveTimeNanos = saveTimeNanos;
+        this.maxSaveTimeNanos = maxSaveTimeNanos;
+        this.pendingNotifications = pendingNotifications;
+        this.maxPendingNotifications = maxPendingNotifications;
+        this.activeLiveQueries = activeLiveQueries;
+        this.activeReplicators = activeReplicators;
+        this.purgeCount = purgeCount;
+        this.purgedDocuments = purgedDocuments;
+    }
+
+    /**
+     * An identifier for the open database, unique in this process.
+     *
+     * @return the database id.
+     */
+    public long getId() { return id; }
+
+    /**
+     * The name of the database.
+     *
+     * @return the database name.
+     */
+    @NonNull
+    public String getName() { return name; }
+
+    /**
+     * The path to the database.
+     *
+     * @return the database path.
+     */
+    @NonNull
+    public String getPath() { return path; }
+
+    /**
+     * When the database was opened, in milliseconds since the epoch.
+     *
+     * @return the time at which the database was opened.
+     */
+    public long getOpenedAt() { return openedAt; }
+
+    /**
+     * The number of times a write waited for the database lock.
+     *
+     * @return the number of lock acquisitions.
+     */
+    public long getLockWaitCount() { return lockWaitCount; }
+
+    /**
+     * The total time writes spent waiting for the database lock.
+     *
+     * @return the total lock wait time.
+     */
+    public long getLockWaitTimeNanos() { return lockWaitTimeNanos; }
+
+    /**
+     * The longest time a single write waited for the database lock.
+     *
+     * @return the maximum lock wait time.
+     */
+    public long getMaxLockWaitTimeNanos() { return maxLockWaitTimeNanos; }
+
+    /**
+     * The number of write transactions.  A batch, and the saves within it, count as a single transaction.
+     *
+     * @return the number of transactions.
+     */
+    public long getTransactionCount() { return transactionCount; }
+
+    /**
+     * The number of write transactions that were rolled back.
+     *
+     * @return the number of aborted transactions.
+     */
+    public long getAbortedTransactionCount() { return abortedTransactionCount; }
+
+    /**
+     * The total duration of write transactions.
+     *
+     * @return the total transaction time.
+     */
+    public long getTransactionTimeNanos() { return transactionTimeNanos; }
+
+    /**
+     * The duration of the longest write transaction.
+     *
+     * @return the maximum transaction time.
+     */
+    public long getMaxTransactionTimeNanos() { return maxTransactionTimeNanos; }
+
+    /**
+     * The number of document saves and deletes.
+     *
+     * @return the number of saves.
+     */
+    public long getSaveCount() { return saveCount; }
+
+    /**
+     * The total time spent saving and deleting documents, including waiting for the lock.
+     *
+     * @return the total save time.
+     */
+    public long getSaveTimeNanos() { return saveTimeNanos; }
+
+    /**
+     * The longest single document save or delete.
+     *
+     * @return the maximum save time.
+     */
+    public long getMaxSaveTimeNanos() { return maxSaveTimeNanos; }
+
+    /**
+     * The number of change notifications waiting to be delivered to observers.
+     *
+     * @return the observer queue depth.
+     */
+    public int getPendingNotifications() { return pendingNotifications; }
+
+    /**
+     * The largest number of change notifications that have been waiting at once.
+     *
+     * @return the maximum observer queue depth.
+     */
+    public int getMaxPendingNotifications() { return maxPendingNotifications; }
+
+    /**
+     * The number of live queries that are currently listening for changes.
+     *
+     * @return the number of active live queries.
+     */
+    public int getActiveLiveQueries() { return activeLiveQueries; }
+
+    /**
+     * The number of replicators currently running against the database.
+     *
+     * @return the number of active replicators.
+     */
+    public int getActiveReplicators() { return activeReplicators; }
+
+    /**
+     * The number of times expired documents were purged.
+     *
+     * @return the number of expiration purges.
+     */
+    public long getPurgeCount() { return purgeCount; }
+
+    /**
+     * The total number of expired documents purged.
+     *
+     * @return the number of purged documents.
+     */
+    public long getPurgedDocuments() { return purgedDocuments; }
+
+    /**
+     * The total time the database lock was held for writes: the total duration of write transactions.
+     *
+     * @return the total lock hold time.
+     */
+    public long getLockHoldTimeNanos() { return transactionTimeNanos; }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ENGLISH,
+            "DatabaseStats{%s (%d): lock wait=%dus (max %dus), transactions=%d/%d (%dus, max %dus), "
+                + "saves=%d (%dus, max %dus), pending=%d, live queries=%d, replicators=%d, purged=%d}",
+            name,
+            id,
+            lockWaitTimeNanos / 1000,
+            maxLockWaitTimeNanos / 1000,
+            transactionCount,
+            abortedTransactionCount,
+            transactionTimeNanos / 1000,
+            maxTransactionTimeNanos / 1000,
+            saveCount,
+            saveTimeNanos / 1000,
+            maxSaveTimeNanos / 1000,
+            pendingNotifications,
+            activeLiveQueries,
+            activeReplicators,
+            purgedDocuments);
+    }
+}
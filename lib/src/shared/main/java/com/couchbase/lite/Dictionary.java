@@ -20,12 +20,14 @@ package com.couchbase.lite;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.couchbase.lite.internal.fleece.FLDictKey;
 import com.couchbase.lite.internal.fleece.FLEncodable;
 import com.couchbase.lite.internal.fleece.FLEncoder;
 import com.couchbase.lite.internal.fleece.MCollection;
@@ -48,6 +50,9 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @NonNull
     protected final MDict internalDict;
 
+    // An immutable dictionary is a snapshot: it is safe to read without the lock.
+    private final boolean readOnly;
+
     //-------------------------------------------------------------------------
     // Constructors
     //-------------------------------------------------------------------------
@@ -55,18 +60,21 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     Dictionary() {
         internalDict = new MDict();
         lock = getSharedLock();
+        readOnly = !internalDict.isMutable();
     }
 
     Dictionary(MValue mv, MCollection parent) {
         internalDict = new MDict();
         internalDict.initInSlot(mv, parent);
         lock = getSharedLock();
+        readOnly = !internalDict.isMutable();
     }
 
     Dictionary(MDict mDict, boolean isMutable) {
         internalDict = new MDict();
         internalDict.initAsCopyOf(mDict, isMutable);
         lock = getSharedLock();
+        readOnly = !internalDict.isMutable();
     }
 
     //-------------------------------------------------------------------------
@@ -84,12 +92,14 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
      */
     @Override
     public int count() {
+        if (readOnly) { return (int) internalDict.count(); }
         synchronized (lock) { return (int) internalDict.count(); }
     }
 
     @NonNull
     @Override
     public List<String> getKeys() {
+        if (readOnly) { return internalDict.getKeys(); }
         synchronized (lock) { return internalDict.getKeys(); }
     }
 
@@ -105,7 +115,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public Object getValue(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return getMValue(internalDict, key).asNative(internalDict); }
+        return getNative(key);
     }
 
     /**
@@ -118,10 +128,8 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public String getString(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) {
-            final Object obj = getMValue(internalDict, key).asNative(internalDict);
-            return obj instanceof String ? (String) obj : null;
-        }
+        final Object obj = getNative(key);
+        return obj instanceof String ? (String) obj : null;
     }
 
     /**
@@ -134,7 +142,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public Number getNumber(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asNumber(getMValue(internalDict, key).asNative(internalDict)); }
+        return CBLConverter.asNumber(getNative(key));
     }
 
     /**
@@ -148,7 +156,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public int getInt(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asInteger(getMValue(internalDict, key), internalDict); }
+        return CBLConverter.asInteger(getMValue(key), internalDict);
     }
 
     /**
@@ -162,7 +170,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public long getLong(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asLong(getMValue(internalDict, key), internalDict); }
+        return CBLConverter.asLong(getMValue(key), internalDict);
     }
 
     /**
@@ -176,7 +184,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public float getFloat(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asFloat(getMValue(internalDict, key), internalDict); }
+        return CBLConverter.asFloat(getMValue(key), internalDict);
     }
 
     /**
@@ -190,7 +198,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public double getDouble(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asDouble(getMValue(internalDict, key), internalDict); }
+        return CBLConverter.asDouble(getMValue(key), internalDict);
     }
 
     /**
@@ -203,7 +211,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public boolean getBoolean(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return CBLConverter.asBoolean(getMValue(internalDict, key).asNative(internalDict)); }
+        return CBLConverter.asBoolean(getNative(key));
     }
 
     /**
@@ -217,10 +225,8 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public Blob getBlob(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) {
-            final Object obj = getMValue(internalDict, key).asNative(internalDict);
-            return obj instanceof Blob ? (Blob) obj : null;
-        }
+        final Object obj = getNative(key);
+        return obj instanceof Blob ? (Blob) obj : null;
     }
 
     /**
@@ -241,6 +247,32 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
         return DateUtils.fromJson(getString(key));
     }
 
+    /**
+     * Gets a property's value as an Instant.
+     * This is the same as {@link #getDate(String)} but returns an immutable Instant.
+     *
+     * @param key the key
+     * @return the Instant value or null.
+     */
+    @Nullable
+    public Instant getInstant(@NonNull String key) {
+        Preconditions.assertNotNull(key, "key");
+        return DateUtils.toInstant(getString(key));
+    }
+
+    /**
+     * Gets a property's value as a date, in milliseconds since the epoch.
+     * The value is parsed as for {@link #getDate(String)} but no Date object is created.
+     * Returns 0 if the value doesn't exist, is not a string, or is not parsable as a date.
+     *
+     * @param key the key
+     * @return the date, in milliseconds since 1970-01-01T00:00:00Z, or 0.
+     */
+    public long getEpochMillis(@NonNull String key) {
+        Preconditions.assertNotNull(key, "key");
+        return DateUtils.toEpochMillis(getString(key));
+    }
+
     /**
      * Get a property's value as a Array, which is a mapping object of an array value.
      * Returns null if the property doesn't exists, or its value is not an array.
@@ -252,10 +284,8 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public Array getArray(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) {
-            final Object obj = getMValue(internalDict, key).asNative(internalDict);
-            return obj instanceof Array ? (Array) obj : null;
-        }
+        final Object obj = getNative(key);
+        return obj instanceof Array ? (Array) obj : null;
     }
 
     /**
@@ -269,10 +299,140 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public Dictionary getDictionary(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) {
-            final Object obj = getMValue(internalDict, key).asNative(internalDict);
-            return obj instanceof Dictionary ? (Dictionary) obj : null;
-        }
+        final Object obj = getNative(key);
+        return obj instanceof Dictionary ? (Dictionary) obj : null;
+    }
+
+    //-------------------------------------------------------------------------
+    // Pre-encoded key access
+    //-------------------------------------------------------------------------
+
+    /**
+     * Gets a property's value as an object, using a pre-encoded key.
+     *
+     * @param key the key.
+     * @return the object value or null.
+     * @see #getValue(String)
+     */
+    @Nullable
+    public Object getValue(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return getNative(key);
+    }
+
+    /**
+     * Gets a property's value as a String, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the String or null.
+     * @see #getString(String)
+     */
+    @Nullable
+    public String getString(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        final Object obj = getNative(key);
+        return obj instanceof String ? (String) obj : null;
+    }
+
+    /**
+     * Gets a property's value as a Number, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the Number or nil.
+     * @see #getNumber(String)
+     */
+    @Nullable
+    public Number getNumber(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return CBLConverter.asNumber(getNative(key));
+    }
+
+    /**
+     * Gets a property's value as an int, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the int value.
+     * @see #getInt(String)
+     */
+    public int getInt(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return CBLConverter.asInteger(getMValue(key), internalDict);
+    }
+
+    /**
+     * Gets a property's value as a long, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the long value.
+     * @see #getLong(String)
+     */
+    public long getLong(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return CBLConverter.asLong(getMValue(key), internalDict);
+    }
+
+    /**
+     * Gets a property's value as a double, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the double value.
+     * @see #getDouble(String)
+     */
+    public double getDouble(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return CBLConverter.asDouble(getMValue(key), internalDict);
+    }
+
+    /**
+     * Gets a property's value as a boolean, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the boolean value.
+     * @see #getBoolean(String)
+     */
+    public boolean getBoolean(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return CBLConverter.asBoolean(getNative(key));
+    }
+
+    /**
+     * Get a property's value as an Array, using a pre-encoded key.
+     *
+     * @param key the key.
+     * @return the Array object.
+     * @see #getArray(String)
+     */
+    @Nullable
+    public Array getArray(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        final Object obj = getNative(key);
+        return obj instanceof Array ? (Array) obj : null;
+    }
+
+    /**
+     * Get a property's value as a Dictionary, using a pre-encoded key.
+     *
+     * @param key the key.
+     * @return the Dictionary object or null if the key doesn't exist.
+     * @see #getDictionary(String)
+     */
+    @Nullable
+    public Dictionary getDictionary(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        final Object obj = getNative(key);
+        return obj instanceof Dictionary ? (Dictionary) obj : null;
+    }
+
+    /**
+     * Tests whether a property exists or not, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the boolean value representing whether a property exists or not.
+     * @see #contains(String)
+     */
+    public boolean contains(@NonNull DictionaryKey key) {
+        Preconditions.assertNotNull(key, "key");
+        return !getMValue(key).isEmpty();
     }
 
     /**
@@ -284,13 +444,8 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @NonNull
     @Override
     public Map<String, Object> toMap() {
-        final Map<String, Object> result = new HashMap<>();
-        synchronized (lock) {
-            for (String key : internalDict) {
-                result.put(key, Fleece.toObject(getMValue(internalDict, key).asNative(internalDict)));
-            }
-        }
-        return result;
+        if (readOnly) { return copyToMap(); }
+        synchronized (lock) { return copyToMap(); }
     }
 
     /**
@@ -304,7 +459,7 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @Override
     public boolean contains(@NonNull String key) {
         Preconditions.assertNotNull(key, "key");
-        synchronized (lock) { return !getMValue(internalDict, key).isEmpty(); }
+        return !getMValue(key).isEmpty();
     }
 
     /**
@@ -402,9 +557,10 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     @NonNull
     private Object getSharedLock() {
         final MContext context = internalDict.getContext();
-        return ((context == null) || (context == MContext.NULL))
-            ? new Object()
-            : ((DocContext) context).getDatabase().getLock();
+        final Database db = ((context == null) || (context == MContext.NULL))
+            ? null
+            : ((DocContext) context).getDatabase();
+        return (db == null) ? new Object() : db.getLock();
     }
 
     // hashCode for pair of key and value
@@ -413,5 +569,46 @@ public class Dictionary implements DictionaryInterface, FLEncodable, Iterable<St
     }
 
     @NonNull
-    private MValue getMValue(MDict dict, String key) { return dict.get(key); }
+    private MValue getMValue(@NonNull String key) {
+        if (readOnly) { return internalDict.get(key); }
+        synchronized (lock) { return internalDict.get(key); }
+    }
+
+    @NonNull
+    private MValue getMValue(@NonNull DictionaryKey key) {
+        final FLDictKey flKey = getFLDictKey(key);
+        if (flKey == null) { return getMValue(key.getKey()); }
+        if (readOnly) { return internalDict.get(flKey); }
+        synchronized (lock) { return internalDict.get(flKey); }
+    }
+
+    @Nullable
+    private Object getNative(@NonNull String key) {
+        if (readOnly) { return internalDict.get(key).asNative(internalDict); }
+        synchronized (lock) { return internalDict.get(key).asNative(internalDict); }
+    }
+
+    @Nullable
+    private Object getNative(@NonNull DictionaryKey key) {
+        final FLDictKey flKey = getFLDictKey(key);
+        if (flKey == null) { return getNative(key.getKey()); }
+        if (readOnly) { return internalDict.get(flKey).asNative(internalDict); }
+        synchronized (lock) { return internalDict.get(flKey).asNative(internalDict); }
+    }
+
+    // The native key must belong to the shared keys of the database from which this dictionary came
+    @Nullable
+    private FLDictKey getFLDictKey(@NonNull DictionaryKey key) {
+        final MContext context = internalDict.getContext();
+        return (!(context instanceof DocContext)) ? null : ((DocContext) context).getDictKey(key.getKey());
+    }
+
+    @NonNull
+    private Map<String, Object> copyToMap() {
+        final Map<String, Object> result = new HashMap<>();
+        for (String key : internalDict) {
+            result.put(key, Fleece.toObject(internalDict.get(key).asNative(internalDict)));
+        }
+        return result;
+    }
 }
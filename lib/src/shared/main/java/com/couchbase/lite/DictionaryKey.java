@@ -0,0 +1,68 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * A pre-encoded dictionary key, for reading the same property from many documents or dictionaries.
+ * <p>
+ * Looking up a property by String encodes the key, each time.  A DictionaryKey is encoded once
+ * per database, which remembers how it abbreviates the key, so that subsequent lookups are faster.
+ * DictionaryKeys are intended to be created once and reused: e.g., as static constants.
+ * They may be shared across threads and across databases.
+ * <pre>
+ * private static final DictionaryKey NAME = new DictionaryKey("name");
+ * ...
+ * final String name = doc.getString(NAME);
+ * </pre>
+ */
+public final class DictionaryKey {
+    @NonNull
+    private final String key;
+
+    /**
+     * Create a new key.
+     *
+     * @param key the property name
+     */
+    public DictionaryKey(@NonNull String key) { this.key = Preconditions.assertNotNull(key, "key"); }
+
+    /**
+     * Get the property name.
+     *
+     * @return the property name.
+     */
+    @NonNull
+    public String getKey() { return key; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof DictionaryKey)) { return false; }
+        return key.equals(((DictionaryKey) o).key);
+    }
+
+    @Override
+    public int hashCode() { return key.hashCode(); }
+
+    @NonNull
+    @Override
+    public String toString() { return "DictionaryKey{" + key + "}"; }
+}
@@ -17,7 +17,13 @@
 //
 package com.couchbase.lite;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import com.couchbase.lite.internal.core.C4Document;
+import com.couchbase.lite.internal.core.SharedKeys;
+import com.couchbase.lite.internal.fleece.FLDictKey;
+import com.couchbase.lite.internal.fleece.FLSliceResult;
 import com.couchbase.lite.internal.fleece.MContext;
 
 
@@ -29,6 +35,9 @@ class DocContext extends MContext {
     private final Database db;
     @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
     private final C4Document doc;
+    // Fleece data that does not belong to a c4doc (see MutableDocument.setJSON): freed with this context
+    @Nullable
+    private final FLSliceResult body;
 
     DocContext(Database db) { this(db, null); }
 
@@ -36,7 +45,30 @@ class DocContext extends MContext {
         super(null);
         this.db = db;
         this.doc = doc;
+        this.body = null;
+    }
+
+    // Takes ownership of the body
+    DocContext(@NonNull FLSliceResult body) {
+        super(body);
+        this.db = null;
+        this.doc = null;
+        this.body = body;
     }
 
     Database getDatabase() { return db; }
+
+    // A key bound to this context's shared keys, for use on the calling thread, or null if there are none
+    @Nullable
+    FLDictKey getDictKey(@NonNull String key) {
+        final SharedKeys sharedKeys = (db == null) ? null : db.getSharedKeys();
+        return (sharedKeys == null) ? null : sharedKeys.getDictKey(key);
+    }
+
+    @SuppressWarnings("NoFinalizer")
+    @Override
+    protected void finalize() throws Throwable {
+        if (body != null) { body.free(); }
+        super.finalize();
+    }
 }
@@ -20,7 +20,10 @@ package com.couchbase.lite;
 import android.support.annotation.GuardedBy;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -32,9 +35,12 @@ import com.couchbase.lite.internal.CBLStatus;
 import com.couchbase.lite.internal.core.C4Constants;
 import com.couchbase.lite.internal.core.C4Database;
 import com.couchbase.lite.internal.core.C4Document;
+import com.couchbase.lite.internal.core.SharedKeys;
 import com.couchbase.lite.internal.fleece.FLDict;
 import com.couchbase.lite.internal.fleece.FLEncoder;
 import com.couchbase.lite.internal.fleece.FLSliceResult;
+import com.couchbase.lite.internal.fleece.FLValue;
+import com.couchbase.lite.internal.fleece.MDict;
 import com.couchbase.lite.internal.fleece.MRoot;
 import com.couchbase.lite.internal.support.Log;
 import com.couchbase.lite.internal.utils.Preconditions;
@@ -45,6 +51,14 @@ import com.couchbase.lite.internal.utils.Preconditions;
  */
 @SuppressWarnings("PMD.TooManyMethods")
 public class Document implements DictionaryInterface, Iterable<String> {
+    // Delta encoding (see encodeDelta) is used only for documents with at least this many properties...
+    private static final int DELTA_MIN_PROPERTIES = 16;
+    // ... and only if no more than one in this many of them has changed.
+    private static final int DELTA_MAX_CHANGE_RATIO = 4;
+    // Each delta leaves the replaced values in the body.  Every revision whose generation
+    // is a multiple of this is encoded in full, to discard them.
+    private static final int FULL_ENCODE_INTERVAL = 8;
+
     // !!! This code is from v1.x. Replace with c4rev_getGeneration().
     private static long generationFromRevID(String revID) {
         long generation = 0;
@@ -69,9 +83,9 @@ public class Document implements DictionaryInterface, Iterable<String> {
     private final String id;
     private final boolean mutable;
 
-    // note that while internalDict is guarded by lock, the content of the Dictionary is not.
-    @GuardedBy("lock")
-    private Dictionary internalDict;
+    // Volatile, so that getters can read it without taking the lock.
+    // The content of the Dictionary is not guarded: an immutable Dictionary is safe to read concurrently.
+    private volatile Dictionary internalDict;
 
     @GuardedBy("lock")
     @Nullable
@@ -100,6 +114,9 @@ public class Document implements DictionaryInterface, Iterable<String> {
     @Nullable
     private String revId;
 
+    // True if the most recent encoding of this document was a delta: see encodeDelta
+    private volatile boolean deltaEncoded;
+
     //---------------------------------------------
     // Constructors
     //---------------------------------------------
@@ -330,6 +347,26 @@ public class Document implements DictionaryInterface, Iterable<String> {
     @Override
     public Date getDate(@NonNull String key) { return getContent().getDate(key); }
 
+    /**
+     * Gets a property's value as an Instant.
+     * This is the same as {@link #getDate(String)} but returns an immutable Instant.
+     *
+     * @param key the key
+     * @return the Instant value or null.
+     */
+    @Nullable
+    public Instant getInstant(@NonNull String key) { return getContent().getInstant(key); }
+
+    /**
+     * Gets a property's value as a date, in milliseconds since the epoch.
+     * The value is parsed as for {@link #getDate(String)} but no Date object is created.
+     * Returns 0 if the value doesn't exist, is not a string, or is not parsable as a date.
+     *
+     * @param key the key
+     * @return the date, in milliseconds since 1970-01-01T00:00:00Z, or 0.
+     */
+    public long getEpochMillis(@NonNull String key) { return getContent().getEpochMillis(key); }
+
     /**
      * Get a property's value as a Array, which is a mapping object of an array value.
      * Returns null if the property doesn't exists, or its value is not an Array.
@@ -353,6 +390,101 @@ public class Document implements DictionaryInterface, Iterable<String> {
     @Override
     public Dictionary getDictionary(@NonNull String key) { return getContent().getDictionary(key); }
 
+    /**
+     * Gets a property's value as an object, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the object value or null.
+     * @see #getValue(String)
+     */
+    @Nullable
+    public Object getValue(@NonNull DictionaryKey key) { return getContent().getValue(key); }
+
+    /**
+     * Gets a property's value as a String, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the String or null.
+     * @see #getString(String)
+     */
+    @Nullable
+    public String getString(@NonNull DictionaryKey key) { return getContent().getString(key); }
+
+    /**
+     * Gets a property's value as a Number, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the Number or null.
+     * @see #getNumber(String)
+     */
+    @Nullable
+    public Number getNumber(@NonNull DictionaryKey key) { return getContent().getNumber(key); }
+
+    /**
+     * Gets a property's value as an int, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the int value.
+     * @see #getInt(String)
+     */
+    public int getInt(@NonNull DictionaryKey key) { return getContent().getInt(key); }
+
+    /**
+     * Gets a property's value as a long, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the long value.
+     * @see #getLong(String)
+     */
+    public long getLong(@NonNull DictionaryKey key) { return getContent().getLong(key); }
+
+    /**
+     * Gets a property's value as a double, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the double value.
+     * @see #getDouble(String)
+     */
+    public double getDouble(@NonNull DictionaryKey key) { return getContent().getDouble(key); }
+
+    /**
+     * Gets a property's value as a boolean, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return the boolean value.
+     * @see #getBoolean(String)
+     */
+    public boolean getBoolean(@NonNull DictionaryKey key) { return getContent().getBoolean(key); }
+
+    /**
+     * Get a property's value as an Array, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return The Array object or null.
+     * @see #getArray(String)
+     */
+    @Nullable
+    public Array getArray(@NonNull DictionaryKey key) { return getContent().getArray(key); }
+
+    /**
+     * Get a property's value as a Dictionary, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return The Dictionary object or null.
+     * @see #getDictionary(String)
+     */
+    @Nullable
+    public Dictionary getDictionary(@NonNull DictionaryKey key) { return getContent().getDictionary(key); }
+
+    /**
+     * Tests whether a property exists or not, using a pre-encoded key.
+     *
+     * @param key the key
+     * @return true if exists, false otherwise.
+     * @see #contains(String)
+     */
+    public boolean contains(@NonNull DictionaryKey key) { return getContent().contains(key); }
+
     /**
      * Gets content of the current object as an Map. The values contained in the returned
      * Map object are all JSON based values.
@@ -363,6 +495,42 @@ public class Document implements DictionaryInterface, Iterable<String> {
     @Override
     public Map<String, Object> toMap() { return getContent().toMap(); }
 
+    /**
+     * Gets the content of the document as a JSON string.
+     * Unmodified content is converted directly from the stored document, without creating Java objects.
+     *
+     * @return the JSON representation of the document's content.
+     */
+    @NonNull
+    public String toJSON() {
+        final Dictionary content;
+        synchronized (lock) {
+            content = internalDict;
+            if ((data != null) && !content.toMCollection().isMutated()) {
+                final String json = data.toFLValue().toJSON();
+                if (json != null) { return json; }
+            }
+        }
+
+        // The content has been changed: encode it and convert that.
+        final FLEncoder encoder = new FLEncoder();
+        FLSliceResult slice = null;
+        try {
+            content.encodeTo(encoder);
+            slice = encoder.finish2();
+            final FLValue value = FLValue.fromData(slice);
+            final String json = (value == null) ? null : value.toJSON();
+            return (json == null) ? "{}" : json;
+        }
+        catch (LiteCoreException e) {
+            throw new IllegalStateException("Failed encoding document as JSON", e);
+        }
+        finally {
+            if (slice != null) { slice.free(); }
+            encoder.free();
+        }
+    }
+
     /**
      * Tests whether a property exists or not.
      * This can be less expensive than getValue(String),
@@ -443,9 +611,7 @@ public class Document implements DictionaryInterface, Iterable<String> {
     }
 
     @NonNull
-    protected final Dictionary getContent() {
-        synchronized (lock) { return internalDict; }
-    }
+    protected final Dictionary getContent() { return internalDict; }
 
     protected final void setContent(@NonNull Dictionary content) {
         synchronized (lock) { internalDict = content; }
@@ -460,8 +626,22 @@ public class Document implements DictionaryInterface, Iterable<String> {
     // !!! should use c4rev_getGeneration
     long generation() { return generationFromRevID(getRevisionID()); }
 
+    @VisibleForTesting
+    boolean wasDeltaEncoded() { return deltaEncoded; }
+
     final boolean isEmpty() { return getContent().isEmpty(); }
 
+    // Replace the content with a Fleece body that is not (yet) stored: see MutableDocument.setJSON.
+    // The content is rooted directly on the body, which is freed when it is no longer referenced.
+    final void setContentBody(@NonNull FLSliceResult body, @NonNull FLDict dict) {
+        final MRoot newRoot = new MRoot(new DocContext(body), dict.toFLValue(), isMutable());
+        synchronized (lock) {
+            data = dict;
+            root = newRoot;
+            internalDict = (Dictionary) newRoot.asNative();
+        }
+    }
+
     final boolean isNewDocument() { return getRevisionID() == null; }
 
     /**
@@ -526,6 +706,10 @@ public class Document implements DictionaryInterface, Iterable<String> {
         final Database db = getDatabase();
         if (db == null) { throw new IllegalStateException("encode called with null database"); }
 
+        final FLSliceResult delta = encodeDelta(db);
+        deltaEncoded = delta != null;
+        if (deltaEncoded) { return delta; }
+
         final FLEncoder encoder = db.getC4Database().getSharedFleeceEncoder();
         try {
             encoder.setExtraInfo(this);
@@ -538,6 +722,64 @@ public class Document implements DictionaryInterface, Iterable<String> {
         }
     }
 
+    // Encode a small change to a large document as an amendment to its current body.
+    // Only the changed top-level properties are encoded: unchanged properties are written
+    // as pointers into the old body, which becomes the first part of the new one.
+    // Returns null if the change is not a good candidate for delta encoding.
+    @Nullable
+    private FLSliceResult encodeDelta(@NonNull Database db) throws LiteCoreException {
+        final C4Document c4doc = getC4doc();
+        if (c4doc == null) { return null; }
+
+        final Dictionary content = getContent();
+        if (!(content instanceof MutableDictionary)) { return null; }
+
+        final MDict dict = content.internalDict;
+        final FLDict base = dict.getBaseDict();
+        if ((base == null) || (base.count() < DELTA_MIN_PROPERTIES)) { return null; }
+
+        // The content may have been replaced by a body that is not the stored one (see setContentBody)
+        final FLDict body = c4doc.getSelectedBody2();
+        if ((body == null) || (body.getHandle() != base.getHandle())) { return null; }
+
+        final int nChanges = dict.getChangeCount();
+        if ((nChanges <= 0) || (((long) nChanges * DELTA_MAX_CHANGE_RATIO) > base.count())) { return null; }
+
+        if ((generation() % FULL_ENCODE_INTERVAL) == 0) { return null; }
+
+        final SharedKeys sharedKeys = db.getSharedKeys();
+        if (sharedKeys == null) { return null; }
+
+        final C4Database c4db = db.getC4Database();
+
+        final List<String> removed = new ArrayList<>();
+        final FLSliceResult changes;
+        final FLEncoder changeEncoder = c4db.getSharedFleeceEncoder();
+        try {
+            changeEncoder.setExtraInfo(this);
+            dict.encodeChangesTo(changeEncoder, removed);
+            changes = changeEncoder.finish2();
+        }
+        finally {
+            changeEncoder.setExtraInfo(null);
+            changeEncoder.reset();
+        }
+
+        final FLEncoder encoder = c4db.createFleeceEncoder();
+        try {
+            return c4doc.encodeDelta(
+                base,
+                encoder,
+                changes,
+                sharedKeys.getFLSharedKeys(),
+                removed.toArray(new String[0]));
+        }
+        finally {
+            encoder.free();
+            changes.free();
+        }
+    }
+
 
     //---------------------------------------------
     // Private access
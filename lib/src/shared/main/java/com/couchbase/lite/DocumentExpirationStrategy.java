@@ -87,6 +87,9 @@ class DocumentExpirationStrategy {
         final int purged = db.getC4Database().purgeExpiredDocs();
         Log.v(LogDomain.DATABASE, "Purged %d expired documents", purged);
 
+        final DatabaseMetrics metrics = db.getMetrics();
+        if (metrics != null) { metrics.recordPurge(purged); }
+
         schedulePurge(expirationInterval);
     }
 }
@@ -0,0 +1,414 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.couchbase.lite.internal.fleece.FLConstants;
+import com.couchbase.lite.internal.fleece.FLDict;
+import com.couchbase.lite.internal.fleece.FLDictIterator;
+import com.couchbase.lite.internal.fleece.FLEncoder;
+import com.couchbase.lite.internal.fleece.FLValue;
+import com.couchbase.lite.internal.utils.DateUtils;
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * Maps plain Java objects to and from documents, without going through
+ * Documents, Dictionaries or Maps: objects are decoded directly from, and
+ * encoded directly to, the database's stored format.
+ * <p>
+ * A mappable class must have a no-argument constructor (of any visibility).
+ * Every non-static, non-transient field, including inherited fields, is mapped to the property
+ * with the same name, or the name given by a {@link DocumentProperty} annotation.
+ * Supported field types are:
+ * <ul>
+ * <li>primitives (except char) and their boxed types
+ * <li>String, Date (stored as an ISO-8601 string), enums (stored as the constant name) and byte[]
+ * <li>List and Map, containing JSON-compatible values
+ * <li>other mappable classes
+ * </ul>
+ * Null fields are not stored.  Properties that have no corresponding field are ignored.
+ * <p>
+ * Mappers are cached and thread safe.  Use {@link Database#getDocument(String, DocumentMapper)}
+ * and {@link Database#save(String, Object, DocumentMapper)} to read and write objects.
+ *
+ * @param <T> the mapped type
+ */
+public final class DocumentMapper<T> {
+    private static final Map<Class<?>, DocumentMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private enum Kind {BOOLEAN, INT, LONG, SHORT, BYTE, FLOAT, DOUBLE, STRING, DATE, ENUM, BYTES, LIST, MAP, OBJECT}
+
+    private static final class Property {
+        @NonNull
+        final String name;
+        @NonNull
+        final Field field;
+        @NonNull
+        final Kind kind;
+        final boolean primitive;
+
+        // for nested objects: resolved lazily, to allow recursive types
+        @Nullable
+        volatile DocumentMapper<?> mapper;
+
+        Property(@NonNull String name, @NonNull Field field, @NonNull Kind kind) {
+            this.name = name;
+            this.field = field;
+            this.kind = kind;
+            this.primitive = field.getType().isPrimitive();
+        }
+    }
+
+
+    //---------------------------------------------
+    // Class methods
+    //---------------------------------------------
+
+    /**
+     * Get the mapper for a class.
+     *
+     * @param type the class to be mapped
+     * @param <T>  the mapped type
+     * @return a mapper for the class
+     * @throws IllegalArgumentException if the class cannot be mapped
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public static <T> DocumentMapper<T> of(@NonNull Class<T> type) {
+        Preconditions.assertNotNull(type, "type");
+        DocumentMapper<?> mapper = MAPPERS.get(type);
+        if (mapper == null) {
+            mapper = new DocumentMapper<>(type);
+            final DocumentMapper<?> prev = MAPPERS.putIfAbsent(type, mapper);
+            if (prev != null) { mapper = prev; }
+        }
+        return (DocumentMapper<T>) mapper;
+    }
+
+    @Nullable
+    private static Kind kindOf(@NonNull Class<?> type) {
+        if ((type == boolean.class) || (type == Boolean.class)) { return Kind.BOOLEAN; }
+        if ((type == int.class) || (type == Integer.class)) { return Kind.INT; }
+        if ((type == long.class) || (type == Long.class)) { return Kind.LONG; }
+        if ((type == short.class) || (type == Short.class)) { return Kind.SHORT; }
+        if ((type == byte.class) || (type == Byte.class)) { return Kind.BYTE; }
+        if ((type == float.class) || (type == Float.class)) { return Kind.FLOAT; }
+        if ((type == double.class) || (type == Double.class)) { return Kind.DOUBLE; }
+        if (type == String.class) { return Kind.STRING; }
+        if (type == Date.class) { return Kind.DATE; }
+        if (type.isEnum()) { return Kind.ENUM; }
+        if (type == byte[].class) { return Kind.BYTES; }
+        if (List.class.isAssignableFrom(type)) { return (type.isAssignableFrom(ArrayList.class)) ? Kind.LIST : null; }
+        if (Map.class.isAssignableFrom(type)) { return (type.isAssignableFrom(HashMap.class)) ? Kind.MAP : null; }
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        return Kind.OBJECT;
+    }
+
+
+    //---------------------------------------------
+    // Instance members
+    //---------------------------------------------
+    @NonNull
+    private final Class<T> type;
+    @NonNull
+    private final Constructor<T> constructor;
+    @NonNull
+    private final Property[] properties;
+    @NonNull
+    private final Map<String, Property> byName;
+
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+    private DocumentMapper(@NonNull Class<T> type) {
+        this.type = type;
+
+        try {
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        }
+        catch (NoSuchMethodException | SecurityException e) {
+            throw new IllegalArgumentException("Class " + type.getName() + " has no usable no-arg constructor", e);
+        }
+
+        final List<Property> props = new ArrayList<>();
+        final Map<String, Property> names = new HashMap<>();
+        for (Class<?> c = type; (c != null) && (c != Object.class); c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                final int mods = field.getModifiers();
+                if (Modifier.isStatic(mods) || Modifier.isTransient(mods) || field.isSynthetic()) { continue; }
+
+                final Kind kind = kindOf(field.getType());
+                if (kind == null) {
+                    throw new IllegalArgumentException(
+                        "Unsupported type " + field.getType().getName()
+                            + " for field " + c.getName() + "." + field.getName());
+                }
+
+                final DocumentProperty annotation = field.getAnnotation(DocumentProperty.class);
+                final String name = (annotation != null) ? annotation.value() : field.getName();
+                if (names.containsKey(name)) {
+                    throw new IllegalArgumentException("Duplicate property " + name + " in " + type.getName());
+                }
+
+                field.setAccessible(true);
+                final Property prop = new Property(name, field, kind);
+                props.add(prop);
+                names.put(name, prop);
+            }
+        }
+
+        properties = props.toArray(new Property[0]);
+        byName = Collections.unmodifiableMap(names);
+    }
+
+
+    //---------------------------------------------
+    // Public methods
+    //---------------------------------------------
+    @NonNull
+    public Class<T> getType() { return type; }
+
+    @NonNull
+    @Override
+    public String toString() { return "DocumentMapper{" + type.getName() + "}"; }
+
+
+    //---------------------------------------------
+    // Package-private methods
+    //---------------------------------------------
+
+    /**
+     * Create a new object from the passed dictionary.
+     * The caller must guarantee that the dictionary remains valid for the duration of the call.
+     */
+    @NonNull
+    T decode(@Nullable FLDict dict) {
+        final T obj = newInstance();
+        if ((dict == null) || (dict.count() <= 0)) { return obj; }
+
+        final FLDictIterator itr = new FLDictIterator();
+        try {
+            itr.begin(dict);
+            String key;
+            while ((key = itr.getKeyString()) != null) {
+                final Property prop = byName.get(key);
+                if (prop != null) { decodeProperty(obj, prop, itr.getValue()); }
+                itr.next();
+            }
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot set field in " + type.getName(), e);
+        }
+        finally {
+            itr.free();
+        }
+
+        return obj;
+    }
+
+    /**
+     * Encode the passed object as a dictionary.
+     */
+    void encodeTo(@NonNull FLEncoder enc, @NonNull T obj) {
+        try {
+            int n = 0;
+            for (Property prop : properties) {
+                if (prop.primitive || (prop.field.get(obj) != null)) { n++; }
+            }
+
+            enc.beginDict(n);
+            for (Property prop : properties) { encodeProperty(enc, obj, prop); }
+            enc.endDict();
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read field in " + type.getName(), e);
+        }
+    }
+
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+    @NonNull
+    private T newInstance() {
+        try { return constructor.newInstance(); }
+        catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create an instance of " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes", "PMD.CyclomaticComplexity"})
+    private void decodeProperty(@NonNull Object obj, @NonNull Property prop, @NonNull FLValue value)
+        throws IllegalAccessException {
+        final Field field = prop.field;
+        final int valType = value.getType();
+
+        // A null value leaves primitives at their defaults, and nulls boxed values.
+        if (valType <= FLConstants.ValueType.NULL) {
+            if (!prop.primitive) { field.set(obj, null); }
+            return;
+        }
+
+        switch (prop.kind) {
+            case BOOLEAN:
+                if (prop.primitive) { field.setBoolean(obj, value.asBool()); }
+                else { field.set(obj, value.asBool()); }
+                return;
+            case INT:
+                if (prop.primitive) { field.setInt(obj, (int) value.asInt()); }
+                else { field.set(obj, (int) value.asInt()); }
+                return;
+            case LONG:
+                if (prop.primitive) { field.setLong(obj, value.asInt()); }
+                else { field.set(obj, value.asInt()); }
+                return;
+            case SHORT:
+                if (prop.primitive) { field.setShort(obj, (short) value.asInt()); }
+                else { field.set(obj, (short) value.asInt()); }
+                return;
+            case BYTE:
+                if (prop.primitive) { field.setByte(obj, (byte) value.asInt()); }
+                else { field.set(obj, (byte) value.asInt()); }
+                return;
+            case FLOAT:
+                if (prop.primitive) { field.setFloat(obj, value.asFloat()); }
+                else { field.set(obj, value.asFloat()); }
+                return;
+            case DOUBLE:
+                if (prop.primitive) { field.setDouble(obj, value.asDouble()); }
+                else { field.set(obj, value.asDouble()); }
+                return;
+            case STRING:
+                field.set(obj, (valType == FLConstants.ValueType.STRING) ? value.asString() : null);
+                return;
+            case DATE:
+                field.set(obj, (valType == FLConstants.ValueType.STRING) ? DateUtils.fromJson(value.asString()) : null);
+                return;
+            case ENUM:
+                Object constant = null;
+                if (valType == FLConstants.ValueType.STRING) {
+                    try { constant = Enum.valueOf((Class<? extends Enum>) field.getType(), value.asString()); }
+                    catch (IllegalArgumentException ignore) { }
+                }
+                field.set(obj, constant);
+                return;
+            case BYTES:
+                field.set(obj, value.asData());
+                return;
+            case LIST:
+                field.set(obj, (valType == FLConstants.ValueType.ARRAY) ? value.asArray() : null);
+                return;
+            case MAP:
+                field.set(obj, (valType == FLConstants.ValueType.DICT) ? value.asDict() : null);
+                return;
+            case OBJECT:
+                field.set(
+                    obj,
+                    (valType == FLConstants.ValueType.DICT) ? getMapper(prop).decode(value.asFLDict()) : null);
+                return;
+            default:
+                throw new IllegalStateException("Unrecognized property kind: " + prop.kind);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "PMD.CyclomaticComplexity"})
+    private void encodeProperty(@NonNull FLEncoder enc, @NonNull Object obj, @NonNull Property prop)
+        throws IllegalAccessException {
+        final Field field = prop.field;
+
+        if (prop.primitive) {
+            enc.writeKey(prop.name);
+            switch (prop.kind) {
+                case BOOLEAN:
+                    enc.writeBoolean(field.getBoolean(obj));
+                    return;
+                case FLOAT:
+                    enc.writeFloat(field.getFloat(obj));
+                    return;
+                case DOUBLE:
+                    enc.writeDouble(field.getDouble(obj));
+                    return;
+                default:
+                    // int, long, short, byte
+                    enc.writeLong(field.getLong(obj));
+                    return;
+            }
+        }
+
+        final Object value = field.get(obj);
+        if (value == null) { return; }
+
+        enc.writeKey(prop.name);
+        switch (prop.kind) {
+            case BOOLEAN:
+                enc.writeBoolean((Boolean) value);
+                return;
+            case INT:
+            case LONG:
+            case SHORT:
+            case BYTE:
+                enc.writeLong(((Number) value).longValue());
+                return;
+            case FLOAT:
+                enc.writeFloat((Float) value);
+                return;
+            case DOUBLE:
+                enc.writeDouble((Double) value);
+                return;
+            case DATE:
+                enc.writeString(DateUtils.toJson((Date) value));
+                return;
+            case ENUM:
+                enc.writeString(((Enum<?>) value).name());
+                return;
+            case OBJECT:
+                ((DocumentMapper<Object>) getMapper(prop)).encodeTo(enc, value);
+                return;
+            default:
+                // strings, byte arrays, lists and maps
+                enc.writeValue(value);
+        }
+    }
+
+    @NonNull
+    private DocumentMapper<?> getMapper(@NonNull Property prop) {
+        DocumentMapper<?> mapper = prop.mapper;
+        if (mapper == null) {
+            mapper = of(prop.field.getType());
+            prop.mapper = mapper;
+        }
+        return mapper;
+    }
+}
@@ -0,0 +1,96 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * A document's metadata and, if it was requested, the document itself.
+ * Returned by document scans and by the changes feed.
+ *
+ * @see AbstractDatabase#scanDocuments(ScanOptions)
+ * @see AbstractDatabase#getChanges(long, int, boolean)
+ */
+public final class DocumentMetadata {
+    @NonNull
+    private final String id;
+    @Nullable
+    private final String revisionID;
+    private final long sequence;
+    private final boolean deleted;
+    @Nullable
+    private final Document document;
+
+    DocumentMetadata(
+        @NonNull String id,
+        @Nullable String revisionID,
+        long sequence,
+        boolean deleted,
+        @Nullable Document document) {
+        this.id = id;
+        this.revisionID = revisionID;
+        this.sequence = sequence;
+        this.deleted = deleted;
+        this.document = document;
+    }
+
+    /**
+     * The document ID.
+     *
+     * @return the document ID.
+     */
+    @NonNull
+    public String getId() { return id; }
+
+    /**
+     * The ID of the document's current revision.
+     *
+     * @return the revision ID.
+     */
+    @Nullable
+    public String getRevisionID() { return revisionID; }
+
+    /**
+     * The sequence number of the document's most recent change.
+     *
+     * @return the sequence number.
+     */
+    public long getSequence() { return sequence; }
+
+    /**
+     * Whether the document has been deleted.
+     *
+     * @return true if the document has been deleted.
+     */
+    public boolean isDeleted() { return deleted; }
+
+    /**
+     * The document.  The document is only available if it was requested (the scan is not metadata only,
+     * or the changes were requested with their bodies) and the document has not been deleted.
+     *
+     * @return the document, or null.
+     */
+    @Nullable
+    public Document getDocument() { return document; }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "DocumentMetadata{" + id + "@" + revisionID + " #" + sequence + (deleted ? " (deleted)" : "") + "}";
+    }
+}
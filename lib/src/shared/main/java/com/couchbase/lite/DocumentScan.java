@@ -0,0 +1,101 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.GuardedBy;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.couchbase.lite.internal.CBLStatus;
+import com.couchbase.lite.internal.core.C4DocEnumerator;
+
+
+/**
+ * A cursor over the documents in a database, in document ID order.
+ * <p>
+ * Documents are read from the database as the cursor advances.  The cursor is thread safe:
+ * several threads may consume a single scan by calling {@link #nextBatch()}.  Each batch is
+ * read under the database lock: consumers then process their batches in parallel.
+ * <p>
+ * A scan holds native resources: close it when done with it.  It closes itself when it is exhausted.
+ */
+public final class DocumentScan extends AbstractDocumentCursor {
+    @NonNull
+    private final ScanOptions options;
+
+    DocumentScan(@NonNull Database db, @NonNull C4DocEnumerator c4enum, @NonNull ScanOptions options) {
+        super(db, c4enum);
+        this.options = options;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * Get the next batch of documents.  The batch size is set in the scan's {@link ScanOptions}.
+     *
+     * @return the next batch of documents: the batch is empty when the scan is exhausted.
+     * @throws CouchbaseLiteException on a database error
+     */
+    @NonNull
+    public List<DocumentMetadata> nextBatch() throws CouchbaseLiteException {
+        final int batchSize = options.getBatchSize();
+        final List<DocumentMetadata> batch = new ArrayList<>(batchSize);
+        synchronized (db.getLock()) {
+            DocumentMetadata doc;
+            while ((batch.size() < batchSize) && ((doc = nextLocked()) != null)) { batch.add(doc); }
+        }
+        return (batch.isEmpty()) ? Collections.emptyList() : batch;
+    }
+
+    //---------------------------------------------
+    // Package visibility
+    //---------------------------------------------
+
+    // The native enumerator cannot seek: skip documents that precede the range and stop at the first that follows it.
+    // Skipped documents are identified from the enumerator's metadata, without loading them.
+    @GuardedBy("db.getLock()")
+    @Nullable
+    @Override
+    DocumentMetadata nextLocked() throws CouchbaseLiteException {
+        final C4DocEnumerator c4enum = getEnumeratorLocked();
+        if (c4enum == null) { return null; }
+
+        final boolean descending = options.isDescending();
+        try {
+            while (c4enum.next()) {
+                final String id = c4enum.getDocID();
+
+                if (descending ? options.isBeforeRange(id) : options.isAfterRange(id)) { break; }
+                if (descending ? options.isAfterRange(id) : options.isBeforeRange(id)) { continue; }
+
+                return getMetadataLocked(c4enum, !options.isMetadataOnly());
+            }
+        }
+        catch (LiteCoreException e) {
+            closeLocked();
+            throw CBLStatus.convertException(e);
+        }
+
+        closeLocked();
+        return null;
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Map;
 
 import com.couchbase.lite.internal.support.Log;
 import com.couchbase.lite.internal.utils.DateUtils;
+import com.couchbase.lite.internal.utils.JsonUtils;
 import com.couchbase.lite.internal.utils.Preconditions;
 
 
@@ -57,6 +58,20 @@ public abstract class Expression {
         @Override
         Object asJSON() { return asJSON(value); }
 
+        // Maps, Lists and Dates belong to the client, who may change them.
+        @Override
+        boolean isImmutable() {
+            return (value == null)
+                || (value instanceof String)
+                || (value instanceof Boolean)
+                || (value instanceof Integer)
+                || (value instanceof Long)
+                || (value instanceof Double)
+                || (value instanceof Float)
+                || (value instanceof Short)
+                || (value instanceof Byte);
+        }
+
         @Nullable
         @SuppressWarnings("unchecked")
         private Object asJSON(@Nullable Object value) {
@@ -110,8 +125,12 @@ public abstract class Expression {
     static final class AggregateExpression extends Expression {
         @NonNull
         private final List<Expression> expressions;
+        private final boolean immutable;
 
-        AggregateExpression(@NonNull List<Expression> expressions) { this.expressions = expressions; }
+        AggregateExpression(@NonNull List<Expression> expressions) {
+            this.expressions = expressions;
+            this.immutable = allImmutable(expressions);
+        }
 
         @NonNull
         public List<Expression> getExpressions() { return expressions; }
@@ -124,6 +143,16 @@ public abstract class Expression {
             for (Expression expr : expressions) { json.add(expr.asJSON()); }
             return json;
         }
+
+        @Override
+        boolean isImmutable() { return immutable; }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            out.append("[\"[]\"");
+            appendAll(out, expressions);
+            out.append(']');
+        }
     }
 
     static final class BinaryExpression extends Expression {
@@ -153,83 +182,100 @@ public abstract class Expression {
         private final Expression rhs;
         @NonNull
         private final OpType type;
+        private final boolean immutable;
 
         BinaryExpression(@NonNull Expression lhs, @NonNull Expression rhs, @NonNull OpType type) {
             this.lhs = lhs;
             this.rhs = rhs;
             this.type = type;
+            this.immutable = lhs.isImmutable() && rhs.isImmutable();
         }
 
         @NonNull
         @Override
         Object asJSON() {
             final List<Object> json = new ArrayList<>();
+            json.add(opName());
+
+            json.add(lhs.asJSON());
+
+            if (type != OpType.Between) { json.add(rhs.asJSON()); }
+            else {
+                // "between"'s RHS is an aggregate of the min and max, but the min and max need to be
+                // written out as parameters to the BETWEEN operation:
+                final List<Expression> rangeExprs = ((AggregateExpression) rhs).getExpressions();
+                json.add(rangeExprs.get(0).asJSON());
+                json.add(rangeExprs.get(1).asJSON());
+            }
+
+            return json;
+        }
+
+        @Override
+        boolean isImmutable() { return immutable; }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            out.append('[');
+            JsonUtils.writeString(out, opName());
+            out.append(',');
+            lhs.appendJSON(out);
+
+            if (type != OpType.Between) {
+                out.append(',');
+                rhs.appendJSON(out);
+            }
+            else {
+                final List<Expression> rangeExprs = ((AggregateExpression) rhs).getExpressions();
+                out.append(',');
+                rangeExprs.get(0).appendJSON(out);
+                out.append(',');
+                rangeExprs.get(1).appendJSON(out);
+            }
+
+            out.append(']');
+        }
+
+        @NonNull
+        private String opName() {
             switch (type) {
                 case Add:
-                    json.add("+");
-                    break;
+                    return "+";
                 case Between:
-                    json.add("BETWEEN");
-                    break;
+                    return "BETWEEN";
                 case Divide:
-                    json.add("/");
-                    break;
+                    return "/";
                 case EqualTo:
-                    json.add("=");
-                    break;
+                    return "=";
                 case GreaterThan:
-                    json.add(">");
-                    break;
+                    return ">";
                 case GreaterThanOrEqualTo:
-                    json.add(">=");
-                    break;
+                    return ">=";
                 case In:
-                    json.add("IN");
-                    break;
+                    return "IN";
                 case Is:
-                    json.add("IS");
-                    break;
+                    return "IS";
                 case IsNot:
-                    json.add("IS NOT");
-                    break;
+                    return "IS NOT";
                 case LessThan:
-                    json.add("<");
-                    break;
+                    return "<";
                 case LessThanOrEqualTo:
-                    json.add("<=");
-                    break;
+                    return "<=";
                 case Like:
-                    json.add("LIKE");
-                    break;
+                    return "LIKE";
                 case Modulus:
-                    json.add("%");
-                    break;
+                    return "%";
                 case Multiply:
-                    json.add("*");
-                    break;
+                    return "*";
                 case NotEqualTo:
-                    json.add("!=");
-                    break;
+                    return "!=";
                 case RegexLike:
-                    json.add("regexp_like()");
-                    break;
+                    return "regexp_like()";
                 case Subtract:
-                    json.add("-");
-                    break;
-            }
-
-            json.add(lhs.asJSON());
-
-            if (type != OpType.Between) { json.add(rhs.asJSON()); }
-            else {
-                // "between"'s RHS is an aggregate of the min and max, but the min and max need to be
-                // written out as parameters to the BETWEEN operation:
-                final List<Expression> rangeExprs = ((AggregateExpression) rhs).getExpressions();
-                json.add(rangeExprs.get(0).asJSON());
-                json.add(rangeExprs.get(1).asJSON());
+                    return "-";
+                default:
+                    throw new IllegalStateException("Unexpected binary type: " + type);
             }
-
-            return json;
         }
     }
 
@@ -243,33 +289,34 @@ public abstract class Expression {
         private final OpType type;
         @NonNull
         private final List<Expression> subexpressions;
+        private final boolean immutable;
 
         CompoundExpression(@NonNull List<Expression> subexpressions, @NonNull OpType type) {
             Preconditions.assertNotNull(subexpressions, "subexpressions");
             this.type = type;
             this.subexpressions = subexpressions;
+            this.immutable = allImmutable(subexpressions);
         }
 
         @NonNull
         @Override
         Object asJSON() {
             final List<Object> json = new ArrayList<>();
-            switch (type) {
-                case And:
-                    json.add("AND");
-                    break;
-                case Or:
-                    json.add("OR");
-                    break;
-                case Not:
-                    json.add("NOT");
-                    break;
-            }
-
+            json.add(type.name().toUpperCase(Locale.ROOT));
             for (Expression expr : subexpressions) { json.add(expr.asJSON()); }
-
             return json;
         }
+
+        @Override
+        boolean isImmutable() { return immutable; }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            out.append('[');
+            JsonUtils.writeString(out, type.name().toUpperCase(Locale.ROOT));
+            appendAll(out, subexpressions);
+            out.append(']');
+        }
     }
 
     //---------------------------------------------
@@ -316,6 +363,30 @@ public abstract class Expression {
                     return Arrays.asList();
             }
         }
+
+        @Override
+        boolean isImmutable() { return operand.isImmutable(); }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            switch (type) {
+                case Missing:
+                case Null:
+                    out.append("[\"IS\",");
+                    break;
+                case NotMissing:
+                case NotNull:
+                    out.append("[\"IS NOT\",");
+                    break;
+                default:
+                    Log.i(LogDomain.QUERY, "Unexpected unary type: " + type);
+                    out.append("[]");
+                    return;
+            }
+
+            operand.appendJSON(out);
+            out.append(((type == OpType.Missing) || (type == OpType.NotMissing)) ? ",[\"MISSING\"]]" : ",null]");
+        }
     }
 
     //---------------------------------------------
@@ -334,6 +405,16 @@ public abstract class Expression {
             json.add("$" + name);
             return json;
         }
+
+        @Override
+        boolean isImmutable() { return true; }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            out.append('[');
+            JsonUtils.writeString(out, "$" + name);
+            out.append(']');
+        }
     }
 
     //---------------------------------------------
@@ -369,10 +450,12 @@ public abstract class Expression {
         private final String func;
         @NonNull
         private final List<Expression> params;
+        private final boolean immutable;
 
         FunctionExpression(@NonNull String func, @NonNull List<Expression> params) {
             this.func = func;
             this.params = params;
+            this.immutable = allImmutable(params);
         }
 
         @NonNull
@@ -383,6 +466,17 @@ public abstract class Expression {
             for (Expression expr : params) { json.add(expr.asJSON()); }
             return json;
         }
+
+        @Override
+        boolean isImmutable() { return immutable; }
+
+        @Override
+        void writeJSON(@NonNull StringBuilder out) {
+            out.append('[');
+            JsonUtils.writeString(out, func);
+            appendAll(out, params);
+            out.append(']');
+        }
     }
 
     //---------------------------------------------
@@ -549,8 +643,50 @@ public abstract class Expression {
     // Base class
     //---------------------------------------------
 
+    // The JSON for an immutable expression never changes: it is computed once and reused.
+    @Nullable
+    private volatile String encodedJSON;
+
     abstract Object asJSON();
 
+    /**
+     * An expression is immutable if neither it nor any of its subexpressions
+     * refers to client data that might change after it is created.
+     *
+     * @return true if the JSON for this expression will never change.
+     */
+    boolean isImmutable() { return false; }
+
+    /**
+     * Write this expression's JSON directly into the passed buffer.
+     * Subclasses that can do better than building and then serializing the asJSON() tree should override.
+     *
+     * @param out the buffer
+     */
+    void writeJSON(@NonNull StringBuilder out) { JsonUtils.writeJson(out, asJSON()); }
+
+    /**
+     * Append this expression's JSON to the passed buffer, using the memoized encoding, if possible.
+     *
+     * @param out the buffer
+     */
+    final void appendJSON(@NonNull StringBuilder out) {
+        if (!isImmutable()) {
+            writeJSON(out);
+            return;
+        }
+
+        final String json = encodedJSON;
+        if (json != null) {
+            out.append(json);
+            return;
+        }
+
+        final int start = out.length();
+        writeJSON(out);
+        encodedJSON = out.substring(start);
+    }
+
     /**
      * Create a multiply expression to multiply the current expression by the given expression.
      *
@@ -832,7 +968,7 @@ public abstract class Expression {
     @NonNull
     public Expression in(@NonNull Expression... expressions) {
         if (expressions.length <= 0) { throw new IllegalArgumentException("empty 'IN'."); }
-        final Expression aggr = new AggregateExpression(Arrays.asList(expressions));
+        final Expression aggr = new AggregateExpression(Arrays.asList(expressions.clone()));
         return new BinaryExpression(this, aggr, BinaryExpression.OpType.In);
     }
 
@@ -841,4 +977,23 @@ public abstract class Expression {
     public String toString() {
         return String.format(Locale.ENGLISH, "%s[json=%s]", getClass().getSimpleName(), asJSON());
     }
+
+    //---------------------------------------------
+    // Private static methods
+    //---------------------------------------------
+
+    private static boolean allImmutable(@NonNull List<Expression> expressions) {
+        for (Expression expr : expressions) {
+            if (!expr.isImmutable()) { return false; }
+        }
+        return true;
+    }
+
+    // Appends each expression, preceded by a comma.
+    private static void appendAll(@NonNull StringBuilder out, @NonNull List<Expression> expressions) {
+        for (Expression expr : expressions) {
+            out.append(',');
+            expr.appendJSON(out);
+        }
+    }
 }
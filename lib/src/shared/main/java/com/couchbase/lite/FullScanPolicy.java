@@ -0,0 +1,39 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+/**
+ * What a query should do, when it is executed, if its plan scans every document in the database
+ * instead of using an index.
+ *
+ * @see Query#setFullScanPolicy(FullScanPolicy)
+ */
+public enum FullScanPolicy {
+    /**
+     * Run the query without checking its plan.  This is the default.
+     */
+    IGNORE,
+
+    /**
+     * Log a warning, once, the first time the query is executed.
+     */
+    WARN,
+
+    /**
+     * Fail every execution of the query with a CouchbaseLiteException.
+     */
+    FAIL
+}
@@ -119,4 +119,14 @@ public final class GroupBy extends AbstractQuery implements HavingRouter, OrderB
         for (Expression expression : expressions) { groupBy.add(expression.asJSON()); }
         return groupBy;
     }
+
+    void appendJSON(@NonNull StringBuilder out) {
+        out.append('[');
+        final int n = expressions.size();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) { out.append(','); }
+            expressions.get(i).appendJSON(out);
+        }
+        out.append(']');
+    }
 }
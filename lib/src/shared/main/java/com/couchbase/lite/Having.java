@@ -95,4 +95,7 @@ public final class Having extends AbstractQuery implements OrderByRouter, LimitR
     //---------------------------------------------
 
     Object asJSON() { return expression != null ? expression.asJSON() : null; }
+
+    @Nullable
+    Expression getExpression() { return expression; }
 }
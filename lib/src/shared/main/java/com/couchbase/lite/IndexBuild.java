@@ -0,0 +1,205 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.GuardedBy;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.couchbase.lite.internal.CouchbaseLiteInternal;
+
+
+/**
+ * An index that is being built in the background.
+ *
+ * @see AbstractDatabase#createIndexAsync(String, Index, Executor, IndexBuildChangeListener)
+ */
+public final class IndexBuild {
+    /**
+     * The states of an index build.
+     */
+    public enum State {
+        /**
+         * The build is waiting for a thread.
+         */
+        QUEUED,
+
+        /**
+         * The index is being built.  It is not yet visible to queries.
+         */
+        BUILDING,
+
+        /**
+         * The index has been built and is visible to queries.
+         */
+        COMPLETED,
+
+        /**
+         * The index could not be built.
+         */
+        FAILED
+    }
+
+    //---------------------------------------------
+    // member variables
+    //---------------------------------------------
+
+    @NonNull
+    private final String name;
+    private final long documentCount;
+    @Nullable
+    private final Executor executor;
+    @Nullable
+    private final IndexBuildChangeListener listener;
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    @GuardedBy("this")
+    @NonNull
+    private State state = State.QUEUED;
+    @GuardedBy("this")
+    private long startedAt;
+    @GuardedBy("this")
+    private long finishedAt;
+    @GuardedBy("this")
+    @Nullable
+    private CouchbaseLiteException error;
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+
+    IndexBuild(
+        @NonNull String name,
+        long documentCount,
+        @Nullable Executor executor,
+        @Nullable IndexBuildChangeListener listener) {
+        this.name = name;
+        this.documentCount = documentCount;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * The name of the index.
+     *
+     * @return the index name.
+     */
+    @NonNull
+    public String getName() { return name; }
+
+    /**
+     * The number of documents in the database when the build was requested: a measure of the work to be done.
+     *
+     * @return the number of documents to be indexed.
+     */
+    public long getDocumentCount() { return documentCount; }
+
+    /**
+     * The current state of the build.
+     *
+     * @return the build state.
+     */
+    @NonNull
+    public synchronized State getState() { return state; }
+
+    /**
+     * The time spent building the index, so far.
+     *
+     * @return the build time, in milliseconds.
+     */
+    public synchronized long getElapsedMillis() {
+        if (startedAt <= 0) { return 0; }
+        return TimeUnit.NANOSECONDS.toMillis(((finishedAt > 0) ? finishedAt : System.nanoTime()) - startedAt);
+    }
+
+    /**
+     * The reason the build failed.
+     *
+     * @return the error that caused the build to fail, or null.
+     */
+    @Nullable
+    public synchronized CouchbaseLiteException getError() { return error; }
+
+    /**
+     * Whether the build has finished, successfully or not.
+     *
+     * @return true if the build has completed or failed.
+     */
+    public boolean isDone() { return done.getCount() <= 0; }
+
+    /**
+     * Wait for the build to finish.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return true if the build finished: check the state to determine whether it succeeded.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    @NonNull
+    @Override
+    public String toString() { return "IndexBuild{" + name + ": " + getState() + "}"; }
+
+    //---------------------------------------------
+    // Package level access
+    //---------------------------------------------
+
+    void start() {
+        synchronized (this) {
+            startedAt = System.nanoTime();
+            state = State.BUILDING;
+        }
+        postChange(State.BUILDING);
+    }
+
+    void finish(@Nullable CouchbaseLiteException err) {
+        final State newState = (err == null) ? State.COMPLETED : State.FAILED;
+        synchronized (this) {
+            finishedAt = System.nanoTime();
+            error = err;
+            state = newState;
+        }
+        done.countDown();
+        postChange(newState);
+    }
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+
+    private void postChange(@NonNull State newState) {
+        final IndexBuildChangeListener l = listener;
+        if (l == null) { return; }
+
+        final Executor exec = (executor != null)
+            ? executor
+            : CouchbaseLiteInternal.getExecutionService().getMainExecutor();
+        final IndexBuildChange change = new IndexBuildChange(this, newState);
+        exec.execute(() -> l.changed(change));
+    }
+}
@@ -0,0 +1,54 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * IndexBuildChange contains the state of an index build, at the time of the change.
+ */
+public final class IndexBuildChange {
+    @NonNull
+    private final IndexBuild build;
+    @NonNull
+    private final IndexBuild.State state;
+
+    IndexBuildChange(@NonNull IndexBuild build, @NonNull IndexBuild.State state) {
+        this.build = build;
+        this.state = state;
+    }
+
+    /**
+     * The index build whose state changed.
+     *
+     * @return the index build.
+     */
+    @NonNull
+    public IndexBuild getBuild() { return build; }
+
+    /**
+     * The new state of the build.
+     *
+     * @return the build state.
+     */
+    @NonNull
+    public IndexBuild.State getState() { return state; }
+
+    @NonNull
+    @Override
+    public String toString() { return "IndexBuildChange{" + build.getName() + ": " + state + "}"; }
+}
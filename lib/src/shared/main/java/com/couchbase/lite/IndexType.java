@@ -31,6 +31,10 @@ public enum IndexType {
      * Full-text index.
      */
     FullText(1),
+    /**
+     * Index of the elements of an array.
+     */
+    Array(2),
     /**
      * Index of prediction() results (Enterprise Edition only)
      */
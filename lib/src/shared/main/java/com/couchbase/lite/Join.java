@@ -18,6 +18,7 @@
 package com.couchbase.lite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,7 +31,7 @@ import com.couchbase.lite.internal.utils.Preconditions;
  */
 public class Join {
     enum Type {
-        INNER("INNER"), LEFT_OUTER("LEFT OUTER"), CROSS("CROSS");
+        INNER("INNER"), LEFT_OUTER("LEFT OUTER"), CROSS("CROSS"), UNNEST("UNNEST");
 
         private final String tag;
 
@@ -84,6 +85,40 @@ public class Join {
         }
     }
 
+    /**
+     * Component that unnests an array: see {@link Join#unnest(Expression, String)}.
+     */
+    public static final class Unnest extends Join {
+        //---------------------------------------------
+        // Member variables
+        //---------------------------------------------
+        @NonNull
+        private final Expression array;
+        @NonNull
+        private final String alias;
+
+        //---------------------------------------------
+        // Constructors
+        //---------------------------------------------
+        private Unnest(@NonNull Expression array, @NonNull String alias) {
+            super(Type.UNNEST);
+            this.array = array;
+            this.alias = alias;
+        }
+
+        //---------------------------------------------
+        // Package level access
+        //---------------------------------------------
+        @NonNull
+        @Override
+        Object asJSON() {
+            final Map<String, Object> json = new HashMap<>();
+            json.put("AS", alias);
+            json.put("UNNEST", array.asJSON());
+            return json;
+        }
+    }
+
     //---------------------------------------------
     // API - public static methods
     //---------------------------------------------
@@ -150,13 +185,35 @@ public class Join {
         return new Join(Type.CROSS, datasource);
     }
 
+    /**
+     * Create an UNNEST component: the query produces a row for each element of the given array,
+     * in each document, as if the array's elements were joined to the document that contains them.
+     * Once a query has a join, its properties must name their data source: e.g.,
+     * {@code Expression.property("items").from("doc")}.  The element itself is referred to by its alias:
+     * {@code Expression.property("item")} is the element and {@code Expression.property("sku").from("item")}
+     * is the "sku" property of an element that is a dictionary.
+     * <p>
+     * A query that unnests an array can use an {@link ArrayIndex} on that array.
+     *
+     * @param array the array to unnest: typically a property expression.
+     * @param alias the name by which the query refers to each element of the array.
+     * @return The Join object that represents the UNNEST clause of the query.
+     */
+    @NonNull
+    public static Join unnest(@NonNull Expression array, @NonNull String alias) {
+        Preconditions.assertNotNull(array, "array");
+        Preconditions.assertNotNull(alias, "alias");
+        return new Unnest(array, alias);
+    }
+
 
     //---------------------------------------------
     // member variables
     //---------------------------------------------
     @NonNull
     private final Type type;
-    @NonNull
+    // null only for UNNEST
+    @Nullable
     private final DataSource dataSource;
 
     //---------------------------------------------
@@ -169,6 +226,11 @@ public class Join {
         this.dataSource = datasource;
     }
 
+    private Join(@NonNull Type type) {
+        this.type = type;
+        this.dataSource = null;
+    }
+
     //---------------------------------------------
     // Package level access
     //---------------------------------------------
@@ -17,6 +17,9 @@
 //
 package com.couchbase.lite;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,6 +50,12 @@ public class Limit extends AbstractQuery {
     // Package level access
     //---------------------------------------------
 
+    @NonNull
+    Expression getLimit() { return limit; }
+
+    @Nullable
+    Expression getOffset() { return offset; }
+
     Object asJSON() {
         final List<Object> json = new ArrayList<>();
         json.add(limit.asJSON());
@@ -62,6 +62,10 @@ final class LiveQuery implements DatabaseChangeListener {
 
     private final Object lock = new Object();
 
+    // A single instance, so that the execution service can recognize duplicate refresh requests
+    @NonNull
+    private final Runnable refreshTask = this::refreshResults;
+
     @GuardedBy("lock")
     private ListenerToken dbListenerToken;
 
@@ -114,7 +118,11 @@ final class LiveQuery implements DatabaseChangeListener {
      */
     ListenerToken addChangeListener(Executor executor, QueryChangeListener listener) {
         final ChangeListenerToken token = changeNotifier.addChangeListener(executor, listener);
-        start(false);
+        try { start(false); }
+        catch (RuntimeException e) {
+            changeNotifier.removeChangeListener(token);
+            throw e;
+        }
         return token;
     }
 
@@ -137,7 +145,12 @@ final class LiveQuery implements DatabaseChangeListener {
         synchronized (lock) {
             if (state.compareAndSet(State.STOPPED, State.STARTED)) {
                 db.addActiveLiveQuery(this);
-                dbListenerToken = db.addChangeListener(this);
+                try { dbListenerToken = db.addChangeListener(this); }
+                catch (RuntimeException e) {
+                    db.removeActiveLiveQuery(this);
+                    state.set(State.STOPPED);
+                    throw e;
+                }
             }
             else {
                 // Here if the live query was already running.  This can happen in two ways:
@@ -186,7 +199,7 @@ final class LiveQuery implements DatabaseChangeListener {
 
     private void update(long delay) {
         if (!state.compareAndSet(State.STARTED, State.SCHEDULED)) { return; }
-        query.getDatabase().scheduleOnQueryExecutor(this::refreshResults, delay);
+        query.getDatabase().scheduleOnQueryExecutor(refreshTask, delay);
     }
 
     // Runs on the query.database.queryExecutor
@@ -21,6 +21,8 @@ import android.support.annotation.NonNull;
 import android.support.annotation.VisibleForTesting;
 
 import com.couchbase.lite.internal.CouchbaseLiteInternal;
+import com.couchbase.lite.internal.core.C4Log;
+import com.couchbase.lite.internal.support.LogQueue;
 
 
 /**
@@ -36,7 +38,10 @@ public final class Log {
     private final FileLogger fileLogger = new FileLogger();
 
     // Singleton instance.
-    private Logger customLogger;
+    private volatile Logger customLogger;
+
+    // Singleton instance.
+    private volatile StructuredLogger structuredLogger;
 
     // The singleton instance is available from Database.log
     Log() { }
@@ -79,10 +84,68 @@ public final class Log {
      */
     public void setCustom(Logger customLogger) { this.customLogger = customLogger; }
 
+    /**
+     * Gets the structured logger that was registered by the application (if any)
+     *
+     * @return The structured logger that was registered by the application, or null.
+     */
+    public StructuredLogger getStructured() { return structuredLogger; }
+
+    /**
+     * Sets an application specific logger that will receive structured log events.
+     * LiteCore is asked to deliver messages at the lowest level accepted by any logger,
+     * including this one.
+     *
+     * @param structuredLogger A StructuredLogger implementation that will receive log events
+     */
+    public void setStructured(StructuredLogger structuredLogger) {
+        this.structuredLogger = structuredLogger;
+        if (CouchbaseLiteInternal.isInitialized()) { C4Log.setCallbackLevel(consoleLogger.getLevel()); }
+    }
+
+    /**
+     * Sets whether log messages are delivered to the loggers asynchronously.
+     * When enabled, messages are placed on a bounded queue and delivered, in order,
+     * on a single background thread, so that a slow logger does not stall the thread
+     * that logged the message.  If the queue is full, new messages are dropped.
+     * Disabling asynchronous delivery delivers any messages that are still queued.
+     *
+     * @param async true to deliver log messages asynchronously.
+     */
+    public void setAsyncDelivery(boolean async) {
+        com.couchbase.lite.internal.support.Log.setAsyncDelivery(async, LogQueue.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Sets whether log messages are delivered to the loggers asynchronously.
+     *
+     * @param async    true to deliver log messages asynchronously.
+     * @param capacity the maximum number of undelivered messages
+     */
+    public void setAsyncDelivery(boolean async, int capacity) {
+        com.couchbase.lite.internal.support.Log.setAsyncDelivery(async, capacity);
+    }
+
+    /**
+     * Gets whether log messages are delivered to the loggers asynchronously.
+     *
+     * @return true if log messages are delivered asynchronously.
+     */
+    public boolean isAsyncDelivery() { return com.couchbase.lite.internal.support.Log.isAsyncDelivery(); }
+
+    /**
+     * Gets the number of log messages that have been dropped because the
+     * asynchronous delivery queue was full.
+     *
+     * @return the number of dropped messages.
+     */
+    public long getDroppedMessageCount() { return com.couchbase.lite.internal.support.Log.getDroppedMessageCount(); }
+
     // Damn singletons...
     @VisibleForTesting
     void reset() {
         consoleLogger.reset();
         fileLogger.reset();
+        setAsyncDelivery(false);
     }
 }
@@ -0,0 +1,98 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * A structured log event: a level, a domain, an event name and a list of typed fields.
+ * <p>
+ * Log events are pooled and reused.  An event is valid only for the duration
+ * of the call to {@link StructuredLogger#log(LogEvent)} that delivers it:
+ * a logger must copy anything that it needs to keep.
+ */
+public interface LogEvent {
+    /**
+     * The type of a field value.
+     */
+    enum FieldType {LONG, DOUBLE, BOOLEAN, STRING}
+
+    @NonNull
+    LogLevel getLevel();
+
+    @NonNull
+    LogDomain getDomain();
+
+    /**
+     * Gets the name of the event, e.g., "replicator.status".
+     *
+     * @return the event name.
+     */
+    @NonNull
+    String getName();
+
+    /**
+     * Gets the time at which the event was created.
+     *
+     * @return the event time, in ms since the epoch
+     */
+    long getTimestamp();
+
+    int getFieldCount();
+
+    @NonNull
+    String getKey(int index);
+
+    @NonNull
+    FieldType getType(int index);
+
+    /**
+     * Gets the index of the first field with the passed key.
+     *
+     * @param key the field key
+     * @return the index of the field, or -1 if there is no field with the key.
+     */
+    int indexOf(@NonNull String key);
+
+    /**
+     * Gets the value of a field as a long.  Double values are truncated; boolean values are 0 or 1.
+     *
+     * @param index the field index
+     * @return the value of the field as a long, or 0 if the field is a string.
+     */
+    long getLong(int index);
+
+    /**
+     * Gets the value of a field as a double.
+     *
+     * @param index the field index
+     * @return the value of the field as a double, or 0 if the field is a string.
+     */
+    double getDouble(int index);
+
+    boolean getBoolean(int index);
+
+    /**
+     * Gets the value of a field as a String.  Non-string values are converted.
+     *
+     * @param index the field index
+     * @return the value of the field as a string
+     */
+    @Nullable
+    String getString(int index);
+}
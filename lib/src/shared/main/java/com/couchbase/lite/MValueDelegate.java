@@ -20,8 +20,6 @@ package com.couchbase.lite;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 import com.couchbase.lite.internal.fleece.FLConstants;
 import com.couchbase.lite.internal.fleece.FLDict;
 import com.couchbase.lite.internal.fleece.FLEncoder;
@@ -35,20 +33,17 @@ import com.couchbase.lite.internal.utils.Preconditions;
  * Internal delegate class for MValue - Mutable Fleece Value
  */
 final class MValueDelegate implements MValue.Delegate {
-
     //-------------------------------------------------------------------------
     // Public methods
     //-------------------------------------------------------------------------
     @Nullable
     @Override
-    public Object toNative(@NonNull MValue mv, @Nullable MCollection parent, @NonNull AtomicBoolean cacheIt) {
+    public Object toNative(@NonNull MValue mv, @Nullable MCollection parent) {
         final FLValue value = Preconditions.assertNotNull(mv.getValue(), "MValue");
         switch (value.getType()) {
             case FLConstants.ValueType.ARRAY:
-                cacheIt.set(true);
                 return mValueToArray(mv, parent);
             case FLConstants.ValueType.DICT:
-                cacheIt.set(true);
                 return mValueToDictionary(mv, parent);
             case FLConstants.ValueType.DATA:
                 return new Blob("application/octet-stream", value.asData());
@@ -86,18 +81,25 @@ final class MValueDelegate implements MValue.Delegate {
         final FLDict flDict = Preconditions.assertNotNull(mv.getValue(), "MValue").asFLDict();
         final DocContext context = (DocContext) parent.getContext();
 
+        // Without a database (e.g., JSON that has not been saved) there is no blob store: these are plain dictionaries
+        if (context.getDatabase() == null) { return mValueToPlainDictionary(mv, parent); }
+
         final FLValue flType = flDict.get(Blob.META_PROP_TYPE);
         final String type = (flType == null) ? null : flType.asString();
         if (type == null) {
-            if (isOldAttachment(parent, flDict)) { return createBlob(flDict, context); }
+            if (isOldAttachment(flDict)) { return createBlob(flDict, context); }
         }
         else {
             final Object obj = createSpecialObjectOfType(type, flDict, context);
             if (obj != null) { return obj; }
         }
 
-        if (parent.hasMutableChildren()) { return new MutableDictionary(mv, parent); }
-        else { return new Dictionary(mv, parent); }
+        return mValueToPlainDictionary(mv, parent);
+    }
+
+    @NonNull
+    private Object mValueToPlainDictionary(@NonNull MValue mv, @NonNull MCollection parent) {
+        return (parent.hasMutableChildren()) ? new MutableDictionary(mv, parent) : new Dictionary(mv, parent);
     }
 
     // At some point in the past, attachments were dictionaries in a top-level
@@ -105,7 +107,7 @@ final class MValueDelegate implements MValue.Delegate {
     // properties listed here.
     // Unfortunately, at this point, we don't know the name of the parent element.
     // Heuristically, we just look for the properties and cross our fingers.
-    private boolean isOldAttachment(@NonNull MCollection parent, @NonNull FLDict flDict) {
+    private boolean isOldAttachment(@NonNull FLDict flDict) {
         return (flDict.get(Blob.PROP_DIGEST) != null)
             && (flDict.get(Blob.PROP_LENGTH) != null)
             && (flDict.get(Blob.PROP_STUB) != null)
@@ -72,6 +72,9 @@ public class MetaExpression extends Expression {
         return json;
     }
 
+    @Override
+    boolean isImmutable() { return true; }
+
     String getColumnName() {
         if (columnName == null) {
             final String[] paths = keyPath.split("\\.");
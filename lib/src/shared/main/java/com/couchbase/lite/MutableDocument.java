@@ -19,12 +19,18 @@ package com.couchbase.lite;
 
 import android.support.annotation.NonNull;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
 import com.couchbase.lite.internal.core.C4Document;
+import com.couchbase.lite.internal.fleece.FLConstants;
+import com.couchbase.lite.internal.fleece.FLEncoder;
+import com.couchbase.lite.internal.fleece.FLSliceResult;
+import com.couchbase.lite.internal.fleece.FLValue;
+import com.couchbase.lite.internal.utils.Preconditions;
 
 
 /**
@@ -137,6 +143,47 @@ public final class MutableDocument extends Document implements MutableDictionary
         return this;
     }
 
+    /**
+     * Set the content of the document from a JSON string, replacing the current content.
+     * The JSON is parsed natively, into Fleece that becomes the document's content: it must describe an object.
+     * Nested objects that look like blobs are plain dictionaries until the document is saved.
+     *
+     * @param json the JSON representation of the new content.
+     * @return this Document instance
+     * @throws IllegalArgumentException if the JSON cannot be parsed or is not an object.
+     */
+    @NonNull
+    public MutableDocument setJSON(@NonNull String json) {
+        Preconditions.assertNotNull(json, "json");
+
+        final FLEncoder encoder = new FLEncoder();
+        FLSliceResult slice = null;
+        try {
+            if (!encoder.convertJSON(json.getBytes(StandardCharsets.UTF_8))) {
+                throw new IllegalArgumentException("Cannot parse JSON");
+            }
+            slice = encoder.finish2();
+
+            final FLValue value = FLValue.fromData(slice);
+            if ((value == null) || (value.getType() != FLConstants.ValueType.DICT)) {
+                throw new IllegalArgumentException("JSON does not describe an object");
+            }
+
+            // The parsed Fleece becomes the content: it is not converted to Java objects.
+            setContentBody(slice, value.asFLDict());
+            slice = null;
+
+            return this;
+        }
+        catch (LiteCoreException e) {
+            throw new IllegalArgumentException("Cannot parse JSON", e);
+        }
+        finally {
+            if (slice != null) { slice.free(); }
+            encoder.free();
+        }
+    }
+
     /**
      * Set an object value by key. Allowed value types are List, Date, Map, Number, null, String,
      * Array, Blob, and Dictionary. The List and Map must contain only the above types.
@@ -86,4 +86,14 @@ public final class OrderBy extends AbstractQuery implements LimitRouter {
         for (Ordering ordering : orderings) { json.add(ordering.asJSON()); }
         return json;
     }
+
+    void appendJSON(@NonNull StringBuilder out) {
+        out.append('[');
+        final int n = orderings.size();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) { out.append(','); }
+            orderings.get(i).appendJSON(out);
+        }
+        out.append(']');
+    }
 }
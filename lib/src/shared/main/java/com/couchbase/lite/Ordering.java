@@ -76,6 +76,17 @@ public abstract class Ordering {
             json.add(expression.asJSON());
             return json;
         }
+
+        void appendJSON(@NonNull StringBuilder out) {
+            if (isAscending) {
+                expression.appendJSON(out);
+                return;
+            }
+
+            out.append("[\"DESC\",");
+            expression.appendJSON(out);
+            out.append(']');
+        }
     }
 
     //---------------------------------------------
@@ -116,4 +127,6 @@ public abstract class Ordering {
     //---------------------------------------------
 
     abstract Object asJSON();
+
+    abstract void appendJSON(@NonNull StringBuilder out);
 }
@@ -80,6 +80,9 @@ public final class PropertyExpression extends Expression {
         return json;
     }
 
+    @Override
+    boolean isImmutable() { return true; }
+
     String getColumnName() {
         if (columnName == null) {
             final String[] paths = keyPath.split("\\.");
@@ -76,6 +76,26 @@ public interface Query {
     @NonNull
     String explain() throws CouchbaseLiteException;
 
+    /**
+     * Returns the plan for the compiled query, parsed from the output of {@link #explain()}.
+     * Use it to verify that a query uses the expected indexes: e.g.,
+     * that {@link QueryPlan#isFullScan()} is false.
+     *
+     * @return the query plan.
+     * @throws CouchbaseLiteException if an error occurs
+     */
+    @NonNull
+    QueryPlan explainPlan() throws CouchbaseLiteException;
+
+    /**
+     * Sets what the query should do, when executed, if its plan reads every document in the database.
+     * The default is {@link FullScanPolicy#IGNORE}.
+     * Checking the plan costs an additional call to {@link #explain()}, the first time the query is executed.
+     *
+     * @param policy the full scan policy.
+     */
+    void setFullScanPolicy(@NonNull FullScanPolicy policy);
+
     /**
      * Adds a change listener for the changes that occur in the query results.
      * The changes will be delivered on the UI thread for the Android platform and on an arbitrary
@@ -0,0 +1,206 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * An opt-in registry of query execution statistics, keyed by query shape.
+ * <p>
+ * A query's shape is its JSON representation: two queries built the same way,
+ * perhaps with different parameter values, have the same shape.  For each shape
+ * the registry tracks compile time, execution time (with a latency histogram),
+ * the time spent enumerating results, the number of rows returned and the number of
+ * live query refreshes.
+ * <p>
+ * Recording is off by default and costs nothing when off.  When on, each execution
+ * costs a hash lookup and a few calls to System.nanoTime().
+ */
+public final class QueryMetrics {
+    private QueryMetrics() { }
+
+    // Protect against an application that builds queries containing literals, instead of parameters.
+    @VisibleForTesting
+    static final int MAX_SHAPES = 1000;
+
+    // Latency histogram: bucket i counts latencies less than 2^i microseconds (and at least 2^(i-1)).
+    static final int HISTOGRAM_BUCKETS = 32;
+
+    /**
+     * The live statistics for a single query shape.
+     */
+    static final class Recorder {
+        @NonNull
+        private final String shape;
+        private final long createdAt = System.currentTimeMillis();
+
+        private final LongAdder compileCount = new LongAdder();
+        private final LongAdder compileNanos = new LongAdder();
+        private final LongAdder executeCount = new LongAdder();
+        private final LongAdder executeNanos = new LongAdder();
+        private final AtomicLong maxExecuteNanos = new AtomicLong();
+        private final AtomicLongArray executeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+        private final LongAdder enumerateNanos = new LongAdder();
+        private final LongAdder rowsReturned = new LongAdder();
+        private final LongAdder refreshCount = new LongAdder();
+        private final AtomicLong lastRefreshAt = new AtomicLong();
+
+        Recorder(@NonNull String shape) { this.shape = shape; }
+
+        void recordCompile(long nanos) {
+            compileCount.increment();
+            compileNanos.add(nanos);
+        }
+
+        void recordExecute(long nanos) {
+            executeCount.increment();
+            executeNanos.add(nanos);
+            executeHistogram.incrementAndGet(bucketFor(nanos));
+
+            long max;
+            do { max = maxExecuteNanos.get(); }
+            while ((nanos > max) && !maxExecuteNanos.compareAndSet(max, nanos));
+        }
+
+        // A live query refresh re-runs the query: it is an execution, too.
+        void recordRefresh(long nanos) {
+            refreshCount.increment();
+            lastRefreshAt.set(System.currentTimeMillis());
+            recordExecute(nanos);
+        }
+
+        void recordRow(long nanos) {
+            rowsReturned.increment();
+            enumerateNanos.add(nanos);
+        }
+
+        void recordEnumerate(long nanos) { enumerateNanos.add(nanos); }
+
+        @NonNull
+        QueryStats snapshot() {
+            final long[] histogram = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) { histogram[i] = executeHistogram.get(i); }
+            return new QueryStats(
+                shape,
+                createdAt,
+                compileCount.sum(),
+                compileNanos.sum(),
+                executeCount.sum(),
+                executeNanos.sum(),
+                maxExecuteNanos.get(),
+                histogram,
+                enumerateNanos.sum(),
+                rowsReturned.sum(),
+                refreshCount.sum(),
+                lastRefreshAt.get());
+        }
+    }
+
+    private static final ConcurrentMap<String, Recorder> RECORDERS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    //---------------------------------------------
+    // API - public static methods
+    //---------------------------------------------
+
+    /**
+     * Turn recording on or off.  Turning recording off does not discard the statistics already recorded.
+     *
+     * @param enable true to record query statistics.
+     */
+    public static void setEnabled(boolean enable) { enabled = enable; }
+
+    /**
+     * Whether query statistics are being recorded.
+     *
+     * @return true if query statistics are being recorded.
+     */
+    public static boolean isEnabled() { return enabled; }
+
+    /**
+     * Get a snapshot of the statistics for every query shape,
+     * sorted so that the shapes that have consumed the most database time come first.
+     *
+     * @return the statistics for each query shape.
+     */
+    @NonNull
+    public static List<QueryStats> getSnapshot() {
+        final List<QueryStats> stats = new ArrayList<>(RECORDERS.size());
+        for (Recorder recorder : RECORDERS.values()) { stats.add(recorder.snapshot()); }
+        Collections.sort(stats, (s1, s2) -> Long.compare(s2.getTotalTimeNanos(), s1.getTotalTimeNanos()));
+        return stats;
+    }
+
+    /**
+     * Get a snapshot of the statistics for a single query.
+     *
+     * @param query a query
+     * @return the statistics for the query's shape, or null if none have been recorded.
+     */
+    @Nullable
+    public static QueryStats getSnapshot(@NonNull Query query) {
+        final String shape = ((AbstractQuery) query).getShape();
+        if (shape == null) { return null; }
+        final Recorder recorder = RECORDERS.get(shape);
+        return (recorder == null) ? null : recorder.snapshot();
+    }
+
+    /**
+     * The number of distinct query shapes for which statistics have been recorded.
+     *
+     * @return the number of query shapes.
+     */
+    public static int getShapeCount() { return RECORDERS.size(); }
+
+    /**
+     * Discard all recorded statistics.
+     */
+    public static void reset() { RECORDERS.clear(); }
+
+    //---------------------------------------------
+    // Package level access
+    //---------------------------------------------
+
+    // Returns null if recording is off.
+    @Nullable
+    static Recorder getRecorder(@Nullable String shape) {
+        if (!enabled || (shape == null)) { return null; }
+
+        final Recorder recorder = RECORDERS.get(shape);
+        if ((recorder != null) || (RECORDERS.size() >= MAX_SHAPES)) { return recorder; }
+
+        return RECORDERS.computeIfAbsent(shape, Recorder::new);
+    }
+
+    static int bucketFor(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        return Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+}
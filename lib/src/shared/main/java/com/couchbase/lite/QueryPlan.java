@@ -0,0 +1,308 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * The plan for a compiled query: a structured version of {@link Query#explain()}.
+ * <p>
+ * The plan is derived from the output of SQLite's "EXPLAIN QUERY PLAN"
+ * (see https://www.sqlite.org/eqp.html), so that tests and debug builds can verify,
+ * for instance, that a query uses a particular index.
+ */
+public final class QueryPlan {
+
+    /**
+     * How a query finds the documents it examines.  The values are in order of increasing cost.
+     */
+    public enum ScanType {
+        /**
+         * The query does not read any documents.
+         */
+        NONE,
+
+        /**
+         * The query looks documents up in an index (or by key).
+         */
+        INDEX_SEARCH,
+
+        /**
+         * The query reads an entire index.
+         */
+        INDEX_SCAN,
+
+        /**
+         * The query reads every document in the database.
+         */
+        FULL_SCAN
+    }
+
+    //---------------------------------------------
+    // Constants
+    //---------------------------------------------
+
+    // "id|parent|notused| detail"
+    private static final Pattern PLAN_ROW = Pattern.compile("^\\d+\\|\\d+\\|\\d+\\|\\s*(.*)$");
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("^SCAN (?:TABLE )?(\\S+)");
+    private static final Pattern INDEX = Pattern.compile(" USING (?:COVERING )?INDEX (\\S+)");
+    private static final Pattern FTS_INDEX = Pattern.compile(
+        "^(?:SCAN|SEARCH) (?:TABLE )?\\S+::(\\S+)(?: AS \\S+)? VIRTUAL TABLE");
+    private static final Pattern ROW_ESTIMATE = Pattern.compile("\\(~(\\d+) rows?\\)");
+
+    private static final String TEMP_BTREE = "USE TEMP B-TREE FOR ";
+
+    //---------------------------------------------
+    // Factory
+    //---------------------------------------------
+
+    @NonNull
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    static QueryPlan parse(@NonNull String explanation) {
+        final StringBuilder sql = new StringBuilder();
+        final List<String> details = new ArrayList<>();
+        final List<String> indexes = new ArrayList<>();
+        ScanType scanType = ScanType.NONE;
+        boolean tempOrderBy = false;
+        boolean tempGroupBy = false;
+        boolean tempDistinct = false;
+        long estimatedRows = -1;
+
+        // The SQL comes first, followed by a blank line, and then the plan.
+        boolean inSql = true;
+        for (String line : explanation.split("\n")) {
+            if (inSql) {
+                if (line.trim().isEmpty()) { inSql = false; }
+                else { sql.append((sql.length() <= 0) ? "" : "\n").append(line); }
+                continue;
+            }
+
+            final Matcher row = PLAN_ROW.matcher(line);
+            if (!row.matches()) { continue; }
+
+            final String detail = row.group(1).trim();
+            details.add(detail);
+
+            if (detail.startsWith(TEMP_BTREE)) {
+                final String clause = detail.substring(TEMP_BTREE.length());
+                if (clause.endsWith("ORDER BY")) { tempOrderBy = true; }
+                else if (clause.endsWith("GROUP BY")) { tempGroupBy = true; }
+                else if (clause.endsWith("DISTINCT")) { tempDistinct = true; }
+                continue;
+            }
+
+            final Matcher rows = ROW_ESTIMATE.matcher(detail);
+            if (rows.find()) { estimatedRows = Math.max(estimatedRows, Long.parseLong(rows.group(1))); }
+
+            final ScanType stepType = parseScanType(detail);
+            if (stepType.compareTo(scanType) > 0) { scanType = stepType; }
+
+            final String index = parseIndex(detail);
+            if ((index != null) && !indexes.contains(index)) { indexes.add(index); }
+        }
+
+        return new QueryPlan(
+            explanation,
+            sql.toString(),
+            details,
+            indexes,
+            scanType,
+            tempOrderBy,
+            tempGroupBy,
+            tempDistinct,
+            estimatedRows);
+    }
+
+    //---------------------------------------------
+    // Instance members
+    //---------------------------------------------
+
+    @NonNull
+    private final String explanation;
+    @NonNull
+    private final String sql;
+    @NonNull
+    private final List<String> details;
+    @NonNull
+    private final List<String> indexes;
+    @NonNull
+    private final ScanType scanType;
+    private final boolean tempBTreeForOrderBy;
+    private final boolean tempBTreeForGroupBy;
+    private final boolean tempBTreeForDistinct;
+    private final long estimatedRows;
+
+    //---------------------------------------------
+    // Constructor
+    //---------------------------------------------
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private QueryPlan(
+        @NonNull String explanation,
+        @NonNull String sql,
+        @NonNull List<String> details,
+        @NonNull List<String> indexes,
+        @NonNull ScanType scanType,
+        boolean tempBTreeForOrderBy,
+        boolean tempBTreeForGroupBy,
+        boolean tempBTreeForDistinct,
+        long estimatedRows) {
+        this.explanation = explanation;
+        this.sql = sql;
+        this.details = Collections.unmodifiableList(details);
+        this.indexes = Collections.unmodifiableList(indexes);
+        this.scanType = scanType;
+        this.tempBTreeForOrderBy = tempBTreeForOrderBy;
+        this.tempBTreeForGroupBy = tempBTreeForGroupBy;
+        this.tempBTreeForDistinct = tempBTreeForDistinct;
+        this.estimatedRows = estimatedRows;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * The SQLite statement that implements the query.
+     *
+     * @return the SQL for the query.
+     */
+    @NonNull
+    public String getSql() { return sql; }
+
+    /**
+     * The detail column of each of the rows of the SQLite query plan, in order.
+     *
+     * @return the steps in the query plan.
+     */
+    @NonNull
+    public List<String> getDetails() { return details; }
+
+    /**
+     * The names of the indexes used by the query, in the order in which they appear in the plan.
+     * Full text indexes are included.
+     *
+     * @return the names of the indexes used by the query.
+     */
+    @NonNull
+    public List<String> getIndexes() { return indexes; }
+
+    /**
+     * Whether the query uses the named index.
+     *
+     * @param name an index name
+     * @return true if the query plan uses the named index
+     */
+    public boolean usesIndex(@NonNull String name) { return indexes.contains(name); }
+
+    /**
+     * The most expensive way in which the query reads documents.
+     *
+     * @return the scan type.
+     */
+    @NonNull
+    public ScanType getScanType() { return scanType; }
+
+    /**
+     * Whether the query reads every document in the database.
+     *
+     * @return true if some step of the plan is a full table scan.
+     */
+    public boolean isFullScan() { return scanType == ScanType.FULL_SCAN; }
+
+    /**
+     * Whether the results must be sorted in a temporary b-tree, because no index supplies the ORDER BY.
+     *
+     * @return true if the query sorts using a temporary b-tree.
+     */
+    public boolean usesTempBTreeForOrderBy() { return tempBTreeForOrderBy; }
+
+    /**
+     * Whether the results must be grouped in a temporary b-tree, because no index supplies the GROUP BY.
+     *
+     * @return true if the query groups using a temporary b-tree.
+     */
+    public boolean usesTempBTreeForGroupBy() { return tempBTreeForGroupBy; }
+
+    /**
+     * Whether DISTINCT is implemented with a temporary b-tree.
+     *
+     * @return true if the query uses a temporary b-tree to eliminate duplicates.
+     */
+    public boolean usesTempBTreeForDistinct() { return tempBTreeForDistinct; }
+
+    /**
+     * SQLite's estimate of the number of rows the query will examine.
+     * Only some builds of SQLite include estimates in their query plans.
+     *
+     * @return the largest estimate in the plan, or -1 if the plan contains no estimates.
+     */
+    public long getEstimatedRows() { return estimatedRows; }
+
+    /**
+     * The unparsed explanation, as returned by {@link Query#explain()}.
+     *
+     * @return the unparsed explanation.
+     */
+    @NonNull
+    @Override
+    public String toString() { return explanation; }
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+
+    @NonNull
+    private static ScanType parseScanType(@NonNull String detail) {
+        if (detail.startsWith("SEARCH ")) { return ScanType.INDEX_SEARCH; }
+
+        final Matcher scan = TABLE_SCAN.matcher(detail);
+        if (!scan.find()) { return ScanType.NONE; }
+
+        // Scans of subqueries, constant rows and table-valued functions (e.g., fl_each) do not read documents.
+        final String table = scan.group(1);
+        if ("SUBQUERY".equals(table) || "CONSTANT".equals(table) || detail.contains(" VIRTUAL TABLE")) {
+            return (FTS_INDEX.matcher(detail).find()) ? ScanType.INDEX_SEARCH : ScanType.NONE;
+        }
+
+        return (detail.contains(" USING ")) ? ScanType.INDEX_SCAN : ScanType.FULL_SCAN;
+    }
+
+    private static String parseIndex(@NonNull String detail) {
+        Matcher m = INDEX.matcher(detail);
+        if (m.find()) { return unquote(m.group(1)); }
+
+        m = FTS_INDEX.matcher(detail);
+        if (m.find()) { return unquote(m.group(1)); }
+
+        return null;
+    }
+
+    @NonNull
+    private static String unquote(@NonNull String name) {
+        final int n = name.length();
+        if ((n >= 2) && (name.charAt(0) == '"') && (name.charAt(n - 1) == '"')) { return name.substring(1, n - 1); }
+        return name;
+    }
+}
@@ -0,0 +1,219 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+import java.util.Locale;
+
+
+/**
+ * A snapshot of the statistics recorded by {@link QueryMetrics} for a single query shape.
+ * All times are in nanoseconds.
+ */
+public final class QueryStats {
+    /**
+     * The number of buckets in the execution latency histogram.
+     */
+    public static final int HISTOGRAM_BUCKETS = QueryMetrics.HISTOGRAM_BUCKETS;
+
+    /**
+     * The exclusive upper bound of a bucket in the execution latency histogram.
+     * Bucket i counts executions that took less than 2^i microseconds, and at least 2^(i-1).
+     * The last bucket counts all executions that took longer.
+     *
+     * @param bucket the bucket index
+     * @return the upper bound of the bucket, in microseconds.
+     */
+    public static long getBucketUpperBoundMicros(int bucket) {
+        return (bucket >= HISTOGRAM_BUCKETS - 1) ? Long.MAX_VALUE : (1L << bucket);
+    }
+
+    @NonNull
+    private final String shape;
+    private final long firstRecordedAt;
+    private final long compileCount;
+    private final long compileTimeNanos;
+    private final long executeCount;
+    private final long executeTimeNanos;
+    private final long maxExecuteTimeNanos;
+    @NonNull
+    private final long[] executeLatencyHistogram;
+    private final long enumerateTimeNanos;
+    private final long rowsReturned;
+    private final long liveQueryRefreshCount;
+    private final long lastLiveQueryRefreshAt;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    QueryStats(
+        @NonNull String shape,
+        long firstRecordedAt,
+        long compileCount,
+        long compileTimeNanos,
+        long executeCount,
+        long executeTimeNanos,
+        long maxExecuteTimeNanos,
+        @NonNull long[] executeLatencyHistogram,
+        long enumerateTimeNanos,
+        long rowsReturned,
+        long liveQueryRefreshCount,
+        long lastLiveQueryRefreshAt) {
+        this.shape = shape;
+        this.firstRecordedAt = firstRecordedAt;
+        this.compileCount = compileCount;
+        this.compileTimeNanos = compileTimeNanos;
+        this.executeCount = executeCount;
+        this.executeTimeNanos = executeTimeNanos;
+        this.maxExecuteTimeNanos = maxExecuteTimeNanos;
+        this.executeLatencyHistogram = executeLatencyHistogram;
+        this.enumerateTimeNanos = enumerateTimeNanos;
+        this.rowsReturned = rowsReturned;
+        this.liveQueryRefreshCount = liveQueryRefreshCount;
+        this.lastLiveQueryRefreshAt = lastLiveQueryRefreshAt;
+    }
+
+    /**
+     * The query's shape: its JSON representation, without parameter values.
+     *
+     * @return the query shape.
+     */
+    @NonNull
+    public String getShape() { return shape; }
+
+    /**
+     * When statistics were first recorded for this shape, in milliseconds since the epoch.
+     *
+     * @return the time at which recording started.
+     */
+    public long getFirstRecordedAt() { return firstRecordedAt; }
+
+    /**
+     * The number of times a query with this shape was compiled.
+     *
+     * @return the number of compilations.
+     */
+    public long getCompileCount() { return compileCount; }
+
+    /**
+     * The total time spent compiling queries with this shape.
+     *
+     * @return the total compile time.
+     */
+    public long getCompileTimeNanos() { return compileTimeNanos; }
+
+    /**
+     * The number of times a query with this shape was executed, including live query refreshes.
+     *
+     * @return the number of executions.
+     */
+    public long getExecuteCount() { return executeCount; }
+
+    /**
+     * The total time spent executing queries with this shape.
+     *
+     * @return the total execution time.
+     */
+    public long getExecuteTimeNanos() { return executeTimeNanos; }
+
+    /**
+     * The longest single execution of a query with this shape.
+     *
+     * @return the maximum execution time.
+     */
+    public long getMaxExecuteTimeNanos() { return maxExecuteTimeNanos; }
+
+    /**
+     * The execution latency histogram.
+     *
+     * @return a copy of the histogram buckets.
+     * @see #getBucketUpperBoundMicros(int)
+     */
+    @NonNull
+    public long[] getExecuteLatencyHistogram() { return executeLatencyHistogram.clone(); }
+
+    /**
+     * An approximation, from the histogram, of a percentile of the execution latency.
+     *
+     * @param percentile a percentile: e.g. 99.0
+     * @return the upper bound, in microseconds, of the histogram bucket containing the percentile
+     * or 0 if there have been no executions.
+     */
+    public long getExecuteLatencyPercentileMicros(double percentile) {
+        long total = 0;
+        for (long n: executeLatencyHistogram) { total += n; }
+        if (total <= 0) { return 0; }
+
+        final double target = total * Math.max(0.0, Math.min(100.0, percentile)) / 100.0;
+        long count = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            count += executeLatencyHistogram[i];
+            if ((count > 0) && (count >= target)) { return getBucketUpperBoundMicros(i); }
+        }
+        return getBucketUpperBoundMicros(HISTOGRAM_BUCKETS - 1);
+    }
+
+    /**
+     * The total time spent enumerating the results of queries with this shape.
+     *
+     * @return the total enumeration time.
+     */
+    public long getEnumerateTimeNanos() { return enumerateTimeNanos; }
+
+    /**
+     * The total number of rows returned by queries with this shape.
+     *
+     * @return the number of rows returned.
+     */
+    public long getRowsReturned() { return rowsReturned; }
+
+    /**
+     * The number of times live queries with this shape were refreshed.
+     *
+     * @return the number of live query refreshes.
+     */
+    public long getLiveQueryRefreshCount() { return liveQueryRefreshCount; }
+
+    /**
+     * When a live query with this shape was last refreshed, in milliseconds since the epoch.
+     *
+     * @return the time of the last refresh, or 0 if there have been none.
+     */
+    public long getLastLiveQueryRefreshAt() { return lastLiveQueryRefreshAt; }
+
+    /**
+     * The total database time consumed by queries with this shape: compile, execute and enumerate.
+     *
+     * @return the total time.
+     */
+    public long getTotalTimeNanos() { return compileTimeNanos + executeTimeNanos + enumerateTimeNanos; }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ENGLISH,
+            "QueryStats{%s: compiles=%d (%dus), executions=%d (%dus, max %dus), rows=%d (%dus), refreshes=%d}",
+            shape,
+            compileCount,
+            compileTimeNanos / 1000,
+            executeCount,
+            executeTimeNanos / 1000,
+            maxExecuteTimeNanos / 1000,
+            rowsReturned,
+            enumerateTimeNanos / 1000,
+            liveQueryRefreshCount);
+    }
+}
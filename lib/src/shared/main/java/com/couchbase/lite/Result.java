@@ -21,6 +21,7 @@ package com.couchbase.lite;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -30,6 +31,7 @@ import java.util.Map;
 
 import com.couchbase.lite.internal.core.C4QueryEnumerator;
 import com.couchbase.lite.internal.fleece.FLArrayIterator;
+import com.couchbase.lite.internal.fleece.FLConstants;
 import com.couchbase.lite.internal.fleece.FLValue;
 import com.couchbase.lite.internal.fleece.MContext;
 import com.couchbase.lite.internal.fleece.MRoot;
@@ -39,6 +41,9 @@ import com.couchbase.lite.internal.utils.Preconditions;
 
 /**
  * Result represents a row of result set returned by a Query.
+ * <p>
+ * Scalar values (numbers, booleans, strings) are read directly from the query's Fleece data,
+ * without taking the database lock.  Only Arrays, Dictionaries and Blobs are materialized, on demand.
  */
 public final class Result implements ArrayInterface, DictionaryInterface, Iterable<String> {
 
@@ -46,7 +51,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     // member variables
     //---------------------------------------------
     private final ResultSet rs;
-    private final List<FLValue> values;
+    private final FLValue[] values;
     private final long missingColumns;
     private final MContext context;
 
@@ -99,8 +104,8 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public String getString(int index) {
         checkBounds(index);
-        final Object obj = fleeceValueToObject(index);
-        return obj instanceof String ? (String) obj : null;
+        final FLValue flValue = values[index];
+        return ((flValue == null) || (flValue.getType() != FLConstants.ValueType.STRING)) ? null : flValue.asString();
     }
 
     /**
@@ -124,7 +129,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public int getInt(int index) {
         checkBounds(index);
-        final FLValue flValue = values.get(index);
+        final FLValue flValue = values[index];
         return flValue != null ? (int) flValue.asInt() : 0;
     }
 
@@ -137,7 +142,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public long getLong(int index) {
         checkBounds(index);
-        final FLValue flValue = values.get(index);
+        final FLValue flValue = values[index];
         return flValue != null ? flValue.asInt() : 0L;
     }
 
@@ -150,7 +155,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public float getFloat(int index) {
         checkBounds(index);
-        final FLValue flValue = values.get(index);
+        final FLValue flValue = values[index];
         return flValue != null ? flValue.asFloat() : 0.0F;
     }
 
@@ -163,7 +168,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public double getDouble(int index) {
         checkBounds(index);
-        final FLValue flValue = values.get(index);
+        final FLValue flValue = values[index];
         return flValue != null ? flValue.asDouble() : 0.0;
     }
 
@@ -176,7 +181,7 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public boolean getBoolean(int index) {
         checkBounds(index);
-        final FLValue flValue = values.get(index);
+        final FLValue flValue = values[index];
         return flValue != null && flValue.asBool();
     }
 
@@ -205,6 +210,30 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
         return DateUtils.fromJson(getString(index));
     }
 
+    /**
+     * The projecting result value at the given index as an Instant.
+     *
+     * @param index The select result index.
+     * @return The Instant or null.
+     */
+    @Nullable
+    public Instant getInstant(int index) {
+        checkBounds(index);
+        return DateUtils.toInstant(getString(index));
+    }
+
+    /**
+     * The projecting result value at the given index as a date, in milliseconds since the epoch.
+     * Returns 0 if the value is not a string parsable as a date.
+     *
+     * @param index The select result index.
+     * @return The date, in milliseconds since 1970-01-01T00:00:00Z, or 0.
+     */
+    public long getEpochMillis(int index) {
+        checkBounds(index);
+        return DateUtils.toEpochMillis(getString(index));
+    }
+
     /**
      * The projecting result value at the given index as a Array object
      *
@@ -231,6 +260,31 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
         return obj instanceof Dictionary ? (Dictionary) obj : null;
     }
 
+    /**
+     * Tests whether the projecting result value at the given index is null or missing.
+     * This does not convert the value.
+     *
+     * @param index The select result index.
+     * @return true if the value is null or missing.
+     */
+    public boolean isNull(int index) {
+        checkBounds(index);
+        final FLValue flValue = values[index];
+        return (flValue == null) || isMissing(index) || (flValue.getType() <= FLConstants.ValueType.NULL);
+    }
+
+    /**
+     * Tests whether the projecting result value at the given index is missing: the projected property
+     * does not exist in the row.  A property whose value is null is not missing.
+     *
+     * @param index The select result index.
+     * @return true if the value is missing.
+     */
+    public boolean isMissing(int index) {
+        checkBounds(index);
+        return (index < Long.SIZE) && ((missingColumns & (1L << index)) != 0);
+    }
+
     /**
      * Gets all values as an List. The value types of the values contained
      * in the returned List object are Array, Blob, Dictionary, Number types, String, and null.
@@ -241,7 +295,10 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     @Override
     public List<Object> toList() {
         final List<Object> array = new ArrayList<>();
-        for (int i = 0; i < count(); i++) { array.add(values.get(i).asObject()); }
+        for (int i = 0; i < count(); i++) {
+            final FLValue value = values[i];
+            array.add((value == null) ? null : value.asObject());
+        }
         return array;
     }
 
@@ -401,6 +458,33 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
         return index >= 0 ? getDate(index) : null;
     }
 
+    /**
+     * The projecting result value for the given key as an Instant.
+     * Returns null if the key doesn't exist.
+     *
+     * @param key The select result key.
+     * @return The Instant or null.
+     */
+    @Nullable
+    public Instant getInstant(@NonNull String key) {
+        Preconditions.assertNotNull(key, "key");
+        final int index = indexForColumnName(key);
+        return index >= 0 ? getInstant(index) : null;
+    }
+
+    /**
+     * The projecting result value for the given key as a date, in milliseconds since the epoch.
+     * Returns 0 if the key doesn't exist or its value is not a string parsable as a date.
+     *
+     * @param key The select result key.
+     * @return The date, in milliseconds since 1970-01-01T00:00:00Z, or 0.
+     */
+    public long getEpochMillis(@NonNull String key) {
+        Preconditions.assertNotNull(key, "key");
+        final int index = indexForColumnName(key);
+        return index >= 0 ? getEpochMillis(index) : 0L;
+    }
+
     /**
      * The projecting result value for the given key as a readonly Array object.
      * Returns null if the key doesn't exist.
@@ -450,6 +534,19 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
         return dict;
     }
 
+    /**
+     * Tests whether the projecting result value for the given key is null or missing.
+     * Returns true if the key doesn't exist.
+     *
+     * @param key The select result key.
+     * @return true if the value is null or missing.
+     */
+    public boolean isNull(@NonNull String key) {
+        Preconditions.assertNotNull(key, "key");
+        final int index = indexForColumnName(key);
+        return (index < 0) || isNull(index);
+    }
+
     /**
      * Tests whether a projecting result key exists or not.
      *
@@ -483,22 +580,34 @@ public final class Result implements ArrayInterface, DictionaryInterface, Iterab
     private int indexForColumnName(String name) {
         final int index = rs.getColumnIndex(name);
         if (index < 0) { return -1; }
-        return ((missingColumns & (1 << index)) == 0) ? index : -1;
+        return ((index >= Long.SIZE) || ((missingColumns & (1L << index)) == 0)) ? index : -1;
     }
 
     // - (id) fleeceValueToObjectAtIndex: (NSUInteger)index
     // bounds have already been checked
+    // Scalars are immutable and need neither a context nor the lock:
+    // only collections (and Blobs, which need the database) go through MRoot.
     private Object fleeceValueToObject(int index) {
-        final FLValue value = values.get(index);
+        final FLValue value = values[index];
         if (value == null) { return null; }
+
+        switch (value.getType()) {
+            case FLConstants.ValueType.DATA:
+            case FLConstants.ValueType.ARRAY:
+            case FLConstants.ValueType.DICT:
+                break;
+            default:
+                return value.asObject();
+        }
+
         final MRoot root = new MRoot(context, value, false);
         synchronized (rs.getQuery().getDatabase().getLock()) { return root.asNative(); }
     }
 
-    private List<FLValue> extractColumns(FLArrayIterator columns) {
-        final List<FLValue> values = new ArrayList<>();
+    private FLValue[] extractColumns(FLArrayIterator columns) {
         final int count = rs.getColumnCount();
-        for (int i = 0; i < count; i++) { values.add(columns.getValueAt(i)); }
+        final FLValue[] values = new FLValue[count];
+        for (int i = 0; i < count; i++) { values[i] = columns.getValueAt(i); }
         return values;
     }
 
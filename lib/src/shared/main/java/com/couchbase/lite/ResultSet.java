@@ -19,6 +19,7 @@
 package com.couchbase.lite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -49,16 +50,23 @@ public class ResultSet implements Iterable<Result> {
     private final Map<String, Integer> columnNames;
     private final ResultContext context;
     private final C4QueryEnumerator c4enum;
+    @Nullable
+    private final QueryMetrics.Recorder metrics;
     private boolean isAllEnumerated;
 
     //---------------------------------------------
     // constructors
     //---------------------------------------------
 
-    ResultSet(AbstractQuery query, C4QueryEnumerator c4enum, Map<String, Integer> columnNames) {
+    ResultSet(
+        AbstractQuery query,
+        C4QueryEnumerator c4enum,
+        Map<String, Integer> columnNames,
+        @Nullable QueryMetrics.Recorder metrics) {
         this.query = query;
         this.c4enum = c4enum;
         this.columnNames = columnNames;
+        this.metrics = metrics;
         this.context = new ResultContext(query.getDatabase());
     }
 
@@ -79,27 +87,14 @@ public class ResultSet implements Iterable<Result> {
     public Result next() {
         Preconditions.assertNotNull(query, "query");
 
-        synchronized (getDbLock()) {
-            try {
-                if (c4enum == null) { return null; }
-                else if (isAllEnumerated) {
-                    Log.w(DOMAIN, "ResultSetAlreadyEnumerated");
-                    return null;
-                }
-                else if (!c4enum.next()) {
-                    Log.i(DOMAIN, "End of query enumeration");
-                    isAllEnumerated = true;
-                    return null;
-                }
-                else {
-                    return new Result(this, c4enum, context);
-                }
-            }
-            catch (LiteCoreException e) {
-                Log.w(DOMAIN, "Query enumeration error: %s", e.toString());
-                return null;
-            }
-        }
+        if (metrics == null) { return nextResult(); }
+
+        final long start = System.nanoTime();
+        final Result result = nextResult();
+        final long elapsed = System.nanoTime() - start;
+        if (result != null) { metrics.recordRow(elapsed); }
+        else { metrics.recordEnumerate(elapsed); }
+        return result;
     }
 
     /**
@@ -153,8 +148,10 @@ public class ResultSet implements Iterable<Result> {
 
         synchronized (getDbLock()) {
             try {
+                final long start = (metrics == null) ? 0 : System.nanoTime();
                 final C4QueryEnumerator newEnum = c4enum.refresh();
-                return (newEnum == null) ? null : new ResultSet(query, newEnum, columnNames);
+                if (metrics != null) { metrics.recordRefresh(System.nanoTime() - start); }
+                return (newEnum == null) ? null : new ResultSet(query, newEnum, columnNames, metrics);
             }
             catch (LiteCoreException e) {
                 throw CBLStatus.convertException(e);
@@ -166,6 +163,31 @@ public class ResultSet implements Iterable<Result> {
     // Private level access
     //---------------------------------------------
 
+    @Nullable
+    private Result nextResult() {
+        synchronized (getDbLock()) {
+            try {
+                if (c4enum == null) { return null; }
+                else if (isAllEnumerated) {
+                    Log.w(DOMAIN, "ResultSetAlreadyEnumerated");
+                    return null;
+                }
+                else if (!c4enum.next()) {
+                    Log.i(DOMAIN, "End of query enumeration");
+                    isAllEnumerated = true;
+                    return null;
+                }
+                else {
+                    return new Result(this, c4enum, context);
+                }
+            }
+            catch (LiteCoreException e) {
+                Log.w(DOMAIN, "Query enumeration error: %s", e.toString());
+                return null;
+            }
+        }
+    }
+
     private Object getDbLock() {
         final AbstractQuery q = query;
         if (q != null) {
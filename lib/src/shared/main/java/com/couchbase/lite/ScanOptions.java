@@ -0,0 +1,244 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.couchbase.lite.internal.core.C4Constants;
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * Options for a scan of all of the documents in a database.
+ * Documents are scanned in document ID order, comparing IDs as UTF-8 bytes.
+ *
+ * @see AbstractDatabase#scanDocuments(ScanOptions)
+ */
+public final class ScanOptions {
+    /**
+     * The default number of documents returned by {@link DocumentScan#nextBatch()}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    //---------------------------------------------
+    // member variables
+    //---------------------------------------------
+
+    @Nullable
+    private String prefix;
+    @Nullable
+    private String startKey;
+    @Nullable
+    private String endKey;
+    private boolean descending;
+    private boolean includeDeleted;
+    private boolean metadataOnly;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+
+    /**
+     * Options for a scan, in ascending ID order, of every live document.
+     */
+    public ScanOptions() { }
+
+    ScanOptions(@NonNull ScanOptions options) {
+        this.prefix = options.prefix;
+        this.startKey = options.startKey;
+        this.endKey = options.endKey;
+        this.descending = options.descending;
+        this.includeDeleted = options.includeDeleted;
+        this.metadataOnly = options.metadataOnly;
+        this.batchSize = options.batchSize;
+    }
+
+    //---------------------------------------------
+    // API - public methods
+    //---------------------------------------------
+
+    /**
+     * Scan only documents whose IDs start with the given prefix.
+     *
+     * @param prefix a document ID prefix, or null to scan all IDs.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setPrefix(@Nullable String prefix) {
+        this.prefix = prefix;
+        return this;
+    }
+
+    /**
+     * Scan only documents whose IDs are in the given range.
+     *
+     * @param startKey the lowest ID to scan (inclusive), or null for no lower bound.
+     * @param endKey   the ID at which to stop scanning (exclusive), or null for no upper bound.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setRange(@Nullable String startKey, @Nullable String endKey) {
+        this.startKey = startKey;
+        this.endKey = endKey;
+        return this;
+    }
+
+    /**
+     * Scan documents in descending ID order.
+     *
+     * @param descending true to scan from the highest ID to the lowest.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setDescending(boolean descending) {
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * Include deleted documents in the scan.
+     *
+     * @param includeDeleted true to include deleted documents.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setIncludeDeleted(boolean includeDeleted) {
+        this.includeDeleted = includeDeleted;
+        return this;
+    }
+
+    /**
+     * Read only document metadata (ID, revision ID, sequence and deleted flag), not document bodies.
+     * A metadata only scan is considerably faster than a full scan.
+     *
+     * @param metadataOnly true to skip document bodies.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setMetadataOnly(boolean metadataOnly) {
+        this.metadataOnly = metadataOnly;
+        return this;
+    }
+
+    /**
+     * The maximum number of documents returned by each call to {@link DocumentScan#nextBatch()}.
+     *
+     * @param batchSize a batch size: must be greater than 0.
+     * @return this
+     */
+    @NonNull
+    public ScanOptions setBatchSize(int batchSize) {
+        Preconditions.assertThat(batchSize, "batch size must be > 0", x -> x > 0);
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * The document ID prefix.
+     *
+     * @return the prefix, or null.
+     */
+    @Nullable
+    public String getPrefix() { return prefix; }
+
+    /**
+     * The lowest ID in the scan range (inclusive).
+     *
+     * @return the start key, or null.
+     */
+    @Nullable
+    public String getStartKey() { return startKey; }
+
+    /**
+     * The ID at which the scan range ends (exclusive).
+     *
+     * @return the end key, or null.
+     */
+    @Nullable
+    public String getEndKey() { return endKey; }
+
+    /**
+     * Whether the scan is in descending ID order.
+     *
+     * @return true if the scan is descending.
+     */
+    public boolean isDescending() { return descending; }
+
+    /**
+     * Whether the scan includes deleted documents.
+     *
+     * @return true if the scan includes deleted documents.
+     */
+    public boolean isIncludeDeleted() { return includeDeleted; }
+
+    /**
+     * Whether the scan skips document bodies.
+     *
+     * @return true if the scan reads only metadata.
+     */
+    public boolean isMetadataOnly() { return metadataOnly; }
+
+    /**
+     * The maximum number of documents in a batch.
+     *
+     * @return the batch size.
+     */
+    public int getBatchSize() { return batchSize; }
+
+    //---------------------------------------------
+    // Package level access
+    //---------------------------------------------
+
+    int getEnumeratorFlags() {
+        int flags = C4Constants.EnumeratorFlags.INCLUDE_NON_CONFLICTED;
+        if (descending) { flags |= C4Constants.EnumeratorFlags.DESCENDING; }
+        if (includeDeleted) { flags |= C4Constants.EnumeratorFlags.INCLUDE_DELETED; }
+        if (!metadataOnly) { flags |= C4Constants.EnumeratorFlags.INCLUDE_BODIES; }
+        return flags;
+    }
+
+    // True if the id sorts before every id in the scan range.
+    boolean isBeforeRange(@NonNull String id) {
+        return ((startKey != null) && (compareIds(id, startKey) < 0))
+            || ((prefix != null) && (compareIds(id, prefix) < 0));
+    }
+
+    // True if the id sorts after every id in the scan range.
+    // Any id that is greater than the prefix but does not start with it, is greater than every id that does.
+    boolean isAfterRange(@NonNull String id) {
+        return ((endKey != null) && (compareIds(id, endKey) >= 0))
+            || ((prefix != null) && !id.startsWith(prefix) && (compareIds(id, prefix) > 0));
+    }
+
+    // LiteCore orders document IDs as UTF-8 bytes, which is the same as Unicode code point order.
+    // String.compareTo compares UTF-16 code units, which is not.
+    static int compareIds(@NonNull String id1, @NonNull String id2) {
+        final int n1 = id1.length();
+        final int n2 = id2.length();
+        int i1 = 0;
+        int i2 = 0;
+        while ((i1 < n1) && (i2 < n2)) {
+            final int c1 = id1.codePointAt(i1);
+            final int c2 = id2.codePointAt(i2);
+            if (c1 != c2) { return (c1 < c2) ? -1 : 1; }
+            i1 += Character.charCount(c1);
+            i2 += Character.charCount(c2);
+        }
+        return Integer.compare(n1 - i1, n2 - i2);
+    }
+}
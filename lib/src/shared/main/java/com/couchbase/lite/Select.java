@@ -80,4 +80,14 @@ public final class Select extends AbstractQuery implements FromRouter {
         for (SelectResult sr : selectResults) { json.add(sr.asJSON()); }
         return json;
     }
+
+    void appendJSON(@NonNull StringBuilder out) {
+        out.append('[');
+        final int n = selectResults.size();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) { out.append(','); }
+            selectResults.get(i).appendJSON(out);
+        }
+        out.append(']');
+    }
 }
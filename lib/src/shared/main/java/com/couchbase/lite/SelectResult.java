@@ -133,5 +133,7 @@ public class SelectResult {
 
     Object asJSON() { return selectExpression.asJSON(); }
 
+    void appendJSON(@NonNull StringBuilder out) { selectExpression.appendJSON(out); }
+
     private SelectResult(Expression expression) { this.selectExpression = expression; }
 }
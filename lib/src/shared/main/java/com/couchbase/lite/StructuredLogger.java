@@ -0,0 +1,46 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * A logger that receives structured log events, with typed fields, instead of
+ * preformatted strings.  Structured events are emitted in addition to the string
+ * messages delivered to the console, file and custom loggers.
+ * <p>
+ * Events are delivered synchronously, on the thread that emitted them.
+ * They are pooled: a logger must not keep a reference to an event after
+ * {@link #log(LogEvent)} returns.
+ */
+public interface StructuredLogger {
+    /**
+     * Gets the level that will be logged via this logger.
+     * Events below this level are never constructed.
+     *
+     * @return The minimum level to log
+     */
+    @NonNull
+    LogLevel getLevel();
+
+    /**
+     * Handle a log event.
+     *
+     * @param event the event: valid only for the duration of this call.
+     */
+    void log(@NonNull LogEvent event);
+}
@@ -18,22 +18,64 @@
 package com.couchbase.lite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import com.couchbase.lite.internal.utils.Preconditions;
 
 
 /**
  * Value (standard query) index
+ * <p>
+ * A value index may be partial: restricted to the documents that match a WHERE clause.
+ * SQLite uses a partial index only for queries whose WHERE clause implies the index's:
+ * the simplest way to ensure that is to repeat the index's clause in the query, e.g. {@code type = 'order'}.
+ * <p>
+ * A value index may also include columns that are not part of its key: a query that
+ * needs only the indexed and included values can be answered from the index, without reading documents.
  */
 public final class ValueIndex extends AbstractIndex {
     private final List<ValueIndexItem> indexItems;
+    private final List<ValueIndexItem> includedItems = new ArrayList<>();
+    @Nullable
+    private Expression whereClause;
 
     ValueIndex(ValueIndexItem... indexItems) {
         this.indexItems = Arrays.asList(indexItems);
     }
 
+    /**
+     * Restrict the index to documents that match the given expression.
+     *
+     * @param where the condition that a document must satisfy to be indexed, or null to index all documents.
+     * @return this index
+     */
+    @NonNull
+    public ValueIndex where(@Nullable Expression where) {
+        this.whereClause = where;
+        return this;
+    }
+
+    /**
+     * Add columns to the index, following the indexed items, so that queries that select them
+     * can be answered from the index alone.
+     *
+     * @param items the items to include
+     * @return this index
+     */
+    @NonNull
+    public ValueIndex include(@NonNull ValueIndexItem... items) {
+        Preconditions.assertNotNull(items, "items");
+        Collections.addAll(includedItems, items);
+        return this;
+    }
+
     @NonNull
     @Override
     IndexType type() {
@@ -50,11 +92,26 @@ public final class ValueIndex extends AbstractIndex {
         return false;
     }
 
+    // Included columns are simply trailing index columns: SQLite has no INCLUDE clause.
     @NonNull
     @Override
     List<Object> items() {
         final List<Object> items = new ArrayList<>();
         for (ValueIndexItem item : indexItems) { items.add(item.viExpression.asJSON()); }
+        for (ValueIndexItem item : includedItems) { items.add(item.viExpression.asJSON()); }
         return items;
     }
+
+    // A partial index is specified as a query: {"WHAT": [...], "WHERE": ...}
+    @NonNull
+    @Override
+    Object indexSpec() {
+        final List<Object> items = items();
+        if (whereClause == null) { return items; }
+
+        final Map<String, Object> spec = new HashMap<>();
+        spec.put("WHAT", items);
+        spec.put("WHERE", whereClause.asJSON());
+        return spec;
+    }
 }
@@ -41,4 +41,7 @@ public final class VariableExpression extends Expression {
         json.add("?" + name);
         return json;
     }
+
+    @Override
+    boolean isImmutable() { return true; }
 }
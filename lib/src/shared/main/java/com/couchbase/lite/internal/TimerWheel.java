@@ -0,0 +1,413 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * A hashed timer wheel for delayed tasks.
+ * <p>
+ * Pending timers are hashed, by deadline, into a fixed ring of buckets.  A single daemon thread
+ * advances around the ring, one bucket per tick, and hands each expired task to its target executor.
+ * Timers whose deadline is more than one revolution away carry a count of the rounds remaining.
+ * Scheduling and cancelling are both O(1): each allocates nothing but the timer itself,
+ * and neither touches the wheel directly.  The wheel thread picks up new and cancelled timers
+ * from lock-free queues, at the start of each tick.
+ * <p>
+ * If a task (the same Runnable instance, for the same executor) is already pending,
+ * scheduling it again does not schedule a second run: the task runs once, at the earlier of the two deadlines.
+ * <p>
+ * Timers are accurate to within one tick.  Tasks scheduled with no delay bypass the wheel completely.
+ * When there are no pending timers the wheel thread parks, until a timer is scheduled.
+ */
+public final class TimerWheel {
+    //---------------------------------------------
+    // Constants
+    //---------------------------------------------
+    public static final long DEFAULT_TICK_MS = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // Limit the work done in a single tick, so that a flood of new timers can't stall expiration.
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private static final ExecutionService.Cancellable NO_OP = () -> { };
+
+    private static final AtomicIntegerFieldUpdater<Timer> TIMER_STATE
+        = AtomicIntegerFieldUpdater.newUpdater(Timer.class, "state");
+
+
+    //---------------------------------------------
+    // Types
+    //---------------------------------------------
+    @VisibleForTesting
+    final class Timer implements ExecutionService.Cancellable {
+        @NonNull
+        final Executor executor;
+        @NonNull
+        final Runnable task;
+
+        // nanoseconds since the wheel started
+        final long deadline;
+
+        volatile int state = PENDING;
+
+        // The following are accessed only from the wheel thread
+        long remainingRounds;
+        @Nullable
+        Bucket bucket;
+        @Nullable
+        Timer prev;
+        @Nullable
+        Timer next;
+
+        Timer(@NonNull Executor executor, @NonNull Runnable task, long deadline) {
+            this.executor = executor;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void cancel() {
+            if (!TIMER_STATE.compareAndSet(this, PENDING, CANCELLED)) { return; }
+            pendingTasks.remove(task, this);
+            cancelledTimers.add(this);
+        }
+
+        boolean isPending() { return state == PENDING; }
+
+        void expire() {
+            if (!TIMER_STATE.compareAndSet(this, PENDING, EXPIRED)) { return; }
+            pendingTasks.remove(task, this);
+            try { executor.execute(task); }
+            catch (RejectedExecutionException ignore) { }
+        }
+
+        @NonNull
+        @Override
+        public String toString() { return "Timer{" + deadline + ", " + state + " @" + task + "}"; }
+    }
+
+    // A doubly linked list of timers.  Accessed only from the wheel thread.
+    private static final class Bucket {
+        @Nullable
+        private Timer head;
+        @Nullable
+        private Timer tail;
+
+        void add(@NonNull Timer timer) {
+            timer.bucket = this;
+            if (head == null) {
+                head = timer;
+                tail = timer;
+                return;
+            }
+
+            if (tail != null) { tail.next = timer; }
+            timer.prev = tail;
+            tail = timer;
+        }
+
+        // Returns the number of timers removed from the bucket
+        int expire() {
+            int removed = 0;
+            Timer timer = head;
+            while (timer != null) {
+                final Timer next = timer.next;
+
+                if (timer.remainingRounds <= 0) {
+                    remove(timer);
+                    removed++;
+                    timer.expire();
+                }
+                else if (!timer.isPending()) {
+                    remove(timer);
+                    removed++;
+                }
+                else { timer.remainingRounds--; }
+
+                timer = next;
+            }
+            return removed;
+        }
+
+        void remove(@NonNull Timer timer) {
+            final Timer next = timer.next;
+            final Timer prev = timer.prev;
+
+            if (prev != null) { prev.next = next; }
+            if (next != null) { next.prev = prev; }
+
+            if (timer == head) { head = next; }
+            if (timer == tail) { tail = prev; }
+
+            timer.prev = null;
+            timer.next = null;
+            timer.bucket = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+
+
+    //---------------------------------------------
+    // Instance members
+    //---------------------------------------------
+    @NonNull
+    private final Queue<Timer> newTimers = new ConcurrentLinkedQueue<>();
+    @NonNull
+    private final Queue<Timer> cancelledTimers = new ConcurrentLinkedQueue<>();
+
+    // Pending timers, indexed by task.  Used to coalesce identical requests.
+    @NonNull
+    private final ConcurrentHashMap<Runnable, Timer> pendingTasks = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @NonNull
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long tickNanos;
+
+    @NonNull
+    private final String name;
+
+    private final long startTime = System.nanoTime();
+
+    private volatile boolean stopped;
+
+    // Set by the wheel thread just before it parks, because there are no timers.
+    private volatile boolean idle;
+
+    @Nullable
+    private volatile Thread wheelThread;
+
+    // Accessed only from the wheel thread
+    private long tick;
+    private int timerCount;
+
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+    public TimerWheel(@NonNull String name) { this(name, DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE); }
+
+    /**
+     * Create a new timer wheel.
+     *
+     * @param name      the name for the wheel's thread
+     * @param tickMs    the duration of a tick, in ms: timers are accurate to within this interval
+     * @param wheelSize the number of buckets in the wheel.  Rounded up to a power of two.
+     */
+    public TimerWheel(@NonNull String name, long tickMs, int wheelSize) {
+        Preconditions.assertNotNull(name, "name");
+        Preconditions.assertThat(tickMs, "tick must be > 0", x -> x > 0);
+        Preconditions.assertThat(wheelSize, "wheel size must be > 0", x -> x > 0);
+
+        final int size = (wheelSize <= 1) ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) { wheel[i] = new Bucket(); }
+        mask = size - 1;
+
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    }
+
+    //---------------------------------------------
+    // Public methods
+    //---------------------------------------------
+
+    /**
+     * Run the passed task on the passed executor, after a delay.
+     * If the identical task is already scheduled for the executor, to run no later than the requested delay,
+     * this method returns the existing timer.  If it is scheduled to run later, the existing timer is
+     * cancelled and replaced.
+     *
+     * @param delayMs  delay before posting the task.
+     * @param executor a executor on which to execute the task.
+     * @param task     the task to be executed.
+     * @return a cancellable timer
+     */
+    @NonNull
+    public ExecutionService.Cancellable schedule(long delayMs, @NonNull Executor executor, @NonNull Runnable task) {
+        Preconditions.assertNotNull(executor, "executor");
+        Preconditions.assertNotNull(task, "task");
+
+        if (stopped) { throw new RejectedExecutionException("Timer wheel has been stopped"); }
+
+        if (delayMs <= 0) {
+            try { executor.execute(task); }
+            catch (RejectedExecutionException ignore) { }
+            return NO_OP;
+        }
+
+        final Timer timer
+            = new Timer(executor, task, (System.nanoTime() - startTime) + TimeUnit.MILLISECONDS.toNanos(delayMs));
+
+        while (true) {
+            final Timer prev = pendingTasks.putIfAbsent(task, timer);
+            if (prev == null) { break; }
+
+            if (prev.isPending()) {
+                // the task is pending on a different executor: don't coalesce
+                if (prev.executor != executor) { break; }
+
+                // keep the earlier deadline
+                if (prev.deadline <= timer.deadline) { return prev; }
+                prev.cancel();
+                continue;
+            }
+
+            // the previous timer has expired or been cancelled, but not yet removed
+            if (pendingTasks.replace(task, prev, timer)) { break; }
+        }
+
+        newTimers.add(timer);
+
+        if (!started.getAndSet(true)) { startWheel(); }
+        else if (idle) { LockSupport.unpark(wheelThread); }
+
+        return timer;
+    }
+
+    /**
+     * Stop the wheel.  Pending timers are abandoned.
+     */
+    public void stop() {
+        stopped = true;
+        pendingTasks.clear();
+        final Thread thread = wheelThread;
+        if (thread != null) { LockSupport.unpark(thread); }
+    }
+
+    @VisibleForTesting
+    int getPendingCount() { return pendingTasks.size(); }
+
+    @VisibleForTesting
+    boolean isIdle() { return idle; }
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+
+    private void startWheel() {
+        final Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        wheelThread = thread;
+        thread.start();
+    }
+
+    // Runs on the wheel thread
+    private void run() {
+        while (!stopped) {
+            if ((timerCount <= 0) && newTimers.isEmpty()) {
+                parkUntilScheduled();
+                continue;
+            }
+
+            if (!waitForNextTick()) { continue; }
+
+            removeCancelledTimers();
+            transferNewTimers();
+
+            timerCount -= wheel[(int) (tick & mask)].expire();
+
+            tick++;
+        }
+
+        for (Bucket bucket : wheel) { bucket.clear(); }
+        newTimers.clear();
+        cancelledTimers.clear();
+    }
+
+    // The wheel is empty: there is no point in ticking.
+    // A scheduler that adds a timer after this thread sets idle, will unpark it.
+    // One that adds a timer before, will be seen by the check of newTimers.
+    private void parkUntilScheduled() {
+        idle = true;
+        try {
+            while (newTimers.isEmpty() && !stopped) { LockSupport.park(this); }
+        }
+        finally { idle = false; }
+
+        // Skip the ticks that passed while parked: the wheel was empty.
+        tick = (System.nanoTime() - startTime) / tickNanos;
+    }
+
+    // Returns false if the wheel was stopped while waiting
+    private boolean waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        while (true) {
+            final long remaining = deadline - (System.nanoTime() - startTime);
+            if (remaining <= 0) { return true; }
+
+            LockSupport.parkNanos(this, remaining);
+
+            if (stopped) { return false; }
+        }
+    }
+
+    private void removeCancelledTimers() {
+        while (true) {
+            final Timer timer = cancelledTimers.poll();
+            if (timer == null) { return; }
+
+            final Bucket bucket = timer.bucket;
+            if (bucket != null) {
+                bucket.remove(timer);
+                timerCount--;
+            }
+        }
+    }
+
+    private void transferNewTimers() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timer timer = newTimers.poll();
+            if (timer == null) { return; }
+
+            if (!timer.isPending()) { continue; }
+
+            final long expiresAt = timer.deadline / tickNanos;
+            timer.remainingRounds = (expiresAt - tick) / wheel.length;
+
+            // if the deadline has already passed, put the timer in the current bucket
+            wheel[(int) (Math.max(expiresAt, tick) & mask)].add(timer);
+            timerCount++;
+        }
+    }
+}
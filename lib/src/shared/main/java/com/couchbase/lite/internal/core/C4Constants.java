@@ -141,7 +141,8 @@ public final class C4Constants {
 
         public static final int VALUE = 0;     //< Regular index of property value
         public static final int FULL_TEXT = 1; //< Full-text index
-        public static final int GEO = 2;       //< Geospatial index of GeoJSON values (NOT YET IMPLEMENTED)
+        public static final int ARRAY = 2;     //< Index of array values, for use with UNNEST
+        public static final int PREDICTIVE = 3; //< Index of prediction() results (Enterprise Edition only)
     }
 
     ////////////////////////////////////
@@ -148,6 +148,9 @@ public class C4Database extends C4NativePeer {
     // !!! This needs to hold both the document and the database locks
     public FLEncoder getSharedFleeceEncoder() { return new FLEncoder(getSharedFleeceEncoder(getPeer()), true); }
 
+    // Returns a new encoder that uses the database's shared keys.  The caller must free it.
+    public FLEncoder createFleeceEncoder() { return new FLEncoder(createFleeceEncoder(getPeer())); }
+
     // NOTE: Should param be String instead of byte[]?
     @VisibleForTesting
     public FLSliceResult encodeJSON(byte[] jsonData) throws LiteCoreException {
@@ -481,6 +484,8 @@ public class C4Database extends C4NativePeer {
 
     private static native long getSharedFleeceEncoder(long db);
 
+    private static native long createFleeceEncoder(long db);
+
     private static native long encodeJSON(long db, byte[] jsonData) throws LiteCoreException;
 
     private static native long getFLSharedKeys(long db);
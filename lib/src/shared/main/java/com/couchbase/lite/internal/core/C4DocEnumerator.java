@@ -43,6 +43,16 @@ public class C4DocEnumerator extends C4NativePeer {
 
     public boolean next() throws LiteCoreException { return next(getPeer()); }
 
+    // - Information about the current document, without loading it
+
+    public String getDocID() { return getDocID(getPeer()); }
+
+    public String getRevID() { return getRevID(getPeer()); }
+
+    public long getSequence() { return getSequence(getPeer()); }
+
+    public int getFlags() { return getFlags(getPeer()); }
+
     public void close() { close(getPeer()); }
 
     public void free() {
@@ -77,4 +87,12 @@ public class C4DocEnumerator extends C4NativePeer {
     private static native boolean next(long e) throws LiteCoreException;
 
     private static native long getDocument(long e) throws LiteCoreException;
+
+    private static native String getDocID(long e);
+
+    private static native String getRevID(long e);
+
+    private static native long getSequence(long e);
+
+    private static native int getFlags(long e);
 }
@@ -17,10 +17,13 @@
 //
 package com.couchbase.lite.internal.core;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
 import com.couchbase.lite.LiteCoreException;
 import com.couchbase.lite.internal.fleece.FLDict;
+import com.couchbase.lite.internal.fleece.FLEncoder;
 import com.couchbase.lite.internal.fleece.FLSharedKeys;
 import com.couchbase.lite.internal.fleece.FLSliceResult;
 
@@ -96,6 +99,31 @@ public class C4Document extends C4NativePeer {
         return (newDoc == 0) ? null : new C4Document(newDoc);
     }
 
+    /**
+     * Encode a new body as the selected revision's body, amended with a set of changes.
+     *
+     * @param base    the root dictionary of the selected revision's body
+     * @param enc     a new encoder that uses the database's shared keys: free it after this call
+     * @param changes a Fleece dictionary of new and changed properties, encoded with the database's shared keys
+     * @param sk      the database's shared keys
+     * @param removed the names of removed properties
+     * @return the new body, or null if base is not the root of the selected revision's body
+     * @throws LiteCoreException on encoding failure
+     */
+    @Nullable
+    public FLSliceResult encodeDelta(
+        @NonNull FLDict base,
+        @NonNull FLEncoder enc,
+        @NonNull FLSliceResult changes,
+        @NonNull FLSharedKeys sk,
+        @NonNull String[] removed)
+        throws LiteCoreException {
+        final long body = withPeerThrows(
+            0L,
+            h -> encodeDelta(h, base.getHandle(), enc.getHandle(), changes.getHandle(), sk.getHandle(), removed));
+        return (body == 0) ? null : new FLSliceResult(body);
+    }
+
     @VisibleForTesting
     public C4Document update(byte[] body, int flags) throws LiteCoreException {
         final long newDoc = withPeerThrows(0L, h -> update(h, body, flags));
@@ -117,6 +145,15 @@ public class C4Document extends C4NativePeer {
         return withPeerThrows(null, h -> bodyAsJSON(h, canonical));
     }
 
+    // - Lifecycle
+
+    public void free() {
+        final long handle = getPeerAndClear();
+        if (handle == 0L) { return; }
+
+        free(handle);
+    }
+
     //-------------------------------------------------------------------------
     // protected methods
     //-------------------------------------------------------------------------
@@ -136,14 +173,6 @@ public class C4Document extends C4NativePeer {
 
     byte[] getSelectedBody() { return withPeer(null, C4Document::getSelectedBody); }
 
-    @VisibleForTesting
-    void free() {
-        final long handle = getPeerAndClear();
-        if (handle == 0L) { return; }
-
-        free(handle);
-    }
-
     // - Revisions
 
     @VisibleForTesting
@@ -311,6 +340,9 @@ public class C4Document extends C4NativePeer {
 
     private static native long update2(long doc, long body, int flags) throws LiteCoreException;
 
+    private static native long encodeDelta(long doc, long base, long enc, long changes, long sk, String[] removed)
+        throws LiteCoreException;
+
     // - Fleece-related
 
     // doc -> pointer to C4Document
@@ -17,41 +17,194 @@
 //
 package com.couchbase.lite.internal.core;
 
+import android.support.annotation.GuardedBy;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 import com.couchbase.lite.CBLError;
 import com.couchbase.lite.CouchbaseLiteException;
 
 
+/**
+ * Key derivation for encrypted databases.
+ * <p>
+ * Deriving a key from a password is deliberately expensive: tens of milliseconds of CPU.
+ * Derived keys are cached, for the life of the process, so that reopening a database does not
+ * derive its key again.  The cache is keyed by an HMAC of the password and the derivation parameters,
+ * using a random, per-process secret, so that the cache keys cannot be used to test guesses at passwords.
+ * The derived keys are held outside the Java heap, where the garbage collector will not copy them,
+ * and are overwritten when they are evicted from the cache.
+ */
 public final class C4Key {
     private C4Key() { }
 
     private static final String DEFAULT_PBKDF2_KEY_SALT = "Salty McNaCl";
     private static final int DEFAULT_PBKDF2_KEY_ROUNDS = 64000; // Same as what SQLCipher uses
 
+    @VisibleForTesting
+    static final int MAX_CACHED_KEYS = 32;
+
+    private static final String CACHE_KEY_ALGORITHM = "HmacSHA256";
+    private static final byte[] CACHE_KEY_SECRET = new byte[32];
+    static { new SecureRandom().nextBytes(CACHE_KEY_SECRET); }
+
+    // An LRU cache that wipes the keys it evicts
+    private static final class KeyCache extends LinkedHashMap<String, ByteBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        KeyCache() { super(16, 0.75f, true); }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ByteBuffer> eldest) {
+            if (size() <= MAX_CACHED_KEYS) { return false; }
+            wipe(eldest.getValue());
+            return true;
+        }
+    }
+
+    @GuardedBy("KEY_CACHE")
+    private static final Map<String, ByteBuffer> KEY_CACHE = new KeyCache();
+
 
     @NonNull
     public static byte[] getPbkdf2Key(@NonNull String password) throws CouchbaseLiteException {
+        final String cacheKey = getPbkdf2CacheKey(password);
+        final byte[] cached = getCachedKey(cacheKey);
+        if (cached != null) { return cached; }
+
         final byte[] key = C4Key.pbkdf2(
             password,
             DEFAULT_PBKDF2_KEY_SALT.getBytes(StandardCharsets.UTF_8),
             DEFAULT_PBKDF2_KEY_ROUNDS,
             C4Constants.EncryptionKeySize.AES256);
-        if (key != null) { return key; }
+        if (key != null) { return cacheKey(cacheKey, key); }
 
         throw new CouchbaseLiteException("Could not generate key", CBLError.Domain.CBLITE, CBLError.Code.CRYPTO);
     }
 
     @NonNull
     public static byte[] getCoreKey(@NonNull String password) throws CouchbaseLiteException {
+        final String cacheKey = getCacheKey("core", C4Constants.EncryptionAlgorithm.AES256, null, password);
+        final byte[] cached = getCachedKey(cacheKey);
+        if (cached != null) { return cached; }
+
         final byte[] key = C4Key.deriveKeyFromPassword(password, C4Constants.EncryptionAlgorithm.AES256);
-        if (key != null) { return key; }
+        if (key != null) { return cacheKey(cacheKey, key); }
 
         throw new CouchbaseLiteException("Could not generate key", CBLError.Domain.CBLITE, CBLError.Code.CRYPTO);
     }
 
+    /**
+     * Use a key that was derived elsewhere: e.g., retrieved from a secure key store.
+     *
+     * @param key a raw AES256 key
+     * @return a copy of the key
+     * @throws CouchbaseLiteException if the key is not the right size
+     */
+    @NonNull
+    public static byte[] getRawKey(@NonNull byte[] key) throws CouchbaseLiteException {
+        if (key.length != C4Constants.EncryptionKeySize.AES256) {
+            throw new CouchbaseLiteException(
+                "Key size is invalid. Key must be a 256-bit (32-byte) key.",
+                CBLError.Domain.CBLITE,
+                CBLError.Code.INVALID_PARAMETER);
+        }
+        return key.clone();
+    }
+
+    /**
+     * Supply the PBKDF2 key for a password, derived in advance, so that it need not be derived when
+     * a database is opened.
+     *
+     * @param password the password
+     * @param key      the raw key derived from the password
+     * @throws CouchbaseLiteException if the key is not the right size
+     */
+    public static void preloadPbkdf2Key(@NonNull String password, @NonNull byte[] key) throws CouchbaseLiteException {
+        final byte[] rawKey = getRawKey(key);
+        try { cacheKey(getPbkdf2CacheKey(password), rawKey); }
+        finally { Arrays.fill(rawKey, (byte) 0); }
+    }
+
+    /**
+     * Discard, and overwrite, all cached keys.
+     */
+    public static void clearKeyCache() {
+        synchronized (KEY_CACHE) {
+            for (ByteBuffer key : KEY_CACHE.values()) { wipe(key); }
+            KEY_CACHE.clear();
+        }
+    }
+
+    @VisibleForTesting
+    static int getCachedKeyCount() {
+        synchronized (KEY_CACHE) { return KEY_CACHE.size(); }
+    }
+
+    @NonNull
+    private static String getPbkdf2CacheKey(@NonNull String password) throws CouchbaseLiteException {
+        return getCacheKey("pbkdf2", DEFAULT_PBKDF2_KEY_ROUNDS, DEFAULT_PBKDF2_KEY_SALT, password);
+    }
+
+    @NonNull
+    private static String getCacheKey(@NonNull String kdf, int param, @Nullable String salt, @NonNull String password)
+        throws CouchbaseLiteException {
+        final byte[] mac;
+        try {
+            final Mac hmac = Mac.getInstance(CACHE_KEY_ALGORITHM);
+            hmac.init(new SecretKeySpec(CACHE_KEY_SECRET, CACHE_KEY_ALGORITHM));
+            final String params = kdf + ':' + param + ':' + ((salt == null) ? "" : salt) + ':';
+            hmac.update(params.getBytes(StandardCharsets.UTF_8));
+            mac = hmac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (GeneralSecurityException e) {
+            throw new CouchbaseLiteException("Could not generate key", e, CBLError.Domain.CBLITE, CBLError.Code.CRYPTO);
+        }
+
+        final StringBuilder buf = new StringBuilder(mac.length * 2);
+        for (byte b : mac) { buf.append(String.format("%02x", b & 0xff)); }
+        return buf.toString();
+    }
+
+    @Nullable
+    private static byte[] getCachedKey(@NonNull String cacheKey) {
+        synchronized (KEY_CACHE) {
+            final ByteBuffer buf = KEY_CACHE.get(cacheKey);
+            if (buf == null) { return null; }
+            final byte[] key = new byte[buf.capacity()];
+            buf.duplicate().get(key);
+            return key;
+        }
+    }
+
+    // Returns the passed key
+    @NonNull
+    private static byte[] cacheKey(@NonNull String cacheKey, @NonNull byte[] key) {
+        final ByteBuffer buf = ByteBuffer.allocateDirect(key.length);
+        buf.put(key).flip();
+        synchronized (KEY_CACHE) {
+            final ByteBuffer prev = KEY_CACHE.put(cacheKey, buf);
+            if (prev != null) { wipe(prev); }
+        }
+        return key;
+    }
+
+    private static void wipe(@NonNull ByteBuffer buf) {
+        for (int i = 0; i < buf.capacity(); i++) { buf.put(i, (byte) 0); }
+    }
+
     private static native byte[] pbkdf2(String password, byte[] salt, int rounds, int keysize);
 
     private static native byte[] deriveKeyFromPassword(String password, int alg);
@@ -19,14 +19,16 @@ package com.couchbase.lite.internal.core;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 
-import com.couchbase.lite.ConsoleLogger;
 import com.couchbase.lite.Database;
 import com.couchbase.lite.LogDomain;
 import com.couchbase.lite.LogLevel;
 import com.couchbase.lite.Logger;
+import com.couchbase.lite.StructuredLogger;
 import com.couchbase.lite.internal.CouchbaseLiteInternal;
 import com.couchbase.lite.internal.support.Log;
+import com.couchbase.lite.internal.support.StructuredLogEvent;
 
 
 public final class C4Log {
@@ -45,7 +47,7 @@ public final class C4Log {
     }
 
     public static void setCallbackLevel(@NonNull LogLevel consoleLevel) {
-        setCoreCallbackLevel(getCallbackLevel(consoleLevel, Database.log.getCustom()));
+        setCoreCallbackLevel(getCallbackLevel(consoleLevel, Database.log.getCustom(), Database.log.getStructured()));
     }
 
     // This class and this method are referenced by name, from native code.
@@ -53,23 +55,23 @@ public final class C4Log {
         final LogLevel level = Log.getLogLevelForC4Level(c4Level);
         final LogDomain domain = Log.getLoggingDomainForC4Domain(c4Domain);
 
-        final com.couchbase.lite.Log logger = Database.log;
+        Log.sendCoreMessageToLoggers(level, domain, message);
 
-        final ConsoleLogger console = logger.getConsole();
-        console.log(level, domain, message);
+        final StructuredLogger structured = Database.log.getStructured();
+        if (structured != null) { emitLogEvent(level, domain, c4Domain, c4Level, message); }
 
-        final Logger custom = logger.getCustom();
-        if (custom != null) { custom.log(level, domain, message); }
-
-        // This is necessary because there is no way to tell when the log level is set on a custom logger.
-        // The only way to find out is to ask it.  As each new message comes in from Core,
-        // we find the min level for the console and custom loggers and, if necessary, reset the callback level.
-        final LogLevel newCallbackLevel = getCallbackLevel(level, custom);
+        // This is necessary because there is no way to tell when the log level is set on a custom
+        // or structured logger. The only way to find out is to ask it.  As each new message comes in from Core,
+        // we find the min level for the console, custom and structured loggers and, if necessary,
+        // reset the callback level.
+        final LogLevel newCallbackLevel
+            = getCallbackLevel(Database.log.getConsole().getLevel(), Database.log.getCustom(), structured);
         if (callbackLevel == newCallbackLevel) { return; }
 
         // This cannot be done synchronously because it will deadlock on the same mutex that is being held
         // for this callback
-        CouchbaseLiteInternal.getExecutionService().getMainExecutor().execute(() -> setCoreCallbackLevel(level));
+        CouchbaseLiteInternal.getExecutionService().getMainExecutor()
+            .execute(() -> setCoreCallbackLevel(newCallbackLevel));
     }
 
     private static void setCoreCallbackLevel(@NonNull LogLevel logLevel) {
@@ -77,12 +79,60 @@ public final class C4Log {
         forceCallbackLevel(logLevel);
     }
 
-    @NonNull
-    private static LogLevel getCallbackLevel(@NonNull LogLevel consoleLevel, @Nullable Logger customLogger) {
-        if (customLogger == null) { return consoleLevel; }
+    // LiteCore messages are preformatted: the only structure they have is an optional
+    // leading reference to the object that logged them, e.g. "{Repl#12} Connected".
+    @VisibleForTesting
+    static void emitLogEvent(
+        @NonNull LogLevel level,
+        @NonNull LogDomain domain,
+        @Nullable String c4Domain,
+        int c4Level,
+        @Nullable String message) {
+        final StructuredLogEvent event = Log.event(level, domain, "c4.log");
+        if (event == null) { return; }
+
+        event.put("c4Domain", c4Domain).put("c4Level", c4Level);
+
+        String msg = message;
+        if ((msg != null) && (msg.startsWith("{"))) {
+            final int end = msg.indexOf('}');
+            if (end > 1) {
+                final String obj = msg.substring(1, end);
+                event.put("object", obj);
+
+                final int n = obj.lastIndexOf('#');
+                if (n > 0) {
+                    event.put("objectType", obj.substring(0, n));
+                    try { event.put("objectId", Long.parseLong(obj.substring(n + 1))); }
+                    catch (NumberFormatException ignore) { }
+                }
+
+                msg = msg.substring(end + 1).trim();
+            }
+        }
+
+        event.put("message", msg).emit();
+    }
 
-        final LogLevel customLogLevel = customLogger.getLevel();
-        return (customLogLevel.compareTo(consoleLevel) > 0) ? consoleLevel : customLogLevel;
+    @VisibleForTesting
+    @NonNull
+    static LogLevel getCallbackLevel(
+        @NonNull LogLevel consoleLevel,
+        @Nullable Logger customLogger,
+        @Nullable StructuredLogger structuredLogger) {
+        LogLevel level = consoleLevel;
+
+        if (customLogger != null) {
+            final LogLevel customLogLevel = customLogger.getLevel();
+            if (customLogLevel.compareTo(level) < 0) { level = customLogLevel; }
+        }
+
+        if (structuredLogger != null) {
+            final LogLevel structuredLogLevel = structuredLogger.getLevel();
+            if (structuredLogLevel.compareTo(level) < 0) { level = structuredLogLevel; }
+        }
+
+        return level;
     }
 
     //-------------------------------------------------------------------------
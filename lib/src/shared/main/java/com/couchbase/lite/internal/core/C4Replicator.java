@@ -32,10 +32,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.couchbase.lite.AbstractReplicator;
 import com.couchbase.lite.LiteCoreException;
 import com.couchbase.lite.LogDomain;
+import com.couchbase.lite.LogLevel;
 import com.couchbase.lite.internal.SocketFactory;
 import com.couchbase.lite.internal.fleece.FLSliceResult;
 import com.couchbase.lite.internal.fleece.FLValue;
 import com.couchbase.lite.internal.support.Log;
+import com.couchbase.lite.internal.support.StructuredLogEvent;
 
 
 /**
@@ -201,7 +203,20 @@ public class C4Replicator extends C4NativePeer {
     @SuppressWarnings("unused")
     static void statusChangedCallback(long handle, @Nullable C4ReplicatorStatus status) {
         final C4Replicator repl = getReplicatorForHandle(handle);
-        Log.d(LogDomain.REPLICATOR, "statusChangedCallback() handle: " + handle + ", status: " + status);
+        Log.d(LogDomain.REPLICATOR, () -> "statusChangedCallback() handle: " + handle + ", status: " + status);
+
+        final StructuredLogEvent event
+            = (status == null) ? null : Log.event(LogLevel.DEBUG, LogDomain.REPLICATOR, "c4.status");
+        if (event != null) {
+            event.put("handle", handle)
+                .put("activityLevel", status.getActivityLevel())
+                .put("completed", status.getProgressUnitsCompleted())
+                .put("total", status.getProgressUnitsTotal())
+                .put("documentCount", status.getProgressDocumentCount())
+                .put("errorDomain", status.getErrorDomain())
+                .put("errorCode", status.getErrorCode())
+                .emit();
+        }
         if (repl == null) { return; }
 
         final C4ReplicatorListener listener = repl.listener;
@@ -211,7 +226,7 @@ public class C4Replicator extends C4NativePeer {
     @SuppressWarnings("unused")
     static void documentEndedCallback(long handle, boolean pushing, @Nullable C4DocumentEnded... documentsEnded) {
         final C4Replicator repl = getReplicatorForHandle(handle);
-        Log.d(LogDomain.REPLICATOR, "documentEndedCallback() handle: " + handle + ", pushing: " + pushing);
+        Log.d(LogDomain.REPLICATOR, () -> "documentEndedCallback() handle: " + handle + ", pushing: " + pushing);
         if (repl == null) { return; }
 
         final C4ReplicatorListener listener = repl.listener;
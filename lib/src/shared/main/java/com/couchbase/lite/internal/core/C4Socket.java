@@ -118,7 +118,7 @@ public abstract class C4Socket extends C4NativePeer {
         String path,
         byte[] options) {
         C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.open @" + handle + ": " + socket + ", " + context);
+        Log.d(LOG_DOMAIN, "C4Socket.open @%d: %s, %s", handle, socket, context);
 
         if (socket == null) {
             if (!(context instanceof SocketFactory)) {
@@ -140,7 +140,7 @@ public abstract class C4Socket extends C4NativePeer {
         }
 
         final C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.write @" + handle + ": " + socket);
+        Log.d(LOG_DOMAIN, () -> "C4Socket.write @" + handle + ": " + socket);
         if (socket == null) { return; }
 
         socket.send(allocatedData);
@@ -152,7 +152,7 @@ public abstract class C4Socket extends C4NativePeer {
     @SuppressWarnings("PMD.UnusedPrivateMethod")
     private static void completedReceive(long handle, long byteCount) {
         final C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.completedReceive @" + handle + ": " + socket);
+        Log.d(LOG_DOMAIN, () -> "C4Socket.completedReceive @" + handle + ": " + socket);
         if (socket == null) { return; }
 
         socket.completedReceive(byteCount);
@@ -164,7 +164,7 @@ public abstract class C4Socket extends C4NativePeer {
     @SuppressWarnings("PMD.UnusedPrivateMethod")
     private static void close(long handle) {
         final C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.close @" + handle + ": " + socket);
+        Log.d(LOG_DOMAIN, "C4Socket.close @%d: %s", handle, socket);
         if (socket == null) { return; }
 
         socket.close();
@@ -175,7 +175,7 @@ public abstract class C4Socket extends C4NativePeer {
     @SuppressWarnings("PMD.UnusedPrivateMethod")
     private static void requestClose(long handle, int status, String message) {
         final C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.requestClose @" + handle + ": " + socket);
+        Log.d(LOG_DOMAIN, "C4Socket.requestClose @%d: %s", handle, socket);
         if (socket == null) { return; }
 
         socket.requestClose(status, message);
@@ -187,7 +187,7 @@ public abstract class C4Socket extends C4NativePeer {
     @SuppressWarnings("PMD.UnusedPrivateMethod")
     private static void dispose(long handle) {
         final C4Socket socket = HANDLES_TO_SOCKETS.get(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.dispose @" + handle + ": " + socket);
+        Log.d(LOG_DOMAIN, "C4Socket.dispose @%d: %s", handle, socket);
         if (socket == null) { return; }
 
         release(socket);
@@ -196,13 +196,13 @@ public abstract class C4Socket extends C4NativePeer {
     private static void bind(@NonNull C4Socket socket) {
         final long handle = socket.getPeer();
         HANDLES_TO_SOCKETS.put(handle, socket);
-        Log.d(LOG_DOMAIN, "C4Socket.bind @" + handle + ": " + HANDLES_TO_SOCKETS.size());
+        Log.d(LOG_DOMAIN, "C4Socket.bind @%d: %d", handle, HANDLES_TO_SOCKETS.size());
     }
 
     private static void release(@NonNull C4Socket socket) {
         final long handle = socket.getPeer();
         HANDLES_TO_SOCKETS.remove(handle);
-        Log.d(LOG_DOMAIN, "C4Socket.release @" + handle + ": " + HANDLES_TO_SOCKETS.size());
+        Log.d(LOG_DOMAIN, "C4Socket.release @%d: %d", handle, HANDLES_TO_SOCKETS.size());
     }
 
     //-------------------------------------------------------------------------
@@ -243,42 +243,42 @@ public abstract class C4Socket extends C4NativePeer {
 
     protected final void opened() {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.opened @" + handle);
+        Log.d(LOG_DOMAIN, "C4Socket.opened @%d", handle);
         if (handle == 0) { return; }
         opened(handle);
     }
 
     protected final void completedWrite(long byteCount) {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.completedWrite @" + handle + ": " + byteCount);
+        Log.d(LOG_DOMAIN, () -> "C4Socket.completedWrite @" + handle + ": " + byteCount);
         if (handle == 0) { return; }
         completedWrite(handle, byteCount);
     }
 
     protected final void received(byte[] data) {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.received @" + handle + ": " + data.length);
+        Log.d(LOG_DOMAIN, () -> "C4Socket.received @" + handle + ": " + data.length);
         if (handle == 0) { return; }
         received(handle, data);
     }
 
     protected final void closed(int errorDomain, int errorCode, String message) {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.closed @" + handle + ": " + errorCode);
+        Log.d(LOG_DOMAIN, "C4Socket.closed @%d: %d", handle, errorCode);
         if (handle == 0) { return; }
         closed(handle, errorDomain, errorCode, message);
     }
 
     protected final void closeRequested(int status, String message) {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.closeRequested @" + handle + ": " + status);
+        Log.d(LOG_DOMAIN, "C4Socket.closeRequested @%d: %d", handle, status);
         if (handle == 0) { return; }
         closeRequested(handle, status, message);
     }
 
     protected final void gotHTTPResponse(int httpStatus, byte[] responseHeadersFleece) {
         final long handle = getPeerHandleUnchecked();
-        Log.d(LOG_DOMAIN, "C4Socket.gotHTTPResponse @" + handle + ": " + httpStatus);
+        Log.d(LOG_DOMAIN, "C4Socket.gotHTTPResponse @%d: %d", handle, httpStatus);
         if (handle == 0) { return; }
         gotHTTPResponse(handle, httpStatus, responseHeadersFleece);
     }
@@ -17,6 +17,12 @@
 //
 package com.couchbase.lite.internal.core;
 
+import android.support.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.couchbase.lite.internal.fleece.FLDictKey;
 import com.couchbase.lite.internal.fleece.FLSharedKeys;
 
 
@@ -27,6 +33,11 @@ public final class SharedKeys {
     //---------------------------------------------
     private final FLSharedKeys flSharedKeys;
 
+    // Each of these keys is used only with dictionaries that use this instance's shared keys,
+    // so that the key's cached shared-key number is always correct.
+    // A native key's cache is not thread safe: each thread gets its own keys, so lookups need no lock.
+    private final ThreadLocal<Map<String, FLDictKey>> dictKeys = ThreadLocal.withInitial(HashMap::new);
+
     //---------------------------------------------
     // Constructors
     //---------------------------------------------
@@ -38,4 +49,8 @@ public final class SharedKeys {
     // Public level methods
     //---------------------------------------------
     public FLSharedKeys getFLSharedKeys() { return flSharedKeys; }
+
+    // The returned key must be used only on the calling thread.
+    @NonNull
+    public FLDictKey getDictKey(@NonNull String key) { return dictKeys.get().computeIfAbsent(key, FLDictKey::new); }
 }
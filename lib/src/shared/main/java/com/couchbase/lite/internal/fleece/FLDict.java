@@ -43,6 +43,8 @@ public class FLDict {
 
     public FLValue toFLValue() { return new FLValue(handle); }
 
+    public long getHandle() { return handle; }
+
     public long count() { return count(handle); }
 
     public FLValue get(String key) {
@@ -53,6 +55,14 @@ public class FLDict {
         return hValue != 0L ? new FLValue(hValue) : null;
     }
 
+    public FLValue get(FLDictKey key) {
+        if (key == null) { return null; }
+
+        final long hValue = key.getFrom(handle);
+
+        return hValue != 0L ? new FLValue(hValue) : null;
+    }
+
     public Map<String, Object> asDict() {
         final Map<String, Object> results = new HashMap<>();
         final FLDictIterator itr = new FLDictIterator();
@@ -0,0 +1,105 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal.fleece;
+
+import android.support.annotation.NonNull;
+
+import java.nio.charset.StandardCharsets;
+
+import com.couchbase.lite.internal.core.C4NativePeer;
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * A pre-encoded dictionary key.
+ * The key is converted to UTF-8 once.  After the first lookup, the native key also caches
+ * the key's shared-key number, so that subsequent lookups need neither a string conversion
+ * nor a string comparison.
+ * <p>
+ * Because of that cache, a key must only be used with dictionaries that use a single set of shared keys:
+ * get instances from {@link com.couchbase.lite.internal.core.SharedKeys#getDictKey(String)}, not the constructor.
+ * The native key's cache is not thread safe: SharedKeys gives each thread its own keys.
+ */
+public final class FLDictKey extends C4NativePeer {
+    @NonNull
+    private final String key;
+
+    //-------------------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------------------
+
+    public FLDictKey(@NonNull String key) {
+        super(init(Preconditions.assertNotNull(key, "key").getBytes(StandardCharsets.UTF_8)));
+        this.key = key;
+    }
+
+    //-------------------------------------------------------------------------
+    // public methods
+    //-------------------------------------------------------------------------
+
+    @NonNull
+    public String getKey() { return key; }
+
+    @NonNull
+    @Override
+    public String toString() { return "FLDictKey{" + key + "}"; }
+
+    //-------------------------------------------------------------------------
+    // protected methods
+    //-------------------------------------------------------------------------
+
+    @SuppressWarnings("NoFinalizer")
+    @Override
+    protected void finalize() throws Throwable {
+        final long handle = getPeerAndClear();
+        if (handle != 0) { free(handle); }
+        super.finalize();
+    }
+
+    //-------------------------------------------------------------------------
+    // package level access
+    //-------------------------------------------------------------------------
+
+    long getFrom(long dict) { return getWithKey(dict, getPeer()); }
+
+    //-------------------------------------------------------------------------
+    // native methods
+    //-------------------------------------------------------------------------
+
+    /**
+     * Create an FLDictKey
+     *
+     * @param keyString the UTF-8 encoded key
+     * @return long (FLDictKey *)
+     */
+    private static native long init(byte[] keyString);
+
+    /**
+     * Looks up a key in a dictionary, using the key's cached shared-key mapping.
+     *
+     * @param dict FLDict
+     * @param key  FLDictKey *
+     * @return FLValue
+     */
+    private static native long getWithKey(long dict, long key);
+
+    /**
+     * Free an FLDictKey
+     *
+     * @param key FLDictKey *
+     */
+    private static native void free(long key);
+}
@@ -63,6 +63,16 @@ public class FLEncoder extends C4NativePeer {
         if (handle != 0) { free(handle); }
     }
 
+    public long getHandle() { return getPeer(); }
+
+    public boolean writeBoolean(boolean value) { return writeBool(getPeer(), value); }
+
+    public boolean writeLong(long value) { return writeInt(getPeer(), value); }
+
+    public boolean writeFloat(float value) { return writeFloat(getPeer(), value); }
+
+    public boolean writeDouble(double value) { return writeDouble(getPeer(), value); }
+
     public boolean writeString(String value) { return writeString(getPeer(), value); }
 
     public boolean writeData(byte[] value) { return writeData(getPeer(), value); }
@@ -77,6 +87,14 @@ public class FLEncoder extends C4NativePeer {
 
     public boolean writeKey(String slice) { return writeKey(getPeer(), slice); }
 
+    /**
+     * Parse UTF-8 JSON and write the value it describes, without creating Java objects.
+     *
+     * @param json UTF-8 encoded JSON
+     * @return false if the JSON could not be parsed
+     */
+    public boolean convertJSON(byte[] json) { return convertJSON(getPeer(), json); }
+
     @SuppressWarnings({"unchecked", "PMD.NPathComplexity"})
     public boolean writeValue(Object value) {
         final long peer = getPeer();
@@ -226,6 +244,8 @@ public class FLEncoder extends C4NativePeer {
 
     private static native boolean writeKey(long encoder, String slice);
 
+    private static native boolean convertJSON(long encoder, byte[] json);
+
     private static native byte[] finish(long encoder) throws LiteCoreException;
 
     private static native long finish2(long encoder) throws LiteCoreException;
@@ -19,11 +19,21 @@ package com.couchbase.lite.internal.fleece;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
+/**
+ * An array whose values are converted from Fleece lazily, and cached.
+ * <p>
+ * An immutable MArray may be read concurrently, without a lock: its values are cached
+ * in an atomic array.  A mutable MArray is not thread safe.
+ */
 public class MArray extends MCollection {
     private List<MValue> values = new ArrayList<>();
 
+    // the value cache for an immutable array
+    private AtomicReferenceArray<MValue> frozenValues;
+
     private FLArray baseArray;
 
     public void initInSlot(MValue mv, MCollection parent) {
@@ -44,12 +54,15 @@ public class MArray extends MCollection {
             baseArray = null;
             resize(0);
         }
+
+        if (!isMutable) { frozenValues = freeze(values); }
     }
 
     public void initAsCopyOf(MArray array, boolean isMutable) {
         super.initAsCopyOf(array, isMutable);
         baseArray = array != null ? array.getBaseArray() : null;
         values = array != null ? new ArrayList<>(array.values) : new ArrayList<>();
+        if (!isMutable) { frozenValues = freeze(values); }
     }
 
     /* Properties */
@@ -72,6 +85,8 @@ public class MArray extends MCollection {
     public MValue get(long index) {
         if (index < 0 || index >= values.size()) { return MValue.EMPTY; }
 
+        if (frozenValues != null) { return getFrozen((int) index); }
+
         MValue value = values.get((int) index);
         if (value.isEmpty() && (baseArray != null)) {
             value = new MValue(baseArray.get(index));
@@ -139,6 +154,26 @@ public class MArray extends MCollection {
 
     /* Private Methods */
 
+    private static AtomicReferenceArray<MValue> freeze(List<MValue> values) {
+        final int n = values.size();
+        final AtomicReferenceArray<MValue> frozen = new AtomicReferenceArray<>(n);
+        for (int i = 0; i < n; i++) {
+            final MValue value = values.get(i);
+            if (!value.isEmpty()) { frozen.set(i, value); }
+        }
+        return frozen;
+    }
+
+    // If another thread has already cached the value, use that one.
+    private MValue getFrozen(int index) {
+        final MValue value = frozenValues.get(index);
+        if (value != null) { return value; }
+        if (baseArray == null) { return MValue.EMPTY; }
+
+        final MValue newValue = new MValue(baseArray.get(index));
+        return (frozenValues.compareAndSet(index, null, newValue)) ? newValue : frozenValues.get(index);
+    }
+
     void resize(long newSize) {
         final int count = values.size();
         if (newSize < count) { values.subList((int) newSize, count).clear(); }
@@ -18,19 +18,25 @@
 package com.couchbase.lite.internal.fleece;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.couchbase.lite.internal.utils.Preconditions;
 
 
+/**
+ * A dictionary whose values are converted from Fleece lazily, and cached.
+ * <p>
+ * An immutable MDict may be read concurrently, without a lock: its cache is a concurrent map
+ * and a value converted by two threads at once is cached only once.  A mutable MDict is not thread safe.
+ */
 public class MDict extends MCollection implements Iterable<String> {
-    // ??? What is this for?
-    private final List<String> newKey = new ArrayList<>();
     private Map<String, MValue> valueMap = new HashMap<>();
     private FLDict flDict;
     private long valCount;
@@ -43,7 +49,7 @@ public class MDict extends MCollection implements Iterable<String> {
     public void initAsCopyOf(MDict d, boolean isMutable) {
         super.initAsCopyOf(d, isMutable);
         flDict = d.flDict;
-        valueMap = new HashMap<>(d.valueMap);
+        valueMap = (isMutable) ? new HashMap<>(d.valueMap) : new ConcurrentHashMap<>(d.valueMap);
         valCount = d.valCount;
     }
 
@@ -134,7 +140,17 @@ public class MDict extends MCollection implements Iterable<String> {
         return (v != null) ? !v.isEmpty() : ((flDict != null) && (flDict.get(key) != null));
     }
 
+    public boolean contains(FLDictKey key) {
+        Preconditions.assertNotNull(key, "key");
+        final MValue v = valueMap.get(key.getKey());
+        return (v != null) ? !v.isEmpty() : ((flDict != null) && (flDict.get(key) != null));
+    }
+
     public List<String> getKeys() {
+        // An unmutated dictionary has exactly the keys in its Fleece dict.
+        // Reading them from there is safe even while another thread is filling the value cache.
+        if (!isMutated()) { return getFleeceKeys(); }
+
         final List<String> keys = new ArrayList<>();
         for (Map.Entry<String, MValue> entry : valueMap.entrySet()) {
             if (!entry.getValue().isEmpty()) { keys.add(entry.getKey()); }
@@ -160,6 +176,49 @@ public class MDict extends MCollection implements Iterable<String> {
 
     public boolean remove(String key) { return set(key, MValue.EMPTY); }
 
+    /**
+     * Get the Fleece dict from which this MDict was read.
+     *
+     * @return the base dict, or null if this MDict was not read from Fleece
+     */
+    @Nullable
+    public FLDict getBaseDict() { return flDict; }
+
+    /**
+     * Count the entries that have been set or removed since this MDict was read from Fleece.
+     * A changed child collection counts as a change to its entry.
+     *
+     * @return the number of changed entries, or -1 if this MDict was not read from Fleece
+     */
+    public int getChangeCount() {
+        if (flDict == null) { return -1; }
+
+        int n = 0;
+        for (MValue value : valueMap.values()) {
+            if (value.isEmpty() || value.isMutated()) { n++; }
+        }
+        return n;
+    }
+
+    /**
+     * Encode only the entries that have been changed since this MDict was read from Fleece.
+     *
+     * @param enc         the encoder to which the changed entries are written, as a dict
+     * @param removedKeys a list to which the keys of removed entries are added
+     */
+    public void encodeChangesTo(@NonNull FLEncoder enc, @NonNull List<String> removedKeys) {
+        enc.beginDict(valueMap.size());
+        for (Map.Entry<String, MValue> entry : valueMap.entrySet()) {
+            final MValue value = entry.getValue();
+            if (value.isEmpty()) { removedKeys.add(entry.getKey()); }
+            else if (value.isMutated()) {
+                enc.writeKey(entry.getKey());
+                value.encodeTo(enc);
+            }
+        }
+        enc.endDict();
+    }
+
     @NonNull
     public MValue get(String key) {
         Preconditions.assertNotNull(key, "key");
@@ -168,7 +227,23 @@ public class MDict extends MCollection implements Iterable<String> {
         if (v != null) { return v; }
 
         final FLValue value = flDict != null ? flDict.get(key) : null;
-        return (value == null) ? MValue.EMPTY : setInMap(key, new MValue(value));
+        return (value == null) ? MValue.EMPTY : cacheValue(key, new MValue(value));
+    }
+
+    /**
+     * Get the value for a pre-encoded key.
+     * Equivalent to get(key.getKey()) but, on a cache miss, looks the key up without re-encoding it.
+     */
+    @NonNull
+    public MValue get(FLDictKey key) {
+        Preconditions.assertNotNull(key, "key");
+
+        final String keyStr = key.getKey();
+        final MValue v = valueMap.get(keyStr);
+        if (v != null) { return v; }
+
+        final FLValue value = flDict != null ? flDict.get(key) : null;
+        return (value == null) ? MValue.EMPTY : cacheValue(keyStr, new MValue(value));
     }
 
     public boolean set(String key, MValue value) {
@@ -208,6 +283,8 @@ public class MDict extends MCollection implements Iterable<String> {
         super.initInSlot(mv, parent, isMutable);
         if (flDict != null) { throw new IllegalStateException("flDict is not null"); }
 
+        if (!isMutable) { valueMap = new ConcurrentHashMap<>(); }
+
         final FLValue value = mv.getValue();
         if (value != null) {
             flDict = value.asFLDict();
@@ -224,8 +301,34 @@ public class MDict extends MCollection implements Iterable<String> {
     //---------------------------------------------
 
     private MValue setInMap(String key, MValue value) {
-        newKey.add(key);
         valueMap.put(key, value);
         return value;
     }
+
+    // If another thread has already cached a value for the key, use that one.
+    private MValue cacheValue(String key, MValue value) {
+        if (isMutable()) { return setInMap(key, value); }
+        final MValue prev = valueMap.putIfAbsent(key, value);
+        return (prev != null) ? prev : value;
+    }
+
+    private List<String> getFleeceKeys() {
+        final List<String> keys = new ArrayList<>();
+        if ((flDict == null) || (flDict.count() <= 0)) { return keys; }
+
+        final FLDictIterator itr = new FLDictIterator();
+        try {
+            itr.begin(flDict);
+            String key;
+            while ((key = itr.getKeyString()) != null) {
+                keys.add(key);
+                itr.next();
+            }
+        }
+        finally {
+            itr.free();
+        }
+
+        return keys;
+    }
 }
@@ -21,7 +21,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import com.couchbase.lite.internal.utils.Preconditions;
 
@@ -36,13 +36,16 @@ public class MValue implements Encodable {
         public boolean isEmpty() { return true; }
     };
 
+    private static final AtomicReferenceFieldUpdater<MValue, Object> NATIVE_OBJECT
+        = AtomicReferenceFieldUpdater.newUpdater(MValue.class, Object.class, "nativeObject");
+
     //-------------------------------------------------------------------------
     // Types
     //-------------------------------------------------------------------------
 
     public interface Delegate {
         @Nullable
-        Object toNative(@NonNull MValue mv, @Nullable MCollection parent, @NonNull AtomicBoolean cacheIt);
+        Object toNative(@NonNull MValue mv, @Nullable MCollection parent);
 
         @Nullable
         MCollection collectionFromNative(@Nullable Object object);
@@ -74,8 +77,9 @@ public class MValue implements Encodable {
 
     @Nullable
     private FLValue value;
+    // Immutable values may be converted concurrently, without a lock: see asNative.
     @Nullable
-    private Object nativeObject;
+    private volatile Object nativeObject;
 
     //-------------------------------------------------------------------------
     // Constructors
@@ -106,14 +110,23 @@ public class MValue implements Encodable {
         value = null;
     }
 
+    /**
+     * Get the Java object for this value.
+     * Collections and other objects that the delegate constructs are cached, so that every caller
+     * sees the same instance.  Strings, numbers and booleans are converted on each call.
+     * <p>
+     * This method is safe to call concurrently on a value whose parent is immutable:
+     * if two threads race to convert it, the first to finish wins and both get its result.
+     */
     @Nullable
     public Object asNative(@Nullable MCollection parent) {
-        if ((nativeObject != null) || (value == null)) { return nativeObject; }
+        final Object cached = nativeObject;
+        if ((cached != null) || (value == null)) { return cached; }
+
+        final Object obj = toNative(this, parent);
+        if (!isCacheable(obj)) { return obj; }
 
-        final AtomicBoolean cacheIt = new AtomicBoolean(false);
-        final Object obj = toNative(this, parent, cacheIt);
-        if (cacheIt.get()) { nativeObject = obj; }
-        return obj;
+        return (NATIVE_OBJECT.compareAndSet(this, null, obj)) ? obj : nativeObject;
     }
 
     @Override
@@ -138,10 +151,14 @@ public class MValue implements Encodable {
     // Private methods
     //-------------------------------------------------------------------------
 
+    private static boolean isCacheable(@Nullable Object obj) {
+        return (obj != null) && !(obj instanceof String) && !(obj instanceof Number) && !(obj instanceof Boolean);
+    }
+
     @Nullable
-    private Object toNative(@NonNull MValue mv, @Nullable MCollection parent, @NonNull AtomicBoolean cacheIt) {
+    private Object toNative(@NonNull MValue mv, @Nullable MCollection parent) {
         Preconditions.assertNotNull(MValue.delegate, "delegate");
-        return delegate.toNative(mv, parent, cacheIt);
+        return delegate.toNative(mv, parent);
     }
 
     @Nullable
@@ -155,13 +155,13 @@ public class AbstractCBLWebSocket extends C4Socket {
 
         @Override
         public void onMessage(WebSocket webSocket, String text) {
-            Log.v(TAG, "WebSocketListener received text string with length of " + text.length());
+            Log.v(TAG, () -> "WebSocketListener received text string with length of " + text.length());
             received(text.getBytes(StandardCharsets.UTF_8));
         }
 
         @Override
         public void onMessage(WebSocket webSocket, ByteString bytes) {
-            Log.v(TAG, "WebSocketListener received data of " + bytes.size() + " bytes");
+            Log.v(TAG, () -> "WebSocketListener received data of " + bytes.size() + " bytes");
             received(bytes.toByteArray());
         }
 
@@ -17,6 +17,7 @@
 //
 package com.couchbase.lite.internal.support;
 
+import android.support.annotation.GuardedBy;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
@@ -30,6 +31,7 @@ import java.util.HashMap;
 import java.util.IllegalFormatException;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.couchbase.lite.ConsoleLogger;
@@ -38,9 +40,11 @@ import com.couchbase.lite.FileLogger;
 import com.couchbase.lite.LogDomain;
 import com.couchbase.lite.LogLevel;
 import com.couchbase.lite.Logger;
+import com.couchbase.lite.StructuredLogger;
 import com.couchbase.lite.internal.core.C4Constants;
 import com.couchbase.lite.internal.core.C4Log;
 import com.couchbase.lite.internal.core.CBLVersion;
+import com.couchbase.lite.utils.Fn;
 
 
 /**
@@ -83,8 +87,18 @@ public final class Log {
         LOG_LEVEL_FROM_C4 = Collections.unmodifiableMap(m);
     }
 
+    private static final long ASYNC_STOP_TIMEOUT_SEC = 2;
+
+    private static final Object ASYNC_LOCK = new Object();
+
     private static volatile Map<String, String> errorMessages;
 
+    @Nullable
+    private static volatile LogQueue asyncQueue;
+
+    @GuardedBy("ASYNC_LOCK")
+    private static long droppedMessages;
+
     /**
      * Setup logging.
      */
@@ -98,7 +112,10 @@ public final class Log {
 
     @VisibleForTesting
     public static void initLogging() {
-        C4Log.forceCallbackLevel(Database.log.getConsole().getLevel());
+        final LogLevel consoleLevel = Database.log.getConsole().getLevel();
+        C4Log.forceCallbackLevel(consoleLevel);
+        // lower the callback level, if the custom or structured loggers want more
+        C4Log.setCallbackLevel(consoleLevel);
         setC4LogLevel(LogDomain.ALL_DOMAINS, LogLevel.DEBUG);
     }
 
@@ -110,6 +127,17 @@ public final class Log {
      */
     public static void d(@NonNull LogDomain domain, @NonNull String msg) { log(LogLevel.DEBUG, domain, null, msg); }
 
+    /**
+     * Send a DEBUG message.
+     * The message is not constructed unless the DEBUG level is enabled for the domain.
+     *
+     * @param domain The log domain.
+     * @param msg    A provider for the message you would like logged.
+     */
+    public static void d(@NonNull LogDomain domain, @NonNull Fn.Provider<String> msg) {
+        if (isLoggable(LogLevel.DEBUG, domain)) { log(LogLevel.DEBUG, domain, null, msg.get()); }
+    }
+
     /**
      * Send a DEBUG message and log the exception.
      *
@@ -152,6 +180,17 @@ public final class Log {
      */
     public static void v(@NonNull LogDomain domain, @NonNull String msg) { log(LogLevel.VERBOSE, domain, null, msg); }
 
+    /**
+     * Send a VERBOSE message.
+     * The message is not constructed unless the VERBOSE level is enabled for the domain.
+     *
+     * @param domain The log domain.
+     * @param msg    A provider for the message you would like logged.
+     */
+    public static void v(@NonNull LogDomain domain, @NonNull Fn.Provider<String> msg) {
+        if (isLoggable(LogLevel.VERBOSE, domain)) { log(LogLevel.VERBOSE, domain, null, msg.get()); }
+    }
+
     /**
      * Send a VERBOSE message and log the exception.
      *
@@ -194,6 +233,17 @@ public final class Log {
      */
     public static void i(@NonNull LogDomain domain, @NonNull String msg) { log(LogLevel.INFO, domain, null, msg); }
 
+    /**
+     * Send a INFO message.
+     * The message is not constructed unless the INFO level is enabled for the domain.
+     *
+     * @param domain The log domain.
+     * @param msg    A provider for the message you would like logged.
+     */
+    public static void i(@NonNull LogDomain domain, @NonNull Fn.Provider<String> msg) {
+        if (isLoggable(LogLevel.INFO, domain)) { log(LogLevel.INFO, domain, null, msg.get()); }
+    }
+
     public static void info(@NonNull LogDomain domain, @NonNull String msg) { i(domain, msg); }
 
     /**
@@ -318,6 +368,102 @@ public final class Log {
         log(LogLevel.ERROR, domain, err, msg, args);
     }
 
+    /**
+     * Send a message that originated in LiteCore to the console and custom loggers.
+     * If asynchronous delivery is enabled, the message is queued and this method returns immediately.
+     *
+     * @param level  The log level.
+     * @param domain The log domain.
+     * @param msg    The message.
+     */
+    public static void sendCoreMessageToLoggers(
+        @NonNull LogLevel level,
+        @NonNull LogDomain domain,
+        @NonNull String msg) {
+        final LogQueue queue = asyncQueue;
+        if ((queue != null) && queue.offer(level, domain, msg, true)) { return; }
+        deliverFromCore(level, domain, msg);
+    }
+
+    /**
+     * Enable or disable asynchronous delivery of log messages.
+     * When enabled, messages are queued on a bounded ring buffer and delivered
+     * to the loggers on a single background thread.  If the buffer is full, messages are dropped.
+     * Disabling asynchronous delivery delivers any messages that are still queued.
+     *
+     * @param async    true to enable asynchronous delivery
+     * @param capacity the capacity of the queue of undelivered messages
+     */
+    public static void setAsyncDelivery(boolean async, int capacity) {
+        final LogQueue oldQueue;
+        synchronized (ASYNC_LOCK) {
+            if (async == (asyncQueue != null)) { return; }
+
+            oldQueue = asyncQueue;
+            asyncQueue = (!async) ? null : new LogQueue(capacity, Log::deliver);
+            if (oldQueue != null) { droppedMessages += oldQueue.getDroppedCount(); }
+        }
+
+        if (oldQueue != null) { oldQueue.stop(ASYNC_STOP_TIMEOUT_SEC, TimeUnit.SECONDS); }
+    }
+
+    public static boolean isAsyncDelivery() { return asyncQueue != null; }
+
+    /**
+     * Get the number of messages that have been dropped, since startup, because the async queue was full.
+     *
+     * @return the number of dropped messages.
+     */
+    public static long getDroppedMessageCount() {
+        synchronized (ASYNC_LOCK) {
+            final LogQueue queue = asyncQueue;
+            return droppedMessages + ((queue == null) ? 0 : queue.getDroppedCount());
+        }
+    }
+
+    /**
+     * Get a structured log event to populate and emit.
+     * Returns null if there is no structured logger or if it would not log an event at this level.
+     * Populate the event with fields and then call {@link StructuredLogEvent#emit()}.
+     *
+     * @param level  The log level.
+     * @param domain The log domain.
+     * @param name   The event name.
+     * @return a pooled event or null.
+     */
+    @Nullable
+    public static StructuredLogEvent event(
+        @NonNull LogLevel level,
+        @NonNull LogDomain domain,
+        @NonNull String name) {
+        final StructuredLogger logger = Database.log.getStructured();
+        if ((logger == null) || (level.compareTo(logger.getLevel()) < 0)) { return null; }
+        return StructuredLogEvent.obtain(level, domain, name);
+    }
+
+    /**
+     * Check whether a message at the given level and domain would be logged by any of the loggers.
+     * Callers can use this to avoid building messages that will never be seen.
+     * Note that there is no way to tell when the level of a custom logger changes:
+     * it is polled, here, every time.
+     *
+     * @param level  The log level.
+     * @param domain The log domain.
+     * @return true if at least one logger will log the message.
+     */
+    public static boolean isLoggable(@NonNull LogLevel level, @NonNull LogDomain domain) {
+        final com.couchbase.lite.Log logger = Database.log;
+
+        final ConsoleLogger console = logger.getConsole();
+        if ((level.compareTo(console.getLevel()) >= 0) && console.getDomains().contains(domain)) { return true; }
+
+        final FileLogger file = logger.getFile();
+        if ((file.getConfig() != null) && (level.compareTo(file.getLevel()) >= 0)) { return true; }
+
+        final Logger custom = logger.getCustom();
+        return (custom != null) && (level.compareTo(custom.getLevel()) >= 0);
+    }
+
     @NonNull
     public static String lookupStandardMessage(@Nullable String msg) {
         if (msg == null) { return DEFAULT_MSG; }  // Don't let logging errors cause an abort
@@ -392,6 +538,10 @@ public final class Log {
         // Don't let logging errors cause a failure
         if (level == null) { level = LogLevel.INFO; }
         if (domain == null) { domain = LogDomain.DATABASE; }
+
+        // Don't bother formatting a message that no one will see
+        if (!isLoggable(level, domain)) { return; }
+
         String message = lookupStandardMessage(msg);
 
         if ((args != null) && (args.length > 0)) { message = formatMessage(message, args); }
@@ -412,6 +562,17 @@ public final class Log {
     }
 
     private static void sendToLoggers(LogLevel level, LogDomain domain, String msg) {
+        final LogQueue queue = asyncQueue;
+        if ((queue != null) && queue.offer(level, domain, msg, false)) { return; }
+        deliver(level, domain, msg, false);
+    }
+
+    private static void deliver(LogLevel level, LogDomain domain, String msg, boolean fromCore) {
+        if (fromCore) {
+            deliverFromCore(level, domain, msg);
+            return;
+        }
+
         final com.couchbase.lite.Log logger = Database.log;
 
         // Console logging:
@@ -437,4 +598,19 @@ public final class Log {
             catch (Exception ignore) { }
         }
     }
+
+    // Core writes its own messages to the log file: they go only to the console and custom loggers.
+    private static void deliverFromCore(LogLevel level, LogDomain domain, String msg) {
+        final com.couchbase.lite.Log logger = Database.log;
+
+        final ConsoleLogger console = logger.getConsole();
+        try { console.log(level, domain, msg); }
+        catch (RuntimeException ignore) { }
+
+        final Logger custom = logger.getCustom();
+        if (custom != null) {
+            try { custom.log(level, domain, msg); }
+            catch (RuntimeException ignore) { }
+        }
+    }
 }
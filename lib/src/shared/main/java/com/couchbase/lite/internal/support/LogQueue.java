@@ -0,0 +1,284 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal.support;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.couchbase.lite.LogDomain;
+import com.couchbase.lite.LogLevel;
+import com.couchbase.lite.internal.utils.Preconditions;
+
+
+/**
+ * A bounded, lock-free, multi-producer, single-consumer ring buffer of log messages,
+ * drained by a single background thread.
+ * <p>
+ * Any thread may offer a message.  If the buffer is full, the message is dropped and counted:
+ * offering never blocks.  The ring's slots are allocated once, up front, and reused.
+ * The drain thread delivers messages, in order, in batches, and sleeps when the ring is empty.
+ * <p>
+ * Slot sequence numbers follow Dmitry Vyukov's bounded MPMC queue: a slot whose sequence number
+ * equals the producer position is free; one whose sequence number is one more than the consumer
+ * position holds a message.
+ */
+public final class LogQueue {
+    //---------------------------------------------
+    // Constants
+    //---------------------------------------------
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int BATCH_SIZE = 256;
+
+    // Safety net: the drain thread never sleeps longer than this.
+    private static final long MAX_IDLE_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+
+    //---------------------------------------------
+    // Types
+    //---------------------------------------------
+    @FunctionalInterface
+    interface Delivery {
+        void deliver(@NonNull LogLevel level, @NonNull LogDomain domain, @NonNull String msg, boolean fromCore);
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+
+        @Nullable
+        LogLevel level;
+        @Nullable
+        LogDomain domain;
+        @Nullable
+        String message;
+        boolean fromCore;
+
+        Slot(long sequence) { this.sequence = sequence; }
+    }
+
+
+    //---------------------------------------------
+    // Instance members
+    //---------------------------------------------
+    @NonNull
+    private final Slot[] ring;
+    private final int mask;
+
+    @NonNull
+    private final Delivery delivery;
+
+    @NonNull
+    private final AtomicLong tail = new AtomicLong();
+    @NonNull
+    private final AtomicLong dropped = new AtomicLong();
+    @NonNull
+    private final AtomicBoolean idle = new AtomicBoolean();
+    // Producers that are between their check of stopped and the publication of their message
+    @NonNull
+    private final AtomicInteger offering = new AtomicInteger();
+
+    @NonNull
+    private final Thread drainThread;
+
+    private volatile boolean stopped;
+
+    // Accessed only from the drain thread
+    private long head;
+    private long reportedDrops;
+
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+
+    /**
+     * Create a new log queue and start its drain thread.
+     *
+     * @param capacity the maximum number of undelivered messages.  Rounded up to a power of two.
+     * @param delivery delivers messages to the loggers.
+     */
+    LogQueue(int capacity, @NonNull Delivery delivery) {
+        Preconditions.assertThat(capacity, "capacity must be > 0", x -> x > 0);
+        Preconditions.assertNotNull(delivery, "delivery");
+
+        final int size = (capacity <= 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        ring = new Slot[size];
+        for (int i = 0; i < size; i++) { ring[i] = new Slot(i); }
+        mask = size - 1;
+
+        this.delivery = delivery;
+
+        drainThread = new Thread(this::drain, "CBL-log");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    //---------------------------------------------
+    // Package-private methods
+    //---------------------------------------------
+
+    /**
+     * Enqueue a message for delivery.  Never blocks.
+     * If the queue is full, the message is dropped.
+     *
+     * @return false if the queue has been stopped: the caller is responsible for the message.
+     */
+    boolean offer(@NonNull LogLevel level, @NonNull LogDomain domain, @NonNull String msg, boolean fromCore) {
+        offering.incrementAndGet();
+        try { return enqueue(level, domain, msg, fromCore); }
+        finally { offering.decrementAndGet(); }
+    }
+
+    long getDroppedCount() { return dropped.get(); }
+
+    /**
+     * Stop accepting messages and deliver any that are still queued.
+     *
+     * @param timeout time to wait for the queue to drain
+     * @param unit    time unit for the wait
+     * @return true if the queue drained completely.
+     */
+    boolean stop(long timeout, @NonNull TimeUnit unit) {
+        stopped = true;
+        LockSupport.unpark(drainThread);
+        try { drainThread.join(unit.toMillis(timeout)); }
+        catch (InterruptedException ignore) { }
+        return !drainThread.isAlive();
+    }
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+
+    private boolean enqueue(
+        @NonNull LogLevel level,
+        @NonNull LogDomain domain,
+        @NonNull String msg,
+        boolean fromCore) {
+        if (stopped) { return false; }
+
+        long pos = tail.get();
+        while (true) {
+            final Slot slot = ring[(int) (pos & mask)];
+            final long diff = slot.sequence - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slot.level = level;
+                    slot.domain = domain;
+                    slot.message = msg;
+                    slot.fromCore = fromCore;
+                    // publish the message
+                    slot.sequence = pos + 1;
+                    break;
+                }
+                pos = tail.get();
+            }
+            else if (diff < 0) {
+                dropped.incrementAndGet();
+                return true;
+            }
+            else {
+                pos = tail.get();
+            }
+        }
+
+        if (idle.get() && idle.compareAndSet(true, false)) { LockSupport.unpark(drainThread); }
+
+        return true;
+    }
+
+    // Runs on the drain thread
+    private void drain() {
+        while (true) {
+            final int n = deliverBatch();
+
+            if (n > 0) { continue; }
+
+            if (stopped) {
+                drainStopped();
+                return;
+            }
+
+            idle.set(true);
+            // a message may have arrived since the batch was delivered
+            if (hasNext()) {
+                idle.set(false);
+                continue;
+            }
+            LockSupport.parkNanos(this, MAX_IDLE_NS);
+            idle.set(false);
+        }
+    }
+
+    // A producer that saw the queue running just before it stopped may not have published its message yet.
+    // Once no producer is in offer, any later one will see that the queue is stopped: deliver what remains.
+    private void drainStopped() {
+        while (true) {
+            final boolean quiescent = offering.get() == 0;
+            if ((deliverBatch() <= 0) && quiescent) { return; }
+            Thread.yield();
+        }
+    }
+
+    private int deliverBatch() {
+        int n = 0;
+        for (; n < BATCH_SIZE; n++) {
+            final Slot slot = ring[(int) (head & mask)];
+            if (slot.sequence != head + 1) { break; }
+
+            final LogLevel level = slot.level;
+            final LogDomain domain = slot.domain;
+            final String msg = slot.message;
+            final boolean fromCore = slot.fromCore;
+
+            slot.level = null;
+            slot.domain = null;
+            slot.message = null;
+            // free the slot
+            slot.sequence = head + ring.length;
+            head++;
+
+            if ((level == null) || (domain == null) || (msg == null)) { continue; }
+
+            try { delivery.deliver(level, domain, msg, fromCore); }
+            catch (RuntimeException ignore) { }
+        }
+
+        reportDrops();
+
+        return n;
+    }
+
+    private boolean hasNext() { return ring[(int) (head & mask)].sequence == head + 1; }
+
+    private void reportDrops() {
+        final long drops = dropped.get();
+        if (drops == reportedDrops) { return; }
+
+        final String msg = "Log queue overflow: dropped " + (drops - reportedDrops) + " messages";
+        reportedDrops = drops;
+
+        try { delivery.deliver(LogLevel.WARNING, LogDomain.DATABASE, msg, false); }
+        catch (RuntimeException ignore) { }
+    }
+}
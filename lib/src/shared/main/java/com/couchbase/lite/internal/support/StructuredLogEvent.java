@@ -0,0 +1,278 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal.support;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+import com.couchbase.lite.Database;
+import com.couchbase.lite.LogDomain;
+import com.couchbase.lite.LogEvent;
+import com.couchbase.lite.LogLevel;
+import com.couchbase.lite.StructuredLogger;
+
+
+/**
+ * The implementation of a structured log event.
+ * Obtain one from {@link Log#event(LogLevel, LogDomain, String)}, populate it and emit it.
+ * <p>
+ * Events are pooled per thread: an event must not be used after it has been emitted.
+ */
+public final class StructuredLogEvent implements LogEvent {
+    //---------------------------------------------
+    // Constants
+    //---------------------------------------------
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Each thread reuses a single event.
+    private static final ThreadLocal<StructuredLogEvent> POOL = new ThreadLocal<StructuredLogEvent>() {
+        @Override
+        protected StructuredLogEvent initialValue() { return new StructuredLogEvent(true); }
+    };
+
+
+    //---------------------------------------------
+    // Class methods
+    //---------------------------------------------
+
+    // Use Log.event(), which checks that there is a logger that will accept the event.
+    @NonNull
+    static StructuredLogEvent obtain(@NonNull LogLevel level, @NonNull LogDomain domain, @NonNull String name) {
+        StructuredLogEvent event = POOL.get();
+
+        // the pooled event is in use: this event is being logged from within a logger
+        if (event.inUse) { event = new StructuredLogEvent(false); }
+
+        event.inUse = true;
+        event.level = level;
+        event.domain = domain;
+        event.name = name;
+        event.timestamp = System.currentTimeMillis();
+
+        return event;
+    }
+
+
+    //---------------------------------------------
+    // Instance members
+    //---------------------------------------------
+    private final boolean pooled;
+
+    private boolean inUse;
+
+    @NonNull
+    private LogLevel level = LogLevel.NONE;
+    @NonNull
+    private LogDomain domain = LogDomain.DATABASE;
+    @NonNull
+    private String name = "";
+    private long timestamp;
+
+    private int count;
+    @NonNull
+    private String[] keys = new String[INITIAL_CAPACITY];
+    @NonNull
+    private FieldType[] types = new FieldType[INITIAL_CAPACITY];
+    // numeric and boolean values
+    @NonNull
+    private long[] bits = new long[INITIAL_CAPACITY];
+    // string values
+    @NonNull
+    private String[] strings = new String[INITIAL_CAPACITY];
+
+
+    //---------------------------------------------
+    // Constructors
+    //---------------------------------------------
+    private StructuredLogEvent(boolean pooled) { this.pooled = pooled; }
+
+
+    //---------------------------------------------
+    // LogEvent
+    //---------------------------------------------
+    @NonNull
+    @Override
+    public LogLevel getLevel() { return level; }
+
+    @NonNull
+    @Override
+    public LogDomain getDomain() { return domain; }
+
+    @NonNull
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getTimestamp() { return timestamp; }
+
+    @Override
+    public int getFieldCount() { return count; }
+
+    @NonNull
+    @Override
+    public String getKey(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    @NonNull
+    @Override
+    public FieldType getType(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    @Override
+    public int indexOf(@NonNull String key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i].equals(key)) { return i; }
+        }
+        return -1;
+    }
+
+    @Override
+    public long getLong(int index) {
+        checkIndex(index);
+        switch (types[index]) {
+            case LONG:
+            case BOOLEAN:
+                return bits[index];
+            case DOUBLE:
+                return (long) Double.longBitsToDouble(bits[index]);
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        checkIndex(index);
+        switch (types[index]) {
+            case LONG:
+            case BOOLEAN:
+                return bits[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(bits[index]);
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public boolean getBoolean(int index) { return getLong(index) != 0; }
+
+    @Nullable
+    @Override
+    public String getString(int index) {
+        checkIndex(index);
+        switch (types[index]) {
+            case LONG:
+                return String.valueOf(bits[index]);
+            case DOUBLE:
+                return String.valueOf(Double.longBitsToDouble(bits[index]));
+            case BOOLEAN:
+                return String.valueOf(bits[index] != 0);
+            default:
+                return strings[index];
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder(name).append('{');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) { buf.append(", "); }
+            buf.append(keys[i]).append('=').append(getString(i));
+        }
+        return buf.append('}').toString();
+    }
+
+
+    //---------------------------------------------
+    // Public methods: writing
+    //---------------------------------------------
+    @NonNull
+    public StructuredLogEvent put(@NonNull String key, long value) { return add(key, FieldType.LONG, value, null); }
+
+    @NonNull
+    public StructuredLogEvent put(@NonNull String key, double value) {
+        return add(key, FieldType.DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    @NonNull
+    public StructuredLogEvent put(@NonNull String key, boolean value) {
+        return add(key, FieldType.BOOLEAN, (value) ? 1 : 0, null);
+    }
+
+    @NonNull
+    public StructuredLogEvent put(@NonNull String key, @Nullable String value) {
+        return add(key, FieldType.STRING, 0, value);
+    }
+
+    /**
+     * Deliver this event to the structured logger, if there is one, and return it to the pool.
+     * The event must not be used after this call.
+     */
+    public void emit() {
+        try {
+            final StructuredLogger logger = Database.log.getStructured();
+            if ((logger != null) && (level.compareTo(logger.getLevel()) >= 0)) { logger.log(this); }
+        }
+        catch (RuntimeException ignore) { }
+        finally {
+            recycle();
+        }
+    }
+
+
+    //---------------------------------------------
+    // Private methods
+    //---------------------------------------------
+    @NonNull
+    private StructuredLogEvent add(@NonNull String key, @NonNull FieldType type, long value, @Nullable String str) {
+        if (count >= keys.length) {
+            final int n = keys.length * 2;
+            keys = Arrays.copyOf(keys, n);
+            types = Arrays.copyOf(types, n);
+            bits = Arrays.copyOf(bits, n);
+            strings = Arrays.copyOf(strings, n);
+        }
+
+        keys[count] = key;
+        types[count] = type;
+        bits[count] = value;
+        strings[count] = str;
+        count++;
+
+        return this;
+    }
+
+    private void recycle() {
+        // don't hold references to strings
+        Arrays.fill(strings, 0, count, null);
+        count = 0;
+        if (pooled) { inUse = false; }
+    }
+
+    private void checkIndex(int index) {
+        if ((index < 0) || (index >= count)) {
+            throw new IndexOutOfBoundsException("index " + index + " not in [0, " + count + ")");
+        }
+    }
+}
@@ -17,32 +17,272 @@
 //
 package com.couchbase.lite.internal.utils;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.time.Instant;
 import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
 
 
+/**
+ * ISO-8601 date conversion, without SimpleDateFormat.
+ * <p>
+ * Dates are written as UTC, with millisecond precision: "yyyy-MM-ddTHH:mm:ss.SSSZ".
+ * The parser accepts the variants that LiteCore produces and accepts:
+ * <ul>
+ * <li>a date only: "yyyy-MM-dd" (midnight UTC)</li>
+ * <li>'T' or ' ' between the date and the time</li>
+ * <li>a time with or without seconds, and with a fraction of any length (truncated to millis)</li>
+ * <li>a zone of 'Z', "+HH:mm", "+HHmm" or "+HH", or no zone at all (UTC)</li>
+ * </ul>
+ * Dates use the proleptic Gregorian calendar.  As in java.time, a year that does not fit in four digits
+ * is written with a sign and at least four digits: e.g., "+10000-01-01T00:00:00.000Z" or "-0001-12-31...".
+ */
 public final class DateUtils {
     private DateUtils() { }
 
-    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
-        protected synchronized SimpleDateFormat initialValue() {
-            final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ENGLISH);
-            sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
-            return sdf;
+    /**
+     * The value returned by {@link #parseEpochMillis(String)} when the string is not a date.
+     */
+    public static final long INVALID_DATE = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    // days from 0000-03-01 to 1970-01-01
+    private static final long DAYS_0000_TO_1970 = 719468L;
+    private static final long DAYS_PER_ERA = 146097L;
+
+    private static final int FORMATTED_LENGTH = 24;
+    // enough for any year that can be represented in epoch millis
+    private static final int MAX_YEAR_DIGITS = 9;
+
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    //-------------------------------------------------------------------------
+    // Formatting
+    //-------------------------------------------------------------------------
+
+    @NonNull
+    public static String toJson(@NonNull Date date) { return toJson(date.getTime()); }
+
+    @NonNull
+    public static String toJson(long epochMillis) {
+        final long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int ms = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        final long z = days + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(z, DAYS_PER_ERA);
+        final int doe = (int) (z - era * DAYS_PER_ERA);
+        final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final int mp = (5 * doy + 2) / 153;
+        final int day = doy - (153 * mp + 2) / 5 + 1;
+        final int month = (mp < 10) ? mp + 3 : mp - 9;
+        final long year = yoe + era * 400 + ((month <= 2) ? 1 : 0);
+
+        final boolean expanded = (year < 0) || (year > 9999);
+
+        final char[] buf = new char[FORMATTED_LENGTH];
+        if (!expanded) { putDigits(buf, 0, (int) year, 4); }
+        buf[4] = '-';
+        putDigits(buf, 5, month, 2);
+        buf[7] = '-';
+        putDigits(buf, 8, day, 2);
+        buf[10] = 'T';
+        putDigits(buf, 11, (int) (ms / MILLIS_PER_HOUR), 2);
+        ms %= MILLIS_PER_HOUR;
+        buf[13] = ':';
+        putDigits(buf, 14, (int) (ms / MILLIS_PER_MINUTE), 2);
+        ms %= MILLIS_PER_MINUTE;
+        buf[16] = ':';
+        putDigits(buf, 17, (int) (ms / MILLIS_PER_SECOND), 2);
+        buf[19] = '.';
+        putDigits(buf, 20, (int) (ms % MILLIS_PER_SECOND), 3);
+        buf[23] = 'Z';
+
+        return (!expanded)
+            ? new String(buf)
+            : expandedYear(year) + new String(buf, 4, FORMATTED_LENGTH - 4);
+    }
+
+    //-------------------------------------------------------------------------
+    // Parsing
+    //-------------------------------------------------------------------------
+
+    @Nullable
+    public static Date fromJson(@Nullable String json) {
+        final long millis = parseEpochMillis(json);
+        return (millis == INVALID_DATE) ? null : new Date(millis);
+    }
+
+    @Nullable
+    public static Instant toInstant(@Nullable String json) {
+        final long millis = parseEpochMillis(json);
+        return (millis == INVALID_DATE) ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /**
+     * Parse an ISO-8601 date.
+     *
+     * @param json the string to parse
+     * @return milliseconds since the epoch, or INVALID_DATE if the string is null or is not a date
+     */
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    public static long parseEpochMillis(@Nullable String json) {
+        if (json == null) { return INVALID_DATE; }
+
+        final int len = json.length();
+
+        // An expanded year has a sign and at least four digits: the rest of the string is shifted by the excess.
+        int yearEnd = 0;
+        final boolean expanded = (len > 0) && ((json.charAt(0) == '+') || (json.charAt(0) == '-'));
+        if (expanded) { yearEnd++; }
+        while ((yearEnd < len) && (digits(json, yearEnd, 1) >= 0)) { yearEnd++; }
+        final int nYearDigits = expanded ? yearEnd - 1 : yearEnd;
+        if (expanded ? ((nYearDigits < 4) || (nYearDigits > MAX_YEAR_DIGITS)) : (nYearDigits != 4)) {
+            return INVALID_DATE;
+        }
+        final int o = yearEnd - 4;
+
+        if ((len < o + 10) || (json.charAt(o + 4) != '-') || (json.charAt(o + 7) != '-')) { return INVALID_DATE; }
+
+        final int yearDigits = digits(json, yearEnd - nYearDigits, nYearDigits);
+        final int year = (expanded && (json.charAt(0) == '-')) ? -yearDigits : yearDigits;
+        final int month = digits(json, o + 5, 2);
+        final int day = digits(json, o + 8, 2);
+        if ((month < 1) || (month > 12) || (day < 1) || (day > DAYS_IN_MONTH[month - 1])) { return INVALID_DATE; }
+        if ((month == 2) && (day == 29) && !isLeapYear(year)) { return INVALID_DATE; }
+
+        final long days = epochDay(year, month, day);
+        if (len == o + 10) { return toEpochMillis(days, 0L); }
+
+        final char sep = json.charAt(o + 10);
+        if (((sep != 'T') && (sep != ' ')) || (len < o + 16) || (json.charAt(o + 13) != ':')) {
+            return INVALID_DATE;
         }
-    };
 
-    public static String toJson(Date date) { return DATE_FORMAT.get().format(date); }
+        final int hour = digits(json, o + 11, 2);
+        final int minute = digits(json, o + 14, 2);
+        if ((hour < 0) || (hour > 23) || (minute < 0) || (minute > 59)) { return INVALID_DATE; }
+        long millis = hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE;
+
+        int pos = o + 16;
+        if ((pos < len) && (json.charAt(pos) == ':')) {
+            final int second = digits(json, pos + 1, 2);
+            // allow a leap second
+            if ((second < 0) || (second > 60)) { return INVALID_DATE; }
+            millis += second * MILLIS_PER_SECOND;
+            pos += 3;
+
+            if ((pos < len) && (json.charAt(pos) == '.')) {
+                pos++;
+                final int start = pos;
+                int frac = 0;
+                while (pos < len) {
+                    final int d = json.charAt(pos) - '0';
+                    if ((d < 0) || (d > 9)) { break; }
+                    if (pos - start < 3) { frac = frac * 10 + d; }
+                    pos++;
+                }
+                final int n = pos - start;
+                if (n <= 0) { return INVALID_DATE; }
+                for (int i = n; i < 3; i++) { frac *= 10; }
+                millis += frac;
+            }
+        }
 
-    public static Date fromJson(String json) {
-        if (json == null) { return null; }
+        // no zone: UTC
+        if (pos >= len) { return toEpochMillis(days, millis); }
 
-        try { return DATE_FORMAT.get().parse(json); }
-        catch (ParseException ignore) { }
+        final char zone = json.charAt(pos++);
+        if (zone == 'Z') { return (pos == len) ? toEpochMillis(days, millis) : INVALID_DATE; }
+        if ((zone != '+') && (zone != '-')) { return INVALID_DATE; }
+
+        final int offHours = digits(json, pos, 2);
+        if ((offHours < 0) || (offHours > 18)) { return INVALID_DATE; }
+        pos += 2;
+
+        int offMinutes = 0;
+        if (pos < len) {
+            if (json.charAt(pos) == ':') { pos++; }
+            offMinutes = digits(json, pos, 2);
+            if ((offMinutes < 0) || (offMinutes > 59)) { return INVALID_DATE; }
+            pos += 2;
+        }
+        if (pos != len) { return INVALID_DATE; }
 
-        return null;
+        final long offset = offHours * MILLIS_PER_HOUR + offMinutes * MILLIS_PER_MINUTE;
+        return toEpochMillis(days, (zone == '+') ? millis - offset : millis + offset);
+    }
+
+    /**
+     * Parse an ISO-8601 date, as epoch millis, for the getEpochMillis accessors.
+     * Dates that are missing or unparsable read as 0, like other missing numeric values.
+     *
+     * @param json the string to parse
+     * @return milliseconds since the epoch, or 0 if the string is null or is not a date
+     */
+    public static long toEpochMillis(@Nullable String json) {
+        final long millis = parseEpochMillis(json);
+        return (millis == INVALID_DATE) ? 0L : millis;
+    }
+
+    //-------------------------------------------------------------------------
+    // Private methods
+    //-------------------------------------------------------------------------
+
+    // Returns INVALID_DATE if the date is out of range.
+    // Before the epoch, start from the end of the day, so that the earliest day does not overflow.
+    private static long toEpochMillis(long days, long millis) {
+        try {
+            return (days >= 0)
+                ? Math.addExact(Math.multiplyExact(days, MILLIS_PER_DAY), millis)
+                : Math.addExact(Math.multiplyExact(days + 1, MILLIS_PER_DAY), millis - MILLIS_PER_DAY);
+        }
+        catch (ArithmeticException e) { return INVALID_DATE; }
+    }
+
+    @NonNull
+    private static String expandedYear(long year) {
+        final String digits = Long.toString(Math.abs(year));
+        final StringBuilder buf = new StringBuilder(MAX_YEAR_DIGITS + 1).append((year < 0) ? '-' : '+');
+        for (int i = digits.length(); i < 4; i++) { buf.append('0'); }
+        return buf.append(digits).toString();
+    }
+
+    private static boolean isLeapYear(int year) {
+        return ((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0));
+    }
+
+    // Days since 1970-01-01, in the proleptic Gregorian calendar.
+    private static long epochDay(int year, int month, int day) {
+        final int y = (month <= 2) ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final int yoe = (int) (y - era * 400);
+        final int doy = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * DAYS_PER_ERA + doe - DAYS_0000_TO_1970;
+    }
+
+    // Returns -1 if the substring is not n decimal digits.
+    private static int digits(@NonNull String str, int start, int n) {
+        if (start + n > str.length()) { return -1; }
+        int val = 0;
+        for (int i = start; i < start + n; i++) {
+            final int d = str.charAt(i) - '0';
+            if ((d < 0) || (d > 9)) { return -1; }
+            val = val * 10 + d;
+        }
+        return val;
+    }
+
+    private static void putDigits(@NonNull char[] buf, int start, int val, int n) {
+        for (int i = start + n - 1; i >= start; i--) {
+            buf[i] = (char) ('0' + (val % 10));
+            val /= 10;
+        }
     }
 }
@@ -17,6 +17,11 @@
 //
 package com.couchbase.lite.internal.utils;
 
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -27,8 +32,122 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.couchbase.lite.utils.Fn;
+
 
 public final class JsonUtils {
+    // Buffers that grow larger than this are not kept for reuse.
+    private static final int MAX_CACHED_BUFFER = 64 * 1024;
+    private static final int INITIAL_BUFFER = 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+    /**
+     * Serialize a value (a tree of Maps, Lists, Strings, Numbers, Booleans and nulls) as JSON,
+     * writing directly into a reusable, per-thread buffer.
+     *
+     * @param value the value to serialize
+     * @return the JSON string
+     * @throws IllegalArgumentException if the value contains a number that JSON cannot represent
+     */
+    @NonNull
+    public static String toJsonString(@Nullable Object value) { return buildJsonString(out -> writeJson(out, value)); }
+
+    /**
+     * Run a writer against a reusable, per-thread buffer and return what it wrote.
+     * The call is reentrant: a nested call gets a fresh buffer.
+     *
+     * @param writer writes JSON into the buffer
+     * @return the contents of the buffer
+     */
+    @NonNull
+    public static String buildJsonString(@NonNull Fn.Consumer<StringBuilder> writer) {
+        StringBuilder buf = BUFFER.get();
+        if (buf == null) { buf = new StringBuilder(INITIAL_BUFFER); }
+        else { BUFFER.set(null); }
+
+        try {
+            writer.accept(buf);
+            return buf.toString();
+        }
+        finally {
+            if (buf.capacity() <= MAX_CACHED_BUFFER) {
+                buf.setLength(0);
+                BUFFER.set(buf);
+            }
+        }
+    }
+
+    /**
+     * Append the JSON serialization of a value to the passed buffer.
+     *
+     * @param out   the buffer
+     * @param value a tree of Maps, Lists, Strings, Numbers, Booleans and nulls
+     * @throws IllegalArgumentException if the value contains a number that JSON cannot represent
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeJson(@NonNull StringBuilder out, @Nullable Object value) {
+        if (value == null) { out.append("null"); }
+        else if (value instanceof String) { writeString(out, (String) value); }
+        else if (value instanceof Boolean) { out.append(((Boolean) value).booleanValue()); }
+        else if (value instanceof Number) { writeNumber(out, (Number) value); }
+        else if (value instanceof Map) { writeObject(out, (Map<?, Object>) value); }
+        else if (value instanceof List) { writeArray(out, (List<Object>) value); }
+        else if (value == JSONObject.NULL) { out.append("null"); }
+        else { writeString(out, value.toString()); }
+    }
+
+    /**
+     * Append a JSON string literal, quoted and escaped, to the passed buffer.
+     *
+     * @param out the buffer
+     * @param str the string
+     */
+    public static void writeString(@NonNull StringBuilder out, @NonNull String str) {
+        out.append('"');
+        final int n = str.length();
+        int run = 0;
+        for (int i = 0; i < n; i++) {
+            final char c = str.charAt(i);
+            if ((c >= 0x20) && (c != '"') && (c != '\\') && (c != '\u2028') && (c != '\u2029')) { continue; }
+
+            out.append(str, run, i);
+            run = i + 1;
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                default:
+                    out.append("\\u")
+                        .append(HEX[(c >> 12) & 0xf])
+                        .append(HEX[(c >> 8) & 0xf])
+                        .append(HEX[(c >> 4) & 0xf])
+                        .append(HEX[c & 0xf]);
+            }
+        }
+        out.append(str, run, n).append('"');
+    }
+
     @SuppressWarnings("unchecked")
     public static JSONObject toJson(Map<String, Object> map) throws JSONException {
         if (map == null) { return null; }
@@ -82,4 +201,49 @@ public final class JsonUtils {
     }
 
     private JsonUtils() { }
+
+    private static void writeNumber(@NonNull StringBuilder out, @NonNull Number num) {
+        if ((num instanceof Integer) || (num instanceof Long) || (num instanceof Short) || (num instanceof Byte)) {
+            out.append(num.longValue());
+            return;
+        }
+
+        if ((num instanceof BigInteger) || (num instanceof BigDecimal)) {
+            out.append(num.toString());
+            return;
+        }
+
+        final double d = num.doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("JSON cannot represent the number " + num);
+        }
+
+        // Like org.json: write integral values without a fraction.
+        final long l = (long) d;
+        if ((l == d) && (Math.abs(l) < (1L << 53))) { out.append(l); }
+        else { out.append(num.toString()); }
+    }
+
+    private static void writeObject(@NonNull StringBuilder out, @NonNull Map<?, Object> map) {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, Object> entry : map.entrySet()) {
+            if (!first) { out.append(','); }
+            first = false;
+            writeString(out, String.valueOf(entry.getKey()));
+            out.append(':');
+            writeJson(out, entry.getValue());
+        }
+        out.append('}');
+    }
+
+    private static void writeArray(@NonNull StringBuilder out, @NonNull List<Object> list) {
+        out.append('[');
+        final int n = list.size();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) { out.append(','); }
+            writeJson(out, list.get(i));
+        }
+        out.append(']');
+    }
 }
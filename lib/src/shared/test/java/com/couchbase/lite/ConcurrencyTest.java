@@ -33,6 +33,7 @@ import com.couchbase.lite.utils.Report;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -141,6 +142,45 @@ public class ConcurrencyTest extends BaseDbTest {
         concurrentValidator(kNThreads, threadIndex -> readDocs(docIDs, kNRounds), kWaitInSec);
     }
 
+    @Test
+    @ConcurrencyUnitTest
+    public void testConcurrentReadSharedDocument() throws CouchbaseLiteException {
+        final int kNRounds = 500;
+        final int kNThreads = 8;
+        final int kWaitInSec = 180;
+
+        final MutableDocument mDoc = createDocumentWithTag("Shared");
+        baseTestDb.save(mDoc);
+
+        // a single immutable document, read by every thread
+        final Document doc = baseTestDb.getDocument(mDoc.getId());
+        final Dictionary[] addresses = new Dictionary[kNThreads];
+        final Array[] phoneLists = new Array[kNThreads];
+
+        concurrentValidator(
+            kNThreads,
+            threadIndex -> {
+                for (int i = 0; i < kNRounds; i++) {
+                    assertEquals("Daniel", doc.getString("firstName"));
+                    final Dictionary address = doc.getDictionary("address");
+                    assertEquals("Mountain View", address.getString("city"));
+                    assertEquals(3, address.count());
+                    final Array phones = doc.getArray("phones");
+                    assertEquals("650-123-0002", phones.getString(1));
+                    assertEquals(2, phones.toList().size());
+                    addresses[threadIndex] = address;
+                    phoneLists[threadIndex] = phones;
+                }
+            },
+            kWaitInSec);
+
+        // every thread sees the same cached children
+        for (int i = 1; i < kNThreads; i++) {
+            assertSame(addresses[0], addresses[i]);
+            assertSame(phoneLists[0], phoneLists[i]);
+        }
+    }
+
     @Test
     @ConcurrencyUnitTest
     public void testConcurrentReadInBatch() throws CouchbaseLiteException {
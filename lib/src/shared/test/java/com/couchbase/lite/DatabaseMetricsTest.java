@@ -0,0 +1,142 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+
+public class DatabaseMetricsTest {
+    @After
+    public void tearDownDatabaseMetricsTest() {
+        DatabaseMetrics.setEnabled(false);
+        DatabaseMetrics.setRegistry(null);
+    }
+
+    @Test
+    public void testDisabled() {
+        DatabaseMetrics.setEnabled(false);
+        assertNull(DatabaseMetrics.open("db", "/tmp/db"));
+        assertEquals(0, DatabaseMetrics.getDatabaseCount());
+    }
+
+    @Test
+    public void testRecord() {
+        DatabaseMetrics.setEnabled(true);
+
+        final DatabaseMetrics metrics = DatabaseMetrics.open("db", "/tmp/db");
+        assertNotNull(metrics);
+        try {
+            metrics.recordLockWait(100);
+            metrics.recordLockWait(300);
+            metrics.recordTransaction(1000, true);
+            metrics.recordTransaction(3000, false);
+            metrics.recordSave(2000);
+            metrics.notificationQueued();
+            metrics.notificationQueued();
+            metrics.notificationDelivered();
+            metrics.setActiveLiveQueries(3);
+            metrics.setActiveReplicators(1);
+            metrics.recordPurge(7);
+
+            final DatabaseStats stats = metrics.getSnapshot();
+            assertEquals("db", stats.getName());
+            assertEquals(2, stats.getLockWaitCount());
+            assertEquals(400, stats.getLockWaitTimeNanos());
+            assertEquals(300, stats.getMaxLockWaitTimeNanos());
+            assertEquals(2, stats.getTransactionCount());
+            assertEquals(1, stats.getAbortedTransactionCount());
+            assertEquals(4000, stats.getLockHoldTimeNanos());
+            assertEquals(3000, stats.getMaxTransactionTimeNanos());
+            assertEquals(1, stats.getSaveCount());
+            assertEquals(2000, stats.getSaveTimeNanos());
+            assertEquals(1, stats.getPendingNotifications());
+            assertEquals(2, stats.getMaxPendingNotifications());
+            assertEquals(3, stats.getActiveLiveQueries());
+            assertEquals(1, stats.getActiveReplicators());
+            assertEquals(1, stats.getPurgeCount());
+            assertEquals(7, stats.getPurgedDocuments());
+        }
+        finally { DatabaseMetrics.close(metrics); }
+        assertEquals(0, DatabaseMetrics.getDatabaseCount());
+    }
+
+    @Test
+    public void testSnapshotOrder() {
+        DatabaseMetrics.setEnabled(true);
+
+        final DatabaseMetrics quiet = DatabaseMetrics.open("quiet", "/tmp/quiet");
+        final DatabaseMetrics busy = DatabaseMetrics.open("busy", "/tmp/busy");
+        assertNotNull(quiet);
+        assertNotNull(busy);
+        try {
+            quiet.recordTransaction(10, true);
+            busy.recordTransaction(10_000, true);
+
+            final List<DatabaseStats> stats = DatabaseMetrics.getSnapshot(10);
+            assertEquals(2, stats.size());
+            assertEquals("busy", stats.get(0).getName());
+            assertEquals("quiet", stats.get(1).getName());
+
+            assertEquals(1, DatabaseMetrics.getSnapshot(1).size());
+        }
+        finally {
+            DatabaseMetrics.close(quiet);
+            DatabaseMetrics.close(busy);
+        }
+    }
+
+    @Test
+    public void testRegistry() {
+        final List<String> events = new ArrayList<>();
+        final DatabaseMetricsRegistry registry = new DatabaseMetricsRegistry() {
+            @Override
+            public void register(DatabaseMetrics metrics) { events.add("+" + metrics.getName()); }
+
+            @Override
+            public void unregister(DatabaseMetrics metrics) { events.add("-" + metrics.getName()); }
+        };
+
+        DatabaseMetrics.setEnabled(true);
+
+        // databases that are already open are registered with a new registry
+        final DatabaseMetrics db1 = DatabaseMetrics.open("db1", "/tmp/db1");
+        assertNotNull(db1);
+        DatabaseMetrics.setRegistry(registry);
+
+        final DatabaseMetrics db2 = DatabaseMetrics.open("db2", "/tmp/db2");
+        assertNotNull(db2);
+        DatabaseMetrics.close(db1);
+        DatabaseMetrics.close(db2);
+
+        // closing twice is harmless
+        DatabaseMetrics.close(db2);
+
+        final List<String> expected = new ArrayList<>();
+        expected.add("+db1");
+        expected.add("+db2");
+        expected.add("-db1");
+        expected.add("-db2");
+        assertEquals(expected, events);
+    }
+}
@@ -17,13 +17,18 @@ package com.couchbase.lite;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -1468,4 +1473,438 @@ public class DatabaseTest extends BaseDbTest {
         recreateBastTestDb();
     }
 
+    @Test
+    public void testImportExportJSON() throws CouchbaseLiteException, IOException {
+        final String ndjson = "{\"_id\":\"doc1\",\"name\":\"one\",\"n\":1}\n"
+            + "\n"
+            + "{\"_id\":\"doc\\\"2\",\"nested\":{\"a\":[1,2,3]}}\n"
+            + "{\"name\":\"anonymous\"}\n"
+            + "{\"_id\":\"empty\"}\n";
+
+        assertEquals(4, baseTestDb.importJSON(new StringReader(ndjson)));
+        assertEquals(4, baseTestDb.getCount());
+
+        final Document doc1 = baseTestDb.getDocument("doc1");
+        assertEquals("one", doc1.getString("name"));
+        assertEquals(1, doc1.getInt("n"));
+        assertFalse(doc1.contains("_id"));
+
+        final Document doc2 = baseTestDb.getDocument("doc\"2");
+        assertEquals(3, doc2.getDictionary("nested").getArray("a").count());
+
+        // importing replaces existing documents
+        assertEquals(1, baseTestDb.importJSON(new StringReader("{\"_id\":\"doc1\",\"name\":\"uno\"}")));
+        assertEquals(4, baseTestDb.getCount());
+        assertEquals("uno", baseTestDb.getDocument("doc1").getString("name"));
+        assertFalse(baseTestDb.getDocument("doc1").contains("n"));
+
+        // the export can be imported into another database
+        final StringWriter out = new StringWriter();
+        assertEquals(4, baseTestDb.exportJSON(out));
+        assertEquals(4, out.toString().split("\n").length);
+
+        final Database otherDb = createDb();
+        try {
+            assertEquals(4, otherDb.importJSON(new StringReader(out.toString())));
+            for (String id : Arrays.asList("doc1", "doc\"2", "empty")) {
+                assertEquals(baseTestDb.getDocument(id).toMap(), otherDb.getDocument(id).toMap());
+            }
+        }
+        finally {
+            deleteDb(otherDb);
+        }
+    }
+
+    // The keys of an imported document may already be in the database's shared keys
+    @Test
+    public void testImportJSONWithSharedKeys() throws CouchbaseLiteException, IOException {
+        final MutableDocument mDoc = new MutableDocument("doc0");
+        mDoc.setString("first", "x");
+        mDoc.setString("last", "y");
+        baseTestDb.save(mDoc);
+
+        final StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 250; i++) {
+            ndjson.append(String.format(
+                Locale.ENGLISH,
+                "{\"first\":\"f%1$d\",\"_id\":\"doc%1$d\",\"last\":\"l%1$d\",\"n\":%1$d,\"tags\":[\"t%1$d\"]}\n",
+                i));
+        }
+        assertEquals(250, baseTestDb.importJSON(new StringReader(ndjson.toString())));
+        assertEquals(251, baseTestDb.getCount());
+
+        final Document doc = baseTestDb.getDocument("doc17");
+        assertNotNull(doc);
+        assertEquals(4, doc.count());
+        assertFalse(doc.contains("_id"));
+        assertEquals("f17", doc.getString("first"));
+        assertEquals("l17", doc.getString("last"));
+        assertEquals(17, doc.getInt("n"));
+        assertEquals("t17", doc.getArray("tags").getString(0));
+
+        // the export is written in several batches
+        final StringWriter out = new StringWriter();
+        assertEquals(251, baseTestDb.exportJSON(out));
+        assertEquals(251, out.toString().split("\n").length);
+    }
+
+    @Test
+    public void testImportJSONNotAnObject() throws IOException {
+        try {
+            baseTestDb.importJSON(new StringReader("[1, 2, 3]"));
+            fail("Imported an array");
+        }
+        catch (CouchbaseLiteException e) {
+            assertEquals(CBLError.Code.INVALID_PARAMETER, e.getCode());
+        }
+        assertEquals(0, baseTestDb.getCount());
+    }
+
+    @Test
+    public void testGetChanges() throws CouchbaseLiteException {
+        for (int i = 1; i <= 5; i++) {
+            final MutableDocument doc = new MutableDocument("doc" + i);
+            doc.setInt("n", i);
+            baseTestDb.save(doc);
+        }
+        baseTestDb.delete(baseTestDb.getDocument("doc2"));
+        final MutableDocument doc3 = baseTestDb.getDocument("doc3").toMutable();
+        doc3.setInt("n", 33);
+        baseTestDb.save(doc3);
+
+        // each document appears once, at the sequence of its latest change
+        final List<DocumentMetadata> changes;
+        try (ChangesCursor cursor = baseTestDb.getChanges(0, 0, false)) { changes = cursor.allChanges(); }
+        assertEquals(5, changes.size());
+        final List<String> ids = new ArrayList<>();
+        long lastSeq = 0;
+        for (DocumentMetadata change : changes) {
+            ids.add(change.getId());
+            assertTrue(change.getSequence() > lastSeq);
+            lastSeq = change.getSequence();
+            assertNotNull(change.getRevisionID());
+            assertNull(change.getDocument());
+            assertEquals("doc2".equals(change.getId()), change.isDeleted());
+        }
+        assertEquals(Arrays.asList("doc1", "doc4", "doc5", "doc2", "doc3"), ids);
+
+        // bodies, when requested
+        try (ChangesCursor cursor = baseTestDb.getChanges(0, 0, true)) {
+            for (DocumentMetadata change : cursor) {
+                final Document doc = change.getDocument();
+                if (change.isDeleted()) {
+                    assertNull(doc);
+                    continue;
+                }
+                assertNotNull(doc);
+                assertEquals(change.getId(), doc.getId());
+                assertEquals(change.getRevisionID(), doc.getRevisionID());
+                final int n = Integer.parseInt(doc.getId().substring(3));
+                assertEquals((n == 3) ? 33 : n, doc.getInt("n"));
+            }
+        }
+    }
+
+    @Test
+    public void testGetChangesResume() throws CouchbaseLiteException {
+        for (int i = 0; i < 10; i++) { baseTestDb.save(new MutableDocument("doc" + i)); }
+
+        final List<String> ids = new ArrayList<>();
+        long checkpoint = 0;
+        int batches = 0;
+        while (true) {
+            try (ChangesCursor cursor = baseTestDb.getChanges(checkpoint, 4, false)) {
+                final List<DocumentMetadata> changes = cursor.allChanges();
+                if (changes.isEmpty()) {
+                    assertEquals(checkpoint, cursor.getCheckpoint());
+                    break;
+                }
+                assertTrue(changes.size() <= 4);
+                for (DocumentMetadata change : changes) { ids.add(change.getId()); }
+                assertEquals(changes.get(changes.size() - 1).getSequence(), cursor.getCheckpoint());
+                checkpoint = cursor.getCheckpoint();
+                batches++;
+            }
+        }
+        assertEquals(3, batches);
+        assertEquals(10, ids.size());
+
+        // resuming after new changes returns only the new changes
+        baseTestDb.save(new MutableDocument("doc10"));
+        try (ChangesCursor cursor = baseTestDb.getChanges(checkpoint, 0, false)) {
+            final DocumentMetadata change = cursor.next();
+            assertNotNull(change);
+            assertEquals("doc10", change.getId());
+            assertNull(cursor.next());
+        }
+    }
+
+    @Test
+    public void testScanDocuments() throws CouchbaseLiteException {
+        for (String id : Arrays.asList("b2", "a1", "c1", "b1", "a2", "b3")) {
+            final MutableDocument doc = new MutableDocument(id);
+            doc.setString("id", id);
+            baseTestDb.save(doc);
+        }
+        baseTestDb.delete(baseTestDb.getDocument("b2"));
+
+        assertEquals(Arrays.asList("a1", "a2", "b1", "b3", "c1"), scanIds(new ScanOptions()));
+        assertEquals(Arrays.asList("c1", "b3", "b1", "a2", "a1"), scanIds(new ScanOptions().setDescending(true)));
+        assertEquals(
+            Arrays.asList("b1", "b2", "b3"),
+            scanIds(new ScanOptions().setPrefix("b").setIncludeDeleted(true)));
+        assertEquals(Arrays.asList("b3", "b1"), scanIds(new ScanOptions().setPrefix("b").setDescending(true)));
+        assertEquals(Arrays.asList("a2", "b1", "b3"), scanIds(new ScanOptions().setRange("a2", "c1")));
+        assertEquals(
+            Arrays.asList("b3", "b1", "a2"),
+            scanIds(new ScanOptions().setRange("a2", "c1").setDescending(true)));
+
+        try (DocumentScan scan = baseTestDb.scanDocuments(new ScanOptions().setIncludeDeleted(true))) {
+            for (DocumentMetadata meta : scan) {
+                assertNotNull(meta.getRevisionID());
+                assertTrue(meta.getSequence() > 0);
+                if (meta.isDeleted()) {
+                    assertEquals("b2", meta.getId());
+                    assertNull(meta.getDocument());
+                    continue;
+                }
+                assertEquals(meta.getId(), meta.getDocument().getString("id"));
+            }
+        }
+
+        try (DocumentScan scan = baseTestDb.scanDocuments(new ScanOptions().setMetadataOnly(true))) {
+            final DocumentMetadata meta = scan.next();
+            assertNotNull(meta);
+            assertEquals("a1", meta.getId());
+            assertNull(meta.getDocument());
+        }
+    }
+
+    @Test
+    public void testScanDocumentsInBatches() throws CouchbaseLiteException {
+        for (int i = 0; i < 25; i++) { baseTestDb.save(new MutableDocument(String.format(Locale.ROOT, "doc%02d", i))); }
+
+        final List<Integer> sizes = new ArrayList<>();
+        try (DocumentScan scan = baseTestDb.scanDocuments(new ScanOptions().setBatchSize(10).setMetadataOnly(true))) {
+            List<DocumentMetadata> batch;
+            while (!(batch = scan.nextBatch()).isEmpty()) { sizes.add(batch.size()); }
+        }
+        assertEquals(Arrays.asList(10, 10, 5), sizes);
+    }
+
+    private List<String> scanIds(ScanOptions options) throws CouchbaseLiteException {
+        final List<String> ids = new ArrayList<>();
+        try (DocumentScan scan = baseTestDb.scanDocuments(options.setMetadataOnly(true))) {
+            for (DocumentMetadata meta : scan) { ids.add(meta.getId()); }
+        }
+        return ids;
+    }
+
+    @Test
+    public void testCreateIndexAsync() throws CouchbaseLiteException, InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            final MutableDocument doc = new MutableDocument();
+            doc.setInt("n", i);
+            baseTestDb.save(doc);
+        }
+
+        final List<IndexBuild.State> states = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(2);
+        final IndexBuild build = baseTestDb.createIndexAsync(
+            "num",
+            IndexBuilder.valueIndex(ValueIndexItem.property("n")),
+            Runnable::run,
+            change -> {
+                states.add(change.getState());
+                latch.countDown();
+            });
+        assertEquals("num", build.getName());
+        assertEquals(100, build.getDocumentCount());
+
+        assertTrue(build.await(10, TimeUnit.SECONDS));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(build.isDone());
+        assertEquals(IndexBuild.State.COMPLETED, build.getState());
+        assertNull(build.getError());
+        assertEquals(Arrays.asList(IndexBuild.State.BUILDING, IndexBuild.State.COMPLETED), states);
+
+        assertEquals(Collections.singletonList("num"), baseTestDb.getIndexes());
+        assertTrue(QueryBuilder.select(SelectResult.property("n"))
+            .from(DataSource.database(baseTestDb))
+            .where(Expression.property("n").greaterThan(Expression.intValue(90)))
+            .explainPlan()
+            .usesIndex("num"));
+    }
+
+    @Test
+    public void testWriteDuringIndexBuild() throws CouchbaseLiteException, InterruptedException {
+        createSingleDocInBaseTestDb("doc1");
+
+        // hold the build open, from its listener, until the write is under way
+        final CountDownLatch building = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IndexBuild build = baseTestDb.createIndexAsync(
+            "num",
+            IndexBuilder.valueIndex(ValueIndexItem.property("n")),
+            Runnable::run,
+            change -> {
+                if (change.getState() != IndexBuild.State.BUILDING) { return; }
+                building.countDown();
+                try { release.await(10, TimeUnit.SECONDS); }
+                catch (InterruptedException ignore) { }
+            });
+        assertTrue(building.await(10, TimeUnit.SECONDS));
+
+        final CountDownLatch saved = new CountDownLatch(1);
+        final Thread writer = new Thread(() -> {
+            try {
+                baseTestDb.save(new MutableDocument("doc2"));
+                saved.countDown();
+            }
+            catch (CouchbaseLiteException e) { throw new AssertionError("Save failed", e); }
+        });
+        writer.start();
+
+        // the write waits for the build, but reads do not wait for the write
+        assertFalse(saved.await(200, TimeUnit.MILLISECONDS));
+        assertNotNull(baseTestDb.getDocument("doc1"));
+        assertEquals(1, baseTestDb.getCount());
+
+        release.countDown();
+        assertTrue(build.await(10, TimeUnit.SECONDS));
+        assertTrue(saved.await(10, TimeUnit.SECONDS));
+        writer.join();
+        assertEquals(2, baseTestDb.getCount());
+    }
+
+    @Test
+    public void testReadOnlyAccess() throws CouchbaseLiteException {
+        createSingleDocInBaseTestDb("doc1");
+
+        final Database roDb = duplicateDb(baseTestDb, new DatabaseConfiguration().setReadOnlyAccess(true));
+        try {
+            assertTrue(roDb.getConfig().isReadOnlyAccess());
+            assertEquals(1, roDb.getCount());
+            assertNotNull(roDb.getDocument("doc1"));
+
+            TestUtils.assertThrowsCBL(
+                CBLError.Domain.CBLITE,
+                CBLError.Code.NOT_WRITEABLE,
+                () -> roDb.save(new MutableDocument("doc2")));
+            TestUtils.assertThrowsCBL(
+                CBLError.Domain.CBLITE,
+                CBLError.Code.NOT_WRITEABLE,
+                () -> roDb.purge("doc1"));
+            TestUtils.assertThrowsCBL(
+                CBLError.Domain.CBLITE,
+                CBLError.Code.NOT_WRITEABLE,
+                () -> roDb.inBatch(() -> { }));
+            TestUtils.assertThrowsCBL(
+                CBLError.Domain.CBLITE,
+                CBLError.Code.NOT_WRITEABLE,
+                () -> roDb.createIndex("index", IndexBuilder.valueIndex(ValueIndexItem.property("name"))));
+            TestUtils.assertThrows(IllegalStateException.class, () -> roDb.addChangeListener(change -> { }));
+
+            // changes made through the writeable connection are visible
+            createSingleDocInBaseTestDb("doc2");
+            assertNotNull(roDb.getDocument("doc2"));
+        }
+        finally {
+            closeDb(roDb);
+        }
+    }
+
+    // A failed attempt to observe a read-only database must not leave a live query running
+    @Test
+    public void testLiveQueryOnReadOnlyDb() throws CouchbaseLiteException {
+        createSingleDocInBaseTestDb("doc1");
+
+        final Database roDb = duplicateDb(baseTestDb, new DatabaseConfiguration().setReadOnlyAccess(true));
+        try {
+            final Query query = QueryBuilder.select(SelectResult.expression(Meta.id)).from(DataSource.database(roDb));
+
+            TestUtils.assertThrows(IllegalStateException.class, () -> query.addChangeListener(change -> { }));
+            TestUtils.assertThrows(IllegalStateException.class, () -> query.addChangeListener(change -> { }));
+
+            assertEquals(1, query.execute().allResults().size());
+        }
+        finally {
+            closeDb(roDb);
+        }
+    }
+
+    @Test
+    public void testReadOnlyAccessDoesNotCreate() {
+        TestUtils.assertThrows(
+            CouchbaseLiteException.class,
+            () -> new Database(getUniqueName(), new DatabaseConfiguration().setReadOnlyAccess(true)));
+    }
+
+    @Test
+    public void testOpenListener() throws CouchbaseLiteException {
+        final List<DatabaseOpenStats> opens = Collections.synchronizedList(new ArrayList<>());
+        Database.setOpenListener(opens::add);
+        try { baseTestDb = reopenDb(baseTestDb); }
+        finally { Database.setOpenListener(null); }
+
+        assertEquals(1, opens.size());
+        final DatabaseOpenStats stats = opens.get(0);
+        assertEquals(baseTestDb.getName(), stats.getName());
+        assertFalse(stats.isReadOnly());
+        assertTrue(stats.getFileOpenNanos() > 0);
+        assertTrue(stats.getTotalNanos() >= stats.getFileOpenNanos());
+
+        // not reported once the listener is removed
+        baseTestDb = reopenDb(baseTestDb);
+        assertEquals(1, opens.size());
+    }
+
+    @Test
+    public void testDatabaseMetrics() throws CouchbaseLiteException {
+        final List<DatabaseMetrics> registered = Collections.synchronizedList(new ArrayList<>());
+        final List<DatabaseMetrics> unregistered = Collections.synchronizedList(new ArrayList<>());
+        DatabaseMetrics.setRegistry(new DatabaseMetricsRegistry() {
+            @Override
+            public void register(DatabaseMetrics metrics) { registered.add(metrics); }
+
+            @Override
+            public void unregister(DatabaseMetrics metrics) { unregistered.add(metrics); }
+        });
+        DatabaseMetrics.setEnabled(true);
+        try {
+            baseTestDb = reopenDb(baseTestDb);
+            assertEquals(1, registered.size());
+            final DatabaseMetrics metrics = registered.get(0);
+            assertEquals(baseTestDb.getName(), metrics.getName());
+
+            baseTestDb.save(new MutableDocument("doc1"));
+            baseTestDb.inBatch(() -> {
+                for (int i = 2; i <= 5; i++) {
+                    try { baseTestDb.save(new MutableDocument("doc" + i)); }
+                    catch (CouchbaseLiteException e) { throw new RuntimeException(e); }
+                }
+            });
+
+            final DatabaseStats stats = metrics.getSnapshot();
+            assertEquals(5, stats.getSaveCount());
+            // one transaction for the first save and one for the batch
+            assertEquals(2, stats.getTransactionCount());
+            assertEquals(0, stats.getAbortedTransactionCount());
+            assertTrue(stats.getLockHoldTimeNanos() > 0);
+            assertTrue(stats.getMaxSaveTimeNanos() > 0);
+            assertEquals(1, DatabaseMetrics.getSnapshot(10).size());
+
+            baseTestDb.close();
+            assertEquals(Collections.singletonList(metrics), unregistered);
+            assertEquals(0, DatabaseMetrics.getDatabaseCount());
+        }
+        finally {
+            DatabaseMetrics.setEnabled(false);
+            DatabaseMetrics.setRegistry(null);
+        }
+
+        // databases opened while metrics are off are not instrumented
+        baseTestDb = reopenDb(baseTestDb);
+        assertEquals(1, registered.size());
+    }
 }
@@ -0,0 +1,160 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class DocumentMapperTest extends BaseDbTest {
+    enum Color {RED, GREEN}
+
+    static class Address {
+        String street;
+        int zip;
+    }
+
+    static class Person {
+        static final String IGNORED = "static";
+
+        String name;
+        int age;
+        long id;
+        double score;
+        boolean active;
+        Integer rank;
+        Date born;
+        Color color;
+        byte[] data;
+        List<Object> tags;
+        Map<String, Object> extra;
+        Address address;
+        @DocumentProperty("nick_name")
+        String nickName;
+        transient String cache;
+    }
+
+    static class Unsupported {
+        Object anything;
+    }
+
+    @Test
+    public void testMapperIsCached() { assertSame(DocumentMapper.of(Person.class), DocumentMapper.of(Person.class)); }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() { DocumentMapper.of(Unsupported.class); }
+
+    // An object round trips, and is readable as a document
+    @Test
+    public void testSaveAndGet() throws CouchbaseLiteException {
+        final DocumentMapper<Person> mapper = DocumentMapper.of(Person.class);
+
+        final Person person = new Person();
+        person.name = "Zaphod";
+        person.age = 42;
+        person.id = Long.MAX_VALUE;
+        person.score = 3.5;
+        person.active = true;
+        person.born = new Date(1000000L);
+        person.color = Color.GREEN;
+        person.data = new byte[] {1, 2, 3};
+        person.tags = Arrays.asList("a", 2L);
+        person.extra = new HashMap<>();
+        person.extra.put("k", "v");
+        person.address = new Address();
+        person.address.street = "Main";
+        person.address.zip = 12345;
+        person.nickName = "Z";
+        person.cache = "not stored";
+
+        baseTestDb.save("person1", person, mapper);
+
+        final Person copy = baseTestDb.getDocument("person1", mapper);
+        assertNotNull(copy);
+        assertEquals("Zaphod", copy.name);
+        assertEquals(42, copy.age);
+        assertEquals(Long.MAX_VALUE, copy.id);
+        assertEquals(3.5, copy.score, 0.0);
+        assertTrue(copy.active);
+        assertNull(copy.rank);
+        assertEquals(person.born, copy.born);
+        assertEquals(Color.GREEN, copy.color);
+        assertArrayEquals(person.data, copy.data);
+        assertEquals(person.tags, copy.tags);
+        assertEquals(person.extra, copy.extra);
+        assertEquals("Main", copy.address.street);
+        assertEquals(12345, copy.address.zip);
+        assertEquals("Z", copy.nickName);
+        assertNull(copy.cache);
+
+        final Document doc = baseTestDb.getDocument("person1");
+        assertEquals("Zaphod", doc.getString("name"));
+        assertEquals("Z", doc.getString("nick_name"));
+        assertEquals(12345, doc.getDictionary("address").getInt("zip"));
+        assertFalse(doc.contains("rank"));
+        assertFalse(doc.contains("cache"));
+        assertFalse(doc.contains("IGNORED"));
+    }
+
+    // Saving an object replaces the current revision
+    @Test
+    public void testUpdate() throws CouchbaseLiteException {
+        final MutableDocument mDoc = new MutableDocument("person2");
+        mDoc.setString("name", "Arthur");
+        mDoc.setInt("age", 30);
+        mDoc.setString("planet", "Earth");
+        baseTestDb.save(mDoc);
+
+        final DocumentMapper<Person> mapper = DocumentMapper.of(Person.class);
+        final Person person = baseTestDb.getDocument("person2", mapper);
+        assertNotNull(person);
+        assertEquals("Arthur", person.name);
+        assertEquals(30, person.age);
+
+        person.age = 31;
+        baseTestDb.save("person2", person, mapper);
+
+        final Document doc = baseTestDb.getDocument("person2");
+        assertEquals(31, doc.getInt("age"));
+        // properties without a field are not preserved
+        assertFalse(doc.contains("planet"));
+        assertEquals(1, baseTestDb.getCount());
+    }
+
+    @Test
+    public void testGetMissingOrDeleted() throws CouchbaseLiteException {
+        final DocumentMapper<Person> mapper = DocumentMapper.of(Person.class);
+        assertNull(baseTestDb.getDocument("nobody", mapper));
+
+        final MutableDocument mDoc = new MutableDocument("gone");
+        baseTestDb.save(mDoc);
+        baseTestDb.delete(mDoc);
+        assertNull(baseTestDb.getDocument("gone", mapper));
+    }
+}
@@ -340,6 +340,118 @@ public class DocumentTest extends BaseDbTest {
         }
     }
 
+    // Pre-encoded keys are reusable across documents, and see unsaved changes
+    @Test
+    public void testGetWithDictionaryKey() throws CouchbaseLiteException {
+        final DictionaryKey strKey = new DictionaryKey("string");
+        final DictionaryKey oneKey = new DictionaryKey("one");
+        final DictionaryKey dictKey = new DictionaryKey("dict");
+        final DictionaryKey missingKey = new DictionaryKey("non_existing_key");
+
+        for (int i = 1; i <= 2; i++) {
+            String docID = String.format(Locale.ENGLISH, "doc%d", i);
+            MutableDocument doc = new MutableDocument(docID);
+            if (i % 2 == 1) { populateData(doc); }
+            else { populateDataByTypedSetter(doc); }
+            saveDocInBaseTestDb(doc, d -> {
+                assertEquals("string", d.getString(strKey));
+                assertEquals(1, d.getInt(oneKey));
+                assertEquals(1L, d.getLong(oneKey));
+                assertEquals(1.0, d.getDouble(oneKey), 0.0);
+                assertTrue(d.getBoolean(oneKey));
+                assertNull(d.getString(oneKey));
+                assertNotNull(d.getDictionary(dictKey));
+                assertEquals(d.getDictionary("dict"), d.getDictionary(dictKey));
+                assertNull(d.getValue(missingKey));
+                assertFalse(d.contains(missingKey));
+                assertTrue(d.contains(strKey));
+            });
+        }
+
+        final MutableDocument mDoc = baseTestDb.getDocument("doc1").toMutable();
+        mDoc.setString("string", "changed");
+        assertEquals("changed", mDoc.getString(strKey));
+        mDoc.remove("one");
+        assertFalse(mDoc.contains(oneKey));
+    }
+
+    // A pre-encoded key must work in databases whose shared keys abbreviate it differently
+    @Test
+    public void testDictionaryKeyInTwoDatabases() throws CouchbaseLiteException {
+        final DictionaryKey nameKey = new DictionaryKey("name");
+
+        MutableDocument mDoc = new MutableDocument("doc1");
+        mDoc.setString("a", "A");
+        mDoc.setString("b", "B");
+        mDoc.setString("name", "one");
+        mDoc.setBlob("blob", new Blob("text/plain", BLOB_CONTENT.getBytes(StandardCharsets.UTF_8)));
+        baseTestDb.save(mDoc);
+
+        final Database otherDb = createDb();
+        try {
+            mDoc = new MutableDocument("doc1");
+            mDoc.setBlob("blob", new Blob("text/plain", BLOB_CONTENT.getBytes(StandardCharsets.UTF_8)));
+            mDoc.setString("name", "two");
+            mDoc.setString("z", "Z");
+            otherDb.save(mDoc);
+
+            final Document doc1 = baseTestDb.getDocument("doc1");
+            final Document doc2 = otherDb.getDocument("doc1");
+            for (int i = 0; i < 3; i++) {
+                assertEquals("one", doc1.getString(nameKey));
+                assertEquals("two", doc2.getString(nameKey));
+            }
+            assertNotNull(doc1.getBlob("blob"));
+            assertNotNull(doc2.getBlob("blob"));
+
+            // the key still works after the first database has gone away
+            baseTestDb = reopenDb(baseTestDb);
+            assertEquals("two", otherDb.getDocument("doc1").getString(nameKey));
+            assertEquals("one", baseTestDb.getDocument("doc1").getString(nameKey));
+        }
+        finally {
+            deleteDb(otherDb);
+        }
+    }
+
+    @Test
+    public void testJSON() throws CouchbaseLiteException {
+        final MutableDocument mDoc = new MutableDocument("doc1");
+        mDoc.setJSON("{\"name\":\"Ford\",\"age\":200,\"towel\":true,\"friends\":[\"Arthur\"],\"ship\":{\"x\":1}}");
+        assertEquals("Ford", mDoc.getString("name"));
+        assertEquals(200, mDoc.getInt("age"));
+        assertTrue(mDoc.getBoolean("towel"));
+        assertEquals("Arthur", mDoc.getArray("friends").getString(0));
+        assertEquals(1, mDoc.getDictionary("ship").getInt("x"));
+
+        final Map<String, Object> expected = mDoc.toMap();
+
+        // unsaved document
+        assertEquals(expected, new MutableDocument("doc2").setJSON(mDoc.toJSON()).toMap());
+
+        // saved document
+        saveDocInBaseTestDb(mDoc);
+        final Document doc = baseTestDb.getDocument("doc1");
+        assertEquals(expected, new MutableDocument("doc3").setJSON(doc.toJSON()).toMap());
+
+        // modified document
+        final MutableDocument mDoc2 = doc.toMutable();
+        mDoc2.setString("name", "Zaphod");
+        assertEquals("Zaphod", new MutableDocument("doc4").setJSON(mDoc2.toJSON()).getString("name"));
+
+        // replacing the content of a saved document
+        mDoc2.setJSON("{\"name\":\"Arthur\",\"ship\":{\"x\":2}}");
+        assertEquals("Arthur", new MutableDocument("doc5").setJSON(mDoc2.toJSON()).getString("name"));
+        saveDocInBaseTestDb(mDoc2);
+        final Document doc2 = baseTestDb.getDocument("doc1");
+        assertEquals("Arthur", doc2.getString("name"));
+        assertEquals(2, doc2.getDictionary("ship").getInt("x"));
+        assertFalse(doc2.contains("age"));
+
+        TestUtils.assertThrows(IllegalArgumentException.class, () -> new MutableDocument().setJSON("[1, 2]"));
+        TestUtils.assertThrows(IllegalArgumentException.class, () -> new MutableDocument().setJSON("{not json"));
+    }
+
     @Test
     public void testSetNumber() throws CouchbaseLiteException {
         DocValidator validator4Save = d -> {
@@ -831,6 +943,64 @@ public class DocumentTest extends BaseDbTest {
         }
     }
 
+    // Small changes to a large document are encoded as deltas: verify the content survives many of them.
+    @Test
+    public void testUpdateLargeDocumentIncrementally() throws CouchbaseLiteException {
+        MutableDocument mDoc = new MutableDocument("doc1");
+        for (int i = 0; i < 50; i++) { mDoc.setString("key" + i, "value" + i); }
+        mDoc.setInt("counter", 0);
+        MutableDictionary nested = new MutableDictionary();
+        nested.setString("name", "nested");
+        mDoc.setDictionary("nested", nested);
+        Document doc = saveDocInBaseTestDb(mDoc);
+        assertFalse(mDoc.wasDeltaEncoded());
+
+        for (int n = 1; n <= 20; n++) {
+            mDoc = doc.toMutable();
+            assertEquals(n, mDoc.generation());
+            mDoc.setInt("counter", n);
+            if (n == 5) { mDoc.remove("key7"); }
+            if (n == 9) { mDoc.getDictionary("nested").setInt("round", n); }
+            if (n == 13) { mDoc.setArray("list", new MutableArray().addInt(n)); }
+            doc = saveDocInBaseTestDb(mDoc);
+            // every FULL_ENCODE_INTERVAL-th revision is encoded in full
+            assertEquals("revision " + n, (n % 8) != 0, mDoc.wasDeltaEncoded());
+        }
+
+        doc = baseTestDb.getDocument("doc1");
+        assertEquals(20, doc.getInt("counter"));
+        assertFalse(doc.contains("key7"));
+        for (int i = 0; i < 50; i++) {
+            if (i != 7) { assertEquals("value" + i, doc.getString("key" + i)); }
+        }
+        assertEquals("nested", doc.getDictionary("nested").getString("name"));
+        assertEquals(9, doc.getDictionary("nested").getInt("round"));
+        assertEquals(13, doc.getArray("list").getInt(0));
+        assertEquals(52, doc.count());
+
+        // a change to too many properties is encoded in full
+        mDoc = doc.toMutable();
+        for (int i = 0; i < 20; i++) { mDoc.setString("key" + i, "changed" + i); }
+        doc = saveDocInBaseTestDb(mDoc);
+        assertFalse(mDoc.wasDeltaEncoded());
+        assertEquals("changed3", doc.getString("key3"));
+    }
+
+    @Test
+    public void testGetInstantAndEpochMillis() throws CouchbaseLiteException {
+        final long millis = DateUtils.parseEpochMillis(TEST_DATE);
+        MutableDocument doc = new MutableDocument("doc1");
+        populateData(doc);
+        saveDocInBaseTestDb(doc, d -> {
+            assertEquals(millis, d.getInstant("date").toEpochMilli());
+            assertEquals(millis, d.getEpochMillis("date"));
+            assertNull(d.getInstant("string"));
+            assertNull(d.getInstant("non_existing_key"));
+            assertEquals(0L, d.getEpochMillis("one"));
+            assertEquals(0L, d.getEpochMillis("non_existing_key"));
+        });
+    }
+
     @Test
     public void testSetBlob() throws CouchbaseLiteException {
         final String newBlobContent = TestUtils.randomString(100);
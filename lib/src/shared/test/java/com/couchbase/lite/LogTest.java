@@ -10,7 +10,10 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,9 +22,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.couchbase.lite.internal.core.C4Constants;
 import com.couchbase.lite.internal.core.C4Log;
 import com.couchbase.lite.internal.core.CBLVersion;
 import com.couchbase.lite.internal.support.Log;
+import com.couchbase.lite.internal.support.StructuredLogEvent;
 import com.couchbase.lite.utils.FileUtils;
 import com.couchbase.lite.utils.Fn;
 
@@ -156,6 +161,121 @@ public class LogTest extends BaseDbTest {
         assertEquals(4, customLogger.getLineCount());
     }
 
+    @Test
+    public void testStructuredLogging() {
+        final Map<String, String> fields = new HashMap<>();
+        final String[] eventName = new String[1];
+        Database.log.setStructured(new StructuredLogger() {
+            @NonNull
+            @Override
+            public LogLevel getLevel() { return LogLevel.INFO; }
+
+            @Override
+            public void log(@NonNull LogEvent event) {
+                eventName[0] = event.getName();
+                for (int i = 0; i < event.getFieldCount(); i++) { fields.put(event.getKey(i), event.getString(i)); }
+            }
+        });
+
+        try {
+            // below the logger's level: no event
+            assertNull(Log.event(LogLevel.VERBOSE, LogDomain.DATABASE, "test.verbose"));
+
+            final StructuredLogEvent event = Log.event(LogLevel.INFO, LogDomain.DATABASE, "test.info");
+            assertNotNull(event);
+            event.put("count", 42L).put("ratio", 0.5).put("ok", true).put("id", "doc-1");
+
+            assertEquals(LogEvent.FieldType.LONG, event.getType(event.indexOf("count")));
+            assertEquals(42L, event.getLong(event.indexOf("count")));
+            assertEquals(0.5, event.getDouble(event.indexOf("ratio")), 0.0);
+            assertTrue(event.getBoolean(event.indexOf("ok")));
+            assertEquals(-1, event.indexOf("missing"));
+
+            event.emit();
+
+            assertEquals("test.info", eventName[0]);
+            assertEquals("42", fields.get("count"));
+            assertEquals("0.5", fields.get("ratio"));
+            assertEquals("true", fields.get("ok"));
+            assertEquals("doc-1", fields.get("id"));
+
+            // the pooled event is empty when it is reused
+            final StructuredLogEvent event2 = Log.event(LogLevel.WARNING, LogDomain.QUERY, "test.warning");
+            assertNotNull(event2);
+            assertEquals(0, event2.getFieldCount());
+            assertEquals(LogDomain.QUERY, event2.getDomain());
+            event2.emit();
+        }
+        finally {
+            Database.log.setStructured(null);
+        }
+    }
+
+    // A structured logger gets LiteCore messages below the console level,
+    // with the object reference parsed out of the message.
+    @Test
+    public void testStructuredCoreLogging() {
+        final List<String> events = new ArrayList<>();
+        final Map<String, String> fields = new HashMap<>();
+        final LogLevel consoleLevel = Database.log.getConsole().getLevel();
+        Database.log.getConsole().setLevel(LogLevel.WARNING);
+        Database.log.setStructured(new StructuredLogger() {
+            @NonNull
+            @Override
+            public LogLevel getLevel() { return LogLevel.VERBOSE; }
+
+            @Override
+            public void log(@NonNull LogEvent event) {
+                if (!"c4.log".equals(event.getName())) { return; }
+                final String msg = event.getString(event.indexOf("message"));
+                if ((msg == null) || !msg.startsWith("structured test")) { return; }
+                events.add(msg);
+                for (int i = 0; i < event.getFieldCount(); i++) { fields.put(event.getKey(i), event.getString(i)); }
+            }
+        });
+
+        try {
+            C4Log.log(C4Constants.LogDomain.DATABASE, LogLevel.VERBOSE.getValue(), "{DB#12} structured test");
+
+            assertEquals(1, events.size());
+            assertEquals("structured test", fields.get("message"));
+            assertEquals("DB#12", fields.get("object"));
+            assertEquals("DB", fields.get("objectType"));
+            assertEquals("12", fields.get("objectId"));
+            assertEquals(C4Constants.LogDomain.DATABASE, fields.get("c4Domain"));
+        }
+        finally {
+            Database.log.setStructured(null);
+            Database.log.getConsole().setLevel(consoleLevel);
+        }
+
+        // no structured logger: no event
+        C4Log.log(C4Constants.LogDomain.DATABASE, LogLevel.WARNING.getValue(), "structured test 2");
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void testStructuredDatabaseEvents() throws CouchbaseLiteException {
+        final List<String> events = new ArrayList<>();
+        Database.log.setStructured(new StructuredLogger() {
+            @NonNull
+            @Override
+            public LogLevel getLevel() { return LogLevel.INFO; }
+
+            @Override
+            public void log(@NonNull LogEvent event) {
+                if (!event.getName().startsWith("database.")) { return; }
+                assertEquals(baseTestDb.getName(), event.getString(event.indexOf("database")));
+                events.add(event.getName());
+            }
+        });
+
+        try { reopenBaseTestDb(); }
+        finally { Database.log.setStructured(null); }
+
+        assertEquals(Arrays.asList("database.close", "database.open"), events);
+    }
+
     @Test
     public void testFileLoggingLevels() throws Exception {
         LogFileConfiguration config = new LogFileConfiguration(scratchDirPath)
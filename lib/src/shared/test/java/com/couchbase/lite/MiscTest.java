@@ -18,12 +18,22 @@
 package com.couchbase.lite;
 
 import com.couchbase.lite.internal.utils.DateUtils;
+import com.couchbase.lite.internal.utils.JsonUtils;
 
 import org.junit.Test;
 
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
+import static com.couchbase.lite.utils.TestUtils.assertThrows;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MiscTest {
     // Verify that round trip NSString -> NSDate -> NSString conversion doesn't alter the string (#1611)
@@ -36,4 +46,81 @@ public class MiscTest {
         assertEquals(date1, date2);
         assertEquals(date1.getTime(), date2.getTime());
     }
+
+    @Test
+    public void testJSONDateFormatMatchesSimpleDateFormat() {
+        final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ENGLISH);
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        final long[] times = {0L, 1L, -1L, 951782400000L, 1486318446347L, 4102444799999L, -12219292800000L + 1};
+        for (long t: times) { assertEquals(sdf.format(new Date(t)), DateUtils.toJson(t)); }
+    }
+
+    @Test
+    public void testJSONDateVariants() {
+        final long expected = Instant.parse("2017-02-05T18:14:06.347Z").toEpochMilli();
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05T18:14:06.347Z"));
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05 18:14:06.347Z"));
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05T18:14:06.347"));
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05T18:14:06.347123Z"));
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05T19:44:06.347+01:30"));
+        assertEquals(expected, DateUtils.parseEpochMillis("2017-02-05T10:14:06.347-0800"));
+        assertEquals(expected - 347, DateUtils.parseEpochMillis("2017-02-05T18:14:06Z"));
+        assertEquals(expected - 6347, DateUtils.parseEpochMillis("2017-02-05T18:14Z"));
+        assertEquals(expected - 307, DateUtils.parseEpochMillis("2017-02-05T18:14:06.04Z"));
+        assertEquals(Instant.parse("2016-02-29T00:00:00Z").toEpochMilli(), DateUtils.parseEpochMillis("2016-02-29"));
+        assertEquals(Instant.parse("1969-12-31T23:59:59.999Z").toEpochMilli(),
+            DateUtils.parseEpochMillis("1969-12-31T23:59:59.999Z"));
+    }
+
+    @Test
+    public void testJSONDateExpandedYears() {
+        final String[] dates = {
+            "+10000-01-01T00:00:00.000Z", "+13497-06-01T12:30:45.678Z", "-0001-12-31T23:59:59.999Z",
+            "0000-01-01T00:00:00.000Z", "-10000-02-29T00:00:00.000Z"};
+        for (String str: dates) {
+            final long millis = Instant.parse(str).toEpochMilli();
+            assertEquals(str, DateUtils.toJson(millis));
+            assertEquals(millis, DateUtils.parseEpochMillis(str));
+        }
+
+        final long[] times = {Long.MAX_VALUE, Long.MIN_VALUE + 1, 253402300800000L, -62167219200001L};
+        for (long t: times) { assertEquals(t, DateUtils.parseEpochMillis(DateUtils.toJson(t))); }
+    }
+
+    @Test
+    public void testJSONDateToEpochMillis() {
+        assertEquals(1486318446347L, DateUtils.toEpochMillis("2017-02-05T18:14:06.347Z"));
+        assertEquals(0L, DateUtils.toEpochMillis("not a date"));
+        assertEquals(0L, DateUtils.toEpochMillis(null));
+    }
+
+    @Test
+    public void testJSONDateInvalid() {
+        final String[] bad = {
+            null, "", "2017", "2017-02-05T", "2017-02-30", "2017-02-29", "2017-13-01", "2017-02-05X18:14:06Z",
+            "2017-02-05T24:00:00Z", "2017-02-05T18:14:06.Z", "2017-02-05T18:14:06.347ZZ", "2017-02-05T18:14:06+1",
+            "20170-02-05", "+017-02-05", "+1234567890-01-01", "+292278995-01-01", "not a date at all"};
+        for (String str: bad) {
+            assertEquals(DateUtils.INVALID_DATE, DateUtils.parseEpochMillis(str));
+            assertNull(DateUtils.fromJson(str));
+        }
+    }
+
+    @Test
+    public void testJSONStringEscapes() {
+        assertEquals("\"plain\"", JsonUtils.toJsonString("plain"));
+        assertEquals("\"q\\\"b\\\\n\\nt\\tc\\u0001\\u2028\"", JsonUtils.toJsonString("q\"b\\n\nt\tc\u0001\u2028"));
+    }
+
+    @Test
+    public void testJSONValues() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("list", Arrays.asList(1, 2L, 2.5, 3.0, true, null, "s"));
+        assertEquals("{\"list\":[1,2,2.5,3,true,null,\"s\"]}", JsonUtils.toJsonString(map));
+    }
+
+    @Test
+    public void testJSONNaN() {
+        assertThrows(IllegalArgumentException.class, () -> JsonUtils.toJsonString(Double.NaN));
+    }
 }
@@ -0,0 +1,100 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+
+public class QueryMetricsTest {
+    @After
+    public void tearDownQueryMetricsTest() {
+        QueryMetrics.setEnabled(false);
+        QueryMetrics.reset();
+    }
+
+    @Test
+    public void testDisabled() {
+        QueryMetrics.setEnabled(false);
+        assertNull(QueryMetrics.getRecorder("{}"));
+        assertEquals(0, QueryMetrics.getShapeCount());
+    }
+
+    @Test
+    public void testRecord() {
+        QueryMetrics.setEnabled(true);
+
+        final QueryMetrics.Recorder recorder = QueryMetrics.getRecorder("{}");
+        assertNotNull(recorder);
+        recorder.recordCompile(1000);
+        recorder.recordExecute(10_000);
+        recorder.recordExecute(30_000);
+        recorder.recordRefresh(60_000);
+        recorder.recordRow(100);
+        recorder.recordRow(100);
+        recorder.recordEnumerate(50);
+
+        final QueryStats stats = QueryMetrics.getSnapshot().get(0);
+        assertEquals("{}", stats.getShape());
+        assertEquals(1, stats.getCompileCount());
+        assertEquals(1000, stats.getCompileTimeNanos());
+        assertEquals(3, stats.getExecuteCount());
+        assertEquals(100_000, stats.getExecuteTimeNanos());
+        assertEquals(60_000, stats.getMaxExecuteTimeNanos());
+        assertEquals(2, stats.getRowsReturned());
+        assertEquals(250, stats.getEnumerateTimeNanos());
+        assertEquals(1, stats.getLiveQueryRefreshCount());
+        assertEquals(101_250, stats.getTotalTimeNanos());
+
+        // 10us, 30us and 60us land in the buckets for < 16us, < 32us and < 64us
+        final long[] histogram = stats.getExecuteLatencyHistogram();
+        assertEquals(1, histogram[4]);
+        assertEquals(1, histogram[5]);
+        assertEquals(1, histogram[6]);
+        assertEquals(16, stats.getExecuteLatencyPercentileMicros(10));
+        assertEquals(32, stats.getExecuteLatencyPercentileMicros(50));
+        assertEquals(64, stats.getExecuteLatencyPercentileMicros(99));
+    }
+
+    @Test
+    public void testSnapshotOrder() {
+        QueryMetrics.setEnabled(true);
+        QueryMetrics.getRecorder("cheap").recordExecute(10);
+        QueryMetrics.getRecorder("expensive").recordExecute(10_000_000);
+        QueryMetrics.getRecorder("middling").recordExecute(10_000);
+
+        final List<QueryStats> stats = QueryMetrics.getSnapshot();
+        assertEquals(3, stats.size());
+        assertEquals("expensive", stats.get(0).getShape());
+        assertEquals("middling", stats.get(1).getShape());
+        assertEquals("cheap", stats.get(2).getShape());
+    }
+
+    @Test
+    public void testMaxShapes() {
+        QueryMetrics.setEnabled(true);
+        for (int i = 0; i < QueryMetrics.MAX_SHAPES; i++) { assertNotNull(QueryMetrics.getRecorder("q" + i)); }
+        assertNull(QueryMetrics.getRecorder("one too many"));
+        assertNotNull(QueryMetrics.getRecorder("q0"));
+        assertEquals(QueryMetrics.MAX_SHAPES, QueryMetrics.getShapeCount());
+    }
+}
@@ -0,0 +1,87 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class QueryPlanTest {
+    private static final String SQL
+        = "SELECT key, sequence FROM kv_default AS _doc WHERE (fl_value(_doc.body, 'n') < 10) AND (_doc.flags & 1 = 0)";
+    private static final String JSON = "{\"WHERE\":[\"<\",[\".n\"],10]}";
+
+    @Test
+    public void testFullScan() {
+        final QueryPlan plan = QueryPlan.parse(SQL + "\n\n"
+            + "3|0|0| SCAN TABLE kv_default AS _doc\n"
+            + "\n" + JSON + "\n");
+
+        assertEquals(SQL, plan.getSql());
+        assertEquals(Collections.singletonList("SCAN TABLE kv_default AS _doc"), plan.getDetails());
+        assertEquals(QueryPlan.ScanType.FULL_SCAN, plan.getScanType());
+        assertTrue(plan.isFullScan());
+        assertTrue(plan.getIndexes().isEmpty());
+        assertEquals(-1, plan.getEstimatedRows());
+    }
+
+    @Test
+    public void testIndexSearch() {
+        final QueryPlan plan = QueryPlan.parse(SQL + "\n\n"
+            + "4|0|0| SEARCH TABLE kv_default AS _doc USING INDEX num1 (<expr>>?) (~250 rows)\n"
+            + "22|0|0| USE TEMP B-TREE FOR ORDER BY\n"
+            + "\n" + JSON + "\n");
+
+        assertEquals(QueryPlan.ScanType.INDEX_SEARCH, plan.getScanType());
+        assertFalse(plan.isFullScan());
+        assertEquals(Collections.singletonList("num1"), plan.getIndexes());
+        assertTrue(plan.usesIndex("num1"));
+        assertTrue(plan.usesTempBTreeForOrderBy());
+        assertFalse(plan.usesTempBTreeForGroupBy());
+        assertEquals(250, plan.getEstimatedRows());
+    }
+
+    @Test
+    public void testIndexScanAndFts() {
+        final QueryPlan plan = QueryPlan.parse(SQL + "\n\n"
+            + "3|0|0| SCAN TABLE kv_default::sentence AS fts1 VIRTUAL TABLE INDEX 5:\n"
+            + "7|0|0| SCAN TABLE kv_default AS _doc USING COVERING INDEX \"names\"\n"
+            + "9|0|0| SCAN TABLE fl_each VIRTUAL TABLE INDEX 1:\n"
+            + "30|0|0| USE TEMP B-TREE FOR GROUP BY\n"
+            + "35|0|0| USE TEMP B-TREE FOR DISTINCT\n"
+            + "\n" + JSON + "\n");
+
+        assertEquals(QueryPlan.ScanType.INDEX_SCAN, plan.getScanType());
+        assertFalse(plan.isFullScan());
+        assertEquals(Arrays.asList("sentence", "names"), plan.getIndexes());
+        assertFalse(plan.usesTempBTreeForOrderBy());
+        assertTrue(plan.usesTempBTreeForGroupBy());
+        assertTrue(plan.usesTempBTreeForDistinct());
+    }
+
+    @Test
+    public void testNoTable() {
+        final QueryPlan plan = QueryPlan.parse("SELECT 1\n\n2|0|0| SCAN CONSTANT ROW\n\n{}\n");
+        assertEquals(QueryPlan.ScanType.NONE, plan.getScanType());
+        assertFalse(plan.isFullScan());
+    }
+}
@@ -17,6 +17,8 @@
 //
 package com.couchbase.lite;
 
+import android.support.annotation.NonNull;
+
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -37,9 +39,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.couchbase.lite.internal.utils.JsonUtils;
 import com.couchbase.lite.utils.Report;
 
 import static com.couchbase.lite.utils.TestUtils.assertThrows;
+import static com.couchbase.lite.utils.TestUtils.assertThrowsCBL;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -2830,6 +2834,220 @@ public class QueryTest extends BaseQueryTest {
         });
     }
 
+    @Test
+    public void testExplainPlan() throws Exception {
+        loadNumberedDocs(100);
+
+        final Query query = QueryBuilder
+            .select(SR_DOCID)
+            .from(DataSource.database(baseTestDb))
+            .where(EXPR_NUMBER1.lessThan(Expression.intValue(10)));
+
+        QueryPlan plan = query.explainPlan();
+        assertTrue(plan.isFullScan());
+        assertTrue(plan.getIndexes().isEmpty());
+
+        baseTestDb.createIndex("num1", IndexBuilder.valueIndex(ValueIndexItem.expression(EXPR_NUMBER1)));
+
+        plan = QueryBuilder
+            .select(SR_DOCID)
+            .from(DataSource.database(baseTestDb))
+            .where(EXPR_NUMBER1.lessThan(Expression.intValue(10)))
+            .explainPlan();
+        assertFalse(plan.isFullScan());
+        assertTrue(plan.usesIndex("num1"));
+    }
+
+    @Test
+    public void testPartialCoveringIndexSpec() {
+        final ValueIndex index = IndexBuilder.valueIndex(ValueIndexItem.expression(EXPR_NUMBER1));
+        assertEquals("[[\".number1\"]]", JsonUtils.toJsonString(index.indexSpec()));
+
+        index.include(ValueIndexItem.expression(EXPR_NUMBER2));
+        assertEquals("[[\".number1\"],[\".number2\"]]", JsonUtils.toJsonString(index.indexSpec()));
+
+        index.where(EXPR_NUMBER2.lessThan(Expression.intValue(50)));
+        assertEquals(
+            "{\"WHAT\":[[\".number1\"],[\".number2\"]],\"WHERE\":[\"<\",[\".number2\"],50]}",
+            JsonUtils.toJsonString(index.indexSpec()));
+    }
+
+    @Test
+    public void testPartialIndex() throws Exception {
+        loadNumberedDocs(100);
+
+        final Expression inIndex = EXPR_NUMBER2.lessThan(Expression.intValue(50));
+        baseTestDb.createIndex(
+            "partial",
+            IndexBuilder.valueIndex(ValueIndexItem.expression(EXPR_NUMBER1))
+                .include(ValueIndexItem.expression(EXPR_NUMBER2))
+                .where(inIndex));
+        assertEquals(Collections.singletonList("partial"), baseTestDb.getIndexes());
+
+        final Query query = QueryBuilder
+            .select(SR_NUMBER1)
+            .from(DataSource.database(baseTestDb))
+            .where(inIndex.and(EXPR_NUMBER1.greaterThan(Expression.intValue(90))));
+        assertTrue(query.explainPlan().usesIndex("partial"));
+        assertEquals(10, verifyQuery(query, (n, result) -> assertTrue(result.getInt(0) > 90)));
+    }
+
+    @Test
+    public void testArrayIndexSpec() {
+        assertEquals(
+            "[[\".likes\"]]",
+            JsonUtils.toJsonString(IndexBuilder.arrayIndex(Expression.property("likes")).indexSpec()));
+        assertEquals(
+            "[[\".items\"],[\".sku\"]]",
+            JsonUtils.toJsonString(
+                IndexBuilder.arrayIndex(Expression.property("items"), ValueIndexItem.property("sku")).indexSpec()));
+    }
+
+    @Test
+    public void testUnnestJSON() {
+        assertEquals(
+            "{\"AS\":\"like\",\"UNNEST\":[\".doc.likes\"]}",
+            JsonUtils.toJsonString(Join.unnest(Expression.property("likes").from("doc"), "like").asJSON()));
+    }
+
+    // Array indexes are used by queries that unnest the indexed array
+    @Test
+    public void testArrayIndex() throws Exception {
+        loadJSONResource("names_100.json");
+
+        baseTestDb.createIndex("likes", IndexBuilder.arrayIndex(Expression.property("likes")));
+        assertEquals(Collections.singletonList("likes"), baseTestDb.getIndexes());
+
+        final Query query = QueryBuilder
+            .select(SelectResult.expression(Meta.id.from("doc")))
+            .from(DataSource.database(baseTestDb).as("doc"))
+            .join(Join.unnest(Expression.property("likes").from("doc"), "like"))
+            .where(Expression.property("like").equalTo(Expression.string("climbing")))
+            .orderBy(Ordering.expression(Meta.id.from("doc")));
+
+        assertTrue(query.explainPlan().usesIndex("likes"));
+
+        final AtomicInteger i = new AtomicInteger(0);
+        final String[] expected = {"doc-017", "doc-021", "doc-023", "doc-045", "doc-060"};
+        final int numRows = verifyQuery(
+            query,
+            false,
+            (n, result) -> assertEquals(expected[i.getAndIncrement()], result.getString(0)));
+        assertEquals(expected.length, numRows);
+    }
+
+    @Test
+    public void testFullScanPolicy() throws Exception {
+        loadNumberedDocs(10);
+
+        final Query query = QueryBuilder
+            .select(SR_DOCID)
+            .from(DataSource.database(baseTestDb))
+            .where(EXPR_NUMBER1.lessThan(Expression.intValue(5)));
+
+        query.setFullScanPolicy(FullScanPolicy.WARN);
+        assertEquals(4, verifyQuery(query, (n, result) -> { }));
+
+        query.setFullScanPolicy(FullScanPolicy.FAIL);
+        assertThrowsCBL(CBLError.Domain.CBLITE, CBLError.Code.INVALID_QUERY, query::execute);
+    }
+
+    // The full scan warning is logged once, even if the plan has already been computed
+    @Test
+    public void testFullScanWarningAfterExplainPlan() throws Exception {
+        loadNumberedDocs(10);
+
+        final Query query = QueryBuilder
+            .select(SR_DOCID)
+            .from(DataSource.database(baseTestDb))
+            .where(EXPR_NUMBER1.lessThan(Expression.intValue(5)));
+        assertTrue(query.explainPlan().isFullScan());
+
+        final AtomicInteger warnings = new AtomicInteger();
+        Database.log.setCustom(new Logger() {
+            @NonNull
+            @Override
+            public LogLevel getLevel() { return LogLevel.WARNING; }
+
+            @Override
+            public void log(@NonNull LogLevel level, @NonNull LogDomain domain, @NonNull String message) {
+                if (message.contains("Query does not use an index")) { warnings.incrementAndGet(); }
+            }
+        });
+        try {
+            query.setFullScanPolicy(FullScanPolicy.WARN);
+            assertEquals(4, verifyQuery(query, (n, result) -> { }));
+            assertEquals(4, verifyQuery(query, (n, result) -> { }));
+        }
+        finally {
+            Database.log.setCustom(null);
+        }
+
+        assertEquals(1, warnings.get());
+    }
+
+    @Test
+    public void testQueryMetrics() throws Exception {
+        loadNumberedDocs(10);
+
+        final Query query = QueryBuilder
+            .select(SR_DOCID)
+            .from(DataSource.database(baseTestDb))
+            .where(EXPR_NUMBER1.lessThan(Expression.parameter("max")));
+
+        QueryMetrics.setEnabled(true);
+        try {
+            final Parameters params = new Parameters();
+            params.setInt("max", 5);
+            query.setParameters(params);
+            assertEquals(4, verifyQuery(query, false, (n, result) -> { }));
+            params.setInt("max", 8);
+            query.setParameters(params);
+            assertEquals(7, verifyQuery(query, false, (n, result) -> { }));
+
+            final QueryStats stats = QueryMetrics.getSnapshot(query);
+            assertNotNull(stats);
+            assertEquals(1, stats.getCompileCount());
+            assertEquals(2, stats.getExecuteCount());
+            assertEquals(11, stats.getRowsReturned());
+        }
+        finally {
+            QueryMetrics.setEnabled(false);
+            QueryMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testStreamedExpressionJSON() {
+        final Expression expr = Expression.property("a").greaterThan(Expression.intValue(3))
+            .and(Expression.property("b").in(Expression.string("x"), Expression.string("y\"z\n")))
+            .or(Function.upper(Expression.property("c")).like(Expression.parameter("p")))
+            .or(Expression.property("d").from("t").between(Expression.doubleValue(1.5), Expression.longValue(5L)))
+            .or(Expression.not(Expression.property("e").notNullOrMissing()))
+            .or(Expression.property("f").isNullOrMissing().collate(Collation.unicode().locale("se")));
+
+        final String expected = JsonUtils.toJsonString(expr.asJSON());
+        assertEquals(expected, JsonUtils.buildJsonString(expr::appendJSON));
+        // and again, from the memoized encodings
+        assertEquals(expected, JsonUtils.buildJsonString(expr::appendJSON));
+    }
+
+    @Test
+    public void testMutableExpressionJSONNotMemoized() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("k", "v1");
+        final Expression immutable = Expression.property("p").equalTo(Expression.string("v1"));
+        final Expression mutable = Expression.property("p").equalTo(Expression.map(map));
+        assertTrue(immutable.isImmutable());
+        assertFalse(mutable.isImmutable());
+
+        final String json1 = JsonUtils.buildJsonString(mutable::appendJSON);
+        map.put("k", "v2");
+        final String json2 = JsonUtils.buildJsonString(mutable::appendJSON);
+        assertTrue(json1.contains("v1"));
+        assertTrue(json2.contains("v2"));
+    }
+
     // ??? This is a ridiculously expensive test
     private void testLiveQueryNoUpdate(final boolean consumeAll) throws Exception {
         loadNumberedDocs(100);
@@ -909,6 +909,37 @@ public class ResultTest extends BaseQueryTest {
         }
     }
 
+    @Test
+    public void testIsNullAndMissing() throws Exception {
+        for (int i = 1; i <= 2; i++) {
+            String docID = prepareData(i);
+            Query query = generateQuery(baseTestDb, docID);
+
+            int rows = verifyQuery(query, false, (n, r) -> {
+                assertEquals(13, r.count());
+
+                assertTrue(r.isNull(0));
+                assertFalse(r.isMissing(0));
+                for (int j = 1; j < 12; j++) {
+                    assertFalse(r.isNull(j));
+                    assertFalse(r.isMissing(j));
+                }
+                assertTrue(r.isNull(12));
+                assertTrue(r.isMissing(12));
+
+                assertTrue(r.isNull("null"));
+                assertFalse(r.isNull("string"));
+                assertTrue(r.isNull("non_existing_key"));
+                assertTrue(r.isNull("not_in_query_select"));
+
+                TestUtils.assertThrows(ArrayIndexOutOfBoundsException.class, () -> r.isNull(-1));
+                TestUtils.assertThrows(ArrayIndexOutOfBoundsException.class, () -> r.isMissing(100));
+            });
+
+            assertEquals(1, rows);
+        }
+    }
+
     // Contributed by Bryan Welter:
     // https://github.com/couchbase/couchbase-lite-android-ce/issues/27
     @Test
@@ -0,0 +1,57 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class ScanOptionsTest {
+    @Test
+    public void testCompareIdsInCodePointOrder() {
+        assertEquals(0, ScanOptions.compareIds("abc", "abc"));
+        assertTrue(ScanOptions.compareIds("ab", "abc") < 0);
+        assertTrue(ScanOptions.compareIds("abd", "abc") > 0);
+
+        // U+FF5E sorts before U+1F600 in UTF-8, though not in UTF-16
+        final String fullwidthTilde = "\uFF5E";
+        final String grinningFace = "\uD83D\uDE00";
+        assertTrue(fullwidthTilde.compareTo(grinningFace) > 0);
+        assertTrue(ScanOptions.compareIds(fullwidthTilde, grinningFace) < 0);
+    }
+
+    @Test
+    public void testPrefixRange() {
+        final ScanOptions opts = new ScanOptions().setPrefix("b");
+        assertTrue(opts.isBeforeRange("a9"));
+        assertFalse(opts.isBeforeRange("b"));
+        assertFalse(opts.isAfterRange("b"));
+        assertFalse(opts.isAfterRange("bzz"));
+        assertTrue(opts.isAfterRange("c"));
+    }
+
+    @Test
+    public void testKeyRange() {
+        final ScanOptions opts = new ScanOptions().setRange("b", "d");
+        assertTrue(opts.isBeforeRange("a"));
+        assertFalse(opts.isBeforeRange("b"));
+        assertFalse(opts.isAfterRange("cz"));
+        assertTrue(opts.isAfterRange("d"));
+    }
+}
@@ -0,0 +1,168 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class TimerWheelTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    private TimerWheel wheel;
+
+    @Before
+    public void setUp() { wheel = new TimerWheel("test-timer", 5, 8); }
+
+    @After
+    public void tearDown() { wheel.stop(); }
+
+    // A delayed task is run, not before its delay has elapsed.
+    @Test
+    public void testDelayedTask() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] elapsed = new long[1];
+
+        final long start = System.currentTimeMillis();
+        wheel.schedule(
+            100,
+            DIRECT,
+            () -> {
+                elapsed[0] = System.currentTimeMillis() - start;
+                latch.countDown();
+            });
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(elapsed[0] >= 100);
+    }
+
+    // A task whose delay is several revolutions of the wheel is not run early
+    @Test
+    public void testMultipleRounds() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] elapsed = new long[1];
+
+        // the wheel makes a revolution every 40ms
+        final long start = System.currentTimeMillis();
+        wheel.schedule(
+            150,
+            DIRECT,
+            () -> {
+                elapsed[0] = System.currentTimeMillis() - start;
+                latch.countDown();
+            });
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(elapsed[0] >= 150);
+    }
+
+    // A cancelled task is not run
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+
+        wheel.schedule(50, DIRECT, runs::incrementAndGet).cancel();
+        assertEquals(0, wheel.getPendingCount());
+
+        Thread.sleep(150);
+
+        assertEquals(0, runs.get());
+    }
+
+    // A task that is scheduled while it is still pending is run only once
+    @Test
+    public void testCoalesce() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Runnable task = () -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        };
+
+        final ExecutionService.Cancellable timer1 = wheel.schedule(50, DIRECT, task);
+        final ExecutionService.Cancellable timer2 = wheel.schedule(60, DIRECT, task);
+        assertSame(timer1, timer2);
+
+        // a different executor is a different task
+        final ExecutionService.Cancellable timer3 = wheel.schedule(60, r -> { }, task);
+        assertNotSame(timer1, timer3);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        assertEquals(1, runs.get());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    // Rescheduling a pending task with a shorter delay moves it earlier
+    @Test
+    public void testCoalesceKeepsEarlierDeadline() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Runnable task = () -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        };
+
+        final ExecutionService.Cancellable timer1 = wheel.schedule(5000, DIRECT, task);
+        final ExecutionService.Cancellable timer2 = wheel.schedule(50, DIRECT, task);
+        assertNotSame(timer1, timer2);
+        assertEquals(1, wheel.getPendingCount());
+
+        // ... but not later
+        assertSame(timer2, wheel.schedule(5000, DIRECT, task));
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    // The wheel thread parks when there are no timers, and wakes when one is scheduled
+    @Test
+    public void testIdleWheelParks() throws InterruptedException {
+        final CountDownLatch latch1 = new CountDownLatch(1);
+        wheel.schedule(20, DIRECT, latch1::countDown);
+        assertTrue(latch1.await(1, TimeUnit.SECONDS));
+
+        for (int i = 0; (i < 100) && !wheel.isIdle(); i++) { Thread.sleep(10); }
+        assertTrue(wheel.isIdle());
+
+        final CountDownLatch latch2 = new CountDownLatch(1);
+        final long start = System.currentTimeMillis();
+        wheel.schedule(20, DIRECT, latch2::countDown);
+        assertTrue(latch2.await(1, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 20);
+    }
+
+    // A task with no delay is executed immediately
+    @Test
+    public void testNoDelay() {
+        final AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(0, DIRECT, runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+}
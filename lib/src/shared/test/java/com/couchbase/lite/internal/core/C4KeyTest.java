@@ -0,0 +1,83 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal.core;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.couchbase.lite.CBLError;
+import com.couchbase.lite.CouchbaseLiteException;
+
+import static com.couchbase.lite.utils.TestUtils.assertThrowsCBL;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+
+public class C4KeyTest {
+    @After
+    public void tearDown() { C4Key.clearKeyCache(); }
+
+    @Test
+    public void testPreloadedKey() throws CouchbaseLiteException {
+        final byte[] key = newKey((byte) 7);
+        C4Key.preloadPbkdf2Key("sekrit", key);
+        assertEquals(1, C4Key.getCachedKeyCount());
+
+        // The cached key is returned without deriving it: as a copy, that the caller may safely wipe.
+        final byte[] key1 = C4Key.getPbkdf2Key("sekrit");
+        assertArrayEquals(key, key1);
+        Arrays.fill(key1, (byte) 0);
+
+        final byte[] key2 = C4Key.getPbkdf2Key("sekrit");
+        assertNotSame(key1, key2);
+        assertArrayEquals(key, key2);
+    }
+
+    @Test
+    public void testKeyCacheEviction() throws CouchbaseLiteException {
+        for (int i = 0; i < C4Key.MAX_CACHED_KEYS + 5; i++) { C4Key.preloadPbkdf2Key("pw" + i, newKey((byte) i)); }
+        assertEquals(C4Key.MAX_CACHED_KEYS, C4Key.getCachedKeyCount());
+
+        // The most recent keys survive
+        final int last = C4Key.MAX_CACHED_KEYS + 4;
+        assertArrayEquals(newKey((byte) last), C4Key.getPbkdf2Key("pw" + last));
+
+        C4Key.clearKeyCache();
+        assertEquals(0, C4Key.getCachedKeyCount());
+    }
+
+    @Test
+    public void testInvalidRawKey() {
+        assertThrowsCBL(
+            CBLError.Domain.CBLITE,
+            CBLError.Code.INVALID_PARAMETER,
+            () -> C4Key.getRawKey(new byte[16]));
+        assertThrowsCBL(
+            CBLError.Domain.CBLITE,
+            CBLError.Code.INVALID_PARAMETER,
+            () -> C4Key.preloadPbkdf2Key("sekrit", new byte[33]));
+        assertEquals(0, C4Key.getCachedKeyCount());
+    }
+
+    private byte[] newKey(byte fill) {
+        final byte[] key = new byte[C4Constants.EncryptionKeySize.AES256];
+        Arrays.fill(key, fill);
+        return key;
+    }
+}
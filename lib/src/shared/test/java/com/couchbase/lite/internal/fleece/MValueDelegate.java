@@ -21,8 +21,6 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 
 @VisibleForTesting
 public class MValueDelegate implements MValue.Delegate {
@@ -32,15 +30,13 @@ public class MValueDelegate implements MValue.Delegate {
     //-------------------------------------------------------------------------
     @Nullable
     @Override
-    public Object toNative(@NonNull MValue mv, @Nullable MCollection parent, @NonNull AtomicBoolean cacheIt) {
+    public Object toNative(@NonNull MValue mv, @Nullable MCollection parent) {
         FLValue value = mv.getValue();
         int type = value.getType();
         switch (type) {
             case FLConstants.ValueType.ARRAY:
-                cacheIt.set(true);
                 return new FleeceArray(mv, parent);
             case FLConstants.ValueType.DICT:
-                cacheIt.set(true);
                 return new FleeceDict(mv, parent);
             default:
                 return value.asObject();
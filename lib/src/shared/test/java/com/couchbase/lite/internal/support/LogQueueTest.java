@@ -0,0 +1,132 @@
+//
+// Copyright (c) 2020 Couchbase, Inc All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+package com.couchbase.lite.internal.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.couchbase.lite.LogDomain;
+import com.couchbase.lite.LogLevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class LogQueueTest {
+    // Messages from a single thread are delivered in order, on the drain thread
+    @Test
+    public void testDeliveryOrder() throws InterruptedException {
+        final int n = 1000;
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(n);
+        final Thread[] drainThread = new Thread[1];
+
+        // big enough that nothing is dropped
+        final LogQueue queue = new LogQueue(
+            2 * n,
+            (level, domain, msg, fromCore) -> {
+                drainThread[0] = Thread.currentThread();
+                delivered.add(msg);
+                latch.countDown();
+            });
+
+        for (int i = 0; i < n; i++) {
+            assertTrue(queue.offer(LogLevel.INFO, LogDomain.DATABASE, String.valueOf(i), false));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(queue.stop(1, TimeUnit.SECONDS));
+
+        assertEquals(0, queue.getDroppedCount());
+        for (int i = 0; i < n; i++) { assertEquals(String.valueOf(i), delivered.get(i)); }
+        assertFalse(Thread.currentThread() == drainThread[0]);
+    }
+
+    // When the queue is full, messages are dropped and counted
+    @Test
+    public void testDrop() throws InterruptedException {
+        final CountDownLatch block = new CountDownLatch(1);
+        final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        final LogQueue queue = new LogQueue(
+            4,
+            (level, domain, msg, fromCore) -> {
+                try { block.await(5, TimeUnit.SECONDS); }
+                catch (InterruptedException ignore) { }
+                delivered.add(msg);
+            });
+
+        // the first message may be held by the blocked drain thread: at most 5 can be accepted.
+        for (int i = 0; i < 10; i++) { assertTrue(queue.offer(LogLevel.INFO, LogDomain.DATABASE, "msg", false)); }
+
+        final long dropped = queue.getDroppedCount();
+        assertTrue(dropped >= 5);
+
+        block.countDown();
+        assertTrue(queue.stop(5, TimeUnit.SECONDS));
+
+        // the delivered messages, plus the overflow warning
+        assertEquals(10 - dropped + 1, delivered.size());
+    }
+
+    // Every message accepted while the queue is stopping is delivered
+    @Test
+    public void testStopWhileOffering() throws InterruptedException {
+        final int nThreads = 4;
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger delivered = new AtomicInteger();
+
+        // big enough that nothing is dropped
+        final LogQueue queue = new LogQueue(
+            1 << 20,
+            (level, domain, msg, fromCore) -> delivered.incrementAndGet());
+
+        final CountDownLatch started = new CountDownLatch(nThreads);
+        final Thread[] producers = new Thread[nThreads];
+        for (int i = 0; i < nThreads; i++) {
+            producers[i] = new Thread(() -> {
+                started.countDown();
+                for (int j = 0; j < 100000; j++) {
+                    if (!queue.offer(LogLevel.INFO, LogDomain.DATABASE, "msg", false)) { return; }
+                    accepted.incrementAndGet();
+                }
+            });
+            producers[i].start();
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(queue.stop(5, TimeUnit.SECONDS));
+        for (Thread producer: producers) { producer.join(); }
+
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(accepted.get(), delivered.get());
+    }
+
+    // A stopped queue refuses messages
+    @Test
+    public void testStop() {
+        final LogQueue queue = new LogQueue(4, (level, domain, msg, fromCore) -> { });
+        assertTrue(queue.stop(1, TimeUnit.SECONDS));
+        assertFalse(queue.offer(LogLevel.INFO, LogDomain.DATABASE, "msg", false));
+    }
+}